@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simplenlgde.framework.NLGFactory;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.NPPhraseSpec;
+
+/**
+ * Benchmarks of {@link NLGFactory#createNounPhrase(Object)} for a noun with
+ * an article and for word group lexemes, whose words are looked up one by
+ * one (see <code>NounInflectionTest</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmark {
+
+    private NLGFactory nlgFactory;
+
+    @Setup
+    public void setup() {
+        this.nlgFactory = new NLGFactory(Lexicon.getDefaultLexicon());
+    }
+
+    @Benchmark
+    public NPPhraseSpec createNounPhrase() {
+        return this.nlgFactory.createNounPhrase("der Hund");
+    }
+
+    @Benchmark
+    public NPPhraseSpec createWordGroupNounPhrase() {
+        return this.nlgFactory.createNounPhrase("die Russische Föderation");
+    }
+
+    @Benchmark
+    public NPPhraseSpec createLongWordGroupNounPhrase() {
+        return this.nlgFactory.createNounPhrase("die vereinigten arabischen emirate");
+    }
+}
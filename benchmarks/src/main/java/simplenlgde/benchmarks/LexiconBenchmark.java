@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.lexicon.XMLLexicon;
+
+/**
+ * Benchmarks of loading the default lexicon and of looking up words which
+ * are in the lexicon (hit) and which are not (miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexiconBenchmark {
+
+    private static final String[] NOUNS = {"Hund", "Frau", "Auto", "Haus", "Katze", "Sonne", "Spiel", "Fahrrad"};
+    private static final String[] VERBS = {"laufen", "scheinen", "verlieren", "regnen", "sein", "abschließen"};
+
+    private Lexicon lexicon;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    /**
+     * loads and indexes the default lexicon
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public Lexicon loadLexicon() {
+        return new XMLLexicon();
+    }
+
+    @Benchmark
+    public WordElement lookupNounHit() {
+        return this.lexicon.lookupWord(NOUNS[this.next++ & 7], LexicalCategory.NOUN);
+    }
+
+    @Benchmark
+    public WordElement lookupVerbHit() {
+        return this.lexicon.lookupWord(VERBS[this.next++ % VERBS.length], LexicalCategory.VERB);
+    }
+
+    /**
+     * looks up words which are not in the lexicon. Every word is new, so it
+     * is created rather than found among the learned words.
+     */
+    @Benchmark
+    public WordElement lookupMiss() {
+        return this.lexicon.lookupWord("Quastenflosser" + this.next++, LexicalCategory.NOUN);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simplenlgde.features.DiscourseFunction;
+import simplenlgde.features.Feature;
+import simplenlgde.features.Gender;
+import simplenlgde.features.InternalFeature;
+import simplenlgde.features.LexicalFeature;
+import simplenlgde.features.NumberAgreement;
+import simplenlgde.features.Person;
+import simplenlgde.features.Tense;
+import simplenlgde.framework.InflectedWordElement;
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.morphology.InflectionStatus;
+import simplenlgde.morphology.MorphologyProcessor;
+
+/**
+ * Benchmarks of the inflection of single words by the rules of
+ * <code>MorphologyRules</code>, through
+ * {@link MorphologyProcessor#inflect(InflectedWordElement, StringBuilder)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MorphologyBenchmark {
+
+    private MorphologyProcessor morphology;
+    private InflectedWordElement noun;
+    private InflectedWordElement verb;
+    private InflectedWordElement pastVerb;
+    private InflectedWordElement adjective;
+    private InflectedWordElement article;
+    private final StringBuilder buffer = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        Lexicon lexicon = Lexicon.getDefaultLexicon();
+        this.morphology = new MorphologyProcessor();
+        this.morphology.setLexicon(lexicon);
+
+        this.noun = word(lexicon, "Hund", LexicalCategory.NOUN);
+        this.noun.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        this.noun.setFeature(InternalFeature.CASE, DiscourseFunction.INDIRECT_OBJECT);
+
+        this.verb = word(lexicon, "laufen", LexicalCategory.VERB);
+        this.verb.setFeature(Feature.PERSON, Person.THIRD);
+        this.verb.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+
+        this.pastVerb = word(lexicon, "verlieren", LexicalCategory.VERB);
+        this.pastVerb.setFeature(Feature.PERSON, Person.SECOND);
+        this.pastVerb.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        this.pastVerb.setFeature(Feature.TENSE, Tense.PAST);
+
+        this.adjective = word(lexicon, "schwer", LexicalCategory.ADJECTIVE);
+        this.adjective.setFeature(LexicalFeature.GENDER, Gender.FEMININE);
+        this.adjective.setFeature(Feature.IS_COMPARATIVE, true);
+
+        this.article = word(lexicon, "der", LexicalCategory.ARTICLE_DEFINITE);
+        this.article.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+        this.article.setFeature(LexicalFeature.GENDER, Gender.MASCULINE);
+        this.article.setFeature(InternalFeature.CASE, DiscourseFunction.GENITIVE);
+    }
+
+    private static InflectedWordElement word(Lexicon lexicon, String baseForm, LexicalCategory category) {
+        InflectedWordElement word = new InflectedWordElement(lexicon.lookupWord(baseForm, category));
+        word.setFeature(InternalFeature.CASE, DiscourseFunction.SUBJECT);
+        return word;
+    }
+
+    private InflectionStatus inflect(InflectedWordElement word) {
+        this.buffer.setLength(0);
+        return this.morphology.inflect(word, this.buffer);
+    }
+
+    @Benchmark
+    public InflectionStatus inflectNoun() {
+        return inflect(this.noun);
+    }
+
+    @Benchmark
+    public InflectionStatus inflectVerb() {
+        return inflect(this.verb);
+    }
+
+    @Benchmark
+    public InflectionStatus inflectPastVerb() {
+        return inflect(this.pastVerb);
+    }
+
+    @Benchmark
+    public InflectionStatus inflectAdjective() {
+        return inflect(this.adjective);
+    }
+
+    @Benchmark
+    public InflectionStatus inflectArticle() {
+        return inflect(this.article);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simplenlgde.features.Feature;
+import simplenlgde.features.InterrogativeType;
+import simplenlgde.features.NumberAgreement;
+import simplenlgde.framework.CoordinatedPhraseElement;
+import simplenlgde.framework.NLGFactory;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.NPPhraseSpec;
+import simplenlgde.phrasespec.PPPhraseSpec;
+import simplenlgde.phrasespec.SPhraseSpec;
+import simplenlgde.phrasespec.VPPhraseSpec;
+import simplenlgde.realiser.RealisationEngine;
+import simplenlgde.realiser.Realiser;
+
+/**
+ * End-to-end benchmarks of {@link Realiser#realiseSentence} for the kinds of
+ * sentences of <code>RealiserTest</code>, <code>SubordinateClausesTest</code>,
+ * <code>QuestionTest</code> and <code>SaToSTest</code>. Every invocation
+ * builds the sentence with the factory, as an application would; the cost
+ * of the factory alone is measured by {@link FactoryBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealisationBenchmark {
+
+    @Param({"STAGED", "FUSED"})
+    public RealisationEngine engine;
+
+    private NLGFactory nlgFactory;
+    private Realiser realiser;
+
+    @Setup
+    public void setup() {
+        Lexicon lexicon = Lexicon.getDefaultLexicon();
+        this.nlgFactory = new NLGFactory(lexicon);
+        this.realiser = new Realiser(lexicon);
+        this.realiser.setEngine(this.engine);
+    }
+
+    private SPhraseSpec clause(String subject, String verb, String object) {
+        SPhraseSpec clause = this.nlgFactory.createClause();
+        clause.setSubject(this.nlgFactory.createNounPhrase(subject));
+        clause.setVerb(this.nlgFactory.createVerbPhrase(verb));
+        if(object != null) {
+            clause.setObject(this.nlgFactory.createNounPhrase(object));
+        }
+        return clause;
+    }
+
+    @Benchmark
+    public String mainClause() {
+        return this.realiser.realiseSentence(clause("Klaus", "verlieren", "das Spiel"));
+    }
+
+    @Benchmark
+    public String subordinateClause() {
+        SPhraseSpec sentence = clause("die sonne", "scheinen", null);
+        SPhraseSpec subordinate = clause("es", "regnen", null);
+        subordinate.setFeature(Feature.COMPLEMENTISER, "während");
+        sentence.addComplement(subordinate);
+        return this.realiser.realiseSentence(sentence);
+    }
+
+    @Benchmark
+    public String passive() {
+        SPhraseSpec sentence = this.nlgFactory.createClause();
+        sentence.setSubject(this.nlgFactory.createNounPhrase("sie"));
+        VPPhraseSpec verb = this.nlgFactory.createVerbPhrase("kaufen");
+        verb.setFeature(Feature.PASSIVE, true);
+        sentence.setVerb(verb);
+        return this.realiser.realiseSentence(sentence);
+    }
+
+    @Benchmark
+    public String yesNoQuestion() {
+        SPhraseSpec sentence = clause("Klaus", "verlieren", "das Spiel");
+        sentence.setFeature(Feature.INTERROGATIVE_TYPE, InterrogativeType.YES_NO);
+        return this.realiser.realiseSentence(sentence);
+    }
+
+    @Benchmark
+    public String whQuestion() {
+        SPhraseSpec sentence = clause("Klaus", "verlieren", "das Spiel");
+        sentence.setFeature(Feature.INTERROGATIVE_TYPE, InterrogativeType.WHAT_OBJECT);
+        return this.realiser.realiseSentence(sentence);
+    }
+
+    @Benchmark
+    public String coordination() {
+        SPhraseSpec sentence = this.nlgFactory.createClause();
+        CoordinatedPhraseElement subject = this.nlgFactory.createCoordinatedPhrase();
+        for(String noun : new String[]{"aktie", "rentenpapier", "genussschein"}) {
+            NPPhraseSpec coordinate = this.nlgFactory.createNounPhrase(noun);
+            coordinate.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+            subject.addCoordinate(coordinate);
+        }
+        sentence.setSubject(subject);
+        sentence.setVerb(this.nlgFactory.createVerbPhrase("sein"));
+        sentence.addComplement("verfügbar");
+        return this.realiser.realiseSentence(sentence);
+    }
+
+    @Benchmark
+    public String coordinatedPrepositionalPhrase() {
+        SPhraseSpec sentence = this.nlgFactory.createClause();
+        NPPhraseSpec subject = this.nlgFactory.createNounPhrase("Kündigung");
+        subject.setPlural(true);
+        VPPhraseSpec verb = this.nlgFactory.createVerbPhrase("sein");
+        verb.addModifier("zulässig");
+        PPPhraseSpec pp = this.nlgFactory.createPrepositionPhrase();
+        pp.setPreposition("per");
+        CoordinatedPhraseElement coordinated = this.nlgFactory.createCoordinatedPhrase(
+                this.nlgFactory.createNounPhrase("Brief"), this.nlgFactory.createNounPhrase("E-Mail"));
+        coordinated.addCoordinate(this.nlgFactory.createNounPhrase("Fax"));
+        pp.addComplement(coordinated);
+        sentence.setSubject(subject);
+        sentence.setVerb(verb);
+        sentence.addComplement(pp);
+        return this.realiser.realiseSentence(sentence);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.SPhraseSpec;
+import simplenlgde.serialisation.BinarySpecReader;
+import simplenlgde.serialisation.BinarySpecWriter;
+import simplenlgde.serialisation.JsonSpecReader;
+import simplenlgde.serialisation.JsonSpecWriter;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+/**
+ * Benchmarks of encoding and restoring the sentences of a
+ * {@link WorkloadGenerator} as JSON, one text per sentence, and as one
+ * binary stream. The sizes of both encodings are printed by the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerialisationBenchmark {
+
+    private static final int SENTENCES = 256;
+
+    private Lexicon lexicon;
+    private SPhraseSpec[] sentences;
+    private JsonSpecWriter jsonWriter;
+    private JsonSpecReader jsonReader;
+    private String[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        this.lexicon = Lexicon.getDefaultLexicon();
+        WorkloadGenerator generator = new WorkloadGenerator(this.lexicon, WorkloadProfile.DEFAULT, 1);
+        this.sentences = new SPhraseSpec[SENTENCES];
+        for(int i = 0; i < SENTENCES; i++) {
+            this.sentences[i] = generator.generate(i);
+        }
+        this.jsonWriter = new JsonSpecWriter(this.lexicon);
+        this.jsonReader = new JsonSpecReader(this.lexicon);
+        this.json = writeJson();
+        this.binary = writeBinary();
+        long jsonBytes = 0;
+        for(String text : this.json) {
+            jsonBytes += text.getBytes("UTF-8").length;
+        }
+        System.out.printf("%n%d sentences: JSON %d bytes, binary %d bytes%n", SENTENCES, jsonBytes,
+                this.binary.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public String[] writeJson() {
+        String[] texts = new String[SENTENCES];
+        for(int i = 0; i < SENTENCES; i++) {
+            texts[i] = this.jsonWriter.toJson(this.sentences[i]);
+        }
+        return texts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public NLGElement readJson() {
+        NLGElement last = null;
+        for(String text : this.json) {
+            last = this.jsonReader.read(text);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public byte[] writeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(SENTENCES * 256);
+        BinarySpecWriter writer = new BinarySpecWriter(out, this.lexicon);
+        for(SPhraseSpec sentence : this.sentences) {
+            writer.write(sentence);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SENTENCES)
+    public NLGElement readBinary() throws IOException {
+        BinarySpecReader reader = new BinarySpecReader(new ByteArrayInputStream(this.binary), this.lexicon);
+        NLGElement last = null;
+        for(NLGElement element = reader.read(); element != null; element = reader.read()) {
+            last = element;
+        }
+        return last;
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.bulk;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import simplenlgde.framework.DocumentCategory;
+import simplenlgde.framework.DocumentElement;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.lexicon.XMLLexicon;
+import simplenlgde.realiser.Histogram;
+import simplenlgde.realiser.RealisationCallback;
+import simplenlgde.realiser.RealisationEngine;
+import simplenlgde.realiser.RealisationRecorder;
+import simplenlgde.realiser.RealisationResult;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+import simplenlgde.serialisation.Json;
+
+/**
+ * <p>
+ * Realises a stream of spec trees, e.g. a {@link SpecStream}, and writes one
+ * line per tree in the order of the input: the realised text, or a JSON
+ * object with the number of the tree and its realisation or exception. The
+ * trees are realised with
+ * {@link Realiser#realiseBatch(Iterator, Executor, int, RealisationCallback)}
+ * on a number of threads sharing one realiser, with a bounded number of
+ * trees in flight, so streams of any length are realised in bounded memory.
+ * A tree which cannot be realised does not abort the stream, it is counted
+ * in the {@link BulkReport} and written as an empty line.
+ * </p>
+ *
+ * <p>
+ * The bulk realiser can be run from the command line. It reads the files,
+ * or standard input, in either encoding of {@link SpecStream}, writes the
+ * realisations to standard output or a file and the progress and the
+ * report to standard error:
+ * </p>
+ *
+ * <pre>
+ * java simplenlgde.bulk.BulkRealiser [-threads n] [-inflight n] [-engine staged|fused] [-lexicon file]
+ *     [-sentences] [-json] [-progress seconds] [-output file] [file...]
+ * </pre>
+ */
+public class BulkRealiser {
+
+    /** default number of seconds between progress reports */
+    public static final int DEFAULT_PROGRESS_INTERVAL = 10;
+
+    private final RealiserConfig config;
+    private int threads = 1;
+    private int maxInFlight;
+    private boolean sentences;
+    private boolean jsonOutput;
+    private PrintStream progress;
+    private long progressInterval = TimeUnit.SECONDS.toNanos(DEFAULT_PROGRESS_INTERVAL);
+
+    /**
+     * create a bulk realiser
+     *
+     * @param config
+     *            - the configuration of the realiser
+     */
+    public BulkRealiser(RealiserConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @return the number of threads which realise
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * @param threads
+     *            - the number of threads which realise, 1 to realise on the
+     *            calling thread
+     */
+    public void setThreads(int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @return the maximum number of trees being realised or waiting to be
+     *         written, by default four per thread
+     */
+    public int getMaxInFlight() {
+        return this.maxInFlight > 0 ? this.maxInFlight : this.threads * 4;
+    }
+
+    /**
+     * @param maxInFlight
+     *            - the maximum number of trees being realised or waiting to
+     *            be written, 0 for four per thread
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if(maxInFlight < 0) {
+            throw new IllegalArgumentException("maxInFlight must not be negative: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @return whether every tree is realised as a sentence
+     */
+    public boolean isSentences() {
+        return this.sentences;
+    }
+
+    /**
+     * @param sentences
+     *            - whether every tree which is not a document element is
+     *            realised as a sentence, as by
+     *            {@link Realiser#realiseSentence(NLGElement)}
+     */
+    public void setSentences(boolean sentences) {
+        this.sentences = sentences;
+    }
+
+    /**
+     * @return whether the output is JSON
+     */
+    public boolean isJsonOutput() {
+        return this.jsonOutput;
+    }
+
+    /**
+     * @param jsonOutput
+     *            - whether every tree is written as a JSON object,
+     *            <code>{"index":n,"realisation":text}</code> or
+     *            <code>{"index":n,"error":exception}</code>, rather than as
+     *            its text on one line
+     */
+    public void setJsonOutput(boolean jsonOutput) {
+        this.jsonOutput = jsonOutput;
+    }
+
+    /**
+     * reports the progress while realising
+     *
+     * @param progress
+     *            - where the progress is printed, <code>null</code> for none
+     * @param seconds
+     *            - the number of seconds between reports
+     */
+    public void setProgress(PrintStream progress, int seconds) {
+        this.progress = progress;
+        this.progressInterval = TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    /**
+     * realises a stream of trees
+     *
+     * @param specs
+     *            - the trees, used by the calling thread only. An
+     *            <code>IllegalStateException</code> caused by an
+     *            <code>IOException</code>, as thrown by {@link SpecStream},
+     *            is rethrown as that exception.
+     * @param out
+     *            - where the realisations are written, flushed but not closed
+     * @return the report
+     * @throws IOException
+     *             if the input cannot be read or the output cannot be
+     *             written
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    public BulkReport realise(Iterator<? extends NLGElement> specs, Writer out)
+            throws IOException, InterruptedException {
+        Realiser realiser = new Realiser(this.config);
+        BulkReport report = new BulkReport(this.threads);
+        realiser.setRecorder(new LatencyRecorder(report.getLatency()));
+        Iterator<? extends NLGElement> elements = this.sentences ? new Sentences(specs) : specs;
+        long start = System.nanoTime();
+        ExecutorService pool = this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads);
+        try {
+            realiser.realiseBatch(elements, pool == null ? new CallerExecutor() : pool, getMaxInFlight(),
+                    new Output(out, report, start));
+        } catch(IllegalStateException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            if(pool != null) {
+                pool.shutdownNow();
+            }
+        }
+        out.flush();
+        report.setNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * @return the text on one line
+     */
+    private static String oneLine(String text) {
+        return text.trim().replaceAll("\\s*[\\r\\n]+\\s*", " ");
+    }
+
+    /**
+     * Writes the results in the order of the input and reports the progress.
+     */
+    private class Output implements RealisationCallback {
+        private final Writer out;
+        private final BulkReport report;
+        private final long start;
+        private final StringBuilder line = new StringBuilder(256);
+        private long nextProgress;
+
+        Output(Writer out, BulkReport report, long start) {
+            this.out = out;
+            this.report = report;
+            this.start = start;
+            this.nextProgress = start + progressInterval;
+        }
+
+        @Override
+        public void realised(RealisationResult result) {
+            this.report.add(result.getError());
+            this.line.setLength(0);
+            String text = result.getRealisation();
+            if(jsonOutput) {
+                this.line.append("{\"index\":").append(this.report.getRealisations() - 1);
+                if(result.getError() != null) {
+                    this.line.append(",\"error\":");
+                    Json.quote(result.getError().toString(), this.line);
+                } else if(text != null) {
+                    this.line.append(",\"realisation\":");
+                    Json.quote(text, this.line);
+                }
+                this.line.append('}');
+            } else if(text != null) {
+                this.line.append(oneLine(text));
+            }
+            this.line.append('\n');
+            try {
+                this.out.append(this.line);
+            } catch(IOException e) {
+                // ends the batch, rethrown by realise
+                throw new IllegalStateException(e);
+            }
+            if(progress != null) {
+                long now = System.nanoTime();
+                if(now - this.nextProgress >= 0) {
+                    this.nextProgress = now + progressInterval;
+                    progress.printf("%d realised, %d errors, %.0f realisations/s%n", this.report.getRealisations(),
+                            this.report.getErrors(), this.report.getRealisations() * 1e9 / (now - this.start));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the latency of every realisation.
+     */
+    private static class LatencyRecorder implements RealisationRecorder {
+        private final Histogram latency;
+
+        LatencyRecorder(Histogram latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Object realising(NLGElement element, boolean sentence, Lexicon lexicon) {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public void realised(Object record, String realisation, RuntimeException error, long nanos) {
+            this.latency.record(nanos);
+        }
+    }
+
+    /**
+     * Runs the realisations on the calling thread.
+     */
+    private static class CallerExecutor implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+
+    /**
+     * Puts every tree which is not a document element in a sentence, as
+     * {@link Realiser#realiseSentence(NLGElement)} does.
+     */
+    private static class Sentences implements Iterator<NLGElement> {
+        private final Iterator<? extends NLGElement> specs;
+
+        Sentences(Iterator<? extends NLGElement> specs) {
+            this.specs = specs;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.specs.hasNext();
+        }
+
+        @Override
+        public NLGElement next() {
+            NLGElement element = this.specs.next();
+            if(element instanceof DocumentElement) {
+                return element;
+            }
+            DocumentElement sentence = new DocumentElement(DocumentCategory.SENTENCE, null);
+            sentence.addComponent(element);
+            return sentence;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The trees of several files, read one file after the other; "-" is
+     * standard input.
+     */
+    private static class Inputs implements Iterator<NLGElement>, Closeable {
+        private final List<String> names;
+        private final Lexicon lexicon;
+        private SpecStream current;
+        private int next;
+
+        Inputs(List<String> names, Lexicon lexicon) {
+            this.names = names;
+            this.lexicon = lexicon;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while(this.current == null || !this.current.hasNext()) {
+                    close();
+                    if(this.next == this.names.size()) {
+                        return false;
+                    }
+                    String name = this.names.get(this.next++);
+                    this.current = new SpecStream(name.equals("-") ? System.in : new FileInputStream(name),
+                            this.lexicon);
+                }
+            } catch(IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return true;
+        }
+
+        @Override
+        public NLGElement next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.current.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(this.current != null) {
+                SpecStream stream = this.current;
+                this.current = null;
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * realises spec trees from the command line and prints the report
+     *
+     * @param args
+     *            - the options and the input files, see above
+     * @throws Exception
+     *             if an input cannot be read or the output cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = 1;
+        int maxInFlight = 0;
+        int progressInterval = DEFAULT_PROGRESS_INTERVAL;
+        boolean sentences = false;
+        boolean json = false;
+        String output = null;
+        RealisationEngine engine = RealisationEngine.getDefault();
+        Lexicon lexicon = null;
+        List<String> inputs = new ArrayList<String>();
+        for(int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if(option.equals("-sentences")) {
+                sentences = true;
+            } else if(option.equals("-json")) {
+                json = true;
+            } else if(!option.startsWith("-") || option.equals("-")) {
+                inputs.add(option);
+            } else if(i + 1 >= args.length) {
+                usage();
+                return;
+            } else if(option.equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if(option.equals("-inflight")) {
+                maxInFlight = Integer.parseInt(args[++i]);
+            } else if(option.equals("-engine")) {
+                engine = RealisationEngine.valueOf(args[++i].toUpperCase());
+            } else if(option.equals("-lexicon")) {
+                lexicon = new XMLLexicon(args[++i]);
+            } else if(option.equals("-progress")) {
+                progressInterval = Integer.parseInt(args[++i]);
+            } else if(option.equals("-output")) {
+                output = args[++i];
+            } else {
+                usage();
+                return;
+            }
+        }
+        if(inputs.isEmpty()) {
+            inputs.add("-");
+        }
+        if(lexicon == null) {
+            lexicon = Lexicon.getDefaultLexicon();
+        }
+        BulkRealiser bulk = new BulkRealiser(RealiserConfig.DEFAULT.withLexicon(lexicon).withEngine(engine));
+        bulk.setThreads(threads);
+        bulk.setMaxInFlight(maxInFlight);
+        bulk.setSentences(sentences);
+        bulk.setJsonOutput(json);
+        bulk.setProgress(progressInterval > 0 ? System.err : null, progressInterval);
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                output == null ? System.out : new FileOutputStream(output), StandardCharsets.UTF_8), 1 << 16);
+        Inputs specs = new Inputs(inputs, lexicon);
+        try {
+            System.err.print(bulk.realise(specs, out));
+        } finally {
+            specs.close();
+            out.close();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: BulkRealiser [-threads n] [-inflight n] [-engine staged|fused] [-lexicon file]"
+                + " [-sentences] [-json] [-progress seconds] [-output file] [file...]");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.bulk;
+
+import simplenlgde.realiser.Histogram;
+
+/**
+ * The result of realising a stream of spec trees with a
+ * {@link BulkRealiser}: the number of realisations and errors, the
+ * throughput and the latencies of the realisations.
+ */
+public class BulkReport {
+
+    private final int threads;
+    private final Histogram latency = new Histogram("bulk.latency");
+    private long realisations;
+    private long errors;
+    private String firstError;
+    private long nanos;
+
+    BulkReport(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * counts a realisation, called in the order of the input
+     */
+    void add(RuntimeException error) {
+        this.realisations++;
+        if(error != null) {
+            if(this.errors++ == 0) {
+                this.firstError = "#" + (this.realisations - 1) + ": " + error;
+            }
+        }
+    }
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of threads which realised
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * @return the number of trees realised, including those which failed
+     */
+    public long getRealisations() {
+        return this.realisations;
+    }
+
+    /**
+     * @return the number of trees whose realisation threw an exception
+     */
+    public long getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * @return the number and exception of the first tree which failed, or
+     *         <code>null</code>
+     */
+    public String getFirstError() {
+        return this.firstError;
+    }
+
+    /**
+     * @return the duration in nanoseconds, including reading the input and
+     *         writing the output
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return the number of realisations per second
+     */
+    public double getThroughput() {
+        return this.nanos == 0 ? 0 : this.realisations * 1e9 / this.nanos;
+    }
+
+    /**
+     * @return the latencies of the realisations in nanoseconds
+     */
+    public Histogram getLatency() {
+        return this.latency;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d realisations on %d threads in %.1f ms, %.0f realisations/s%n",
+                this.realisations, this.threads, this.nanos / 1e6, getThroughput()));
+        report.append(String.format("latency us   p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                this.latency.getP50() / 1e3, this.latency.getP90() / 1e3, this.latency.getP99() / 1e3,
+                this.latency.getP999() / 1e3, this.latency.getMax() / 1e3));
+        report.append(String.format("%d errors%n", this.errors));
+        if(this.firstError != null) {
+            report.append("first error ").append(this.firstError).append(String.format("%n"));
+        }
+        return report.toString();
+    }
+}
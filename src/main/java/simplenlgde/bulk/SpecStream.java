@@ -0,0 +1,159 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.bulk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.serialisation.BinarySpecReader;
+import simplenlgde.serialisation.Json;
+import simplenlgde.serialisation.JsonSpecReader;
+
+/**
+ * <p>
+ * Reads the spec trees of a stream, one at a time, in either encoding: a
+ * stream which starts with the header of {@link BinarySpecReader} is read
+ * as binary, any other as JSON lines with one tree per line, as written by
+ * {@link simplenlgde.serialisation.JsonSpecWriter}. A line may also be a
+ * record of a realisation log, whose <code>spec</code> is read; the header
+ * lines of logs and empty lines are skipped.
+ * </p>
+ */
+public class SpecStream implements Iterator<NLGElement>, Closeable {
+
+    private final BinarySpecReader binary;
+    private final BufferedReader lines;
+    private final JsonSpecReader json;
+    private NLGElement next;
+    private long line;
+
+    /**
+     * create a stream and detect its encoding
+     *
+     * @param in
+     *            - the stream, closed by {@link #close()}
+     * @param lexicon
+     *            - the lexicon, should be the one the trees were written with
+     * @throws IOException
+     *             if the stream cannot be read, or is binary of another
+     *             version
+     */
+    public SpecStream(InputStream in, Lexicon lexicon) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        if(BinarySpecReader.isBinary(buffered)) {
+            this.binary = new BinarySpecReader(buffered, lexicon);
+            this.lines = null;
+            this.json = null;
+        } else {
+            this.binary = null;
+            this.lines = new BufferedReader(new InputStreamReader(buffered, StandardCharsets.UTF_8));
+            this.json = new JsonSpecReader(lexicon);
+        }
+    }
+
+    /**
+     * @return whether the stream is in the binary encoding
+     */
+    public boolean isBinary() {
+        return this.binary != null;
+    }
+
+    /**
+     * @throws IllegalStateException
+     *             if the stream cannot be read, caused by the
+     *             <code>IOException</code>
+     * @throws IllegalArgumentException
+     *             if a line is not a valid tree
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            while(this.next == null) {
+                if(this.binary != null) {
+                    this.next = this.binary.read();
+                    return this.next != null;
+                }
+                String text = this.lines.readLine();
+                if(text == null) {
+                    return false;
+                }
+                this.line++;
+                if(!text.trim().isEmpty()) {
+                    this.next = parse(text);
+                }
+            }
+        } catch(IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return true;
+    }
+
+    @Override
+    public NLGElement next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        NLGElement element = this.next;
+        this.next = null;
+        return element;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the tree of a line, or <code>null</code> for the header of a
+     *         log
+     */
+    private NLGElement parse(String text) {
+        try {
+            Object value = Json.parse(text);
+            if(value instanceof Map<?, ?>) {
+                Map<?, ?> record = (Map<?, ?>) value;
+                if(record.containsKey("format")) {
+                    return null;
+                } else if(record.containsKey("spec")) {
+                    value = record.get("spec");
+                }
+            }
+            NLGElement element = this.json.decode(value);
+            if(element == null) {
+                throw new IllegalArgumentException("no element");
+            }
+            return element;
+        } catch(IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid spec in line " + this.line + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(this.binary != null) {
+            this.binary.close();
+        } else {
+            this.lines.close();
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package simplenlgde.format.german;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,7 +44,7 @@ import simplenlgde.framework.*;
  */
 
 //public class TextFormatter extends NLGModule {
-public class HTMLFormatter extends NLGModule {
+public class HTMLFormatter extends NLGModule implements StreamingFormatter {
 
     // Modifications by James Christie to convert TextFormatter into a HTML Formatter
 
@@ -196,5 +197,50 @@ public class HTMLFormatter extends NLGModule {
         return realisedList;
     } // realise ~ list of elements
 
+    @Override
+    public boolean isStreamed(NLGElement element) {
+        // the children of these elements are not separated
+        return element.getCategory() == DocumentCategory.DOCUMENT || element.getCategory() == DocumentCategory.SECTION
+                || element.getCategory() == DocumentCategory.LIST
+                || element.getCategory() == DocumentCategory.ENUMERATED_LIST;
+    }
+
+    @Override
+    public void writeStart(NLGElement element, Appendable output) throws IOException {
+        String title = element instanceof DocumentElement ? ((DocumentElement) element).getTitle() : null;
+        switch((DocumentCategory) element.getCategory()){
+            case DOCUMENT :
+                output.append("<h1>" + title + "</h1>");
+                break;
+            case SECTION :
+                if(title != null) {
+                    output.append("<h2>" + title + "</h2>");
+                }
+                break;
+            case LIST :
+                output.append("<ul>");
+                break;
+            case ENUMERATED_LIST :
+                output.append("<ol>");
+                break;
+            default :
+                break;
+        }
+    }
+
+    @Override
+    public void writeEnd(NLGElement element, Appendable output) throws IOException {
+        switch((DocumentCategory) element.getCategory()){
+            case LIST :
+                output.append("</ul>");
+                break;
+            case ENUMERATED_LIST :
+                output.append("</ol>");
+                break;
+            default :
+                break;
+        }
+    }
+
 } // class
 
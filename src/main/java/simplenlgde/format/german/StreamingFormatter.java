@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.format.german;
+
+import java.io.IOException;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * <p>
+ * A formatter which can write a document piece by piece. For the elements it
+ * streams, the formatted text must be the start written by
+ * {@link #writeStart(NLGElement, Appendable)}, followed by the formatted
+ * children without separators, followed by the end written by
+ * {@link #writeEnd(NLGElement, Appendable)}. The realiser then realises and
+ * formats the children one at a time, see
+ * {@link simplenlgde.realiser.Realiser#realise(NLGElement, Appendable)}.
+ * </p>
+ */
+public interface StreamingFormatter {
+
+    /**
+     * @param element
+     *            the element of the input tree
+     * @return <code>true</code> if the children of the element can be
+     *         formatted one at a time
+     */
+    boolean isStreamed(NLGElement element);
+
+    /**
+     * Writes the text which precedes the children of a streamed element.
+     *
+     * @param element
+     *            the element of the input tree
+     * @param output
+     *            where the text is written
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    void writeStart(NLGElement element, Appendable output) throws IOException;
+
+    /**
+     * Writes the text which follows the children of a streamed element.
+     *
+     * @param element
+     *            the element of the input tree
+     * @param output
+     *            where the text is written
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    void writeEnd(NLGElement element, Appendable output) throws IOException;
+}
@@ -223,12 +223,11 @@ public class CoordinatedPhraseElement extends NLGElement {
     }
 
     @Override
-    public String printTree(String indent) {
+    protected void printTree(StringBuilder print, String indent) {
         String thisIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
         String childIndent = indent == null ? " | " : indent + " | "; //$NON-NLS-1$ //$NON-NLS-2$
         String lastIndent = indent == null ? " \\-" : indent + " \\-"; //$NON-NLS-1$ //$NON-NLS-2$
         String lastChildIndent = indent == null ? "   " : indent + "   "; //$NON-NLS-1$ //$NON-NLS-2$
-        StringBuffer print = new StringBuffer();
         print.append("CoordinatedPhraseElement:\n"); //$NON-NLS-1$
 
         List<NLGElement> children = getChildren();
@@ -236,14 +235,13 @@ public class CoordinatedPhraseElement extends NLGElement {
         int index = 0;
 
         for (index = 0; index < length; index++) {
-            print.append(thisIndent).append(
-                    children.get(index).printTree(childIndent));
+            print.append(thisIndent);
+            children.get(index).printTree(print, childIndent);
         }
         if (length >= 0) {
-            print.append(lastIndent).append(
-                    children.get(length).printTree(lastChildIndent));
+            print.append(lastIndent);
+            children.get(length).printTree(print, lastChildIndent);
         }
-        return print.toString();
     }
 
     /**
@@ -265,12 +265,11 @@ public class DocumentElement extends NLGElement {
     }
 
     @Override
-    public String printTree(String indent) {
+    protected void printTree(StringBuilder print, String indent) {
         String thisIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
         String childIndent = indent == null ? " | " : indent + " | "; //$NON-NLS-1$ //$NON-NLS-2$
         String lastIndent = indent == null ? " \\-" : indent + " \\-"; //$NON-NLS-1$ //$NON-NLS-2$
         String lastChildIndent = indent == null ? "   " : indent + "   "; //$NON-NLS-1$ //$NON-NLS-2$
-        StringBuffer print = new StringBuffer();
         print.append("DocumentElement: category=").append( //$NON-NLS-1$
                 getCategory().toString());
 
@@ -286,12 +285,11 @@ public class DocumentElement extends NLGElement {
 
         if (children.size() > 0) {
             for (index = 0; index < length; index++) {
-                print.append(thisIndent).append(
-                        children.get(index).printTree(childIndent));
+                print.append(thisIndent);
+                children.get(index).printTree(print, childIndent);
             }
-            print.append(lastIndent).append(
-                    children.get(index).printTree(lastChildIndent));
+            print.append(lastIndent);
+            children.get(index).printTree(print, lastChildIndent);
         }
-        return print.toString();
     }
 }
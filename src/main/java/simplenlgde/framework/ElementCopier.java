@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class creates the deep copies returned by
+ * {@link NLGElement#deepCopy()}. Every element is copied once, elements which
+ * are reachable on several paths are shared in the copy as in the original.
+ * Parent references are fixed up after the whole tree has been copied, so
+ * that they point to the copy of the parent if the parent was copied, and to
+ * the original parent otherwise.
+ */
+final class ElementCopier {
+
+    /** original element to copy */
+    private final Map<NLGElement, NLGElement> copies = new IdentityHashMap<NLGElement, NLGElement>();
+
+    /**
+     * copies an element and everything reachable through its features
+     *
+     * @param element
+     *            - the element to copy, may be <code>null</code>
+     * @return the copy
+     */
+    NLGElement copy(NLGElement element) {
+        NLGElement copy = copyElement(element);
+        for (Map.Entry<NLGElement, NLGElement> entry : copies.entrySet()) {
+            NLGElement parent = entry.getKey().getParent();
+            if (parent != null && copies.containsKey(parent)) {
+                entry.getValue().setParent(copies.get(parent));
+            }
+        }
+        return copy;
+    }
+
+    private NLGElement copyElement(NLGElement element) {
+        if (element == null) {
+            return null;
+        }
+        NLGElement copy = copies.get(element);
+        if (copy == null) {
+            copy = element.shallowCopy();
+            copies.put(element, copy);
+            // linked, so the features of the copy are iterated and printed
+            // in the same order as those of the original
+            HashMap<String, Object> features = new LinkedHashMap<String, Object>(element.features);
+            for (Map.Entry<String, Object> feature : features.entrySet()) {
+                feature.setValue(copyValue(feature.getValue()));
+            }
+            // written directly, the features of the copy are the same as
+            // those of the original, so derived data need not be invalidated
+            copy.features = features;
+        }
+        return copy;
+    }
+
+    private Object copyValue(Object value) {
+        if (value instanceof NLGElement) {
+            return copyElement((NLGElement) value);
+        } else if (value instanceof List<?>) {
+            List<?> list = (List<?>) value;
+            List<Object> copy = new ArrayList<Object>(list.size());
+            for (Object item : list) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import simplenlgde.phrasespec.AdjPhraseSpec;
+import simplenlgde.phrasespec.AdvPhraseSpec;
+import simplenlgde.phrasespec.NPPhraseSpec;
+import simplenlgde.phrasespec.PPPhraseSpec;
+import simplenlgde.phrasespec.SPhraseSpec;
+import simplenlgde.phrasespec.VPPhraseSpec;
+
+/**
+ * <p>
+ * Names the classes of elements of this library and creates blank elements
+ * of them, for readers which restore element trees from a serialised form.
+ * A blank element has the category of a new element of its class, but no
+ * features, parent, realisation or factory; unlike the constructors, which
+ * fill in default features and create child elements, creating it has no
+ * side effects. The features of the element are then restored directly in
+ * the map of {@link NLGElement#getAllFeatures()}, as
+ * {@link NLGElement#deepCopy()} does.
+ * </p>
+ */
+public final class ElementTypes {
+
+    /** blank element of every class by its name */
+    private static final Map<String, NLGElement> PROTOTYPES;
+
+    static {
+        NLGFactory factory = new NLGFactory();
+        Map<String, NLGElement> prototypes = new LinkedHashMap<String, NLGElement>();
+        add(prototypes, new SPhraseSpec(factory));
+        add(prototypes, new VPPhraseSpec(factory));
+        add(prototypes, new NPPhraseSpec(factory));
+        add(prototypes, new AdjPhraseSpec(factory));
+        add(prototypes, new AdvPhraseSpec(factory));
+        add(prototypes, new PPPhraseSpec(factory));
+        add(prototypes, new PhraseElement(PhraseCategory.CLAUSE));
+        add(prototypes, new CoordinatedPhraseElement());
+        add(prototypes, new WordElement());
+        add(prototypes, new InflectedWordElement(null, LexicalCategory.ANY));
+        add(prototypes, new StringElement(null));
+        add(prototypes, new ListElement());
+        add(prototypes, new DocumentElement());
+        PROTOTYPES = Collections.unmodifiableMap(prototypes);
+    }
+
+    private ElementTypes() {
+    }
+
+    private static void add(Map<String, NLGElement> prototypes, NLGElement prototype) {
+        prototype.features = new HashMap<String, Object>();
+        prototype.setRealisation(null);
+        prototype.setParent(null);
+        prototype.setFactory(null);
+        prototypes.put(prototype.getClass().getSimpleName(), prototype);
+    }
+
+    /**
+     * @return the names of the classes of elements which can be created
+     */
+    public static Set<String> getNames() {
+        return PROTOTYPES.keySet();
+    }
+
+    /**
+     * @param element
+     *            - an element
+     * @return the name of the class of the element, or <code>null</code> if
+     *         blank elements of its class cannot be created, e.g. because it
+     *         is a subclass defined by an application
+     */
+    public static String getName(NLGElement element) {
+        String name = element.getClass().getSimpleName();
+        NLGElement prototype = PROTOTYPES.get(name);
+        return prototype != null && prototype.getClass() == element.getClass() ? name : null;
+    }
+
+    /**
+     * creates a blank element, see above
+     *
+     * @param name
+     *            - the name of the class of the element, see
+     *            {@link #getName(NLGElement)}
+     * @return the element
+     * @throws IllegalArgumentException
+     *             if there is no class of elements with this name
+     */
+    public static NLGElement create(String name) {
+        NLGElement prototype = PROTOTYPES.get(name);
+        if(prototype == null) {
+            throw new IllegalArgumentException("unknown element type: " + name);
+        }
+        NLGElement element = prototype.shallowCopy();
+        element.features = new HashMap<String, Object>();
+        return element;
+    }
+}
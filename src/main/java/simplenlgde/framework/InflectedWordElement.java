@@ -87,12 +87,10 @@ public class InflectedWordElement extends NLGElement {
     }
 
     @Override
-    public String printTree(String indent) {
-        StringBuffer print = new StringBuffer();
+    protected void printTree(StringBuilder print, String indent) {
         print.append("InflectedWordElement: base=").append(getBaseForm())
                 .append(", category=").append(getCategory().toString()).append(
                 ", ").append(super.toString()).append('\n');
-        return print.toString();
     }
 
     /**
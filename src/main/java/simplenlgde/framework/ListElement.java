@@ -151,12 +151,11 @@ public class ListElement extends NLGElement {
     }
 
     @Override
-    public String printTree(String indent) {
+    protected void printTree(StringBuilder print, String indent) {
         String thisIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
         String childIndent = indent == null ? " | " : indent + " | "; //$NON-NLS-1$ //$NON-NLS-2$
         String lastIndent = indent == null ? " \\-" : indent + " \\-"; //$NON-NLS-1$ //$NON-NLS-2$
         String lastChildIndent = indent == null ? "   " : indent + "   "; //$NON-NLS-1$ //$NON-NLS-2$
-        StringBuffer print = new StringBuffer();
         print.append("ListElement: features={"); //$NON-NLS-1$
 
         Map<String, Object> features = getAllFeatures();
@@ -171,14 +170,13 @@ public class ListElement extends NLGElement {
         int index = 0;
 
         for (index = 0; index < length; index++) {
-            print.append(thisIndent).append(
-                    children.get(index).printTree(childIndent));
+            print.append(thisIndent);
+            children.get(index).printTree(print, childIndent);
         }
         if (length >= 0) {
-            print.append(lastIndent).append(
-                    children.get(length).printTree(lastChildIndent));
+            print.append(lastIndent);
+            children.get(length).printTree(print, lastChildIndent);
         }
-        return print.toString();
     }
 
     /**
@@ -0,0 +1,28 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+/**
+ * A structure whose memory can be estimated, see {@link MemoryAccounting}.
+ */
+public interface MemoryAccountable {
+
+    /**
+     * Estimates the heap retained by the structure, see
+     * {@link MemoryEstimator}. The estimate samples large structures, so it
+     * is cheap enough to be called periodically.
+     *
+     * @return the estimate
+     */
+    MemoryReport estimateMemory();
+}
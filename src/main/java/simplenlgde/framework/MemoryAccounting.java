@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * Reports the estimated memory of named structures, e.g. lexicons and
+ * caches, and can be registered as an MXBean so that the estimates can be
+ * read with any JMX client:
+ * </p>
+ *
+ * <pre>
+ * MemoryAccounting accounting = new MemoryAccounting();
+ * accounting.register(&quot;lexicon&quot;, lexicon);
+ * accounting.register(&quot;cache&quot;, cache);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(accounting,
+ *         new ObjectName(&quot;simplenlgde:type=Memory&quot;));
+ * </pre>
+ *
+ * <p>
+ * Every read estimates the structures again. The accounting keeps the
+ * registered structures alive until they are unregistered.
+ * </p>
+ */
+public class MemoryAccounting implements MemoryAccountingMXBean {
+
+    private final ConcurrentMap<String, MemoryAccountable> structures =
+            new ConcurrentHashMap<String, MemoryAccountable>();
+
+    /**
+     * registers a structure, replacing one of the same name
+     *
+     * @param name
+     *            - the name of the structure
+     * @param structure
+     *            - the structure
+     */
+    public void register(String name, MemoryAccountable structure) {
+        this.structures.put(name, structure);
+    }
+
+    /**
+     * unregisters a structure
+     *
+     * @param name
+     *            - the name of the structure
+     */
+    public void unregister(String name) {
+        this.structures.remove(name);
+    }
+
+    /**
+     * @return the current estimates of all registered structures by name
+     */
+    public Map<String, MemoryReport> estimate() {
+        Map<String, MemoryReport> reports = new TreeMap<String, MemoryReport>();
+        for(Map.Entry<String, MemoryAccountable> entry : this.structures.entrySet()) {
+            reports.put(entry.getKey(), entry.getValue().estimateMemory());
+        }
+        return reports;
+    }
+
+    @Override
+    public Map<String, Long> getEstimatedBytes() {
+        Map<String, Long> bytes = new TreeMap<String, Long>();
+        for(Map.Entry<String, MemoryReport> entry : estimate().entrySet()) {
+            bytes.put(entry.getKey(), entry.getValue().getBytes());
+        }
+        return bytes;
+    }
+
+    @Override
+    public long getTotalEstimatedBytes() {
+        long total = 0;
+        for(long bytes : getEstimatedBytes().values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getBreakdown(String name, String dimension) {
+        MemoryAccountable structure = this.structures.get(name);
+        if(structure == null) {
+            return new TreeMap<String, Long>();
+        }
+        return structure.estimateMemory().getBreakdown(dimension);
+    }
+}
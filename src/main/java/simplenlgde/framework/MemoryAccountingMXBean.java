@@ -0,0 +1,42 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link MemoryAccounting}.
+ */
+public interface MemoryAccountingMXBean {
+
+    /**
+     * @return the estimated size in bytes of every registered structure
+     */
+    Map<String, Long> getEstimatedBytes();
+
+    /**
+     * @return the estimated size in bytes of all registered structures
+     */
+    long getTotalEstimatedBytes();
+
+    /**
+     * @param name
+     *            the name of a registered structure
+     * @param dimension
+     *            the dimension, e.g. <code>index</code>, <code>category</code>
+     *            or <code>feature</code>
+     * @return the estimated sizes in bytes along the dimension, empty if the
+     *         structure is not registered
+     */
+    Map<String, Long> getBreakdown(String name, String dimension);
+}
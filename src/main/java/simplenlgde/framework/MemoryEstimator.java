@@ -0,0 +1,402 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * Estimates the heap retained by objects of this library without a heap
+ * dump. The estimate follows the references of an object; objects which
+ * have been counted by the same estimator are not counted again, so an
+ * estimator can add up the parts of a structure which share objects.
+ * </p>
+ *
+ * <p>
+ * The layout of the classes of this library is derived from their fields,
+ * that of strings, boxed values, arrays and the common collections from the
+ * layout of the HotSpot JVM, assuming compressed references if the heap is
+ * below 32 GB. Other classes count as an object header. Enums, booleans,
+ * classes, lexicons and factories are shared and count nothing, and the
+ * parent of an element is not followed. The estimate is therefore an
+ * approximation, meant for comparing structures and watching their growth.
+ * </p>
+ */
+public final class MemoryEstimator {
+
+    private static final boolean COMPRESSED = !"32".equals(System.getProperty("sun.arch.data.model"))
+            && Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+    private static final boolean WIDE = !"32".equals(System.getProperty("sun.arch.data.model"));
+    private static final int REFERENCE = COMPRESSED || !WIDE ? 4 : 8;
+    private static final int HEADER = !WIDE ? 8 : COMPRESSED ? 12 : 16;
+    private static final int ARRAY_HEADER = align(HEADER + 4);
+    private static final boolean COMPACT_STRINGS = !System.getProperty("java.specification.version", "1.")
+            .startsWith("1.");
+
+    /** default number of objects of a large structure which are estimated */
+    public static final int DEFAULT_SAMPLES = 1000;
+
+    // shallow sizes and followed fields of the classes of this library
+    private static final Map<Class<?>, Layout> LAYOUTS = new ConcurrentHashMap<Class<?>, Layout>();
+
+    private final Map<Object, Boolean> counted = new IdentityHashMap<Object, Boolean>();
+
+    /**
+     * @param bytes
+     *            - a size
+     * @return the size rounded up to the alignment of objects
+     */
+    public static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    /**
+     * @param references
+     *            - the number of reference fields of an object
+     * @return the shallow size of an object with only these fields
+     */
+    public static long objectSize(int references) {
+        return align(HEADER + references * REFERENCE);
+    }
+
+    /**
+     * @param length
+     *            - the length of an array of references
+     * @return the size of the array without its elements
+     */
+    public static long referenceArraySize(int length) {
+        return align(ARRAY_HEADER + length * REFERENCE);
+    }
+
+    /**
+     * @param entries
+     *            - the number of entries of a hash map
+     * @return the size of a hash map or hash set with this number of entries,
+     *         without its keys and values
+     */
+    public static long hashMapSize(int entries) {
+        int capacity = 16;
+        while(capacity * 3 / 4 < entries) {
+            capacity <<= 1;
+        }
+        return align(HEADER + 4 * 4 + 3 * REFERENCE) + referenceArraySize(capacity) + (long) entries
+                * align(HEADER + 4 + 3 * REFERENCE);
+    }
+
+    /**
+     * @param elements
+     *            - the number of elements of an array list
+     * @return the size of an array list, without its elements
+     */
+    public static long arrayListSize(int elements) {
+        return align(HEADER + 4 * 2 + REFERENCE) + referenceArraySize(Math.max(elements, 10));
+    }
+
+    /**
+     * estimates the size of an object and all objects it refers to which
+     * have not been counted by this estimator
+     *
+     * @param object
+     *            - the object, may be <code>null</code>
+     * @return the estimated size in bytes
+     */
+    public long sizeOf(Object object) {
+        return sizeOf(object, null);
+    }
+
+    /**
+     * estimates the total size of the objects of a collection from a sample,
+     * like {@link #sizeOf(Object, Map)}. The sizes of the sample, and of its
+     * features, are scaled to the size of the collection.
+     *
+     * @param objects
+     *            - the objects
+     * @param samples
+     *            - the largest number of objects which are estimated
+     * @param features
+     *            - the sizes by feature name, which are increased, may be
+     *            <code>null</code>
+     * @return the estimated size of the objects in bytes, without the
+     *         collection
+     */
+    public long sizeOfSample(Collection<?> objects, int samples, Map<String, Long> features) {
+        int count = objects.size();
+        int interval = Math.max(1, (count + samples - 1) / samples);
+        Map<String, Long> sampledFeatures = features == null ? null : new HashMap<String, Long>();
+        long size = 0;
+        int sampled = 0;
+        int index = 0;
+        for(Object object : objects) {
+            if(index++ % interval == 0) {
+                size += sizeOf(object, sampledFeatures);
+                sampled++;
+            }
+        }
+        if(sampled == 0) {
+            return 0;
+        }
+        double scale = (double) count / sampled;
+        if(features != null) {
+            for(Map.Entry<String, Long> entry : sampledFeatures.entrySet()) {
+                add(features, entry.getKey(), Math.round(entry.getValue() * scale));
+            }
+        }
+        return Math.round(size * scale);
+    }
+
+    /**
+     * estimates the size of a map, including its keys and values, from its
+     * first entries. Unlike {@link #sizeOf(Object)} only these entries are
+     * visited, and their size is scaled to the size of the map.
+     *
+     * @param map
+     *            - the map, which must not be changed meanwhile
+     * @param samples
+     *            - the largest number of entries which are estimated
+     * @return the estimated size in bytes
+     */
+    public long sizeOfMapSample(Map<?, ?> map, int samples) {
+        if(isCounted(map)) {
+            return 0;
+        }
+        int count = map.size();
+        long size = hashMapSize(count);
+        if(map instanceof LinkedHashMap<?, ?>) {
+            size += (long) count * 2 * REFERENCE;
+        }
+        long sample = 0;
+        int sampled = 0;
+        for(Map.Entry<?, ?> entry : map.entrySet()) {
+            if(sampled == samples) {
+                break;
+            }
+            sample += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            sampled++;
+        }
+        return sampled == 0 ? size : size + Math.round(sample * ((double) count / sampled));
+    }
+
+    /**
+     * @return whether the object has been counted by this estimator; marks it
+     *         as counted
+     */
+    private boolean isCounted(Object object) {
+        return this.counted.put(object, Boolean.TRUE) != null;
+    }
+
+    /**
+     * estimates the size of an object like {@link #sizeOf(Object)} and adds
+     * the size of every feature of the elements among the objects to the
+     * feature name
+     *
+     * @param object
+     *            - the object, may be <code>null</code>
+     * @param features
+     *            - the sizes by feature name, which are increased
+     * @return the estimated size in bytes
+     */
+    public long sizeOf(Object object, Map<String, Long> features) {
+        if(object == null || isShared(object) || isCounted(object)) {
+            return 0;
+        }
+        if(object instanceof String) {
+            return stringSize((String) object);
+        }
+        if(object instanceof Number || object instanceof Character) {
+            return align(HEADER + 8);
+        }
+        Class<?> type = object.getClass();
+        if(type.isArray()) {
+            return arraySize(object, features);
+        }
+        if(object instanceof Map<?, ?>) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            long size = hashMapSize(map.size());
+            if(object instanceof LinkedHashMap<?, ?>) {
+                size += (long) map.size() * 2 * REFERENCE;
+            }
+            for(Map.Entry<?, ?> entry : map.entrySet()) {
+                size += sizeOf(entry.getKey(), features) + sizeOf(entry.getValue(), features);
+            }
+            return size;
+        }
+        if(object instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) object;
+            long size;
+            if(object instanceof List<?>) {
+                size = arrayListSize(collection.size());
+            } else if(object instanceof Set<?>) {
+                size = align(HEADER + REFERENCE) + hashMapSize(collection.size());
+            } else {
+                // a linked queue
+                size = align(HEADER + 2 * REFERENCE) + (long) collection.size() * align(HEADER + 2 * REFERENCE);
+            }
+            for(Object element : collection) {
+                size += sizeOf(element, features);
+            }
+            return size;
+        }
+        if(!type.getName().startsWith("simplenlgde.")) {
+            return align(HEADER + 2 * REFERENCE);
+        }
+        Layout layout = layoutOf(type);
+        long size = layout.size;
+        for(Field field : layout.references) {
+            Object value;
+            try {
+                value = field.get(object);
+            } catch(IllegalAccessException e) {
+                continue;
+            }
+            if(features != null && object instanceof NLGElement && value instanceof Map<?, ?>
+                    && field.getName().equals("features")) {
+                size += featuresSize((Map<?, ?>) value, features);
+            } else {
+                size += sizeOf(value, features);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * estimates the size of the feature map of an element and adds the size
+     * of every entry to its feature
+     */
+    private long featuresSize(Map<?, ?> map, Map<String, Long> features) {
+        if(isCounted(map)) {
+            return 0;
+        }
+        long entry = align(HEADER + 4 + 3 * REFERENCE);
+        long size = hashMapSize(map.size()) - map.size() * entry;
+        for(Map.Entry<?, ?> feature : map.entrySet()) {
+            long featureSize = entry + sizeOf(feature.getKey(), features) + sizeOf(feature.getValue(), features);
+            add(features, String.valueOf(feature.getKey()), featureSize);
+            size += featureSize;
+        }
+        return size;
+    }
+
+    private static boolean isShared(Object object) {
+        if(object instanceof Enum<?> || object instanceof Boolean || object instanceof Class<?>
+                || object instanceof NLGFactory || object instanceof Lexicon) {
+            return true;
+        }
+        if(object instanceof Integer) {
+            int value = (Integer) object;
+            return value >= -128 && value <= 127;
+        }
+        return false;
+    }
+
+    private static long stringSize(String string) {
+        int length = string.length();
+        boolean latin1 = COMPACT_STRINGS;
+        for(int i = 0; latin1 && i < length; i++) {
+            latin1 = string.charAt(i) < 256;
+        }
+        return align(HEADER + 4 + 2 + REFERENCE) + align(ARRAY_HEADER + length * (latin1 ? 1 : 2));
+    }
+
+    private long arraySize(Object array, Map<String, Long> features) {
+        Class<?> component = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if(component.isPrimitive()) {
+            return align(ARRAY_HEADER + length * primitiveSize(component));
+        }
+        long size = referenceArraySize(length);
+        for(int i = 0; i < length; i++) {
+            size += sizeOf(Array.get(array, i), features);
+        }
+        return size;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if(type == long.class || type == double.class) {
+            return 8;
+        } else if(type == int.class || type == float.class) {
+            return 4;
+        } else if(type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static Layout layoutOf(Class<?> type) {
+        Layout layout = LAYOUTS.get(type);
+        if(layout == null) {
+            layout = new Layout(type);
+            LAYOUTS.put(type, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * The shallow size of a class and its fields which hold references.
+     */
+    private static class Layout {
+        private final long size;
+        private final List<Field> references = new ArrayList<Field>();
+
+        Layout(Class<?> type) {
+            int bytes = HEADER;
+            for(Class<?> current = type; current != null && current != Object.class; current = current
+                    .getSuperclass()) {
+                for(Field field : current.getDeclaredFields()) {
+                    if(Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if(field.getType().isPrimitive()) {
+                        bytes += primitiveSize(field.getType());
+                    } else {
+                        bytes += REFERENCE;
+                        // the parent and factory of an element belong to other structures
+                        if(!(current == NLGElement.class && (field.getName().equals("parent")
+                                || field.getName().equals("factory")))) {
+                            field.setAccessible(true);
+                            this.references.add(field);
+                        }
+                    }
+                }
+            }
+            this.size = align(bytes);
+        }
+    }
+
+    /**
+     * adds a size to an entry of a breakdown
+     *
+     * @param breakdown
+     *            - the sizes by name
+     * @param name
+     *            - the name
+     * @param bytes
+     *            - the size which is added
+     */
+    public static void add(Map<String, Long> breakdown, String name, long bytes) {
+        Long previous = breakdown.get(name);
+        breakdown.put(name, previous == null ? bytes : previous + bytes);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The estimated heap retained by a structure, see
+ * {@link MemoryAccountable#estimateMemory()}, with breakdowns of the total
+ * along dimensions. Which dimensions there are depends on the structure:
+ * </p>
+ *
+ * <ul>
+ * <li><code>index</code> - the parts of a lexicon, e.g.
+ * <code>words</code>, <code>indexByBase</code> or <code>learnedWords</code>,
+ * or of a cache, e.g. <code>entries</code></li>
+ * <li><code>category</code> - the words of a lexicon by lexical category</li>
+ * <li><code>feature</code> - the features of the words of a lexicon, or of the
+ * elements of a cache, by feature name</li>
+ * </ul>
+ *
+ * <p>
+ * Unlike the total, the entries of the <code>category</code> and
+ * <code>feature</code> breakdowns need not add up to the total.
+ * </p>
+ */
+public class MemoryReport {
+
+    /** breakdown by part of the structure */
+    public static final String INDEX = "index";
+    /** breakdown by lexical category */
+    public static final String CATEGORY = "category";
+    /** breakdown by feature name */
+    public static final String FEATURE = "feature";
+
+    private final String name;
+    private final long bytes;
+    private final Map<String, Map<String, Long>> breakdowns = new LinkedHashMap<String, Map<String, Long>>();
+
+    /**
+     * create a report
+     *
+     * @param name
+     *            - the name of the structure
+     * @param bytes
+     *            - the estimated total size
+     */
+    public MemoryReport(String name, long bytes) {
+        this.name = name;
+        this.bytes = bytes;
+    }
+
+    /**
+     * adds a breakdown, the entries are ordered by decreasing size
+     *
+     * @param dimension
+     *            - the dimension, e.g. {@link #INDEX}
+     * @param sizes
+     *            - the estimated sizes by name
+     * @return this report
+     */
+    public MemoryReport withBreakdown(String dimension, Map<String, Long> sizes) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(sizes.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> first, Map.Entry<String, Long> second) {
+                int order = second.getValue().compareTo(first.getValue());
+                return order != 0 ? order : first.getKey().compareTo(second.getKey());
+            }
+        });
+        Map<String, Long> sorted = new LinkedHashMap<String, Long>();
+        for(Map.Entry<String, Long> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        this.breakdowns.put(dimension, Collections.unmodifiableMap(sorted));
+        return this;
+    }
+
+    /**
+     * @return the name of the structure
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the estimated total size in bytes
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * @return the dimensions of the breakdowns
+     */
+    public Set<String> getDimensions() {
+        return Collections.unmodifiableSet(this.breakdowns.keySet());
+    }
+
+    /**
+     * @param dimension
+     *            - the dimension
+     * @return the estimated sizes in bytes by name, largest first; empty if
+     *         there is no such breakdown
+     */
+    public Map<String, Long> getBreakdown(String dimension) {
+        Map<String, Long> breakdown = this.breakdowns.get(dimension);
+        return breakdown == null ? Collections.<String, Long>emptyMap() : breakdown;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryReport[" + this.name + ", bytes=" + this.bytes + ", " + this.breakdowns + "]";
+    }
+}
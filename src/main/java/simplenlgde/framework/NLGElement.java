@@ -28,7 +28,7 @@ import simplenlgde.features.Feature;
 import simplenlgde.features.NumberAgreement;
 
 
-public abstract class NLGElement {
+public abstract class NLGElement implements Cloneable {
     /** The category of this element. */
     private ElementCategory category;
 
@@ -44,6 +44,9 @@ public abstract class NLGElement {
     /** The NLGFactory which created this element */
     private NLGFactory factory;
 
+    /** The number of changes made to this element, see getModificationCount */
+    private int modifications;
+
     /**
      * Sets the category of this element.
      *
@@ -52,6 +55,7 @@ public abstract class NLGElement {
      */
     public void setCategory(ElementCategory newCategory) {
         this.category = newCategory;
+        modified();
     }
 
     /**
@@ -81,6 +85,8 @@ public abstract class NLGElement {
             } else {
                 this.features.put(featureName, featureValue);
             }
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -95,6 +101,8 @@ public abstract class NLGElement {
     public void setFeature(String featureName, boolean featureValue) {
         if (featureName != null) {
             this.features.put(featureName, new Boolean(featureValue));
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -109,6 +117,8 @@ public abstract class NLGElement {
     public void setFeature(String featureName, int featureValue) {
         if (featureName != null) {
             this.features.put(featureName, new Integer(featureValue));
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -123,6 +133,8 @@ public abstract class NLGElement {
     public void setFeature(String featureName, long featureValue) {
         if (featureName != null) {
             this.features.put(featureName, new Long(featureValue));
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -137,6 +149,8 @@ public abstract class NLGElement {
     public void setFeature(String featureName, float featureValue) {
         if (featureName != null) {
             this.features.put(featureName, new Float(featureValue));
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -152,6 +166,8 @@ public abstract class NLGElement {
     public void setFeature(String featureName, double featureValue) {
         if (featureName != null) {
             this.features.put(featureName, new Double(featureValue));
+            modified();
+            featureChanged(featureName);
         }
     }
 
@@ -475,6 +491,8 @@ public abstract class NLGElement {
      */
     public void removeFeature(String featureName) {
         this.features.remove(featureName);
+        modified();
+        featureChanged(featureName);
     }
 
     /**
@@ -482,6 +500,44 @@ public abstract class NLGElement {
      */
     public void clearAllFeatures() {
         this.features.clear();
+        modified();
+        featureChanged(null);
+    }
+
+    /**
+     * Called after a feature of this element has been set or removed through
+     * one of the <code>setFeature</code>, <code>removeFeature</code> or
+     * <code>clearAllFeatures</code> methods. Subclasses which derive data from
+     * their features override this to invalidate it. The default does nothing.
+     *
+     * @param featureName
+     *            the name of the changed feature, or <code>null</code> if all
+     *            features were removed.
+     */
+    protected void featureChanged(String featureName) {
+    }
+
+    /**
+     * Counts a change of this element. The feature setters and the setters of
+     * the category and the realisation call this; subclasses call it when
+     * they change data of their own.
+     */
+    protected void modified() {
+        this.modifications++;
+    }
+
+    /**
+     * Retrieves the number of changes made to this element itself, not to its
+     * children. Every <code>setFeature</code>, <code>removeFeature</code>,
+     * category or realisation change increments it, which includes adding
+     * complements, modifiers or components, so a realiser can tell whether an
+     * element has changed since it last saw it. The count is not synchronised
+     * and only meaningful to the thread which changes the element.
+     *
+     * @return the number of changes made to this element.
+     */
+    public int getModificationCount() {
+        return this.modifications;
     }
 
     /**
@@ -513,6 +569,7 @@ public abstract class NLGElement {
      */
     public void setRealisation(String realised) {
         this.realisation = realised;
+        modified();
     }
 
     /**
@@ -591,21 +648,42 @@ public abstract class NLGElement {
         return this.features.keySet();
     }
 
+    /**
+     * Prints this element and its children as an indented tree.
+     *
+     * @param indent
+     *            the indentation of the children, or <code>null</code>.
+     * @return the tree, one element per line.
+     */
     public String printTree(String indent) {
+        StringBuilder print = new StringBuilder();
+        printTree(print, indent);
+        return print.toString();
+    }
+
+    /**
+     * Appends this element and its children to a tree which is being printed.
+     * Subclasses override this rather than {@link #printTree(String)}, so that
+     * the whole tree is printed into one buffer.
+     *
+     * @param print
+     *            the buffer of the tree.
+     * @param indent
+     *            the indentation of the children, or <code>null</code>.
+     */
+    protected void printTree(StringBuilder print, String indent) {
         String thisIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
         String childIndent = indent == null ? " |-" : indent + " |-"; //$NON-NLS-1$ //$NON-NLS-2$
-        StringBuffer print = new StringBuffer();
         print.append("NLGElement: ").append(toString()).append('\n'); //$NON-NLS-1$
 
         List<NLGElement> children = getChildren();
 
         if (children != null) {
             for (NLGElement eachChild : getChildren()) {
-                print.append(thisIndent).append(
-                        eachChild.printTree(childIndent));
+                print.append(thisIndent);
+                eachChild.printTree(print, childIndent);
             }
         }
-        return print.toString();
     }
 
     /**
@@ -677,14 +755,44 @@ public abstract class NLGElement {
     }
 
     /**
-     * An NLG element is equal to some object if the object is an NLGElement,
-     * they have the same category and the same features.
+     * Creates a deep copy of this element. All elements which can be reached
+     * through the features of this element, such as components, coordinates
+     * or base words, are copied as well, so the copy can be realised without
+     * changing this element. Elements which are shared in the original tree
+     * are shared in the copy, and parent references to copied elements point
+     * to their copies. Feature values which are not elements, the category
+     * and the factory are not copied.
+     *
+     * @return the copy of this element.
+     */
+    public NLGElement deepCopy() {
+        return new ElementCopier().copy(this);
+    }
+
+    /**
+     * Creates a shallow copy of this element of the same class. The copy
+     * shares the feature map with this element, so the caller has to replace
+     * it.
+     *
+     * @return the copy.
+     */
+    NLGElement shallowCopy() {
+        try {
+            return (NLGElement) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * An NLG element is equal to some object if the object is an NLGElement
+     * of the same class, they have the same category and the same features.
      */
     @Override
     public boolean equals(Object o) {
         boolean eq = false;
 
-        if (o instanceof NLGElement) {
+        if (o != null && o.getClass() == getClass()) {
             NLGElement element = (NLGElement) o;
             eq = this.category == element.category
                     && this.features.equals(element.features);
@@ -693,5 +801,15 @@ public abstract class NLGElement {
         return eq;
     }
 
-
+    /**
+     * A structural hash code which is consistent with {@link #equals(Object)}:
+     * it is computed from the category and the features, including the
+     * elements and lists of elements held by the features. Elements which
+     * are equal in structure have the same hash code, so element trees can be
+     * used as keys of maps, as long as they are not changed afterwards.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (this.category == null ? 0 : this.category.hashCode()) + this.features.hashCode();
+    }
 }
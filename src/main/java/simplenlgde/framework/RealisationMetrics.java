@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.framework;
+
+/**
+ * <p>
+ * Receives the measurements of realisations, e.g. to pass them on to the
+ * metrics library of an application. The realiser records the latency of
+ * every stage, the syntax processor the latency of every helper and of the
+ * constructions it realises, see
+ * {@link simplenlgde.realiser.Realiser#setMetrics(RealisationMetrics)} for the
+ * names. The default implementation is
+ * {@link simplenlgde.realiser.MetricsRegistry}.
+ * </p>
+ *
+ * <p>
+ * The methods are called during the realisation, by every thread which
+ * realises, so they must be fast and thread-safe.
+ * </p>
+ */
+public interface RealisationMetrics {
+
+    /**
+     * Records the duration of an operation.
+     *
+     * @param name
+     *            the name of the operation
+     * @param nanos
+     *            the duration in nanoseconds
+     */
+    void recordLatency(String name, long nanos);
+
+    /**
+     * Records a value of a distribution, e.g. the number of elements of a
+     * sentence.
+     *
+     * @param name
+     *            the name of the distribution
+     * @param value
+     *            the value
+     */
+    void recordValue(String name, long value);
+
+    /**
+     * Increments a counter.
+     *
+     * @param name
+     *            the name of the counter
+     */
+    void increment(String name);
+}
@@ -56,6 +56,11 @@ public class StringElement extends NLGElement {
         return super.equals(o) && (o instanceof StringElement) && realisationsMatch((StringElement) o);
     }
 
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + (getRealisation() == null ? 0 : getRealisation().hashCode());
+    }
+
     private boolean realisationsMatch(StringElement o) {
         if  (getRealisation() == null) {
             return o.getRealisation() == null;
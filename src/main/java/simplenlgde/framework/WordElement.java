@@ -20,6 +20,7 @@
 package simplenlgde.framework;
 
 import simplenlgde.features.*;
+import simplenlgde.lexicon.VerbEntry;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,6 +48,7 @@ public class WordElement extends NLGElement {
 
     String id; // id in lexicon (may be null);
 
+    VerbEntry verbEntry; // parsed conjugation data, computed on demand
 
     // LexicalCategory category; // type of word
 
@@ -117,6 +119,7 @@ public class WordElement extends NLGElement {
         //this.inflVars = currentWord.getInflectionalVariants();
         //this.defaultInfl = (Inflection) currentWord.getDefaultInflectionalVariant();
         setFeatures(currentWord);
+        this.verbEntry = currentWord.verbEntry;
     }
 
 
@@ -146,6 +149,8 @@ public class WordElement extends NLGElement {
      */
     public void setBaseForm(String baseForm) {
         this.baseForm = baseForm;
+        this.verbEntry = null;
+        modified();
     }
 
     /**
@@ -154,6 +159,7 @@ public class WordElement extends NLGElement {
      */
     public void setId(String id) {
         this.id = id;
+        modified();
     }
 
     @Override
@@ -211,12 +217,10 @@ public class WordElement extends NLGElement {
     }
 
     @Override
-    public String printTree(String indent) {
-        StringBuffer print = new StringBuffer();
+    protected void printTree(StringBuilder print, String indent) {
         print.append("WordElement: base=").append(getBaseForm()) //$NON-NLS-1$
                 .append(", category=").append(getCategory().toString()) //$NON-NLS-1$
                 .append(", ").append(super.toString()).append('\n'); //$NON-NLS-1$
-        return print.toString();
     }
 
     /**
@@ -233,15 +237,25 @@ public class WordElement extends NLGElement {
         if (o instanceof WordElement) {
             WordElement we = (WordElement) o;
 
-            return (this.baseForm == we.baseForm || this.baseForm
-                    .equals(we.baseForm))
-                    && (this.id == we.id || this.id.equals(we.id))
+            return (this.baseForm == null ? we.baseForm == null : this.baseForm.equals(we.baseForm))
+                    && (this.id == null ? we.id == null : this.id.equals(we.id))
                     && we.features.equals(this.features);
         }
 
         return false;
     }
 
+    /**
+     * The hash code of a word only depends on its base form and id, which
+     * identify the lexicon entry, so that words can be kept in sets while
+     * their features are filled in.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (this.baseForm == null ? 0 : this.baseForm.hashCode())
+                + (this.id == null ? 0 : this.id.hashCode());
+    }
+
     /**
      * Sets Features from another existing WordElement into this WordElement.
      *
@@ -252,16 +266,40 @@ public class WordElement extends NLGElement {
     	if(null != currentWord && null != currentWord.getAllFeatures()) {
     		for(String feature : currentWord.getAllFeatureNames()) {
     			this.setFeature(feature, currentWord.getFeature(feature));
-    			// if there is no information in lexicon about separability -> get it through conjugation of 1st person
-    			if(feature.equalsIgnoreCase("firstPerPres")) {
-    				if (currentWord.getFeature("firstPerPres").toString().contains(" ")) {
-    					this.setFeature(LexicalFeature.SEPARABLE, true);
-    				}
-    			}
+    		}
+    		// if there is no information in lexicon about separability -> get it through conjugation of 1st person
+    		if (currentWord.verbEntry != null ? currentWord.verbEntry.hasFirstPersonParticle()
+    				: hasSeparatedParticle(currentWord.getFeature("firstPerPres"))) {
+    			this.setFeature(LexicalFeature.SEPARABLE, true);
     		}
     	} 
     }
 
+    private static boolean hasSeparatedParticle(Object form) {
+    	return form != null && form.toString().indexOf(' ') >= 0;
+    }
+
+    /**
+     * Returns the conjugation data of this word, parsed from its lexicon
+     * features. The result is computed on the first call and kept until a
+     * feature or the base form of this word changes.
+     *
+     * @return the parsed verb entry
+     */
+    public VerbEntry getVerbEntry() {
+        VerbEntry entry = this.verbEntry;
+        if (entry == null) {
+            entry = VerbEntry.parse(this, getDefaultSpellingVariant());
+            this.verbEntry = entry;
+        }
+        return entry;
+    }
+
+    @Override
+    protected void featureChanged(String featureName) {
+        this.verbEntry = null;
+    }
+
     /**
      * Convenience method, equivalent to
      * <code>getFeatureAsString(LexicalFeature.DEFAULT_SPELL)</code>. If this
@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.jfr;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * Creates and commits the events. This is the only class besides the events
+ * which refers to the Flight Recorder, it is loaded by
+ * {@link FlightRecording} only if the Flight Recorder is available. An event
+ * is only begun if it is enabled in a running recording, the JIT compiles
+ * the check away otherwise.
+ */
+final class Events {
+
+    private Events() {
+    }
+
+    static Object beginRealisation() {
+        RealisationEvent event = new RealisationEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endRealisation(Object begun, NLGElement input, int sentences, int elements, NLGElement output) {
+        RealisationEvent event = (RealisationEvent) begun;
+        event.end();
+        if(event.shouldCommit()) {
+            event.category = categoryOf(input);
+            event.sentences = sentences;
+            event.elements = elements;
+            String realisation = output == null ? null : output.getRealisation();
+            event.length = realisation == null ? 0 : realisation.length();
+            event.outcome = output == null ? "elided" : "realised";
+            event.commit();
+        }
+    }
+
+    static Object beginStage() {
+        StageEvent event = new StageEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endStage(Object begun, String stage, NLGElement input) {
+        StageEvent event = (StageEvent) begun;
+        event.end();
+        if(event.shouldCommit()) {
+            event.stage = stage;
+            event.category = categoryOf(input);
+            event.commit();
+        }
+    }
+
+    static Object beginLookup() {
+        LookupEvent event = new LookupEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endLookup(Object begun, String baseForm, Object category, String path) {
+        LookupEvent event = (LookupEvent) begun;
+        event.end();
+        if(event.shouldCommit()) {
+            event.baseForm = baseForm;
+            event.category = category == null ? null : category.toString();
+            event.path = path;
+            event.commit();
+        }
+    }
+
+    static Object beginLoad() {
+        LoadEvent event = new LoadEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endLoad(Object begun, String source, int words, String outcome) {
+        LoadEvent event = (LoadEvent) begun;
+        event.end();
+        if(event.shouldCommit()) {
+            event.source = source;
+            event.words = words;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private static String categoryOf(NLGElement element) {
+        return element == null || element.getCategory() == null ? null : element.getCategory().toString();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.jfr;
+
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.NLGElement;
+
+/**
+ * <p>
+ * Emits JDK Flight Recorder events for realisations and lexicons, so that a
+ * recording shows a timeline of the realisations, their stages, the lexicon
+ * lookups and the loading of lexicons:
+ * </p>
+ *
+ * <ul>
+ * <li><code>simplenlgde.Realisation</code> with the category of the element,
+ * the number of sentences and of their elements after the syntax stage, the
+ * length of the text and whether the element was realised or elided</li>
+ * <li><code>simplenlgde.Stage</code> for every stage of a realisation</li>
+ * <li><code>simplenlgde.LexiconLookup</code> with the path by which the word
+ * was found; a word which is <code>created</code> was not in the lexicon</li>
+ * <li><code>simplenlgde.LexiconLoad</code> with the source and the number of
+ * words</li>
+ * </ul>
+ *
+ * <p>
+ * The events are recorded by every recording whose settings do not disable
+ * them, e.g. by <code>jcmd &lt;pid&gt; JFR.start</code> or
+ * <code>-XX:StartFlightRecording</code>. While no recording is running, every
+ * method of this class returns after a single check. On Java runtimes
+ * without the Flight Recorder, or with the system property
+ * <code>simplenlgde.jfr=false</code>, the event classes are never loaded.
+ * They are compiled against <code>jdk.jfr</code> though, so building the
+ * library requires JDK 11 or later.
+ * </p>
+ *
+ * <p>
+ * The <code>begin</code> methods return the begun event, or
+ * <code>null</code> if it is not recorded; the <code>end</code> methods must
+ * only be called with events which are not <code>null</code>. The events are
+ * passed as objects so that the callers do not refer to the Flight Recorder.
+ * </p>
+ */
+public final class FlightRecording {
+
+    private static final boolean AVAILABLE = detect();
+
+    private FlightRecording() {
+    }
+
+    private static boolean detect() {
+        if(!Boolean.parseBoolean(System.getProperty("simplenlgde.jfr", "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch(ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return whether the Flight Recorder is available and not disabled
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return the begun realisation event, or <code>null</code>
+     */
+    public static Object beginRealisation() {
+        return AVAILABLE ? Events.beginRealisation() : null;
+    }
+
+    /**
+     * commits a realisation event
+     *
+     * @param event
+     *            - the begun event
+     * @param input
+     *            - the realised element
+     * @param sentences
+     *            - the number of sentences
+     * @param elements
+     *            - the number of elements of the sentences after the syntax
+     *            stage
+     * @param output
+     *            - the result, <code>null</code> if the element was elided
+     */
+    public static void endRealisation(Object event, NLGElement input, int sentences, int elements,
+                                      NLGElement output) {
+        Events.endRealisation(event, input, sentences, elements, output);
+    }
+
+    /**
+     * @return the begun stage event, or <code>null</code>
+     */
+    public static Object beginStage() {
+        return AVAILABLE ? Events.beginStage() : null;
+    }
+
+    /**
+     * commits a stage event
+     *
+     * @param event
+     *            - the begun event
+     * @param stage
+     *            - the name of the stage
+     * @param input
+     *            - the element the stage realised
+     */
+    public static void endStage(Object event, String stage, NLGElement input) {
+        Events.endStage(event, stage, input);
+    }
+
+    /**
+     * @return the begun lookup event, or <code>null</code>
+     */
+    public static Object beginLookup() {
+        return AVAILABLE ? Events.beginLookup() : null;
+    }
+
+    /**
+     * commits a lookup event
+     *
+     * @param event
+     *            - the begun event
+     * @param baseForm
+     *            - the looked up base form
+     * @param category
+     *            - the looked up category
+     * @param path
+     *            - how the word was found
+     */
+    public static void endLookup(Object event, String baseForm, LexicalCategory category, String path) {
+        Events.endLookup(event, baseForm, category, path);
+    }
+
+    /**
+     * @return the begun load event, or <code>null</code>
+     */
+    public static Object beginLoad() {
+        return AVAILABLE ? Events.beginLoad() : null;
+    }
+
+    /**
+     * commits a load event
+     *
+     * @param event
+     *            - the begun event
+     * @param source
+     *            - where the lexicon was loaded from
+     * @param words
+     *            - the number of words loaded
+     * @param outcome
+     *            - <code>loaded</code> or <code>failed</code>
+     */
+    public static void endLoad(Object event, String source, int words, String outcome) {
+        Events.endLoad(event, source, words, outcome);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A lookup of {@link simplenlgde.lexicon.Lexicon#lookupWord(String,
+ * simplenlgde.framework.LexicalCategory)}.
+ */
+@Name("simplenlgde.LexiconLookup")
+@Label("Lexicon Lookup")
+@Category("SimpleNLG-DE")
+@Description("Lookup of a word in a lexicon")
+class LookupEvent extends Event {
+
+    @Label("Base Form")
+    String baseForm;
+
+    @Label("Category")
+    String category;
+
+    @Label("Path")
+    @Description("How the word was found: learned, base, variant, id or created if it is not in the lexicon")
+    String path;
+}
@@ -0,0 +1,47 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The realisation of an element by {@link simplenlgde.realiser.Realiser}.
+ */
+@Name("simplenlgde.Realisation")
+@Label("Realisation")
+@Category("SimpleNLG-DE")
+@Description("Realisation of an element through all stages")
+class RealisationEvent extends Event {
+
+    @Label("Category")
+    String category;
+
+    @Label("Sentences")
+    int sentences;
+
+    @Label("Elements")
+    @Description("Number of elements of the sentences after the syntax stage")
+    int elements;
+
+    @Label("Length")
+    @Description("Length of the realised text")
+    int length;
+
+    @Label("Outcome")
+    String outcome;
+}
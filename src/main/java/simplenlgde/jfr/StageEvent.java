@@ -0,0 +1,36 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One stage of a realisation.
+ */
+@Name("simplenlgde.Stage")
+@Label("Realisation Stage")
+@Category("SimpleNLG-DE")
+@Description("Syntax, morphology, orthography or formatter stage of a realisation")
+class StageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Category")
+    String category;
+}
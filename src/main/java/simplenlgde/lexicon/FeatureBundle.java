@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import simplenlgde.features.*;
+import simplenlgde.framework.NLGElement;
+
+/**
+ * This class packs the inflectional features of a word form (number, case,
+ * person, tense, gender, comparative and superlative) into a single
+ * <code>int</code>, so the variant index does not have to keep a feature map
+ * for every surface form. Each enumerated feature is stored as its ordinal plus
+ * one, so that <code>0</code> means the feature is not set. A bundle of
+ * <code>0</code> therefore describes the base form of a word.
+ */
+final class FeatureBundle {
+
+    static final int NONE = 0;
+
+    private static final int NUMBER_SHIFT = 0;
+    private static final int NUMBER_BITS = bitsFor(NumberAgreement.values().length);
+    private static final int CASE_SHIFT = NUMBER_SHIFT + NUMBER_BITS;
+    private static final int CASE_BITS = bitsFor(DiscourseFunction.values().length);
+    private static final int PERSON_SHIFT = CASE_SHIFT + CASE_BITS;
+    private static final int PERSON_BITS = bitsFor(Person.values().length);
+    private static final int TENSE_SHIFT = PERSON_SHIFT + PERSON_BITS;
+    private static final int TENSE_BITS = bitsFor(Tense.values().length);
+    private static final int GENDER_SHIFT = TENSE_SHIFT + TENSE_BITS;
+    private static final int GENDER_BITS = bitsFor(Gender.values().length);
+    private static final int COMPARATIVE_BIT = 1 << (GENDER_SHIFT + GENDER_BITS);
+    private static final int SUPERLATIVE_BIT = COMPARATIVE_BIT << 1;
+
+    private FeatureBundle() {
+    }
+
+    /**
+     * packs the inflectional features of an element into a bundle
+     *
+     * @param element
+     *            - the element, usually an <code>InflectedWordElement</code>
+     * @return the packed features
+     */
+    static int pack(NLGElement element) {
+        int bundle = NONE;
+        bundle = put(bundle, element.getFeature(Feature.NUMBER), NumberAgreement.class, NUMBER_SHIFT);
+        bundle = put(bundle, element.getFeature(InternalFeature.CASE), DiscourseFunction.class, CASE_SHIFT);
+        bundle = put(bundle, element.getFeature(Feature.PERSON), Person.class, PERSON_SHIFT);
+        bundle = put(bundle, element.getFeature(Feature.TENSE), Tense.class, TENSE_SHIFT);
+        bundle = put(bundle, element.getFeature(LexicalFeature.GENDER), Gender.class, GENDER_SHIFT);
+        if (Boolean.TRUE.equals(element.getFeature(Feature.IS_COMPARATIVE))) {
+            bundle |= COMPARATIVE_BIT;
+        }
+        if (Boolean.TRUE.equals(element.getFeature(Feature.IS_SUPERLATIVE))) {
+            bundle |= SUPERLATIVE_BIT;
+        }
+        return bundle;
+    }
+
+    static NumberAgreement getNumber(int bundle) {
+        return get(bundle, NumberAgreement.values(), NUMBER_SHIFT, NUMBER_BITS);
+    }
+
+    static DiscourseFunction getCase(int bundle) {
+        return get(bundle, DiscourseFunction.values(), CASE_SHIFT, CASE_BITS);
+    }
+
+    static Person getPerson(int bundle) {
+        return get(bundle, Person.values(), PERSON_SHIFT, PERSON_BITS);
+    }
+
+    static Tense getTense(int bundle) {
+        return get(bundle, Tense.values(), TENSE_SHIFT, TENSE_BITS);
+    }
+
+    static Gender getGender(int bundle) {
+        return get(bundle, Gender.values(), GENDER_SHIFT, GENDER_BITS);
+    }
+
+    static boolean isComparative(int bundle) {
+        return (bundle & COMPARATIVE_BIT) != 0;
+    }
+
+    static boolean isSuperlative(int bundle) {
+        return (bundle & SUPERLATIVE_BIT) != 0;
+    }
+
+    private static <E extends Enum<E>> int put(int bundle, Object value, Class<E> type, int shift) {
+        if (type.isInstance(value)) {
+            bundle |= (type.cast(value).ordinal() + 1) << shift;
+        }
+        return bundle;
+    }
+
+    private static <E extends Enum<E>> E get(int bundle, E[] values, int shift, int bits) {
+        int index = (bundle >>> shift) & ((1 << bits) - 1);
+        return index == 0 ? null : values[index - 1];
+    }
+
+    /**
+     * number of bits needed to store the ordinals of an enumeration with the
+     * given number of values, plus the value for "not set"
+     */
+    private static int bitsFor(int values) {
+        return 32 - Integer.numberOfLeadingZeros(values);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import simplenlgde.features.Gender;
+import simplenlgde.features.LexicalFeature;
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.MemoryEstimator;
+import simplenlgde.framework.WordElement;
+
+/**
+ * <p>
+ * A bounded, thread-safe store for words which are not in a lexicon. When
+ * {@link Lexicon#lookupWord(String, LexicalCategory)} does not find a word,
+ * the synthesised entry is kept here together with everything that can be
+ * derived from the base form alone: the gender of a noun, if its suffix
+ * determines it, and the parsed conjugation data of a verb. Further lookups
+ * of the same word are a single map hit.
+ * </p>
+ *
+ * <p>
+ * Entries are never handed out directly, every lookup returns a copy, as the
+ * lexicon does for its own words. When the store is full, the oldest entries
+ * are dropped first.
+ * </p>
+ */
+public class LearnedLexicon {
+
+    /** default number of words kept */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    // noun suffixes which determine the gender, longest suffixes first
+    private static final String[] FEMININE_SUFFIXES = {"schaft", "heit", "keit", "tion", "sion", "tät"};
+    private static final String[] NEUTER_SUFFIXES = {"chen", "lein"};
+    private static final String[] MASCULINE_SUFFIXES = {"ismus", "ling"};
+    // masculine nouns in -ung whose stem has a vowel, e.g. Ursprung, Aufschwung
+    private static final String[] MASCULINE_UNG_STEMS = {"sprung", "schwung"};
+    private static final String VOWELS = "aeiouäöüyAEIOUÄÖÜY";
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, WordElement> words = new ConcurrentHashMap<String, WordElement>();
+    // guarded by itself, as is every change of words
+    private final ArrayDeque<String> insertionOrder = new ArrayDeque<String>();
+
+    /**
+     * create a learned lexicon with the default capacity
+     */
+    public LearnedLexicon() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * create a learned lexicon
+     *
+     * @param capacity
+     *            - maximum number of words kept
+     */
+    public LearnedLexicon(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * returns a copy of a learned word
+     *
+     * @param baseForm
+     *            - base form of the word
+     * @param category
+     *            - category the word was looked up with
+     * @return copy of the learned word, or <code>null</code> if the word has
+     *         not been learned
+     */
+    public WordElement lookup(String baseForm, LexicalCategory category) {
+        if (baseForm == null) {
+            return null;
+        }
+        WordElement word = words.get(key(baseForm, category));
+        return word == null ? null : new WordElement(word);
+    }
+
+    /**
+     * stores a word which was not found in the lexicon. Gender and
+     * conjugation data are derived once and kept with the entry.
+     *
+     * @param word
+     *            - the synthesised entry, is not modified
+     * @param category
+     *            - category the word was looked up with
+     * @return copy of the learned word
+     */
+    public WordElement learn(WordElement word, LexicalCategory category) {
+        if (word.getBaseForm() == null) {
+            return word;
+        }
+        WordElement learned = new WordElement(word);
+        if (learned.getCategory() == LexicalCategory.NOUN && !learned.hasFeature(LexicalFeature.GENDER)) {
+            Gender gender = inferGender(learned.getBaseForm());
+            if (gender != null) {
+                learned.setFeature(LexicalFeature.GENDER, gender);
+            }
+        } else if (learned.getCategory() == LexicalCategory.VERB) {
+            learned.getVerbEntry();
+        }
+
+        String key = key(word.getBaseForm(), category);
+        synchronized (insertionOrder) {
+            if (words.putIfAbsent(key, learned) == null) {
+                insertionOrder.add(key);
+                if (insertionOrder.size() > capacity) {
+                    words.remove(insertionOrder.poll());
+                }
+            }
+        }
+        return new WordElement(learned);
+    }
+
+    /**
+     * @return number of learned words
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * @return maximum number of words kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * estimates the memory of the learned words, sampling at most
+     * {@link MemoryEstimator#DEFAULT_SAMPLES} words
+     *
+     * @param estimator
+     *            - the estimator, which does not count objects twice
+     * @param features
+     *            - the sizes of the words by feature name, which are increased
+     * @return the estimated size in bytes
+     */
+    public long estimateMemory(MemoryEstimator estimator, Map<String, Long> features) {
+        long order;
+        synchronized (insertionOrder) {
+            order = estimator.sizeOf(insertionOrder);
+        }
+        return MemoryEstimator.hashMapSize(words.size()) + order
+                + estimator.sizeOfSample(words.values(), MemoryEstimator.DEFAULT_SAMPLES, features);
+    }
+
+    /**
+     * forgets all learned words
+     */
+    public void clear() {
+        synchronized (insertionOrder) {
+            words.clear();
+            insertionOrder.clear();
+        }
+    }
+
+    /**
+     * infers the gender of a noun from its suffix, e.g. feminine for nouns
+     * ending in <em>-ung</em> after a stem with a vowel, but not for
+     * <em>Sprung</em> or <em>Schwung</em> and their compounds
+     *
+     * @param baseForm
+     *            - base form of the noun
+     * @return the gender, or <code>null</code> if the suffix does not
+     *         determine it
+     */
+    public static Gender inferGender(String baseForm) {
+        if (baseForm == null) {
+            return null;
+        }
+        if (endsWithIgnoreCase(baseForm, MASCULINE_UNG_STEMS)) {
+            return Gender.MASCULINE;
+        } else if (endsWithAny(baseForm, FEMININE_SUFFIXES)
+                || baseForm.endsWith("ung") && hasVowel(baseForm, baseForm.length() - 3)) {
+            return Gender.FEMININE;
+        } else if (endsWithAny(baseForm, NEUTER_SUFFIXES)) {
+            return Gender.NEUTER;
+        } else if (endsWithAny(baseForm, MASCULINE_SUFFIXES)) {
+            return Gender.MASCULINE;
+        }
+        return null;
+    }
+
+    private static boolean endsWithAny(String word, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (word.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithIgnoreCase(String word, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (word.regionMatches(true, word.length() - suffix.length(), suffix, 0, suffix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // whether the word has a vowel before the given index
+    private static boolean hasVowel(String word, int end) {
+        for (int i = 0; i < end; i++) {
+            if (VOWELS.indexOf(word.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(String baseForm, LexicalCategory category) {
+        return category == null ? baseForm : baseForm + '\u0000' + category.name();
+    }
+}
@@ -22,15 +22,30 @@
 
 package simplenlgde.lexicon;
 import simplenlgde.framework.*;
+import simplenlgde.jfr.FlightRecording;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is the generic abstract class for a Lexicon.
  */
 
 
-public abstract class Lexicon {
+public abstract class Lexicon implements MemoryAccountable {
+
+    /* words which were not found in the lexicon, see lookupWord */
+    private final LearnedLexicon learnedWords = new LearnedLexicon();
+
+    /* incremented whenever the entries of this lexicon change, see getVersion */
+    private final AtomicLong version = new AtomicLong();
+
+    /* records the lookups, null if they are not recorded */
+    private volatile LexiconStatistics statistics;
+
     /****************************************************************************/
     // constructors and related
     /****************************************************************************/
@@ -84,21 +99,42 @@ public abstract class Lexicon {
 
     /**
      * General word lookup method, tries base form, variant, ID (in this order)
-     * Creates new word if can't find existing word
+     * Creates new word if can't find existing word. Created words are kept in
+     * the learned lexicon, so the next lookup of the same word does not search
+     * the lexicon again. The lookup is recorded by the statistics of the
+     * lexicon, if any, and by the Flight Recorder, see
+     * {@link FlightRecording}.
      *
      * @param baseForm
      * @param category
      * @return word
      */
     public WordElement lookupWord(String baseForm, LexicalCategory category) {
-        if (hasWord(baseForm, category))
-            return getWord(baseForm, category);
-        else if (hasWordFromVariant(baseForm, category))
-            return getWordFromVariant(baseForm, category);
-        else if (hasWordByID(baseForm))
-            return getWordByID(baseForm);
-        else
-            return createWord(baseForm, category);
+        Object event = FlightRecording.beginLookup();
+        LexiconStatistics statistics = this.statistics;
+        long start = statistics == null ? 0 : System.nanoTime();
+        WordElement word = learnedWords.lookup(baseForm, category);
+        String path;
+        if (word != null)
+            path = LexiconStatistics.LEARNED;
+        else if (hasWord(baseForm, category)) {
+            word = getWord(baseForm, category);
+            path = LexiconStatistics.BASE;
+        } else if (hasWordFromVariant(baseForm, category)) {
+            word = getWordFromVariant(baseForm, category);
+            path = LexiconStatistics.VARIANT;
+        } else if (hasWordByID(baseForm)) {
+            word = getWordByID(baseForm);
+            path = LexiconStatistics.ID;
+        } else {
+            word = learnedWords.learn(createWord(baseForm, category), category);
+            path = LexiconStatistics.CREATED;
+        }
+        if (statistics != null)
+            statistics.recordLookup(path, baseForm, System.nanoTime() - start);
+        if (event != null)
+            FlightRecording.endLookup(event, baseForm, category, path);
+        return word;
     }
 
     /**
@@ -112,6 +148,96 @@ public abstract class Lexicon {
         return lookupWord(baseForm, LexicalCategory.ANY);
     }
 
+    /**
+     * returns the words created by lookupWord because they were not in the
+     * lexicon
+     *
+     * @return learned lexicon of this lexicon
+     */
+    public LearnedLexicon getLearnedWords() {
+        return learnedWords;
+    }
+
+    /**
+     * sets the statistics which record the lookups of this lexicon, see
+     * {@link LexiconStatistics}. A multiple lexicon also records the searches
+     * of its lexicons.
+     *
+     * @param statistics
+     *            - the statistics, null to record nothing
+     */
+    public void setStatistics(LexiconStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return the statistics of the lookups of this lexicon, or null
+     */
+    public LexiconStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Estimates the heap retained by this lexicon, see
+     * {@link MemoryReport}: by part of the lexicon (<code>index</code>), by
+     * lexical category of the words (<code>category</code>) and by feature
+     * of the words (<code>feature</code>). Large lexicons are sampled.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryReport estimateMemory() {
+        Map<String, Long> indexes = new HashMap<String, Long>();
+        Map<String, Long> categories = new HashMap<String, Long>();
+        Map<String, Long> features = new HashMap<String, Long>();
+        estimateMemory(new MemoryEstimator(), indexes, categories, features);
+        long bytes = 0;
+        for (long index : indexes.values())
+            bytes += index;
+        return new MemoryReport(getClass().getSimpleName(), bytes)
+                .withBreakdown(MemoryReport.INDEX, indexes)
+                .withBreakdown(MemoryReport.CATEGORY, categories)
+                .withBreakdown(MemoryReport.FEATURE, features);
+    }
+
+    /**
+     * adds the estimated sizes of the parts of this lexicon to the
+     * breakdowns, see {@link #estimateMemory()}. Lexicons which hold words
+     * override this and call it for the learned words.
+     *
+     * @param estimator
+     *            - the estimator, which does not count objects twice
+     * @param indexes
+     *            - the sizes by part of the lexicon; the parts add up to
+     *            the total
+     * @param categories
+     *            - the sizes of the words by lexical category
+     * @param features
+     *            - the sizes of the words by feature
+     */
+    protected void estimateMemory(MemoryEstimator estimator, Map<String, Long> indexes,
+                                  Map<String, Long> categories, Map<String, Long> features) {
+        MemoryEstimator.add(indexes, "learnedWords", learnedWords.estimateMemory(estimator, features));
+    }
+
+    /**
+     * returns the version of this lexicon. The version changes whenever a
+     * change of the lexicon may change the realisation of an element, so
+     * results computed with an older version must not be reused.
+     *
+     * @return version of this lexicon
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * marks the entries of this lexicon as changed, see getVersion
+     */
+    protected void changed() {
+        version.incrementAndGet();
+    }
+
     /****************************************************************************/
     // get words by baseform and category
     // fundamental version is getWords(String baseForm, Category category),
@@ -430,6 +556,47 @@ public abstract class Lexicon {
         return !getWordsFromVariant(variant).isEmpty();
     }
 
+    /****************************************************************************/
+    // morphological analysis - return the words an inflected form belongs to,
+    // together with the features which produce the form.
+    // The default version is derived from getWordsFromVariant and cannot tell
+    // which inflection matched; lexicons which index their variants should
+    // override analyse(String variant, LexicalCategory category)
+    /****************************************************************************/
+
+    /**
+     * returns all analyses of an inflected form and/or spelling variant, in
+     * the specified category. Each analysis contains the lemma, the category
+     * and the inflectional features which produce the variant. <br>
+     * <I>Note:</I> the default implementation does not know the features, it
+     * returns one analysis without features for every matching word
+     *
+     * @param variant
+     *            - base form, inflected form, or spelling variant of word
+     * @param category
+     *            - syntactic category of word (ANY for unknown)
+     * @return list of all analyses (empty list if the variant is unknown)
+     */
+    public List<MorphologicalAnalysis> analyse(String variant, LexicalCategory category) {
+        List<MorphologicalAnalysis> result = new ArrayList<MorphologicalAnalysis>();
+        for (WordElement word : getWordsFromVariant(variant, category)) {
+            result.add(new MorphologicalAnalysis(word, FeatureBundle.NONE));
+        }
+        return result;
+    }
+
+    /**
+     * returns all analyses of an inflected form and/or spelling variant, of
+     * any category.
+     *
+     * @param variant
+     *            - base form, inflected form, or spelling variant of word
+     * @return list of all analyses (empty list if the variant is unknown)
+     */
+    public List<MorphologicalAnalysis> analyse(String variant) {
+        return analyse(variant, LexicalCategory.ANY);
+    }
+
     /****************************************************************************/
     // other methods
     /****************************************************************************/
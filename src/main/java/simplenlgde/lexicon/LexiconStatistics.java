@@ -0,0 +1,410 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Statistics of the lookups of a lexicon, see
+ * {@link Lexicon#setStatistics(LexiconStatistics)}:
+ * </p>
+ *
+ * <ul>
+ * <li>how often {@link Lexicon#lookupWord(String, simplenlgde.framework.LexicalCategory)}
+ * found a word by which path: a word learned before (<code>learned</code>),
+ * by base form (<code>base</code>), by variant (<code>variant</code>), by ID
+ * (<code>id</code>), or not at all, so that it was <code>created</code>;</li>
+ * <li>the latency of the lookups;</li>
+ * <li>the words most frequently missed, i.e. created or learned, which are
+ * the candidates for adding to the lexicon. The words are counted with the
+ * space-saving algorithm in a bounded table: a word which is not in the table
+ * replaces the least frequent one and inherits its count, so the count of a
+ * word is an upper bound which is exact for the frequent words. The table is
+ * a stream summary, in which the words with the same count share a bucket
+ * and the buckets are ordered by count, so that counting a word takes
+ * constant time;</li>
+ * <li>for a {@link MultipleLexicon}, how often each of its lexicons was
+ * searched, how often it found the word, and the latency of the
+ * searches.</li>
+ * </ul>
+ *
+ * <p>
+ * The statistics are thread-safe and can be registered as an MXBean, e.g.
+ * </p>
+ *
+ * <pre>
+ * LexiconStatistics statistics = new LexiconStatistics(100);
+ * lexicon.setStatistics(statistics);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(statistics,
+ *         new ObjectName(&quot;simplenlgde:type=LexiconStatistics&quot;));
+ * </pre>
+ */
+public class LexiconStatistics implements LexiconStatisticsMXBean {
+
+    /** path of a word which was created before and is not in the lexicon */
+    public static final String LEARNED = "learned";
+    /** path of a word found by its base form */
+    public static final String BASE = "base";
+    /** path of a word found by a variant */
+    public static final String VARIANT = "variant";
+    /** path of a word found by its ID */
+    public static final String ID = "id";
+    /** path of a word which is not in the lexicon and was created */
+    public static final String CREATED = "created";
+
+    /** default number of missed words which are counted */
+    public static final int DEFAULT_TOP_WORDS = 100;
+
+    private static final String[] PATHS = {LEARNED, BASE, VARIANT, ID, CREATED};
+
+    private final AtomicLongArray pathCounts = new AtomicLongArray(PATHS.length);
+    private final AtomicLong lookupNanos = new AtomicLong();
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+    private final ConcurrentMap<String, Search> searches = new ConcurrentHashMap<String, Search>();
+    private final int topWords;
+    // space-saving table of the missed words and its bucket with the lowest
+    // count, guarded by the table
+    private final Map<String, Counter> missedWords = new HashMap<String, Counter>();
+    private Bucket leastMissed;
+
+    /**
+     * create statistics which count the {@link #DEFAULT_TOP_WORDS} most
+     * frequently missed words
+     */
+    public LexiconStatistics() {
+        this(DEFAULT_TOP_WORDS);
+    }
+
+    /**
+     * create statistics
+     *
+     * @param topWords
+     *            - the number of missed words which are counted
+     */
+    public LexiconStatistics(int topWords) {
+        if(topWords < 1) {
+            throw new IllegalArgumentException("topWords must be at least 1: " + topWords);
+        }
+        this.topWords = topWords;
+    }
+
+    /**
+     * records a lookup
+     *
+     * @param path
+     *            - how the word was found, one of the path constants
+     * @param baseForm
+     *            - the looked up base form
+     * @param nanos
+     *            - the latency of the lookup
+     */
+    public void recordLookup(String path, String baseForm, long nanos) {
+        int index = indexOf(path);
+        if(index >= 0) {
+            this.pathCounts.incrementAndGet(index);
+        }
+        this.lookupNanos.addAndGet(nanos);
+        long max;
+        while(nanos > (max = this.maxLookupNanos.get()) && !this.maxLookupNanos.compareAndSet(max, nanos)) {
+        }
+        if((LEARNED.equals(path) || CREATED.equals(path)) && baseForm != null) {
+            recordMiss(baseForm);
+        }
+    }
+
+    private static int indexOf(String path) {
+        for(int i = 0; i < PATHS.length; i++) {
+            if(PATHS[i].equals(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * counts a missed word in the space-saving table
+     */
+    private void recordMiss(String baseForm) {
+        synchronized(this.missedWords) {
+            Counter counter = this.missedWords.get(baseForm);
+            if(counter == null) {
+                if(this.missedWords.size() < this.topWords) {
+                    counter = new Counter(baseForm);
+                    if(this.leastMissed == null || this.leastMissed.count != 0) {
+                        Bucket bucket = new Bucket(0);
+                        bucket.next = this.leastMissed;
+                        if(this.leastMissed != null) {
+                            this.leastMissed.previous = bucket;
+                        }
+                        this.leastMissed = bucket;
+                    }
+                    this.leastMissed.add(counter);
+                } else {
+                    // replaces a word with the lowest count
+                    counter = this.leastMissed.first;
+                    this.missedWords.remove(counter.word);
+                    counter.word = baseForm;
+                }
+                this.missedWords.put(baseForm, counter);
+            }
+            increment(counter);
+        }
+    }
+
+    /**
+     * moves a counter to the bucket of the next higher count
+     */
+    private void increment(Counter counter) {
+        Bucket bucket = counter.bucket;
+        long count = bucket.count + 1;
+        Bucket next = bucket.next;
+        if(next == null || next.count != count) {
+            if(bucket.first == counter && counter.next == null) {
+                // the only word with its count keeps the bucket
+                bucket.count = count;
+                return;
+            }
+            next = new Bucket(count);
+            next.previous = bucket;
+            next.next = bucket.next;
+            if(bucket.next != null) {
+                bucket.next.previous = next;
+            }
+            bucket.next = next;
+        }
+        bucket.remove(counter);
+        if(bucket.first == null) {
+            if(bucket.previous != null) {
+                bucket.previous.next = next;
+            } else {
+                this.leastMissed = next;
+            }
+            next.previous = bucket.previous;
+        }
+        next.add(counter);
+    }
+
+    /**
+     * records a search of one lexicon of a multiple lexicon
+     *
+     * @param lexicon
+     *            - the name of the searched lexicon
+     * @param found
+     *            - whether a word was found
+     * @param nanos
+     *            - the latency of the search
+     */
+    public void recordSearch(String lexicon, boolean found, long nanos) {
+        Search search = this.searches.get(lexicon);
+        if(search == null) {
+            Search created = new Search();
+            search = this.searches.putIfAbsent(lexicon, created);
+            if(search == null) {
+                search = created;
+            }
+        }
+        search.count.incrementAndGet();
+        if(found) {
+            search.hits.incrementAndGet();
+        }
+        search.nanos.addAndGet(nanos);
+    }
+
+    /**
+     * @param path
+     *            - one of the path constants
+     * @return the number of lookups with the path
+     */
+    public long getPathCount(String path) {
+        int index = indexOf(path);
+        return index < 0 ? 0 : this.pathCounts.get(index);
+    }
+
+    @Override
+    public long getLookups() {
+        long lookups = 0;
+        for(int i = 0; i < PATHS.length; i++) {
+            lookups += this.pathCounts.get(i);
+        }
+        return lookups;
+    }
+
+    @Override
+    public Map<String, Long> getPathCounts() {
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for(int i = 0; i < PATHS.length; i++) {
+            counts.put(PATHS[i], this.pathCounts.get(i));
+        }
+        return counts;
+    }
+
+    @Override
+    public double getMissRate() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) (getPathCount(LEARNED) + getPathCount(CREATED)) / lookups;
+    }
+
+    @Override
+    public double getMeanLookupNanos() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) this.lookupNanos.get() / lookups;
+    }
+
+    @Override
+    public long getMaxLookupNanos() {
+        return this.maxLookupNanos.get();
+    }
+
+    @Override
+    public Map<String, Long> getTopMissedWords() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>();
+        synchronized(this.missedWords) {
+            for(Map.Entry<String, Counter> entry : this.missedWords.entrySet()) {
+                entries.add(new AbstractMap.SimpleEntry<String, Long>(entry.getKey(),
+                        entry.getValue().bucket.count));
+            }
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> first, Map.Entry<String, Long> second) {
+                int order = second.getValue().compareTo(first.getValue());
+                return order != 0 ? order : first.getKey().compareTo(second.getKey());
+            }
+        });
+        Map<String, Long> words = new LinkedHashMap<String, Long>();
+        for(Map.Entry<String, Long> entry : entries) {
+            words.put(entry.getKey(), entry.getValue());
+        }
+        return words;
+    }
+
+    @Override
+    public Map<String, Long> getSearchCounts() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for(Map.Entry<String, Search> entry : this.searches.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().count.get());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getSearchHits() {
+        Map<String, Long> hits = new TreeMap<String, Long>();
+        for(Map.Entry<String, Search> entry : this.searches.entrySet()) {
+            hits.put(entry.getKey(), entry.getValue().hits.get());
+        }
+        return hits;
+    }
+
+    @Override
+    public Map<String, Double> getMeanSearchNanos() {
+        Map<String, Double> means = new TreeMap<String, Double>();
+        for(Map.Entry<String, Search> entry : this.searches.entrySet()) {
+            long count = entry.getValue().count.get();
+            means.put(entry.getKey(), count == 0 ? 0 : (double) entry.getValue().nanos.get() / count);
+        }
+        return means;
+    }
+
+    @Override
+    public void reset() {
+        for(int i = 0; i < PATHS.length; i++) {
+            this.pathCounts.set(i, 0);
+        }
+        this.lookupNanos.set(0);
+        this.maxLookupNanos.set(0);
+        this.searches.clear();
+        synchronized(this.missedWords) {
+            this.missedWords.clear();
+            this.leastMissed = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LexiconStatistics[lookups=" + getLookups() + ", paths=" + getPathCounts() + ", missRate="
+                + getMissRate() + "]";
+    }
+
+    /**
+     * The searches of one lexicon of a multiple lexicon.
+     */
+    private static class Search {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+    }
+
+    /**
+     * A word of the space-saving table.
+     */
+    private static class Counter {
+        private String word;
+        private Bucket bucket;
+        private Counter previous;
+        private Counter next;
+
+        Counter(String word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * The words of the space-saving table with the same count, linked to the
+     * buckets of the next lower and higher counts.
+     */
+    private static class Bucket {
+        private long count;
+        private Counter first;
+        private Bucket previous;
+        private Bucket next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+
+        void add(Counter counter) {
+            counter.bucket = this;
+            counter.previous = null;
+            counter.next = this.first;
+            if(this.first != null) {
+                this.first.previous = counter;
+            }
+            this.first = counter;
+        }
+
+        void remove(Counter counter) {
+            if(counter.previous != null) {
+                counter.previous.next = counter.next;
+            } else {
+                this.first = counter.next;
+            }
+            if(counter.next != null) {
+                counter.next.previous = counter.previous;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link LexiconStatistics}.
+ */
+public interface LexiconStatisticsMXBean {
+
+    /**
+     * @return the number of lookups
+     */
+    long getLookups();
+
+    /**
+     * @return the number of lookups by path: <code>learned</code>,
+     *         <code>base</code>, <code>variant</code>, <code>id</code> and
+     *         <code>created</code>
+     */
+    Map<String, Long> getPathCounts();
+
+    /**
+     * @return the share of lookups of words which are not in the lexicon,
+     *         i.e. <code>learned</code> or <code>created</code>
+     */
+    double getMissRate();
+
+    /**
+     * @return the mean latency of a lookup in nanoseconds
+     */
+    double getMeanLookupNanos();
+
+    /**
+     * @return the largest latency of a lookup in nanoseconds
+     */
+    long getMaxLookupNanos();
+
+    /**
+     * @return the most frequently missed words with their estimated number of
+     *         lookups, most frequent first
+     */
+    Map<String, Long> getTopMissedWords();
+
+    /**
+     * @return the number of searches of every lexicon of a
+     *         {@link MultipleLexicon}
+     */
+    Map<String, Long> getSearchCounts();
+
+    /**
+     * @return the number of searches of every lexicon of a
+     *         {@link MultipleLexicon} which found a word
+     */
+    Map<String, Long> getSearchHits();
+
+    /**
+     * @return the mean latency of a search of every lexicon of a
+     *         {@link MultipleLexicon} in nanoseconds
+     */
+    Map<String, Double> getMeanSearchNanos();
+
+    /**
+     * forgets all statistics
+     */
+    void reset();
+}
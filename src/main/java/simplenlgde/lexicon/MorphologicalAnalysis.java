@@ -0,0 +1,183 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import simplenlgde.features.*;
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.WordElement;
+
+/**
+ * <p>
+ * One reading of an inflected surface form, as returned by
+ * {@link Lexicon#analyse(String)}: the lexicon entry (lemma and category) and
+ * the inflectional features which produce the surface form. For example,
+ * <em>Hunden</em> is analysed as the lemma <em>Hund</em>, category noun,
+ * plural, indirect object (dative).
+ * </p>
+ *
+ * <p>
+ * Features which were not needed to produce the form are not set, so the
+ * corresponding getters return <code>null</code>. An analysis without any
+ * features means that the surface form is the base form of the word, or that
+ * the lexicon does not know which inflection produced it.
+ * </p>
+ */
+public class MorphologicalAnalysis {
+
+    private final WordElement word;
+    private final int features;
+
+    /**
+     * create an analysis from a lexicon entry and a packed feature bundle
+     *
+     * @param word
+     *            - the lexicon entry, not copied
+     * @param features
+     *            - the packed features, see <code>FeatureBundle</code>
+     */
+    MorphologicalAnalysis(WordElement word, int features) {
+        this.word = word;
+        this.features = features;
+    }
+
+    /**
+     * @return the base form of the word
+     */
+    public String getLemma() {
+        return word.getBaseForm();
+    }
+
+    /**
+     * @return the lexical category of the word
+     */
+    public LexicalCategory getCategory() {
+        ElementCategory category = word.getCategory();
+        return category instanceof LexicalCategory ? (LexicalCategory) category : LexicalCategory.ANY;
+    }
+
+    /**
+     * @return a copy of the lexicon entry of the word
+     */
+    public WordElement getWord() {
+        return new WordElement(word);
+    }
+
+    /**
+     * @return the number, or <code>null</code> if not set
+     */
+    public NumberAgreement getNumber() {
+        return FeatureBundle.getNumber(features);
+    }
+
+    /**
+     * @return the grammatical case, or <code>null</code> if not set
+     */
+    public DiscourseFunction getCase() {
+        return FeatureBundle.getCase(features);
+    }
+
+    /**
+     * @return the person, or <code>null</code> if not set
+     */
+    public Person getPerson() {
+        return FeatureBundle.getPerson(features);
+    }
+
+    /**
+     * @return the tense, or <code>null</code> if not set
+     */
+    public Tense getTense() {
+        return FeatureBundle.getTense(features);
+    }
+
+    /**
+     * @return the gender, or <code>null</code> if not set
+     */
+    public Gender getGender() {
+        return FeatureBundle.getGender(features);
+    }
+
+    /**
+     * @return <code>true</code> if the form is a comparative
+     */
+    public boolean isComparative() {
+        return FeatureBundle.isComparative(features);
+    }
+
+    /**
+     * @return <code>true</code> if the form is a superlative
+     */
+    public boolean isSuperlative() {
+        return FeatureBundle.isSuperlative(features);
+    }
+
+    /**
+     * @return <code>true</code> if no inflectional features are set
+     */
+    public boolean isBaseForm() {
+        return features == FeatureBundle.NONE;
+    }
+
+    /**
+     * returns the features of this analysis under the feature names used by
+     * the realiser, so they can be copied onto an element with
+     * <code>setFeature</code>
+     *
+     * @return map from feature name to value, only containing features which
+     *         are set
+     */
+    public Map<String, Object> getFeatures() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        putIfSet(result, Feature.NUMBER, getNumber());
+        putIfSet(result, InternalFeature.CASE, getCase());
+        putIfSet(result, Feature.PERSON, getPerson());
+        putIfSet(result, Feature.TENSE, getTense());
+        putIfSet(result, LexicalFeature.GENDER, getGender());
+        if (isComparative()) {
+            result.put(Feature.IS_COMPARATIVE, true);
+        }
+        if (isSuperlative()) {
+            result.put(Feature.IS_SUPERLATIVE, true);
+        }
+        return result;
+    }
+
+    private static void putIfSet(Map<String, Object> map, String feature, Object value) {
+        if (value != null) {
+            map.put(feature, value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MorphologicalAnalysis)) {
+            return false;
+        }
+        MorphologicalAnalysis other = (MorphologicalAnalysis) o;
+        return word == other.word && features == other.features;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(word) + features;
+    }
+
+    @Override
+    public String toString() {
+        return "MorphologicalAnalysis[" + getLemma() + ':' + getCategory() + ", " + getFeatures() + ']';
+    }
+}
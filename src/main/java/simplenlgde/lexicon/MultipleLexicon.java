@@ -20,7 +20,10 @@
 package simplenlgde.lexicon;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import simplenlgde.framework.*;
 
@@ -72,6 +75,8 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	public void addInitialLexicon(Lexicon lex) {
 		lexiconList.add(0, lex);
+		getLearnedWords().clear();
+		changed();
 	}
 
 	/** add lexicon at end of list (is searched last)
@@ -79,6 +84,8 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	public void addFinalLexicon(Lexicon lex) {
 		lexiconList.add(0, lex);
+		getLearnedWords().clear();
+		changed();
 	}
 
 	/**
@@ -93,6 +100,19 @@ public class MultipleLexicon extends Lexicon {
 	 */
 	public void setAlwaysSearchAll(boolean alwaysSearchAll) {
 		this.alwaysSearchAll = alwaysSearchAll;
+		changed();
+	}
+
+	/**
+	 * the version changes when a lexicon is added or one of the lexicons
+	 * changes
+	 */
+	@Override
+	public long getVersion() {
+		long version = super.getVersion();
+		for (Lexicon lex: lexiconList)
+			version += lex.getVersion();
+		return version;
 	}
 
 	/**********************************************************************/
@@ -105,8 +125,13 @@ public class MultipleLexicon extends Lexicon {
 	@Override
 	public List<WordElement> getWords(String baseForm, LexicalCategory category) {
 		List<WordElement> result = new ArrayList<WordElement>();
+		LexiconStatistics statistics = getStatistics();
+		int index = 0;
 		for (Lexicon lex: lexiconList) {
+			long start = statistics == null ? 0 : System.nanoTime();
 			List<WordElement> lexResult = lex.getWords(baseForm, category);
+			if (statistics != null)
+				recordSearch(statistics, index++, lex, lexResult, start);
 			if (lexResult != null && !lexResult.isEmpty()) {
 				result.addAll(lexResult);
 				if (!alwaysSearchAll)
@@ -122,8 +147,13 @@ public class MultipleLexicon extends Lexicon {
 	@Override
 	public List<WordElement> getWordsByID(String id) {
 		List<WordElement> result = new ArrayList<WordElement>();
+		LexiconStatistics statistics = getStatistics();
+		int index = 0;
 		for (Lexicon lex: lexiconList) {
+			long start = statistics == null ? 0 : System.nanoTime();
 			List<WordElement> lexResult = lex.getWordsByID(id);
+			if (statistics != null)
+				recordSearch(statistics, index++, lex, lexResult, start);
 			if (lexResult != null && !lexResult.isEmpty()) {
 				result.addAll(lexResult);
 				if (!alwaysSearchAll)
@@ -139,8 +169,30 @@ public class MultipleLexicon extends Lexicon {
 	@Override
 	public List<WordElement> getWordsFromVariant(String variant, LexicalCategory category) {
 		List<WordElement> result = new ArrayList<WordElement>();
+		LexiconStatistics statistics = getStatistics();
+		int index = 0;
 		for (Lexicon lex: lexiconList) {
+			long start = statistics == null ? 0 : System.nanoTime();
 			List<WordElement> lexResult = lex.getWordsFromVariant(variant, category);
+			if (statistics != null)
+				recordSearch(statistics, index++, lex, lexResult, start);
+			if (lexResult != null && !lexResult.isEmpty()) {
+				result.addAll(lexResult);
+				if (!alwaysSearchAll)
+					return result;
+			}
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see simplenlg.lexicon.Lexicon#analyse(java.lang.String, simplenlg.features.LexicalCategory)
+	 */
+	@Override
+	public List<MorphologicalAnalysis> analyse(String variant, LexicalCategory category) {
+		List<MorphologicalAnalysis> result = new ArrayList<MorphologicalAnalysis>();
+		for (Lexicon lex: lexiconList) {
+			List<MorphologicalAnalysis> lexResult = lex.analyse(variant, category);
 			if (lexResult != null && !lexResult.isEmpty()) {
 				result.addAll(lexResult);
 				if (!alwaysSearchAll)
@@ -155,6 +207,40 @@ public class MultipleLexicon extends Lexicon {
 	// other methods
 	/**********************************************************************/
 
+	/**
+	 * records the search of one lexicon, which is named by its position and
+	 * class, e.g. <code>0:XMLLexicon</code>
+	 */
+	private static void recordSearch(LexiconStatistics statistics, int index, Lexicon lex,
+			List<WordElement> lexResult, long start) {
+		long nanos = System.nanoTime() - start;
+		statistics.recordSearch(index + ":" + lex.getClass().getSimpleName(),
+				lexResult != null && !lexResult.isEmpty(), nanos);
+	}
+
+	/**
+	 * adds the estimated sizes of the component lexicons, whose parts are
+	 * named by the position and class of the lexicon, e.g.
+	 * <code>0:XMLLexicon/words</code>. A lexicon which occurs more than once
+	 * is counted once.
+	 */
+	@Override
+	protected void estimateMemory(MemoryEstimator estimator, Map<String, Long> indexes,
+			Map<String, Long> categories, Map<String, Long> features) {
+		Map<Lexicon, Boolean> counted = new IdentityHashMap<Lexicon, Boolean>();
+		for (int i = 0; i < lexiconList.size(); i++) {
+			Lexicon lex = lexiconList.get(i);
+			if (counted.put(lex, Boolean.TRUE) != null)
+				continue;
+			Map<String, Long> lexIndexes = new HashMap<String, Long>();
+			lex.estimateMemory(estimator, lexIndexes, categories, features);
+			for (Map.Entry<String, Long> entry : lexIndexes.entrySet())
+				MemoryEstimator.add(indexes, i + ":" + lex.getClass().getSimpleName() + "/" + entry.getKey(),
+						entry.getValue());
+		}
+		super.estimateMemory(estimator, indexes, categories, features);
+	}
+
 	/* (non-Javadoc)
 	 * @see simplenlg.lexicon.Lexicon#close()
 	 */
@@ -0,0 +1,262 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.regex.Pattern;
+
+import simplenlgde.features.LexicalFeature;
+import simplenlgde.framework.WordElement;
+
+/**
+ * <p>
+ * The conjugation data of a verb, parsed once from the string features of its
+ * lexicon entry (<code>firstPerPres</code>, <code>preterite</code>,
+ * <code>part1</code>, ...). The verb morphology reads this structure instead of
+ * splitting the lexicon strings on every conjugation.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and are cached by
+ * {@link WordElement#getVerbEntry()}, so that copies of a lexicon entry share
+ * the parsed data.
+ * </p>
+ */
+public final class VerbEntry {
+
+	// stems which need an additional "e" before the ending, e.g. "atmen" -> "atmest"
+	private static final Pattern E_EXTENSION = Pattern.compile(".*(p|t|k|b|d|g|f|v|w|ch|s|sch|z)(m|n)$");
+	// stems which drop the "s" of the ending, e.g. "reisen" -> "reist"
+	private static final Pattern S_DELETION = Pattern.compile(".*(s|ß|x|z)$");
+	private static final Pattern MODAL = Pattern.compile("dürfen|können|mögen|müssen|sollen|wollen");
+
+	private final String baseForm;
+	private final String stem;
+	private final boolean eExtension;
+	private final boolean eDeletion;
+	private final boolean sDeletion;
+	private final boolean modal;
+	private final boolean zu;
+	private final boolean regular;
+	private final boolean separable;
+	private final boolean firstPersonParticle;
+	private final String particle;
+	private final String part1;
+	private final String firstPerPres;
+	private final String secPerPres;
+	private final String thirdPerPres;
+	private final String plFirstThirdPerPres;
+	private final String plSecPerPres;
+	private final String participle2;
+	private final String preteriteStem;
+	private final String preteriteParticle;
+	private final boolean preteriteEExtension;
+	private final boolean preteriteSDeletion;
+
+	private VerbEntry(WordElement word, String baseForm) {
+		this.baseForm = baseForm;
+		this.stem = baseForm == null ? "" : getStem(baseForm);
+		this.eExtension = E_EXTENSION.matcher(stem).matches() || stem.endsWith("t") || stem.endsWith("d");
+		this.eDeletion = !eExtension && (stem.endsWith("er") || stem.endsWith("el"));
+		this.sDeletion = !eExtension && !eDeletion && S_DELETION.matcher(stem).matches();
+		this.modal = baseForm != null && MODAL.matcher(baseForm).matches();
+		this.zu = word.getFeatureAsBoolean("zu").booleanValue();
+
+		this.regular = parseBoolean(word.getFeatureAsString("regular"));
+		this.firstPerPres = word.getFeatureAsString("firstPerPres");
+		this.secPerPres = word.getFeatureAsString("secPerPres");
+		this.thirdPerPres = word.getFeatureAsString("thirdPerPres");
+		this.plFirstThirdPerPres = word.getFeatureAsString("plFirstThirdPerPres");
+		this.plSecPerPres = word.getFeatureAsString("plSecPerPres");
+		this.participle2 = word.getFeatureAsString("participle2");
+		this.part1 = word.getFeatureAsString("part1");
+
+		// the separated particle is taken from the conjugated form, e.g. "spiegelt wider"
+		this.particle = secondToken(thirdPerPres);
+		// if there is no information in lexicon about separability -> get it through conjugation of 1st person
+		this.firstPersonParticle = firstPerPres != null && firstPerPres.indexOf(' ') >= 0;
+		this.separable = parseBoolean(word.getFeatureAsString(LexicalFeature.SEPARABLE))
+				|| particle != null || firstPersonParticle;
+
+		// the preterite of separable verbs also contains the particle, e.g. "spiegelte wider"
+		String preterite = word.getFeatureAsString("preterite");
+		if (separable && preterite != null && preterite.indexOf(' ') >= 0) {
+			this.preteriteStem = preterite.substring(0, preterite.indexOf(' '));
+			this.preteriteParticle = secondToken(preterite);
+		} else {
+			this.preteriteStem = preterite;
+			this.preteriteParticle = null;
+		}
+		this.preteriteEExtension = preteriteStem != null && (E_EXTENSION.matcher(preteriteStem).matches()
+				|| preteriteStem.endsWith("t") || preteriteStem.endsWith("d"));
+		this.preteriteSDeletion = preteriteStem != null && S_DELETION.matcher(preteriteStem).matches();
+	}
+
+	/**
+	 * parses the conjugation data of a verb
+	 *
+	 * @param word
+	 *            - the lexicon entry of the verb
+	 * @param baseForm
+	 *            - the form the stem is derived from, usually the default
+	 *            spelling variant of the word
+	 * @return the parsed entry
+	 */
+	public static VerbEntry parse(WordElement word, String baseForm) {
+		return new VerbEntry(word, baseForm);
+	}
+
+	/**
+	 * extracts the stem of a verb, e.g. "spiel" for "spielen"
+	 *
+	 * @param baseForm
+	 * @return stem
+	 */
+	public static String getStem(String baseForm) {
+		if (baseForm.endsWith("en")) {
+			return baseForm.substring(0, baseForm.length() - 2);
+		} else if (baseForm.endsWith("n")) {
+			return baseForm.substring(0, baseForm.length() - 1);
+		}
+		return baseForm;
+	}
+
+	private static boolean parseBoolean(String value) {
+		return value != null && Boolean.valueOf(value.toLowerCase()).booleanValue();
+	}
+
+	/**
+	 * @return the second space separated token of a form, or <code>null</code>
+	 *         if the form contains no space
+	 */
+	private static String secondToken(String form) {
+		if (form == null) {
+			return null;
+		}
+		int start = form.indexOf(' ');
+		if (start < 0) {
+			return null;
+		}
+		int end = form.indexOf(' ', start + 1);
+		return end < 0 ? form.substring(start + 1) : form.substring(start + 1, end);
+	}
+
+	/** @return the form the entry was parsed for */
+	public String getBaseForm() {
+		return baseForm;
+	}
+
+	/** @return the stem, e.g. "spiel" for "spielen" */
+	public String getStem() {
+		return stem;
+	}
+
+	/** @return <code>true</code> if endings starting with a consonant need an additional "e" */
+	public boolean hasEExtension() {
+		return eExtension;
+	}
+
+	/** @return <code>true</code> if the stem ends in "er" or "el" */
+	public boolean hasEDeletion() {
+		return eDeletion;
+	}
+
+	/** @return <code>true</code> if the "s" of the ending "st" is dropped after the stem */
+	public boolean hasSDeletion() {
+		return sDeletion;
+	}
+
+	/** @return <code>true</code> if the verb is a modal verb */
+	public boolean isModal() {
+		return modal;
+	}
+
+	/** @return <code>true</code> if the verb is always used in combination with "zu" */
+	public boolean isZu() {
+		return zu;
+	}
+
+	/** @return <code>true</code> if the lexicon marks the verb as regular */
+	public boolean isRegular() {
+		return regular;
+	}
+
+	/** @return <code>true</code> if the verb is separable, e.g. "widerspiegeln" */
+	public boolean isSeparable() {
+		return separable;
+	}
+
+	/** @return <code>true</code> if the first person present contains a separated particle */
+	public boolean hasFirstPersonParticle() {
+		return firstPersonParticle;
+	}
+
+	/** @return the particle of the third person present, e.g. "wider", or <code>null</code> */
+	public String getParticle() {
+		return particle;
+	}
+
+	/** @return the separable prefix from the lexicon (<code>part1</code>), or <code>null</code> */
+	public String getPart1() {
+		return part1;
+	}
+
+	/** @return the irregular first person singular present, or <code>null</code> */
+	public String getFirstPerPres() {
+		return firstPerPres;
+	}
+
+	/** @return the irregular second person singular present, or <code>null</code> */
+	public String getSecPerPres() {
+		return secPerPres;
+	}
+
+	/** @return the irregular third person singular present, or <code>null</code> */
+	public String getThirdPerPres() {
+		return thirdPerPres;
+	}
+
+	/** @return the irregular first and third person plural, or <code>null</code> */
+	public String getPlFirstThirdPerPres() {
+		return plFirstThirdPerPres;
+	}
+
+	/** @return the irregular second person plural, or <code>null</code> */
+	public String getPlSecPerPres() {
+		return plSecPerPres;
+	}
+
+	/** @return the past participle, or <code>null</code> */
+	public String getParticiple2() {
+		return participle2;
+	}
+
+	/** @return the preterite stem without a separated particle, or <code>null</code> */
+	public String getPreteriteStem() {
+		return preteriteStem;
+	}
+
+	/** @return the particle of the preterite, e.g. "wider", or <code>null</code> */
+	public String getPreteriteParticle() {
+		return preteriteParticle;
+	}
+
+	/** @return <code>true</code> if the preterite stem needs an additional "e" before "t" */
+	public boolean hasPreteriteEExtension() {
+		return preteriteEExtension;
+	}
+
+	/** @return <code>true</code> if the "s" of the ending "st" is dropped after the preterite stem */
+	public boolean hasPreteriteSDeletion() {
+		return preteriteSDeletion;
+	}
+}
@@ -24,6 +24,7 @@ package simplenlgde.lexicon;
 
 import simplenlgde.features.*;
 import simplenlgde.framework.*;
+import simplenlgde.jfr.FlightRecording;
 
 import java.io.File;
 import java.net.URI;
@@ -38,7 +39,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import simplenlgde.morphology.MorphologyProcessor;
+import simplenlgde.morphology.InflectionStatus;
+import simplenlgde.morphology.MorphologyRules;
 
 
 /**
@@ -61,7 +63,21 @@ public class XMLLexicon extends Lexicon {
     private Set<WordElement> words; // set of words
     private Map<String, WordElement> indexByID; // map from ID to word
     private Map<String, List<WordElement>> indexByBase; // map from base to set of words with this baseform
-    private Map<String, List<WordElement>> indexByVariant; // map from variants to set of words with this variant
+    private Map<String, List<Variant>> indexByVariant; // map from variants to the words and features producing it
+
+    /**
+     * an entry in the variant index: a word together with the packed feature
+     * bundles (see <code>FeatureBundle</code>) which produce the variant
+     */
+    private static class Variant {
+        private final WordElement word;
+        private final int[] features;
+
+        private Variant(WordElement word, int[] features) {
+            this.word = word;
+            this.features = features;
+        }
+    }
 
     /**********************************************************************/
     // constructors
@@ -121,11 +137,13 @@ public class XMLLexicon extends Lexicon {
      * @param lexiconURI
      */
     private void createLexicon(URI lexiconURI) {
+        Object event = FlightRecording.beginLoad();
+        String outcome = "loaded";
         // initialise objects
         words = new HashSet<WordElement>();
         indexByID = new HashMap<String, WordElement>();
         indexByBase = new HashMap<String, List<WordElement>>();
-        indexByVariant = new HashMap<String, List<WordElement>>();
+        indexByVariant = new HashMap<String, List<Variant>>();
 
         try {
             DocumentBuilderFactory factory = DocumentBuilderFactory
@@ -150,7 +168,10 @@ public class XMLLexicon extends Lexicon {
             }
         } catch (Exception ex) {
             System.out.println(ex.toString());
+            outcome = "failed";
         }
+        if (event != null)
+            FlightRecording.endLoad(event, lexiconURI.toString(), words.size(), outcome);
     }
 
 
@@ -231,8 +252,18 @@ public class XMLLexicon extends Lexicon {
         }
 
         // now index by variant
-        for(String variant : getVariants(word)) {
-            updateIndex(word, variant, indexByVariant);
+        for (Map.Entry<String, Set<Integer>> variant : getVariantFeatures(word).entrySet()) {
+            List<Variant> entries = indexByVariant.get(variant.getKey());
+            if (entries == null) {
+                entries = new ArrayList<Variant>(1);
+                indexByVariant.put(variant.getKey(), entries);
+            }
+            int[] features = new int[variant.getValue().size()];
+            int i = 0;
+            for (Integer bundle : variant.getValue()) {
+                features[i++] = bundle;
+            }
+            entries.add(new Variant(word, features));
         }
     }
 
@@ -243,11 +274,23 @@ public class XMLLexicon extends Lexicon {
      * @return
      */
     protected Set<String> getVariants(WordElement word) {
-        Set<String> variants = new HashSet<String>();
-        variants.add(word.getBaseForm());
+        return new HashSet<String>(getVariantFeatures(word).keySet());
+    }
+
+    /**
+     * generates all morph variants of a word, together with the packed
+     * features (see <code>FeatureBundle</code>) of every inflection which
+     * produces the variant
+     *
+     * @param word
+     * @return map from variant to feature bundles
+     */
+    private Map<String, Set<Integer>> getVariantFeatures(WordElement word) {
+        Map<String, Set<Integer>> variants = new LinkedHashMap<String, Set<Integer>>();
+        addVariant(variants, word.getBaseForm(), FeatureBundle.NONE);
         ElementCategory category = word.getCategory();
         if (category instanceof LexicalCategory) {
-            MorphologyProcessor morph = new MorphologyProcessor();
+            StringBuilder realisation = new StringBuilder();
             InflectedWordElement inflected = new InflectedWordElement(word);
 
             switch ((LexicalCategory) category) {
@@ -258,10 +301,7 @@ public class XMLLexicon extends Lexicon {
                             inflected.setFeature(InternalFeature.CASE, discourseFunction);
 
                             try {
-                                String realisation = morph.realise(inflected).getRealisation();
-                                if(!variants.contains(realisation)){
-                                    variants.add(realisation);
-                                }
+                                addVariant(variants, inflected, word, realisation);
                             } catch (Exception e) {
                                 //Lexicon entry is not complete
                             }
@@ -278,10 +318,7 @@ public class XMLLexicon extends Lexicon {
                                 inflected.setFeature(Feature.PERSON, person);
 
                                 try {
-                                    String realisation = morph.realise(inflected).getRealisation();
-                                    if(!variants.contains(realisation)){
-                                        variants.add(realisation);
-                                    }
+                                    addVariant(variants, inflected, word, realisation);
                                 } catch (Exception e) {
                                     //Lexicon entry is not complete
                                 }
@@ -306,10 +343,7 @@ public class XMLLexicon extends Lexicon {
                                         inflected.setFeature(LexicalFeature.GENDER, gender);
 
                                         try {
-                                            String realisation = morph.realise(inflected).getRealisation();
-                                            if (!variants.contains(realisation)) {
-                                                variants.add(realisation);
-                                            }
+                                            addVariant(variants, inflected, word, realisation);
                                         } catch (Exception e) {
                                             //Lexicon entry is not complete
                                         }
@@ -325,6 +359,32 @@ public class XMLLexicon extends Lexicon {
         return variants;
     }
 
+    /**
+     * inflects a word with its current features and records the resulting
+     * variant
+     *
+     * @param variants
+     * @param inflected
+     * @param word
+     * @param realisation - buffer to reuse
+     */
+    private void addVariant(Map<String, Set<Integer>> variants, InflectedWordElement inflected,
+                            WordElement word, StringBuilder realisation) {
+        realisation.setLength(0);
+        if (MorphologyRules.inflect(inflected, word, realisation) != InflectionStatus.EMPTY) {
+            addVariant(variants, realisation.toString(), FeatureBundle.pack(inflected));
+        }
+    }
+
+    private void addVariant(Map<String, Set<Integer>> variants, String variant, int features) {
+        Set<Integer> bundles = variants.get(variant);
+        if (bundles == null) {
+            bundles = new LinkedHashSet<Integer>();
+            variants.put(variant, bundles);
+        }
+        bundles.add(features);
+    }
+
     /**
      * convenience method to update an index
      *
@@ -410,6 +470,88 @@ public class XMLLexicon extends Lexicon {
      */
     public List<WordElement> getWordsFromVariant(String variant,
                                                  LexicalCategory category) {
-        return getWordsFromIndex(variant, category, indexByVariant);
+        List<WordElement> result = new ArrayList<WordElement>();
+        List<Variant> entries = indexByVariant.get(variant);
+        if (entries != null) {
+            for (Variant entry : entries) {
+                if (category == LexicalCategory.ANY || entry.word.getCategory() == category) {
+                    result.add(new WordElement(entry.word));
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see simplenlg.lexicon.Lexicon#analyse(java.lang.String,
+     * simplenlg.features.LexicalCategory)
+     */
+    @Override
+    public List<MorphologicalAnalysis> analyse(String variant, LexicalCategory category) {
+        List<MorphologicalAnalysis> result = new ArrayList<MorphologicalAnalysis>();
+        List<Variant> entries = indexByVariant.get(variant);
+        if (entries != null) {
+            for (Variant entry : entries) {
+                if (category == LexicalCategory.ANY || entry.word.getCategory() == category) {
+                    for (int features : entry.features) {
+                        result.add(new MorphologicalAnalysis(entry.word, features));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * adds the estimated sizes of the words and of the indexes. The words of
+     * every category are sampled, see {@link MemoryEstimator#DEFAULT_SAMPLES},
+     * as are the keys of the indexes.
+     */
+    @Override
+    protected void estimateMemory(MemoryEstimator estimator, Map<String, Long> indexes,
+                                  Map<String, Long> categories, Map<String, Long> features) {
+        Map<String, List<WordElement>> wordsByCategory = new HashMap<String, List<WordElement>>();
+        for (WordElement word : words) {
+            String category = String.valueOf(word.getCategory());
+            List<WordElement> categoryWords = wordsByCategory.get(category);
+            if (categoryWords == null) {
+                categoryWords = new ArrayList<WordElement>();
+                wordsByCategory.put(category, categoryWords);
+            }
+            categoryWords.add(word);
+        }
+        long wordsSize = MemoryEstimator.hashMapSize(words.size());
+        for (Map.Entry<String, List<WordElement>> entry : wordsByCategory.entrySet()) {
+            long size = estimator.sizeOfSample(entry.getValue(), MemoryEstimator.DEFAULT_SAMPLES, features);
+            MemoryEstimator.add(categories, entry.getKey(), size);
+            wordsSize += size;
+        }
+        MemoryEstimator.add(indexes, "words", wordsSize);
+
+        MemoryEstimator.add(indexes, "indexByID", MemoryEstimator.hashMapSize(indexByID.size())
+                + estimator.sizeOfSample(indexByID.keySet(), MemoryEstimator.DEFAULT_SAMPLES, null));
+
+        long baseSize = MemoryEstimator.hashMapSize(indexByBase.size())
+                + estimator.sizeOfSample(indexByBase.keySet(), MemoryEstimator.DEFAULT_SAMPLES, null);
+        for (List<WordElement> entries : indexByBase.values()) {
+            baseSize += MemoryEstimator.arrayListSize(entries.size());
+        }
+        MemoryEstimator.add(indexes, "indexByBase", baseSize);
+
+        // the words of the variants have been counted, only the entries are added
+        long variantSize = MemoryEstimator.hashMapSize(indexByVariant.size())
+                + estimator.sizeOfSample(indexByVariant.keySet(), MemoryEstimator.DEFAULT_SAMPLES, null);
+        long entrySize = MemoryEstimator.objectSize(2);
+        for (List<Variant> entries : indexByVariant.values()) {
+            variantSize += MemoryEstimator.arrayListSize(entries.size());
+            for (Variant entry : entries) {
+                variantSize += entrySize + estimator.sizeOf(entry.features);
+            }
+        }
+        MemoryEstimator.add(indexes, "indexByVariant", variantSize);
+
+        super.estimateMemory(estimator, indexes, categories, features);
     }
 }
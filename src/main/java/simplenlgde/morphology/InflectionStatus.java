@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.morphology;
+
+/**
+ * <p>
+ * An enumeration describing what the low-level inflection methods
+ * ({@code MorphologyRules.inflect} and {@code MorphologyProcessor.inflect})
+ * wrote into the caller's buffer. The surface form itself is never returned,
+ * only appended, so the status is the only information the caller gets back.
+ * </p>
+ */
+public enum InflectionStatus {
+
+	/**
+	 * The word was inflected and its surface form was appended.
+	 */
+	INFLECTED,
+
+	/**
+	 * A verb was inflected that is separable (e.g. <em>spiegelt wider</em>).
+	 * The appended form may contain the separated particle, and the caller is
+	 * responsible for moving it behind any modifiers of the verb.
+	 */
+	SEPARABLE,
+
+	/**
+	 * The base form was appended without inflection, either because the
+	 * element is marked as <code>NON_MORPH</code> or because its category is
+	 * not inflected.
+	 */
+	VERBATIM,
+
+	/**
+	 * Nothing was appended, because the word has no surface form.
+	 */
+	EMPTY;
+}
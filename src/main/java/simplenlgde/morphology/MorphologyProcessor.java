@@ -22,6 +22,7 @@
 
 package simplenlgde.morphology;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,6 +57,12 @@ import simplenlgde.syntax.SyntaxProcessor;
  * </p>
  *
  * <p>
+ * The morphology processor does not modify its input: it builds a new tree and
+ * keeps no state besides the lexicon, so one instance can be shared by several
+ * threads and the same syntax tree can be realised more than once.
+ * </p>
+ *
+ * <p>
  * <b>N.B.</b> the use of <em>module</em>, <em>processing module</em> and
  * <em>processor</em> is interchangeable. They all mean an instance of this
  * class.
@@ -64,51 +71,75 @@ import simplenlgde.syntax.SyntaxProcessor;
 
 public class MorphologyProcessor extends NLGModule {
 
-	SyntaxProcessor syntaxHelper = new SyntaxProcessor();
-
 	@Override
 	public void initialise() {
 		// Do nothing
 	}
 
+	/**
+	 * Realises the morphology of the given element. The element is not
+	 * modified, the result is a new tree of <code>StringElement</code>s and
+	 * <code>ListElement</code>s. As the processor keeps no state besides the
+	 * lexicon, one instance can be used by several threads at the same time.
+	 */
 	@Override
 	public NLGElement realise(NLGElement element) {
+		return realise(element, null, null, false);
+	}
+
+	/**
+	 * Realises the morphology of the given element.
+	 *
+	 * @param element           the element to realise.
+	 * @param clauseStatus      the clause status inherited from the parent list,
+	 *                          replaces the one of the element if not
+	 *                          <code>null</code>.
+	 * @param articleForm       the article form set by a preceding "als",
+	 *                          replaces the one of the element if not
+	 *                          <code>null</code>.
+	 * @param definiteArticles  whether the components of the element follow an
+	 *                          "als" and take the definite article form.
+	 * @return the realised element.
+	 */
+	private NLGElement realise(NLGElement element, Object clauseStatus, Object articleForm,
+							   boolean definiteArticles) {
 		NLGElement realisedElement = null;
+		if (clauseStatus == null && element != null) {
+			clauseStatus = element.getFeature(InternalFeature.CLAUSE_STATUS);
+		}
 
 		if (element instanceof InflectedWordElement) {
-			realisedElement = doMorphology((InflectedWordElement) element);
+			InflectedWordElement word = (InflectedWordElement) element;
+			if (articleForm != null) {
+				word = copyFeatures(word, new InflectedWordElement(word.getBaseForm(), LexicalCategory.ANY));
+				word.setFeature(Feature.ARTICLE_FORM, articleForm);
+			}
+			realisedElement = doMorphology(word);
 
 		} else if (element instanceof StringElement) {
-			realisedElement = element;
+			realisedElement = copyFeatures(element, new StringElement(element.getRealisation()));
 
 		} else if (element instanceof DocumentElement) {
-			List<NLGElement> children = element.getChildren();
-			((DocumentElement) element).setComponents(realise(children));
-			realisedElement = element;
+			DocumentElement realisedDocument = copyFeatures(element, new DocumentElement());
+			realisedDocument.setComponents(realise(element.getChildren()));
+			realisedElement = realisedDocument;
 
 		} else if (element instanceof ListElement) {
 			realisedElement = new ListElement();
 			List<NLGElement> children = element.getChildren();
-			if(children != null) {
-                if (element.hasFeature(InternalFeature.CLAUSE_STATUS)) {
-                    for (NLGElement child : children) {
-                        child.setFeature(InternalFeature.CLAUSE_STATUS, element.getFeature(InternalFeature.CLAUSE_STATUS));
-                    }
-                }
-            }
-			((ListElement) realisedElement).addComponents(realise(children));
+			((ListElement) realisedElement).addComponents(realise(children, clauseStatus,
+					definiteArticles ? ArticleForm.DEFINITE : null));
+
 		} else if (element instanceof CoordinatedPhraseElement) {
 			List<NLGElement> children = element.getChildren();
-			((CoordinatedPhraseElement) element).clearCoordinates();
 
 			if (children != null && children.size() > 0) {
-				((CoordinatedPhraseElement) element).addCoordinate(realise(children.get(0)));
-
-				for (int index = 1; index < children.size(); index++) {
-					((CoordinatedPhraseElement) element).addCoordinate(realise(children.get(index)));
+				List<NLGElement> coordinates = new ArrayList<NLGElement>();
+				for (NLGElement child : children) {
+					coordinates.add(realise(child));
 				}
-
-				realisedElement = element;
+				realisedElement = copyFeatures(element, new CoordinatedPhraseElement());
+				realisedElement.setFeature(InternalFeature.COORDINATES, coordinates);
 			}
 
 		} else if (element != null) {
@@ -126,14 +157,28 @@ public class MorphologyProcessor extends NLGModule {
 			List<NLGElement> verb = new ArrayList<NLGElement>();
 			List<NLGElement> verbModifiers = new ArrayList<NLGElement>();
 			List<NLGElement> subordinates = new ArrayList<NLGElement>();
-			syntaxHelper.getSeparableVerbComponents(realisedElement, verb, verbModifiers);
-			syntaxHelper.realiseSeparableVerbPhrase(realisedElement, verb, verbModifiers, subordinates);
+			SyntaxProcessor.getSeparableVerbComponents(realisedElement, verb, verbModifiers);
+			SyntaxProcessor.realiseSeparableVerbPhrase(realisedElement, verb, verbModifiers, subordinates);
 		}
 		return realisedElement;
 	}
 
 	@Override
 	public List<NLGElement> realise(List<NLGElement> elements) {
+		return realise(elements, null, null);
+	}
+
+	/**
+	 * Realises the morphology of a list of sibling elements.
+	 *
+	 * @param elements     the elements to realise.
+	 * @param clauseStatus the clause status of the parent list, or
+	 *                     <code>null</code>.
+	 * @param articleForm  the article form of the elements, or
+	 *                     <code>null</code>.
+	 * @return the realised elements.
+	 */
+	private List<NLGElement> realise(List<NLGElement> elements, Object clauseStatus, Object articleForm) {
 		List<NLGElement> realisedElements = new ArrayList<NLGElement>();
 		NLGElement currentElement = null;
 		NLGElement determiner = null;
@@ -141,27 +186,22 @@ public class MorphologyProcessor extends NLGModule {
 
 		if (elements != null) {
 			for (NLGElement eachElement : elements) {
+				// the components of a noun phrase following "als" take the definite article form
+				boolean definiteArticles = false;
 				if(prevElement != null && prevElement.hasFeature(InternalFeature.COMPONENTS)) {
 					for (NLGElement el: prevElement.getFeatureAsElementList(InternalFeature.COMPONENTS)) {
 						if(el.hasFeature("base_form") &&
 								el.getFeatureAsString("base_form").equals("als")) {
-							if(eachElement.hasFeature(InternalFeature.COMPONENTS)) {
-								for (NLGElement eachEl: eachElement.getFeatureAsElementList(InternalFeature.COMPONENTS)) {
-									eachEl.setFeature(Feature.ARTICLE_FORM, ArticleForm.DEFINITE);
-								}
-							}
+							definiteArticles = true;
 						}
 					}
 				}
 				else if(prevElement != null && prevElement.hasFeature("base_form")
 						&& prevElement.getFeatureAsString("base_form").equals("als")) {
-					if(eachElement.hasFeature(InternalFeature.COMPONENTS)) {
-						for (NLGElement el: eachElement.getFeatureAsElementList(InternalFeature.COMPONENTS)) {
-							el.setFeature(Feature.ARTICLE_FORM, ArticleForm.DEFINITE);
-						}
-					}
+					definiteArticles = true;
 				}
-				currentElement = realise(eachElement);
+				currentElement = realise(eachElement, clauseStatus, articleForm,
+						definiteArticles && eachElement.hasFeature(InternalFeature.COMPONENTS));
 				if (currentElement != null) {
 					// pass the discourse function and appositive features -- important for orth
 					// processor
@@ -176,7 +216,9 @@ public class MorphologyProcessor extends NLGModule {
 						currentElement.setFeature(InternalFeature.CASE,
 								eachElement.getFeature(InternalFeature.CASE));
 					}
-					if (eachElement.hasFeature(InternalFeature.CLAUSE_STATUS)) {
+					if (clauseStatus != null) {
+						currentElement.setFeature(InternalFeature.CLAUSE_STATUS, clauseStatus);
+					} else if (eachElement.hasFeature(InternalFeature.CLAUSE_STATUS)) {
 						currentElement.setFeature(InternalFeature.CLAUSE_STATUS,
 								eachElement.getFeature(InternalFeature.CLAUSE_STATUS));
 					}
@@ -196,7 +238,9 @@ public class MorphologyProcessor extends NLGModule {
 						currentElement.setFeature(Feature.IS_COMPARATIVE,
 								eachElement.getFeature(Feature.IS_COMPARATIVE));
 					}
-					if (eachElement.hasFeature(Feature.ARTICLE_FORM)) {
+					if (articleForm != null) {
+						currentElement.setFeature(Feature.ARTICLE_FORM, articleForm);
+					} else if (eachElement.hasFeature(Feature.ARTICLE_FORM)) {
 						currentElement.setFeature(Feature.ARTICLE_FORM,
 								eachElement.getFeature(Feature.ARTICLE_FORM));
 					}
@@ -226,9 +270,82 @@ public class MorphologyProcessor extends NLGModule {
 	}
 
 	/**
-	 * This is the main method for performing the morphology. It effectively
-	 * examines the lexical category of the element and calls the relevant set of
-	 * rules from <code>MorphologyRules</em>.
+	 * Copies category, parent and features of an element of the input tree to
+	 * a new element, so that the realised tree does not share any element with
+	 * the input tree. The feature values themselves are not copied.
+	 *
+	 * @param from the element of the input tree.
+	 * @param to   the new element.
+	 * @return the new element.
+	 */
+	private static <T extends NLGElement> T copyFeatures(NLGElement from, T to) {
+		to.setCategory(from.getCategory());
+		to.setParent(from.getParent());
+		for (String feature : from.getAllFeatureNames()) {
+			to.setFeature(feature, from.getFeature(feature));
+		}
+		return to;
+	}
+
+	/**
+	 * Inflects a single word and appends its surface form directly to the
+	 * given buffer, without creating any intermediate elements. This is the
+	 * entry point for callers which linearise a whole sentence into one
+	 * buffer; the features of the word are not copied anywhere, so the caller
+	 * has to rely on the returned status.
+	 *
+	 * @param element the <code>InflectedWordElement</code>
+	 * @param out     the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	public InflectionStatus inflect(InflectedWordElement element, StringBuilder out) {
+		return MorphologyRules.inflect(element, getBaseWord(element), out);
+	}
+
+	/**
+	 * Inflects a single word and appends its surface form to the given
+	 * <code>Appendable</code>, e.g. a <code>Writer</code>.
+	 *
+	 * @param element the <code>InflectedWordElement</code>
+	 * @param out     the <code>Appendable</code> the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 * @throws IOException if appending to <code>out</code> fails.
+	 */
+	public InflectionStatus inflect(InflectedWordElement element, Appendable out) throws IOException {
+		if (out instanceof StringBuilder) {
+			return inflect(element, (StringBuilder) out);
+		}
+		StringBuilder realised = new StringBuilder();
+		InflectionStatus status = inflect(element, realised);
+		out.append(realised);
+		return status;
+	}
+
+	/**
+	 * Returns the lexicon entry of the word, which is either stored in the
+	 * element itself or looked up in the lexicon. Words which are not inflected
+	 * are not looked up.
+	 *
+	 * @param element the <code>InflectedWordElement</code>
+	 * @return the <code>WordElement</code>, may be <code>null</code>.
+	 */
+	private WordElement getBaseWord(InflectedWordElement element) {
+		if (element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue()) {
+			return null;
+		}
+		NLGElement baseWord = element.getFeatureAsElement(InternalFeature.BASE_WORD);
+
+		if (baseWord == null && this.lexicon != null) {
+			baseWord = this.lexicon.lookupWord(element.getBaseForm());
+		}
+		return (WordElement) baseWord;
+	}
+
+	/**
+	 * This is the main method for performing the morphology. It inflects the
+	 * word with <code>MorphologyRules.inflect</code> and wraps the result into a
+	 * <code>StringElement</code> carrying the features the orthography
+	 * processor needs.
 	 *
 	 * @param element the <code>InflectedWordElement</code>
 	 * 
@@ -236,77 +353,39 @@ public class MorphologyProcessor extends NLGModule {
 	 *         word.
 	 */
 	private NLGElement doMorphology(InflectedWordElement element) {
-		NLGElement realisedElement = null;
-		if (element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue()) {
-			realisedElement = new StringElement(element.getBaseForm());
-			realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-					element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
+		boolean nonMorph = element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue();
+		ElementCategory category = element.getCategory();
+		if (!nonMorph && !(category instanceof LexicalCategory)) {
+			return null;
+		}
 
-		} else {
-			NLGElement baseWord = element.getFeatureAsElement(InternalFeature.BASE_WORD);
+		StringBuilder realised = new StringBuilder();
+		InflectionStatus status = inflect(element, realised);
+		NLGElement realisedElement = new StringElement(status == InflectionStatus.EMPTY ? null : realised.toString());
+		// as adverbs can be placed inside a separable verb, e.g. "schneidet gut ab",
+		// the separable feature needs to be passed further to change word order
+		if (status == InflectionStatus.SEPARABLE) {
+			realisedElement.setFeature(LexicalFeature.SEPARABLE, true);
+		}
+		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
+				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
 
-			if (baseWord == null && this.lexicon != null) {
-				baseWord = this.lexicon.lookupWord(element.getBaseForm());
+		if (nonMorph) {
+			return realisedElement;
+		}
+		if (category == LexicalCategory.ADJECTIVE) {
+			realisedElement.setCategory(LexicalCategory.ADJECTIVE);
+			if(element.hasFeature(InternalFeature.COMPOSITE)) {
+				realisedElement.setFeature(InternalFeature.COMPOSITE, element.getFeatureAsBoolean(InternalFeature.COMPOSITE));
+			} else {
+				realisedElement.setFeature(InternalFeature.COMPOSITE, false);
 			}
-
-			ElementCategory category = element.getCategory();
-			
-			if (category instanceof LexicalCategory) {
-				switch ((LexicalCategory) category) {
-
-				case NOUN:
-					realisedElement = MorphologyRules.doNounMorphology(element, (WordElement) baseWord);
-					break;
-
-				case VERB:
-				case MODAL:
-					realisedElement = MorphologyRules.doVerbMorphology(element, (WordElement) baseWord);
-					break;
-					
-				case ADVERB:
- 					realisedElement = MorphologyRules.doAdjectiveCompSup(element, (WordElement) baseWord);
-					break;
-
-				case ADJECTIVE:
-					if(element.hasFeature(InternalFeature.DISCOURSE_FUNCTION) && (
-							element.getFeature(InternalFeature.DISCOURSE_FUNCTION).equals(DiscourseFunction.MODIFIER))) {
-						realisedElement = MorphologyRules.doAdjectiveMorphology(element, (WordElement) baseWord);
-					} else {
-						realisedElement = MorphologyRules.doAdjectiveCompSup(element, (WordElement) baseWord);
-					}
-					realisedElement.setCategory(LexicalCategory.ADJECTIVE);
-					if(element.hasFeature(InternalFeature.COMPOSITE)) {
-						realisedElement.setFeature(InternalFeature.COMPOSITE, element.getFeatureAsBoolean(InternalFeature.COMPOSITE));
-					} else {
-						realisedElement.setFeature(InternalFeature.COMPOSITE, false);
-					}
-					break;
-
-				case ARTICLE_INDEFINITE:
-				case ARTICLE_DEFINITE:
-					realisedElement = MorphologyRules.doArticleInflection(element, (WordElement) baseWord);
-					break;
-
-				case INDEFINITE_PRONOUN:
-					realisedElement = MorphologyRules.doIndefPronounMorphology(element, (WordElement) baseWord);
-					break;
-
-				default:
-			        String realised = element.getBaseForm();
-		            if (element.getFeatureAsBoolean("composite")) {
-		                // inflection for compound words, e.g. "die Russische Föderation"
-		                realised = " " + realised.substring(0, 1).toUpperCase() + realised.substring(1);
-		            }
-					realisedElement = new StringElement(realised);
-			        if(realised.equals("als")) {
-			        	realisedElement.setFeature(Feature.ARTICLE_FORM, ArticleForm.DEFINITE);
-			        }
-					realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-							element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-					if (element.hasFeature(Feature.APPOSITIVE)) {
-						realisedElement.setFeature(Feature.APPOSITIVE, element.getFeature(Feature.APPOSITIVE));
-					}
-				}
+		} else if (status == InflectionStatus.VERBATIM) {
+			if("als".equals(realisedElement.getRealisation())) {
+				realisedElement.setFeature(Feature.ARTICLE_FORM, ArticleForm.DEFINITE);
+			}
+			if (element.hasFeature(Feature.APPOSITIVE)) {
+				realisedElement.setFeature(Feature.APPOSITIVE, element.getFeature(Feature.APPOSITIVE));
 			}
 		}
 		return realisedElement;
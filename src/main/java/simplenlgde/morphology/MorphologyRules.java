@@ -24,7 +24,10 @@ package simplenlgde.morphology;
 
 import simplenlgde.framework.*;
 import simplenlgde.features.*;
+import simplenlgde.lexicon.VerbEntry;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -54,6 +57,140 @@ import java.util.Set;
  */
 public abstract class MorphologyRules extends NLGModule {
 
+	/**
+	 * The maximum number of rule based plurals kept in
+	 * <code>RULE_BASED_PLURALS</code>. When it is full, the least recently
+	 * used plural is dropped.
+	 */
+	private static final int RULE_BASED_PLURALS_CAPACITY = 10000;
+
+	/**
+	 * Plurals built by <code>buildRuleBasedPluralNoun</code>, keyed by base
+	 * form and gender, so that the suffix rules run once per unknown noun.
+	 * The map is in access order, so every lookup must hold its lock.
+	 */
+	private static final LinkedHashMap<String, String> RULE_BASED_PLURALS = new LinkedHashMap<String, String>(16,
+			0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > RULE_BASED_PLURALS_CAPACITY;
+		}
+	};
+
+	/**
+	 * Estimates the heap retained by the cache of rule-based plurals,
+	 * sampling at most {@link MemoryEstimator#DEFAULT_SAMPLES} plurals.
+	 *
+	 * @return the estimate, see {@link MemoryReport}.
+	 */
+	public static MemoryReport estimatePluralCacheMemory() {
+		synchronized (RULE_BASED_PLURALS) {
+			return new MemoryReport("ruleBasedPlurals", new MemoryEstimator().sizeOfMapSample(RULE_BASED_PLURALS,
+					MemoryEstimator.DEFAULT_SAMPLES));
+		}
+	}
+
+	/**
+	 * This is the low-level entry point for inflecting a single word. It
+	 * examines the lexical category of the element, applies the relevant set of
+	 * rules and appends the surface form directly to the given buffer. Unlike
+	 * the <code>do...Morphology</code> methods no <code>StringElement</code> is
+	 * created, so a whole sentence can be linearised into one buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry, may be <code>null</code> for words which are not
+	 *                 inflected.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	public static InflectionStatus inflect(InflectedWordElement element, WordElement baseWord, StringBuilder out) {
+		if (element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue()) {
+			return append(out, element.getBaseForm(), InflectionStatus.VERBATIM);
+		}
+		ElementCategory category = element.getCategory();
+		if (!(category instanceof LexicalCategory)) {
+			return InflectionStatus.EMPTY;
+		}
+		switch ((LexicalCategory) category) {
+
+		case NOUN:
+			return appendNoun(element, baseWord, out);
+
+		case VERB:
+		case MODAL:
+			return appendVerb(element, baseWord, out);
+
+		case ADVERB:
+			return append(out, compSupForm(element, baseWord), InflectionStatus.INFLECTED);
+
+		case ADJECTIVE:
+			if (element.hasFeature(InternalFeature.DISCOURSE_FUNCTION) && (
+					element.getFeature(InternalFeature.DISCOURSE_FUNCTION).equals(DiscourseFunction.MODIFIER))) {
+				return appendAdjective(element, baseWord, out);
+			}
+			return append(out, compSupForm(element, baseWord), InflectionStatus.INFLECTED);
+
+		case ARTICLE_INDEFINITE:
+		case ARTICLE_DEFINITE:
+			return appendArticle(element, baseWord, out);
+
+		case INDEFINITE_PRONOUN:
+			return appendIndefPronoun(element, baseWord, out);
+
+		default:
+			String realised = element.getBaseForm();
+			if (realised != null && element.getFeatureAsBoolean("composite")) {
+				// inflection for compound words, e.g. "die Russische Föderation"
+				realised = " " + realised.substring(0, 1).toUpperCase() + realised.substring(1);
+			}
+			return append(out, realised, InflectionStatus.VERBATIM);
+		}
+	}
+
+	/**
+	 * Appends a surface form to the buffer.
+	 *
+	 * @param out    the buffer.
+	 * @param form   the surface form, may be <code>null</code>.
+	 * @param status the status to report if the form is not <code>null</code>.
+	 * @return <code>status</code>, or <code>EMPTY</code> if there is no form.
+	 */
+	private static InflectionStatus append(StringBuilder out, String form, InflectionStatus status) {
+		if (form == null) {
+			return InflectionStatus.EMPTY;
+		}
+		out.append(form);
+		return status;
+	}
+
+	/**
+	 * Wraps the result of one of the <code>append...</code> methods into a
+	 * <code>StringElement</code>, as returned by the
+	 * <code>do...Morphology</code> methods.
+	 *
+	 * @param element  the <code>InflectedWordElement</code> that was inflected.
+	 * @param realised the buffer holding the surface form.
+	 * @param status   the status returned when inflecting.
+	 * @return a <code>StringElement</code> representing the word after
+	 * inflection.
+	 */
+	private static StringElement toStringElement(InflectedWordElement element, StringBuilder realised,
+												 InflectionStatus status) {
+		StringElement realisedElement = new StringElement(
+				status == InflectionStatus.EMPTY ? null : realised.toString());
+		// as adverbs can be placed inside a separable verb, e.g. "schneidet gut ab",
+		// the separable feature needs to be passed further to change word order
+		if (status == InflectionStatus.SEPARABLE) {
+			realisedElement.setFeature(LexicalFeature.SEPARABLE, true);
+		}
+		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
+				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
+		return realisedElement;
+	}
+
 	/**
 	 * This method is the main method to perform the morphology for nouns.
 	 *
@@ -64,7 +201,21 @@ public abstract class MorphologyRules extends NLGModule {
 	 * inflection.
 	 */
 	protected static StringElement doNounMorphology(InflectedWordElement element, WordElement baseWord) {
-		StringBuffer realised = new StringBuffer();
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised, appendNoun(element, baseWord, realised));
+	}
+
+	/**
+	 * Appends the inflected form of a noun to the buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	private static InflectionStatus appendNoun(InflectedWordElement element, WordElement baseWord,
+											   StringBuilder out) {
 		String baseForm = getBaseForm(element, baseWord);
 		String inflectedForm = baseForm;
 		String genus = element.getFeatureAsString(LexicalFeature.GENDER);
@@ -85,11 +236,8 @@ public abstract class MorphologyRules extends NLGModule {
 
 		// special case "-fonds" declination
 		if(baseForm.endsWith("fonds")) {
-			realised.append(baseForm);
-			StringElement realisedElement = new StringElement(realised.toString());
-			realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-					element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-			return realisedElement;
+			out.append(baseForm);
+			return InflectionStatus.INFLECTED;
 		} 
 
 		// do morphology
@@ -104,12 +252,8 @@ public abstract class MorphologyRules extends NLGModule {
 			inflectedForm = baseForm;
 		}
 
-		realised.append(inflectedForm);
-		StringElement realisedElement = new StringElement(realised.toString());
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-
-		return realisedElement;
+		out.append(inflectedForm);
+		return InflectionStatus.INFLECTED;
 	}
 
 	/**
@@ -144,7 +288,7 @@ public abstract class MorphologyRules extends NLGModule {
 		}
 		// If noun is not in lexicon: build plural from rules
 		if (inflectedForm == null) {
-			inflectedForm = buildRuleBasedPluralNoun(baseForm, genus);
+			inflectedForm = getRuleBasedPluralNoun(baseForm, genus);
 		}
 		// Do dative inflection from lexicon
 		if (grammCase == DiscourseFunction.INDIRECT_OBJECT) {
@@ -232,6 +376,33 @@ public abstract class MorphologyRules extends NLGModule {
 		return inflectedForm;
 	}
 
+	/**
+	 * Returns the rule based plural of a noun, see
+	 * <code>buildRuleBasedPluralNoun</code>. The result is cached for each
+	 * base form and gender.
+	 *
+	 * @param baseForm the base form of the word.
+	 * @param genus the gender of the word.
+	 * @return the inflected word.
+	 */
+	private static String getRuleBasedPluralNoun(String baseForm, String genus) {
+		if (baseForm == null) {
+			return null;
+		}
+		String key = genus == null ? baseForm : baseForm + '\u0000' + genus;
+		String plural;
+		synchronized (RULE_BASED_PLURALS) {
+			plural = RULE_BASED_PLURALS.get(key);
+		}
+		if (plural == null) {
+			plural = buildRuleBasedPluralNoun(baseForm, genus);
+			synchronized (RULE_BASED_PLURALS) {
+				RULE_BASED_PLURALS.put(key, plural);
+			}
+		}
+		return plural;
+	}
+
 	/**
 	 * Builds a plural for nouns where a rule exist.
 	 * The rules are performed in this order:
@@ -314,25 +485,31 @@ public abstract class MorphologyRules extends NLGModule {
 	 * inflection.
 	 */
 	protected static NLGElement doVerbMorphology(InflectedWordElement element, WordElement baseWord) {
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised, appendVerb(element, baseWord, realised));
+	}
+
+	/**
+	 * Appends the inflected form of a verb to the buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return <code>SEPARABLE</code> if the verb is separable, otherwise
+	 * <code>INFLECTED</code>.
+	 */
+	private static InflectionStatus appendVerb(InflectedWordElement element, WordElement baseWord,
+											   StringBuilder out) {
 		String realised = null;
 		Object numberValue = element.getFeature(Feature.NUMBER);
 		Object personValue = element.getFeature(Feature.PERSON);
 		Object form = element.getFeature(Feature.FORM);
 		Object tense = element.getFeature(Feature.TENSE);
 		Tense tenseValue;
-		String eExtension = "";
-		String eExtensionPattern = ".*(p|t|k|b|d|g|f|v|w|ch|s|sch|z)(m|n)$";
-		String sDeletionPattern = ".*(s|ß|x|z)$";
-		Boolean eDeletion = false;
-		Boolean sDeletion = false;
-		Boolean separable = false;
-		Boolean separable_user = true;
-		Boolean regular = false;
-		String part2 = "";
-		String preteriteStem = "";
-		Boolean zu = false;
-		Boolean modal = false;
-		Boolean initiated_subord = false;
+		boolean separable_user = true;
+		boolean modal = false;
+		boolean initiated_subord = false;
 
 		// verbs in combination with modal verbs are kept in infinitive
 		if (element.hasFeature(Feature.CONTAINS_MODAL)) {
@@ -342,10 +519,6 @@ public abstract class MorphologyRules extends NLGModule {
 		if (element.hasFeature(Feature.INITIATED_SUBORD)) {
 			initiated_subord = element.getFeatureAsBoolean(Feature.INITIATED_SUBORD);
 		}
-		// verbs in combination with "zu" ("to") are kept in infinitive
-		if (baseWord.hasFeature("zu")) {
-			zu = baseWord.getFeatureAsBoolean("zu");
-		}
 
 		if (tense instanceof Tense) {
 			tenseValue = (Tense) tense;
@@ -361,12 +534,16 @@ public abstract class MorphologyRules extends NLGModule {
 		// base form from baseWord if it exists, otherwise from element
 		String baseForm = getBaseForm(element, baseWord);
 
-		if (modal && !baseForm.matches("dürfen|können|mögen|müssen|sollen|wollen")
-				&& tenseValue.equals(Tense.PRESENT)) {
+		// conjugation data parsed from the lexicon entry, cached on the word
+		VerbEntry entry = baseWord.getVerbEntry();
+		if (!baseForm.equals(entry.getBaseForm())) {
+			entry = VerbEntry.parse(baseWord, baseForm);
+		}
+
+		if (modal && !entry.isModal() && tenseValue.equals(Tense.PRESENT)) {
 			// if there is a modal verb in the phrase, following verbs are in infinitive
-			StringElement realisedElement = new StringElement(baseForm);
-			realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION, element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-			return realisedElement;
+			out.append(baseForm);
+			return InflectionStatus.INFLECTED;
 		}
 
 		// inflect modal verb for future like its inflection in present tense
@@ -380,44 +557,25 @@ public abstract class MorphologyRules extends NLGModule {
 			form = Form.NORMAL;
 		}
 
-		// get all features of verb
-		Set<String> features = baseWord.getAllFeatureNames();
-
 		// if verb is separable (e.g. widerspiegeln -> spiegelt wider)
-		if (features.contains(LexicalFeature.SEPARABLE)) {
-			separable = Boolean.valueOf(baseWord.getFeatureAsString(LexicalFeature.SEPARABLE).toLowerCase());
-		}
+		boolean separable = entry.isSeparable();
+		boolean regular = entry.isRegular();
 		// if user has set the separable feature, overwrite separable feature from lexicon
 		if(element.hasFeature(Feature.SEPARABLE_VERB)) {
 			separable_user = Boolean.valueOf(element.getFeatureAsString(Feature.SEPARABLE_VERB).toLowerCase());
 		}
-		if (features.contains("regular")) {
-			regular = Boolean.valueOf(baseWord.getFeatureAsString("regular").toLowerCase());
-		}
-		if (features.contains("thirdPerPres")) {
-			if (baseWord.getFeatureAsString("thirdPerPres").contains(" ")) {
-				part2 = baseWord.getFeatureAsString("thirdPerPres").split(" ")[1];
-				separable = true;
-			}
-		}
-
-		String stem = getVerbStem(baseForm);
+		// the particle of a separable verb, e.g. "wider", as found in the conjugated forms
+		String part2 = entry.getParticle();
 
+		String stem = entry.getStem();
 		// check if verb needs a e-extension
-		if (stem.matches(eExtensionPattern) || stem.endsWith("t")
-				|| stem.endsWith("d")) {
-			eExtension = "e";
-		} else if (stem.endsWith("er") || stem.endsWith("el")) {
-			eDeletion = true;
-		} else if (stem.matches(sDeletionPattern)) {
-			sDeletion = true;
-		}
+		String eExtension = entry.hasEExtension() ? "e" : "";
 
-		if (zu) {
+		if (entry.isZu()) {
 			realised = baseForm;
 		} else if (form.equals(Form.PAST_PARTICIPLE) || Tense.PERFECT.equals(tenseValue)) {
-			if (features.contains("participle2")) {
-				realised = baseWord.getFeatureAsString("participle2");
+			if (entry.getParticiple2() != null) {
+				realised = entry.getParticiple2();
 			} else {
 				realised = "ge" + stem + "t";
 			}
@@ -428,12 +586,12 @@ public abstract class MorphologyRules extends NLGModule {
 				if (tenseValue == null || Tense.PRESENT.equals(tenseValue)) {
 					// Singular
 					if ((numberValue == null || NumberAgreement.SINGULAR.equals(numberValue))) {
-						if (Person.FIRST.equals(personValue) && features.contains("firstPerPres")) {
-							realised = baseWord.getFeatureAsString("firstPerPres");
-						} else if (Person.SECOND.equals(personValue) && features.contains("secPerPres")) {
-							realised = baseWord.getFeatureAsString("secPerPres");
-						} else if (Person.THIRD.equals(personValue) && features.contains("thirdPerPres")) {
-							realised = baseWord.getFeatureAsString("thirdPerPres");
+						if (Person.FIRST.equals(personValue) && entry.getFirstPerPres() != null) {
+							realised = entry.getFirstPerPres();
+						} else if (Person.SECOND.equals(personValue) && entry.getSecPerPres() != null) {
+							realised = entry.getSecPerPres();
+						} else if (Person.THIRD.equals(personValue) && entry.getThirdPerPres() != null) {
+							realised = entry.getThirdPerPres();
 						} else {
 							// default when no conjugated forms from dictionary available
 							regular = true;
@@ -446,25 +604,19 @@ public abstract class MorphologyRules extends NLGModule {
 				} else if (Tense.PAST.equals(tenseValue)) {
 					// get preterite stem of irregular verb in past, e.g. haben -> ich hatte -> new stem hat
 					// no preterite stem available -> do regular inflection
-					if (features.contains("preterite")) {
-						preteriteStem = baseWord.getFeatureAsString("preterite");
-					} else {
+					String preteriteStem = entry.getPreteriteStem();
+					if (preteriteStem == null) {
 						regular = true;
 					}
-					if(separable) {
-						if(preteriteStem.contains(" ")) {
-							preteriteStem = preteriteStem.split(" ")[0];
-							if(part2 == "") {
-								part2 = preteriteStem.split(" ")[1];
-							}
-						}
+					if (separable && part2 == null) {
+						part2 = entry.getPreteriteParticle();
 					}
-					if (preteriteStem != "") {
+					if (preteriteStem != null) {
 						if ((numberValue == null || NumberAgreement.SINGULAR.equals(numberValue))) {
 							if (Person.FIRST.equals(personValue) || Person.THIRD.equals(personValue)) {
 								realised = preteriteStem;
 							} else if (Person.SECOND.equals(personValue)) {
-								if (preteriteStem.matches(sDeletionPattern)) {
+								if (entry.hasPreteriteSDeletion()) {
 									realised = preteriteStem + "t";
 								} else {
 									realised = preteriteStem + "st";
@@ -478,8 +630,7 @@ public abstract class MorphologyRules extends NLGModule {
 									realised = preteriteStem + "en";
 								}
 							} else if (Person.SECOND.equals(personValue)) {
-								if (preteriteStem.matches(eExtensionPattern) || preteriteStem.endsWith("t")
-										|| preteriteStem.endsWith("d")) {
+								if (entry.hasPreteriteEExtension()) {
 									realised = preteriteStem + "et";
 								} else {
 									realised = preteriteStem + "t";
@@ -488,10 +639,11 @@ public abstract class MorphologyRules extends NLGModule {
 						}
 					}
 					if(separable) {
+						String particle = part2 == null ? "" : part2;
 						if(initiated_subord) {
-							realised = part2 + realised;
+							realised = particle + realised;
 						} else {
-							realised = realised + " " + part2;
+							realised = realised + " " + particle;
 						}
 					}
 
@@ -509,7 +661,7 @@ public abstract class MorphologyRules extends NLGModule {
 							// normal regular case
 							realised = stem + "e"; //$NON-NLS-1$
 						} else if (Person.SECOND.equals(personValue)) {
-							if (sDeletion) {
+							if (entry.hasSDeletion()) {
 								realised = stem + "t";
 							} else {
 								// normal regular case or e-extension
@@ -526,9 +678,9 @@ public abstract class MorphologyRules extends NLGModule {
 					} else if (NumberAgreement.PLURAL.equals(numberValue)) {
 						if (Person.FIRST.equals(personValue) || Person.THIRD.equals(personValue)) {
 							// if plural conjugation is irregular
-							if (features.contains("plFirstThirdPerPres")) {
-								realised = baseWord.getFeatureAsString("plFirstThirdPerPres");
-							} else if (eDeletion) {
+							if (entry.getPlFirstThirdPerPres() != null) {
+								realised = entry.getPlFirstThirdPerPres();
+							} else if (entry.hasEDeletion()) {
 								realised = baseForm;
 							} else {
 								// normal regular case
@@ -536,8 +688,8 @@ public abstract class MorphologyRules extends NLGModule {
 							}
 						} else if (Person.SECOND.equals(personValue)) {
 							// if plural conjugation is irregular
-							if (features.contains("plSecPerPres")) {
-								realised = baseWord.getFeatureAsString("plSecPerPres");
+							if (entry.getPlSecPerPres() != null) {
+								realised = entry.getPlSecPerPres();
 							} else {
 								// normal regular case or e-extension
 								realised = stem + eExtension + "t";
@@ -560,17 +712,13 @@ public abstract class MorphologyRules extends NLGModule {
 					} else if (NumberAgreement.PLURAL.equals(numberValue)) {
 						if (Person.FIRST.equals(personValue) || Person.THIRD.equals(personValue)) {
 							// if plural conjugation is irregular
-							if (features.contains("plFirstThirdPerPres")) {
-								realised = baseWord.getFeatureAsString("plFirstThirdPerPres");
+							if (entry.getPlFirstThirdPerPres() != null) {
+								realised = entry.getPlFirstThirdPerPres();
 							} else {
 								// normal regular case
 								realised = stem + eExtension + "ten";
 							}
 						} else if (Person.SECOND.equals(personValue)) {
-							// if plural conjugation is irregular
-							if (features.contains("plSecPerPres")) {
-								realised = baseWord.getFeatureAsString("plSecPerPres");
-							}
 							// normal regular case or e-extension
 							realised = stem + eExtension + "tet";
 						}
@@ -580,15 +728,14 @@ public abstract class MorphologyRules extends NLGModule {
 				}
 				//if separable, get separable parts of verb
 				if (separable && !form.equals(Form.PAST_PARTICIPLE)) {
-					if (part2 == "") {
-						part2 = baseWord.getFeatureAsString("part1");
+					if (part2 == null) {
+						part2 = entry.getPart1();
 					}
 					if (part2 != null && realised != null) {
+						String part1 = removeParticle(realised, part2);
 						if(initiated_subord) {
-							String part1 = realised.split(part2)[1];
 							realised = part2 + part1;
 						} else {
-							String part1 = realised.split(part2)[1];
 							realised = part1 + " " + part2;
 						}
 					}
@@ -600,20 +747,30 @@ public abstract class MorphologyRules extends NLGModule {
 		}
 		if(separable && !separable_user) {
 			// if user set feature separable to false
-			String[] split = realised.split(" ");
-			if (split.length > 1) {
-				realised = split[1] + split[0];
+			int space = realised.indexOf(' ');
+			if (space >= 0) {
+				int end = realised.indexOf(' ', space + 1);
+				realised = realised.substring(space + 1, end < 0 ? realised.length() : end)
+						+ realised.substring(0, space);
 			}
 		}
-		StringElement realisedElement = new StringElement(realised);
-		// as adverbs can be placed inside a separable verb, e.g. "schneidet gut ab",
-		// the separable feature needs to be passed further to change word order
-		if (separable) {
-			realisedElement.setFeature(LexicalFeature.SEPARABLE, true);
+		return append(out, realised, separable ? InflectionStatus.SEPARABLE : InflectionStatus.INFLECTED);
+	}
+
+	/**
+	 * Removes the separable particle from the beginning of a conjugated verb,
+	 * e.g. "arbeitet" for "abarbeitet" and particle "ab".
+	 *
+	 * @param realised the conjugated verb including the particle.
+	 * @param particle the particle.
+	 * @return the conjugated verb without the particle.
+	 */
+	private static String removeParticle(String realised, String particle) {
+		int index = realised.indexOf(particle);
+		if (index < 0) {
+			return realised;
 		}
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-		return realisedElement;
+		return realised.substring(index + particle.length());
 	}
 
 	/**
@@ -624,16 +781,7 @@ public abstract class MorphologyRules extends NLGModule {
 	 * stemming.
 	 */
 	protected static String getVerbStem(String baseForm) {
-		String stem = "";
-		// extract verb stem
-		if (baseForm.endsWith("en")) {
-			stem = baseForm.substring(0, baseForm.length() - 2);
-		} else if (baseForm.endsWith("n")) {
-			stem = baseForm.substring(0, baseForm.length() - 1);
-		} else {
-			stem = baseForm;
-		}
-		return stem;
+		return VerbEntry.getStem(baseForm);
 	}
 
 	/**
@@ -648,6 +796,21 @@ public abstract class MorphologyRules extends NLGModule {
 	 */
 
 	protected static NLGElement doAdjectiveMorphology(InflectedWordElement element, WordElement baseWord) {
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised, appendAdjective(element, baseWord, realised));
+	}
+
+	/**
+	 * Appends the inflected form of an adjective to the buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	private static InflectionStatus appendAdjective(InflectedWordElement element, WordElement baseWord,
+													StringBuilder out) {
 		String realised = getBaseForm(element, baseWord);
 		Object numberValue = element.getFeature(Feature.NUMBER);
 		String genus = element.getFeatureAsString(LexicalFeature.GENDER);
@@ -709,7 +872,7 @@ public abstract class MorphologyRules extends NLGModule {
 				baseForm = "hoh";
 			}
 			if(is_comparative || is_superlative) {
-				baseForm = doAdjectiveCompSup(element, baseWord).getRealisation();
+				baseForm = compSupForm(element, baseWord);
 
 				if (is_comparative) {
 					if (features.contains("comp")) {
@@ -890,10 +1053,7 @@ public abstract class MorphologyRules extends NLGModule {
 				realised = " " + realised.substring(0, 1).toUpperCase() + realised.substring(1);
 			}
 		}
-		StringElement realisedElement = new StringElement(realised);
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-		return realisedElement;
+		return append(out, realised, InflectionStatus.INFLECTED);
 	}
 
 	/**
@@ -907,6 +1067,21 @@ public abstract class MorphologyRules extends NLGModule {
 	 * changing its form to comparative or superlative
 	 */
 	protected static NLGElement doAdjectiveCompSup(InflectedWordElement element, WordElement baseWord) {
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised,
+				append(realised, compSupForm(element, baseWord), InflectionStatus.INFLECTED));
+	}
+
+	/**
+	 * Returns the comparative or superlative form of an adjective or adverb,
+	 * or its base form if neither is requested.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @return the form of the word, may be <code>null</code>.
+	 */
+	private static String compSupForm(InflectedWordElement element, WordElement baseWord) {
 		Set<String> features = baseWord.getAllFeatureNames();
 		Boolean is_comparative = element.hasFeature(Feature.IS_COMPARATIVE) && element.getFeatureAsBoolean(Feature.IS_COMPARATIVE);
 		Boolean is_superlative = element.hasFeature(Feature.IS_SUPERLATIVE) && element.getFeatureAsBoolean(Feature.IS_SUPERLATIVE);
@@ -951,11 +1126,7 @@ public abstract class MorphologyRules extends NLGModule {
 				}
 			}
 		}
-
-		StringElement realisedElement = new StringElement(baseForm);
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-		return realisedElement;
+		return baseForm;
 	}
 
 	/**
@@ -968,6 +1139,21 @@ public abstract class MorphologyRules extends NLGModule {
 	 * inflection.
 	 */
 	protected static NLGElement doArticleInflection(InflectedWordElement element, WordElement baseWord) {
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised, appendArticle(element, baseWord, realised));
+	}
+
+	/**
+	 * Appends the inflected form of an article to the buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	private static InflectionStatus appendArticle(InflectedWordElement element, WordElement baseWord,
+												  StringBuilder out) {
 		String realised = getBaseForm(element, baseWord);
 		Object numberValue = element.getFeature(Feature.NUMBER);
 		String genus = element.getFeatureAsString(LexicalFeature.GENDER);
@@ -1157,10 +1343,7 @@ public abstract class MorphologyRules extends NLGModule {
 				}
 			}
 		}
-		StringElement realisedElement = new StringElement(realised);
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-		return realisedElement;
+		return append(out, realised, InflectionStatus.INFLECTED);
 	}
 
 	/**
@@ -1173,6 +1356,21 @@ public abstract class MorphologyRules extends NLGModule {
 	 * inflection.
 	 */
 	public static NLGElement doIndefPronounMorphology(InflectedWordElement element, WordElement baseWord) {
+		StringBuilder realised = new StringBuilder();
+		return toStringElement(element, realised, appendIndefPronoun(element, baseWord, realised));
+	}
+
+	/**
+	 * Appends the inflected form of an indefinite pronoun to the buffer.
+	 *
+	 * @param element  the <code>InflectedWordElement</code>.
+	 * @param baseWord the <code>WordElement</code> as created from the lexicon
+	 *                 entry.
+	 * @param out      the buffer the surface form is appended to.
+	 * @return the <code>InflectionStatus</code> describing what was appended.
+	 */
+	private static InflectionStatus appendIndefPronoun(InflectedWordElement element, WordElement baseWord,
+													   StringBuilder out) {
 		String realised = getBaseForm(element, baseWord);
 		Object numberValue = element.getFeature(Feature.NUMBER);
 		String genus = element.getFeatureAsString(LexicalFeature.GENDER);
@@ -1227,11 +1425,7 @@ public abstract class MorphologyRules extends NLGModule {
 				realised = baseForm;
 			}
 		}
-
-		StringElement realisedElement = new StringElement(realised);
-		realisedElement.setFeature(InternalFeature.DISCOURSE_FUNCTION,
-				element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
-		return realisedElement;
+		return append(out, realised, InflectionStatus.INFLECTED);
 	}
 
 	/**
@@ -1245,9 +1439,33 @@ public abstract class MorphologyRules extends NLGModule {
 		if (s.length() <= 3) {
 			return 1;
 		}
-		s = s.toLowerCase();
-		s = s.replaceAll("[aeiouyäüö]+", "a");
-		s = "x" + s + "x";
-		return s.split("a").length - 1;
+		// count the groups of consecutive vowels
+		int syllables = 0;
+		boolean inVowelGroup = false;
+		for (int i = 0; i < s.length(); i++) {
+			boolean vowel = isVowel(Character.toLowerCase(s.charAt(i)));
+			if (vowel && !inVowelGroup) {
+				syllables++;
+			}
+			inVowelGroup = vowel;
+		}
+		return syllables;
+	}
+
+	private static boolean isVowel(char c) {
+		switch (c) {
+			case 'a':
+			case 'e':
+			case 'i':
+			case 'o':
+			case 'u':
+			case 'y':
+			case 'ä':
+			case 'ö':
+			case 'ü':
+				return true;
+			default:
+				return false;
+		}
 	}
 }
@@ -25,7 +25,10 @@ package simplenlgde.orthograpgy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import simplenlgde.framework.*;
 import simplenlgde.features.*;
@@ -56,19 +59,22 @@ public class OrthographyProcessor extends NLGModule {
 	// cue phrase (if marked by the
 	// CUE_PHRASE=true) feature.
 	
-	private boolean subordinateCommaSet;
-
-	/** The list of conjunctions which need a comma before. */
-	private static final List<String> CONJUNCTIONS_COMMA = Arrays.asList(
+	/** The conjunctions which need a comma before. */
+	private static final Set<String> CONJUNCTIONS_COMMA = new HashSet<String>(Arrays.asList(
 			"da", "weil", "dass", "wenn", "falls", "während", "nachdem", "bevor", "wobei", "sondern", "obwohl", "wenn auch", "indem", "wohingegen", "woraufhin",
 			"davon", "sodass", "als", "bevor", "ehe", "sobald", "solange", "zumal", "sofern", "so", "obwohl", "obgleich", "wenn auch", "wenngleich", "obschon",
-			"wennschon", "anstatt dass", "dadurch dass", "ohne dass", "als ob", "desto", "wie wenn", "als wenn", "damit", "auf dass");
+			"wennschon", "anstatt dass", "dadurch dass", "ohne dass", "als ob", "desto", "wie wenn", "als wenn", "damit", "auf dass"));
+
+	// compiled once, the patterns are applied to every realised element
+	private static final Pattern SPACE_BEFORE_COMMA = Pattern.compile(" ,");
+	private static final Pattern REPEATED_COMMAS = Pattern.compile(",,+");
+	private static final Pattern REPEATED_SPACES = Pattern.compile("  +");
+	private static final Pattern BLANK = Pattern.compile("^[\\s\\n]+$");
 
 	@Override
 	public void initialise() {
 		this.commaSepPremodifiers = false;
 		this.commaSepCuephrase = false;
-		this.subordinateCommaSet = false;
 	}
 
 	/**
@@ -93,9 +99,35 @@ public class OrthographyProcessor extends NLGModule {
 		this.commaSepPremodifiers = commaSepPremodifiers;
 	}
 
+	/**
+	 * Check whether this processor adds a comma after cue phrases and front
+	 * modifiers.
+	 *
+	 * @return <code>true</code> if cue phrases are followed by a comma.
+	 */
+	public boolean isCommaSepCuephrase() {
+		return commaSepCuephrase;
+	}
+
+	/**
+	 * Set whether to add a comma after cue phrases and front modifiers. If
+	 * <code>true</code>, elements with the discourse function
+	 * <code>CUE_PHRASE</code> or <code>FRONT_MODIFIER</code> end with a comma.
+	 *
+	 * @param commaSepCuephrase
+	 *            the commaSepCuephrase to set
+	 */
+	public void setCommaSepCuephrase(boolean commaSepCuephrase) {
+		this.commaSepCuephrase = commaSepCuephrase;
+	}
+
 
 	@Override
 	public NLGElement realise(NLGElement element) {
+		return realise(element, new RealisationState());
+	}
+
+	private NLGElement realise(NLGElement element, RealisationState state) {
 		NLGElement realisedElement = null;
 		Object function = null; //the element's discourse function
 		Object clauseStatus = null; //the element's clause status
@@ -125,8 +157,8 @@ public class OrthographyProcessor extends NLGModule {
 				switch((DocumentCategory) category){
 
 				case SENTENCE :
-					subordinateCommaSet = false;
-					realisedElement = realiseSentence(components, element);
+					state.subordinateCommaSet = false;
+					realisedElement = realiseSentence(components, element, state);
 					break;
 
 				case LIST_ITEM :
@@ -134,13 +166,13 @@ public class OrthographyProcessor extends NLGModule {
 						// recursively realise whatever is in the list item
 						// NB: this will realise embedded lists within list
 						// items
-						realisedElement = new ListElement(realise(components));
+						realisedElement = new ListElement(realise(components, state));
 						realisedElement.setParent(element.getParent());
 					}
 					break;
 
 				default :
-					((DocumentElement) element).setComponents(realise(components));
+					((DocumentElement) element).setComponents(realise(components, state));
 					realisedElement = element;
 				}
 
@@ -149,7 +181,7 @@ public class OrthographyProcessor extends NLGModule {
 				// realiseList method to separate with a comma.
 				// if it's a postmod, we need commas at the start and end only
 				// if it's appositive
-				StringBuffer buffer = new StringBuffer();
+				StringBuilder buffer = new StringBuilder();
 
 				if(DiscourseFunction.PRE_MODIFIER.equals(function)) {
 
@@ -161,7 +193,7 @@ public class OrthographyProcessor extends NLGModule {
 					if(all_appositives){
 						buffer.append(", ");
 					}
-					realiseList(buffer, element.getChildren(), this.commaSepPremodifiers ? "," : "");
+					realiseList(buffer, element.getChildren(), this.commaSepPremodifiers ? "," : "", state);
 					if(all_appositives){
 						buffer.append(", ");
 					}
@@ -179,24 +211,24 @@ public class OrthographyProcessor extends NLGModule {
 						}
 					}
 					if(adjModifiers && postmods.size() > 1) {
-						StringBuffer realisation = new StringBuffer();
+						StringBuilder realisation = new StringBuilder();
 						NLGElement realisedChild = null;
 						int length = postmods.size();
 						if(length == 2) {
-							realisation.append(realise(postmods.get(0)));
+							realisation.append(realise(postmods.get(0), state));
 							realisation.append(" und ");
-							realisation.append(realise(postmods.get(1)));
+							realisation.append(realise(postmods.get(1), state));
 						} else {
 							
 						for(int index = 0; index < length; index++ ) {
 							realisedChild = postmods.get(index);
 							if(index < length - 1) {
-								realisation.append(realise(realisedChild));
+								realisation.append(realise(realisedChild, state));
 								realisation.append(", ");
 							} else {
 								realisation.setLength(realisation.length() - 2);
 								realisation.append(" und ");
-								realisedChild = realise(realisedChild);
+								realisedChild = realise(realisedChild, state);
 								realisation.append(realisedChild.getRealisation()).append(' ');
 							}
 						} 
@@ -212,11 +244,11 @@ public class OrthographyProcessor extends NLGModule {
 							// commas
 							if(postmod.getFeatureAsBoolean(Feature.APPOSITIVE)) {
 								buffer.append(", ");
-								buffer.append(realise(postmod));
+								buffer.append(realise(postmod, state));
 								buffer.append(", ");
 							} else {
 								buffer.append(" ");
-								buffer.append(realise(postmod));
+								buffer.append(realise(postmod, state));
 								if(postmod instanceof ListElement
 										|| (postmod.getRealisation() != null && !postmod.getRealisation().equals(""))) {
 									buffer.append(" ");
@@ -227,27 +259,27 @@ public class OrthographyProcessor extends NLGModule {
 
 				} else if((DiscourseFunction.CUE_PHRASE.equals(function) || DiscourseFunction.FRONT_MODIFIER.equals(function))
 						&& this.commaSepCuephrase){
-					realiseList(buffer, element.getChildren(), this.commaSepCuephrase ? "," : "");
+					realiseList(buffer, element.getChildren(), this.commaSepCuephrase ? "," : "", state);
 
 				} else {
-					if(clauseStatus != null && clauseStatus.equals(ClauseStatus.SUBORDINATE) && !subordinateCommaSet) {
+					if(clauseStatus != null && clauseStatus.equals(ClauseStatus.SUBORDINATE) && !state.subordinateCommaSet) {
 						if(element != null &&  ((ListElement) element).getFirst().getRealisation().startsWith("und")) {
-							subordinateCommaSet = true;
+							state.subordinateCommaSet = true;
 						} else if (element != null && ((ListElement) element).getFirst() instanceof ListElement
 								&& ((ListElement) ((ListElement) element).getFirst()).getFirst().getRealisation().startsWith("und")) {
-							subordinateCommaSet = true;
+							state.subordinateCommaSet = true;
 						}
 						else {
 							buffer.append(", ");
-							subordinateCommaSet = true;
+							state.subordinateCommaSet = true;
 						}
 					}
-					realiseList(buffer, element.getChildren(), "");
+					realiseList(buffer, element.getChildren(), "", state);
 				}
 				realisedElement = new StringElement(buffer.toString());
 
 			} else if(element instanceof CoordinatedPhraseElement) {
-				realisedElement = realiseCoordinatedPhrase(element.getChildren());
+				realisedElement = realiseCoordinatedPhrase(element.getChildren(), state);
 			} else {
 				realisedElement = element;
 			}
@@ -288,13 +320,99 @@ public class OrthographyProcessor extends NLGModule {
 			String realisation = realisedElement.getRealisation();
 
 			if(realisation != null) {
-				realisation = realisation.replaceAll(" ,", ",");
-				realisation = realisation.replaceAll(",,+", ",");
-				realisation = realisation.replaceAll("  +", " ");
-				realisedElement.setRealisation(realisation);
+				realisedElement.setRealisation(removePunctSpace(realisation));
+			}
+
+		}
+	}
+
+	/**
+	 * Removes spaces before commas, repeated commas and repeated spaces from
+	 * a realisation.
+	 *
+	 * @param realisation
+	 *            the realisation.
+	 * @return the cleaned realisation.
+	 */
+	public static String removePunctSpace(String realisation) {
+		if(realisation.indexOf(',') >= 0) {
+			realisation = SPACE_BEFORE_COMMA.matcher(realisation).replaceAll(",");
+			realisation = REPEATED_COMMAS.matcher(realisation).replaceAll(",");
+		}
+		if(realisation.indexOf("  ") >= 0) {
+			realisation = REPEATED_SPACES.matcher(realisation).replaceAll(" ");
+		}
+		return realisation;
+	}
+
+	/**
+	 * Checks whether a comma has to be placed before a realised element,
+	 * which is the case for conjunctions introducing a subordinate clause,
+	 * such as "während".
+	 *
+	 * @param realisation
+	 *            the realisation of the element.
+	 * @return <code>true</code> if a comma is needed.
+	 */
+	public static boolean needsCommaBefore(String realisation) {
+		return CONJUNCTIONS_COMMA.contains(realisation);
+	}
+
+	/**
+	 * Checks whether a comma has to be placed before a realisation which is
+	 * the end of a buffer, without copying it.
+	 *
+	 * @param buffer
+	 *            the buffer.
+	 * @param start
+	 *            the start of the realisation in the buffer.
+	 * @return <code>true</code> if a comma is needed.
+	 * @see #needsCommaBefore(String)
+	 */
+	public static boolean needsCommaBefore(CharSequence buffer, int start) {
+		int length = buffer.length() - start;
+		for(String conjunction : CONJUNCTIONS_COMMA) {
+			if(conjunction.length() == length && regionEquals(buffer, start, conjunction)) {
+				return true;
 			}
+		}
+		return false;
+	}
 
+	private static boolean regionEquals(CharSequence buffer, int start, String string) {
+		for(int i = 0; i < string.length(); i++) {
+			if(buffer.charAt(start + i) != string.charAt(i)) {
+				return false;
+			}
 		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a realisation contains nothing but whitespace.
+	 *
+	 * @param realisation
+	 *            the realisation.
+	 * @return <code>true</code> if the realisation is blank.
+	 */
+	public static boolean isBlank(String realisation) {
+		return BLANK.matcher(realisation).matches();
+	}
+
+	/**
+	 * Finishes the realisation of a sentence: removes leading commas and
+	 * spaces, capitalises the first letter and adds the terminator.
+	 *
+	 * @param realisation
+	 *            the <code>StringBuilder</code> containing the realisation of
+	 *            the sentence, must not be empty.
+	 * @param interrogative
+	 *            whether the sentence is a question.
+	 */
+	public static void finishSentence(StringBuilder realisation, boolean interrogative) {
+		stripLeadingCommas(realisation);
+		capitaliseFirstLetter(realisation);
+		terminateSentence(realisation, interrogative);
 	}
 
 	/**
@@ -306,18 +424,18 @@ public class OrthographyProcessor extends NLGModule {
 	 *            the components that make up the sentence.
 	 * @param element
 	 *            the <code>NLGElement</code> representing the sentence.
+	 * @param state
+	 *            the state of the current realisation.
 	 * @return the realised element as an <code>NLGElement</code>.
 	 */
-	private NLGElement realiseSentence(List<NLGElement> components, NLGElement element) {
+	private NLGElement realiseSentence(List<NLGElement> components, NLGElement element, RealisationState state) {
 
 		NLGElement realisedElement = null;
 		if(components != null && components.size() > 0) {
-			StringBuffer realisation = new StringBuffer();
-			realiseList(realisation, components, "");
+			StringBuilder realisation = new StringBuilder();
+			realiseList(realisation, components, "", state);
 
-			stripLeadingCommas(realisation);
-			capitaliseFirstLetter(realisation);
-			terminateSentence(realisation, element.getFeatureAsBoolean(InternalFeature.INTERROGATIVE).booleanValue());
+			finishSentence(realisation, element.getFeatureAsBoolean(InternalFeature.INTERROGATIVE).booleanValue());
 
 			((DocumentElement) element).clearComponents();
 			// realisation.append(' ');
@@ -333,13 +451,13 @@ public class OrthographyProcessor extends NLGModule {
 	 * normal sentences or a question mark ('?') for interrogatives.
 	 *
 	 * @param realisation
-	 *            the <code>StringBuffer<code> containing the current
+	 *            the <code>StringBuilder<code> containing the current
 	 * realisation of the sentence.
 	 * @param interrogative
 	 *            a <code>boolean</code> flag showing <code>true</code> if the
 	 *            sentence is an interrogative, <code>false</code> otherwise.
 	 */
-	private void terminateSentence(StringBuffer realisation, boolean interrogative) {
+	private static void terminateSentence(StringBuilder realisation, boolean interrogative) {
 		char character = realisation.charAt(realisation.length() - 1);
 		if(character != '.' && character != '?') {
 			if(interrogative) {
@@ -355,10 +473,10 @@ public class OrthographyProcessor extends NLGModule {
 	 * of a sentence.
 	 *
 	 * @param realisation
-	 *            the <code>StringBuffer<code> containing the current
+	 *            the <code>StringBuilder<code> containing the current
 	 * realisation of the sentence.
 	 */
-	private void stripLeadingCommas(StringBuffer realisation) {
+	private static void stripLeadingCommas(StringBuilder realisation) {
 		char character = realisation.charAt(0);
 		if(character == ' ' || character == ',') {
 			realisation.deleteCharAt(0);
@@ -372,10 +490,10 @@ public class OrthographyProcessor extends NLGModule {
 	 * letter.
 	 *
 	 * @param realisation
-	 *            the <code>StringBuffer<code> containing the current
+	 *            the <code>StringBuilder<code> containing the current
 	 * realisation of the sentence.
 	 */
-	private void capitaliseFirstLetter(StringBuffer realisation) {
+	private static void capitaliseFirstLetter(StringBuilder realisation) {
 		char character = realisation.charAt(0);
 		if((character >= 'a' && character <= 'z') || character == 'ü' || character == 'ä' || character == 'ö') {
 			character = Character.toUpperCase(character);
@@ -385,12 +503,16 @@ public class OrthographyProcessor extends NLGModule {
 
 	@Override
 	public List<NLGElement> realise(List<NLGElement> elements) {
+		return realise(elements, new RealisationState());
+	}
+
+	private List<NLGElement> realise(List<NLGElement> elements, RealisationState state) {
 		List<NLGElement> realisedList = new ArrayList<NLGElement>();
 
 		if(elements != null && elements.size() > 0) {
 			for(NLGElement eachElement : elements) {
 				if(eachElement instanceof DocumentElement) {
-					realisedList.add(realise(eachElement));
+					realisedList.add(realise(eachElement, state));
 				} else {
 					realisedList.add(eachElement);
 				}
@@ -404,7 +526,7 @@ public class OrthographyProcessor extends NLGModule {
 	 * realisation.
 	 *
 	 * @param realisation
-	 *            the <code>StringBuffer<code> containing the current
+	 *            the <code>StringBuilder<code> containing the current
 	 * 			  realisation of the sentence.
 	 * @param components
 	 *            the <code>List</code> of <code>NLGElement</code>s representing
@@ -412,20 +534,23 @@ public class OrthographyProcessor extends NLGModule {
 	 * @param listSeparator
 	 *            the string to use to separate elements of the list, empty if
 	 *            no separator needed
+	 * @param state
+	 *            the state of the current realisation.
 	 */
-	private void realiseList(StringBuffer realisation, List<NLGElement> components, String listSeparator) {
+	private void realiseList(StringBuilder realisation, List<NLGElement> components, String listSeparator,
+			RealisationState state) {
 
 		NLGElement realisedChild = null;
 
 		for(int i = 0; i < components.size(); i++ ) {
 			NLGElement thisElement = components.get(i);
-			realisedChild = realise(thisElement);
+			realisedChild = realise(thisElement, state);
 			String childRealisation = realisedChild.getRealisation();
 
 			// check that the child realisation is non-empty
-			if(childRealisation != null && childRealisation.length() > 0 && !childRealisation.matches("^[\\s\\n]+$")) {
+			if(childRealisation != null && childRealisation.length() > 0 && !isBlank(childRealisation)) {
 				// before certain conjunctions, such as "während", which introduce a subordinate clause, a comma has to be placed
-				if(CONJUNCTIONS_COMMA.contains(childRealisation)) {
+				if(needsCommaBefore(childRealisation)) {
 					realisation.append(", ");
 				}
 				realisation.append(realisedChild.getRealisation());
@@ -451,10 +576,12 @@ public class OrthographyProcessor extends NLGModule {
 	 * @param components
 	 *            the <code>List</code> of <code>NLGElement</code>s representing
 	 *            the components that make up the sentence.
+	 * @param state
+	 *            the state of the current realisation.
 	 * @return the realised element as an <code>NLGElement</code>.
 	 */
-	private NLGElement realiseCoordinatedPhrase(List<NLGElement> components) {
-		StringBuffer realisation = new StringBuffer();
+	private NLGElement realiseCoordinatedPhrase(List<NLGElement> components, RealisationState state) {
+		StringBuilder realisation = new StringBuilder();
 		NLGElement realisedChild = null;
 
 		int length = components.size();
@@ -465,11 +592,21 @@ public class OrthographyProcessor extends NLGModule {
 					&& DiscourseFunction.CONJUNCTION.equals(realisedChild.getFeature(InternalFeature.DISCOURSE_FUNCTION))) {
 				realisation.append(", ");
 			} else {
-				realisedChild = realise(realisedChild);
+				realisedChild = realise(realisedChild, state);
 				realisation.append(realisedChild.getRealisation()).append(' ');
 			}
 		}
 		realisation.setLength(realisation.length() - 1);
 		return new StringElement(realisation.toString().replace(" ,", ","));
 	}
-}
\ No newline at end of file
+
+	/**
+	 * The state of a single call to {@link #realise(NLGElement)}. It is kept
+	 * out of the processor's fields, so that one processor can realise
+	 * several elements at the same time.
+	 */
+	private static final class RealisationState {
+		// whether the comma before the current subordinate clause has been set
+		private boolean subordinateCommaSet;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.List;
+
+import simplenlgde.features.Feature;
+import simplenlgde.framework.DocumentCategory;
+import simplenlgde.framework.DocumentElement;
+import simplenlgde.framework.ListElement;
+import simplenlgde.framework.NLGElement;
+
+/**
+ * Splits a document into parts which are realised independently and
+ * assembles the output of the orthography stage from the realised parts.
+ * The children of a document element are realised one by one by every stage,
+ * and the orthography stage resets its state at every sentence, so a
+ * document element realised on its own gives the same result as within its
+ * document.
+ */
+final class DocumentAssembly {
+
+    private DocumentAssembly() {
+    }
+
+    /**
+     * @return whether the children of the element can be realised on their
+     *         own: the element is a document element other than a sentence
+     *         and all its children are document elements. The orthography
+     *         stage leaves other children of a document unchanged, so these
+     *         can only be realised together with their parent.
+     */
+    static boolean isSplit(NLGElement element) {
+        if(!(element instanceof DocumentElement) || element.getCategory() == DocumentCategory.SENTENCE
+                || element.getCategory() == null || isElided(element)) {
+            return false;
+        }
+        for(NLGElement child : element.getChildren()) {
+            if(child != null && !(child instanceof DocumentElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the syntax stage drops the element
+     */
+    static boolean isElided(NLGElement element) {
+        return element == null || element.getFeatureAsBoolean(Feature.ELIDED).booleanValue();
+    }
+
+    /**
+     * builds the output of the orthography stage for a split element, as the
+     * morphology and orthography stages do
+     *
+     * @param element
+     *            - the split element of the input
+     * @param children
+     *            - the output of the orthography stage for the children which
+     *            are not elided, in order
+     * @return the assembled element, <code>null</code> for a list item
+     *         without children
+     */
+    static NLGElement assemble(NLGElement element, List<NLGElement> children) {
+        if(element.getCategory() == DocumentCategory.LIST_ITEM) {
+            if(children.isEmpty()) {
+                return null;
+            }
+            NLGElement list = new ListElement(children);
+            list.setParent(element.getParent());
+            return list;
+        }
+        DocumentElement assembled = new DocumentElement();
+        assembled.setCategory(element.getCategory());
+        assembled.setParent(element.getParent());
+        for(String feature : element.getAllFeatureNames()) {
+            assembled.setFeature(feature, element.getFeature(feature));
+        }
+        assembled.setComponents(children);
+        return assembled;
+    }
+}
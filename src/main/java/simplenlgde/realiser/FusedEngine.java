@@ -0,0 +1,468 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import simplenlgde.features.ClauseStatus;
+import simplenlgde.features.DiscourseFunction;
+import simplenlgde.features.Feature;
+import simplenlgde.features.InternalFeature;
+import simplenlgde.features.LexicalFeature;
+import simplenlgde.framework.CoordinatedPhraseElement;
+import simplenlgde.framework.DocumentCategory;
+import simplenlgde.framework.DocumentElement;
+import simplenlgde.framework.InflectedWordElement;
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.ListElement;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.StringElement;
+import simplenlgde.morphology.InflectionStatus;
+import simplenlgde.morphology.MorphologyProcessor;
+import simplenlgde.orthograpgy.OrthographyProcessor;
+
+/**
+ * <p>
+ * The fused engine of the realiser, see {@link RealisationEngine#FUSED}. It
+ * walks the tree built by the syntax processor once and produces the same
+ * text as the morphology processor, the orthography processor and the text
+ * formatter together. The whole sentence is realised into a single buffer:
+ * words are inflected directly into it, and the realisation of a phrase is
+ * trimmed in place at its end of the buffer, while the punctuation rules of
+ * the orthography processor are only applied to phrases with commas or
+ * repeated spaces. No <code>StringElement</code>s are created and no
+ * features are copied.
+ * </p>
+ *
+ * <p>
+ * Only the common shapes of sentences are handled. For anything else, e.g.
+ * separable verbs, whose parts are rearranged after inflection, or noun
+ * phrases following "als", {@link #realise(NLGElement)} returns
+ * <code>null</code> and the realiser falls back to the staged engine. The
+ * syntax tree is not modified, so the fallback can start from the same tree.
+ * </p>
+ */
+final class FusedEngine {
+
+    /** thrown when the tree contains an element the fused engine does not handle */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+
+    /** the state of a single call, see OrthographyProcessor */
+    private static final class State {
+        private boolean subordinateCommaSet;
+    }
+
+    private final MorphologyProcessor morphology;
+    private final OrthographyProcessor orthography;
+
+    FusedEngine(MorphologyProcessor morphology, OrthographyProcessor orthography) {
+        this.morphology = morphology;
+        this.orthography = orthography;
+    }
+
+    /**
+     * realises the output of the syntax processor
+     *
+     * @param postSyntax
+     *            - the tree built by the syntax processor, is not modified
+     * @return the text, or <code>null</code> if the tree has to be realised
+     *         by the staged engine
+     */
+    String realise(NLGElement postSyntax) {
+        if(postSyntax == null || this.orthography.isCommaSepCuephrase()) {
+            return null;
+        }
+        try {
+            State state = new State();
+            StringBuilder realisation = new StringBuilder();
+            if(postSyntax instanceof DocumentElement && postSyntax.getCategory() == DocumentCategory.SENTENCE) {
+                if(isSeparableVerbPhrase(postSyntax)) {
+                    return null;
+                }
+                List<NLGElement> components = realisedChildren(postSyntax);
+                if(components.isEmpty()) {
+                    return "";
+                }
+                realiseList(realisation, 0, components, "", null, state);
+                if(realisation.length() == 0) {
+                    return null;
+                }
+                OrthographyProcessor.finishSentence(realisation,
+                        postSyntax.getFeatureAsBoolean(InternalFeature.INTERROGATIVE).booleanValue());
+                clean(realisation, 0);
+                return realisation.toString();
+
+            } else if(postSyntax instanceof ListElement) {
+                realise(realisation, postSyntax, null, false, state);
+                return realisation.toString();
+            }
+        } catch(Unsupported e) {
+            // realised by the staged engine
+        }
+        return null;
+    }
+
+    /**
+     * realises an element and appends what <code>getRealisation()</code> of
+     * the element realised by the orthography processor would return
+     *
+     * @param out
+     *            - the buffer of the sentence
+     * @param element
+     *            - element of the syntax tree
+     * @param clauseStatus
+     *            - clause status passed down from the parent list
+     * @param inList
+     *            - whether the element is a component of a list, whose
+     *            features the morphology processor passes on
+     * @param state
+     *            - state of the call
+     */
+    private void realise(StringBuilder out, NLGElement element, Object clauseStatus, boolean inList, State state) {
+        checkSupported(element);
+        int start = out.length();
+        if(element instanceof InflectedWordElement) {
+            this.morphology.inflect((InflectedWordElement) element, out);
+        } else if(element instanceof StringElement) {
+            String realisation = element.getRealisation();
+            if(realisation != null) {
+                out.append(realisation);
+            }
+        } else if(element instanceof ListElement) {
+            realiseListElement(out, (ListElement) element, clauseStatus, inList, state);
+        } else {
+            realiseCoordinatedPhrase(out, (CoordinatedPhraseElement) element, state);
+        }
+        clean(out, start);
+    }
+
+    private void realiseListElement(StringBuilder out, ListElement element, Object clauseStatus, boolean inList,
+                                    State state) {
+        if(clauseStatus == null) {
+            clauseStatus = element.getFeature(InternalFeature.CLAUSE_STATUS);
+        }
+        List<NLGElement> children = realisedChildren(element);
+        if(children.isEmpty()) {
+            return;
+        }
+        int start = out.length();
+        Object function = children.get(0).getFeature(InternalFeature.DISCOURSE_FUNCTION);
+
+        if(DiscourseFunction.PRE_MODIFIER.equals(function)) {
+            boolean allAppositives = true;
+            for(NLGElement child : children) {
+                allAppositives = allAppositives && child.getFeatureAsBoolean(Feature.APPOSITIVE);
+            }
+            if(allAppositives) {
+                out.append(", ");
+            }
+            realiseList(out, start, children, this.orthography.isCommaSepPremodifiers() ? "," : "", clauseStatus,
+                    state);
+            if(allAppositives) {
+                out.append(", ");
+            }
+
+        } else if(DiscourseFunction.POST_MODIFIER.equals(function) || DiscourseFunction.MODIFIER.equals(function)) {
+            boolean adjModifiers = true;
+            for(NLGElement child : children) {
+                adjModifiers = adjModifiers && isUncomposedAdjective(child);
+            }
+            int length = children.size();
+            if(adjModifiers && length > 1) {
+                if(length == 2) {
+                    realise(out, children.get(0), clauseStatus, true, state);
+                    out.append(" und ");
+                    realise(out, children.get(1), clauseStatus, true, state);
+                } else {
+                    for(int index = 0; index < length; index++ ) {
+                        if(index < length - 1) {
+                            realise(out, children.get(index), clauseStatus, true, state);
+                            out.append(", ");
+                        } else {
+                            out.setLength(out.length() - 2);
+                            out.append(" und ");
+                            realise(out, children.get(index), clauseStatus, true, state);
+                            out.append(' ');
+                        }
+                    }
+                }
+            } else {
+                for(NLGElement postmod : children) {
+                    if(postmod.getFeatureAsBoolean(Feature.APPOSITIVE)) {
+                        out.append(", ");
+                        realise(out, postmod, clauseStatus, true, state);
+                        out.append(", ");
+                    } else {
+                        out.append(' ');
+                        int realised = out.length();
+                        realise(out, postmod, clauseStatus, true, state);
+                        // a realised coordination is not written back into the element
+                        if(postmod instanceof ListElement
+                                || (!(postmod instanceof CoordinatedPhraseElement) && out.length() > realised)) {
+                            out.append(' ');
+                        }
+                    }
+                }
+            }
+
+        } else {
+            // the clause status is only passed on to lists inside other lists
+            if(inList && ClauseStatus.SUBORDINATE.equals(clauseStatus) && !state.subordinateCommaSet) {
+                NLGElement first = children.get(0);
+                if(inflectedForm(first).startsWith("und")) {
+                    state.subordinateCommaSet = true;
+                } else if(first instanceof ListElement
+                        && inflectedForm(firstRealisedChild(first)).startsWith("und")) {
+                    state.subordinateCommaSet = true;
+                } else {
+                    out.append(", ");
+                    state.subordinateCommaSet = true;
+                }
+            }
+            realiseList(out, start, children, "", clauseStatus, state);
+        }
+    }
+
+    /**
+     * appends the realised components to the realisation, as
+     * OrthographyProcessor.realiseList does
+     *
+     * @param out
+     *            - the buffer of the sentence
+     * @param listStart
+     *            - the start of the realisation of the list in the buffer
+     */
+    private void realiseList(StringBuilder out, int listStart, List<NLGElement> components, String listSeparator,
+                             Object clauseStatus, State state) {
+        for(int i = 0; i < components.size(); i++ ) {
+            int start = out.length();
+            realise(out, components.get(i), clauseStatus, true, state);
+            if(out.length() == start || isBlank(out, start)) {
+                out.setLength(start);
+                continue;
+            }
+            if(OrthographyProcessor.needsCommaBefore(out, start)) {
+                out.insert(start, ", ");
+            }
+            if(components.size() > 1 && i < components.size() - 1) {
+                out.append(listSeparator);
+            }
+            out.append(' ');
+        }
+        if(out.length() > listStart) {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    private void realiseCoordinatedPhrase(StringBuilder out, CoordinatedPhraseElement element, State state) {
+        List<NLGElement> components = element.getChildren();
+        if(components.isEmpty()) {
+            throw UNSUPPORTED;
+        }
+        int start = out.length();
+        int length = components.size();
+        for(int index = 0; index < length; index++ ) {
+            NLGElement child = components.get(index);
+            if(isOmitted(child)) {
+                throw UNSUPPORTED;
+            }
+            // the morphology processor does not pass the function of a list on
+            Object function = child instanceof ListElement ? null
+                    : child.getFeature(InternalFeature.DISCOURSE_FUNCTION);
+            if(index < length - 2 && DiscourseFunction.CONJUNCTION.equals(function)) {
+                out.append(", ");
+            } else {
+                realise(out, child, null, false, state);
+                out.append(' ');
+            }
+        }
+        out.setLength(out.length() - 1);
+        // as replace(" ,", ",")
+        for(int space = out.indexOf(" ,", start); space >= 0; space = out.indexOf(" ,", space + 1)) {
+            out.deleteCharAt(space);
+        }
+    }
+
+    /**
+     * returns the components of an element which the morphology processor
+     * keeps, i.e. without the words it cannot inflect
+     */
+    private static List<NLGElement> realisedChildren(NLGElement element) {
+        List<NLGElement> children = element.getChildren();
+        List<NLGElement> realised = new ArrayList<NLGElement>(children.size());
+        NLGElement previous = null;
+        for(NLGElement child : children) {
+            if(followsAls(previous) && child.hasFeature(InternalFeature.COMPONENTS)) {
+                throw UNSUPPORTED;
+            }
+            if(isOmitted(child)) {
+                if(child.getFeature(InternalFeature.INBETWEEN_VERB) != null) {
+                    throw UNSUPPORTED;
+                }
+            } else {
+                realised.add(child);
+            }
+            previous = child;
+        }
+        return realised;
+    }
+
+    private static NLGElement firstRealisedChild(NLGElement list) {
+        List<NLGElement> children = realisedChildren(list);
+        if(children.isEmpty()) {
+            throw UNSUPPORTED;
+        }
+        return children.get(0);
+    }
+
+    private static boolean followsAls(NLGElement previous) {
+        if(previous == null) {
+            return false;
+        }
+        if(previous.hasFeature(InternalFeature.COMPONENTS)) {
+            for(NLGElement component : previous.getFeatureAsElementList(InternalFeature.COMPONENTS)) {
+                if(component.hasFeature("base_form") && component.getFeatureAsString("base_form").equals("als")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return previous.hasFeature("base_form") && previous.getFeatureAsString("base_form").equals("als");
+    }
+
+    /**
+     * whether the morphology processor drops the element, which happens to
+     * words without a lexical category
+     */
+    private static boolean isOmitted(NLGElement element) {
+        return element instanceof InflectedWordElement
+                && !element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue()
+                && !(element.getCategory() instanceof LexicalCategory);
+    }
+
+    private static boolean isUncomposedAdjective(NLGElement element) {
+        if(element instanceof InflectedWordElement) {
+            return !element.getFeatureAsBoolean(InternalFeature.NON_MORPH).booleanValue()
+                    && element.getCategory() == LexicalCategory.ADJECTIVE
+                    && !element.getFeatureAsBoolean(InternalFeature.COMPOSITE).booleanValue();
+        }
+        return !(element instanceof ListElement) && LexicalCategory.ADJECTIVE.equals(element.getCategory())
+                && element.hasFeature(InternalFeature.COMPOSITE)
+                && !element.getFeatureAsBoolean(InternalFeature.COMPOSITE).booleanValue();
+    }
+
+    private static void checkSupported(NLGElement element) {
+        if(!(element instanceof InflectedWordElement || element instanceof StringElement
+                || element instanceof ListElement || element instanceof CoordinatedPhraseElement)
+                || isSeparableVerbPhrase(element)) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    /**
+     * whether the element is a verb phrase with a separable verb, whose parts
+     * are rearranged after inflection
+     */
+    private static boolean isSeparableVerbPhrase(NLGElement element) {
+        return element.getFeatureAsBoolean(LexicalFeature.SEPARABLE).booleanValue()
+                && DiscourseFunction.VERB_PHRASE.equals(element.getFeature(InternalFeature.DISCOURSE_FUNCTION));
+    }
+
+    /**
+     * returns the realisation of the element after morphology, before
+     * punctuation
+     */
+    private String inflectedForm(NLGElement element) {
+        if(element instanceof InflectedWordElement) {
+            return trim(inflect((InflectedWordElement) element));
+        } else if(element instanceof StringElement) {
+            return element.getRealisation();
+        }
+        return "";
+    }
+
+    private String inflect(InflectedWordElement word) {
+        StringBuilder realised = new StringBuilder();
+        InflectionStatus status = this.morphology.inflect(word, realised);
+        return status == InflectionStatus.EMPTY ? null : realised.toString();
+    }
+
+    /**
+     * applies the punctuation rules to the end of the buffer from
+     * <code>start</code> and trims it as <code>getRealisation()</code> does;
+     * the rules only change realisations with commas or repeated spaces
+     */
+    private static void clean(StringBuilder out, int start) {
+        trim(out, start);
+        if(out.indexOf(",", start) >= 0 || out.indexOf("  ", start) >= 0) {
+            String cleaned = OrthographyProcessor.removePunctSpace(out.substring(start));
+            out.setLength(start);
+            out.append(cleaned);
+            trim(out, start);
+        }
+    }
+
+    private static void trim(StringBuilder out, int start) {
+        int end = out.length();
+        while(end > start && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.setLength(end);
+        int first = start;
+        while(first < end && out.charAt(first) == ' ') {
+            first++;
+        }
+        if(first > start) {
+            out.delete(start, first);
+        }
+    }
+
+    /**
+     * as OrthographyProcessor.isBlank for the end of the buffer from
+     * <code>start</code>
+     */
+    private static boolean isBlank(StringBuilder out, int start) {
+        for(int i = start; i < out.length(); i++) {
+            char character = out.charAt(i);
+            if(character != ' ' && character != '\t' && character != '\n' && character != '\u000B'
+                    && character != '\f' && character != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trim(String realisation) {
+        if(realisation == null) {
+            return "";
+        }
+        int start = 0;
+        int end = realisation.length();
+        while(start < end && realisation.charAt(start) == ' ') {
+            start++;
+        }
+        while(end > start && realisation.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return realisation.substring(start, end);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A thread-safe histogram of non-negative values with a fixed memory
+ * footprint. Values below 16 are counted exactly; larger values are counted
+ * in 8 buckets per power of two, so a percentile is at most 12.5% above the
+ * true value. Recording a value is a few atomic increments and never
+ * allocates.
+ * </p>
+ */
+public class Histogram implements HistogramMXBean {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // the values below 16, then 8 buckets for every power of two from 16 on
+    private static final int BUCKETS = EXACT + (63 - 4) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * create an empty histogram
+     *
+     * @param name
+     *            - the name of the histogram
+     */
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * records a value, negative values are recorded as 0
+     *
+     * @param value
+     *            - the value
+     */
+    public void record(long value) {
+        if(value < 0) {
+            value = 0;
+        }
+        this.buckets.incrementAndGet(bucketOf(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        long current;
+        while(value < (current = this.min.get()) && !this.min.compareAndSet(current, value)) {
+        }
+        while(value > (current = this.max.get()) && !this.max.compareAndSet(current, value)) {
+        }
+    }
+
+    private static int bucketOf(long value) {
+        if(value < EXACT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value counted in a bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if(bucket < EXACT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT) / SUB_BUCKETS + 4;
+        long subBucket = (bucket - EXACT) % SUB_BUCKETS;
+        long lower = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public long getCount() {
+        return this.count.get();
+    }
+
+    @Override
+    public long getMin() {
+        long value = this.min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    @Override
+    public long getMax() {
+        return this.max.get();
+    }
+
+    @Override
+    public double getMean() {
+        long values = this.count.get();
+        return values == 0 ? 0 : (double) this.sum.get() / values;
+    }
+
+    /**
+     * @param percentile
+     *            - the percentile, between 0 and 100
+     * @return the value below which the percentile of the recorded values
+     *         lies, 0 if there are none. Values recorded while this is
+     *         computed may or may not be taken into account.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+            total += counts[i];
+        }
+        if(total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * total);
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if(seen >= rank && seen > 0) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public long getP90() {
+        return getPercentile(90);
+    }
+
+    @Override
+    public long getP99() {
+        return getPercentile(99);
+    }
+
+    @Override
+    public long getP999() {
+        return getPercentile(99.9);
+    }
+
+    @Override
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.min.set(Long.MAX_VALUE);
+        this.max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram[" + this.name + ", count=" + getCount() + ", mean=" + getMean() + ", p50=" + getP50()
+                + ", p99=" + getP99() + ", max=" + getMax() + "]";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+/**
+ * The management interface of a {@link Histogram}. Latencies are in
+ * nanoseconds.
+ */
+public interface HistogramMXBean {
+
+    /**
+     * @return the name of the histogram
+     */
+    String getName();
+
+    /**
+     * @return the number of recorded values
+     */
+    long getCount();
+
+    /**
+     * @return the smallest recorded value, 0 if there is none
+     */
+    long getMin();
+
+    /**
+     * @return the largest recorded value, 0 if there is none
+     */
+    long getMax();
+
+    /**
+     * @return the mean of the recorded values, 0 if there is none
+     */
+    double getMean();
+
+    /**
+     * @return the median
+     */
+    long getP50();
+
+    /**
+     * @return the 90th percentile
+     */
+    long getP90();
+
+    /**
+     * @return the 99th percentile
+     */
+    long getP99();
+
+    /**
+     * @return the 99.9th percentile
+     */
+    long getP999();
+
+    /**
+     * forgets the recorded values
+     */
+    void reset();
+}
@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * <p>
+ * Realises a document which changes between realisations, e.g. a live report
+ * in which one number or one noun is replaced at a time. The realised
+ * sentences are kept, and the next realisation of the document only realises
+ * the sentences which have changed since; the sections, paragraphs and lists
+ * around them are assembled again, which is cheap.
+ * </p>
+ *
+ * <p>
+ * A sentence is the unit of reuse because agreement never crosses it: the
+ * number of the subject determines the verb, the case of a noun phrase
+ * determines its children, so a change anywhere in a sentence realises the
+ * whole sentence again. List items whose children are not sentences are
+ * reused as a whole in the same way. A part counts as changed if any of its
+ * elements has been changed (see {@link NLGElement#getModificationCount()})
+ * or if an element has been added, removed or replaced.
+ * </p>
+ *
+ * <p>
+ * The input is never modified, every sentence is realised from a deep copy.
+ * The result is the same as that of {@link Realiser#realise(NLGElement)}.
+ * Elements which are not documents, single sentences and realisers in debug
+ * mode are realised in full every time. An incremental realiser keeps the
+ * sentences of the last document it realised and must only be used by one
+ * thread at a time.
+ * </p>
+ *
+ * <p>
+ * The sentences of a document are realised without the instrumentation of
+ * {@link Realiser#realise(NLGElement)}: the stage and total metrics, the
+ * listener, the flight recording events and the recorder of the realiser
+ * see nothing of them. Only the helper metrics of the syntax stage are
+ * recorded.
+ * </p>
+ */
+public class IncrementalRealiser {
+
+    private final Realiser realiser;
+    // realised sentences of the last document, by identity of the input
+    private Map<NLGElement, Unit> units = new IdentityHashMap<NLGElement, Unit>();
+    private int reused;
+    private int realised;
+
+    /**
+     * create an incremental realiser
+     *
+     * @param realiser
+     *            - the realiser which realises the changed sentences
+     */
+    public IncrementalRealiser(Realiser realiser) {
+        this.realiser = realiser;
+    }
+
+    /**
+     * realises an element, reusing the sentences which have not changed
+     * since the last call
+     *
+     * @param element
+     *            - the element, is not modified
+     * @return the realised element
+     */
+    public NLGElement realise(NLGElement element) {
+        this.reused = 0;
+        this.realised = 0;
+        Map<NLGElement, Unit> current = new IdentityHashMap<NLGElement, Unit>();
+        NLGElement postOrthography;
+        if(!this.realiser.isDebugMode() && DocumentAssembly.isSplit(element)) {
+            postOrthography = assemble(element, current);
+        } else {
+            if(this.realiser.isDebugMode()) {
+                this.realised++;
+                return this.realiser.realise(element == null ? null : element.deepCopy());
+            }
+            postOrthography = realiseUnit(element, current);
+        }
+        this.units = current;
+        return this.realiser.format(postOrthography);
+    }
+
+    /**
+     * @return the number of sentences the last call reused
+     */
+    public int getReusedCount() {
+        return this.reused;
+    }
+
+    /**
+     * @return the number of sentences, or whole elements, the last call
+     *         realised
+     */
+    public int getRealisedCount() {
+        return this.realised;
+    }
+
+    /**
+     * forgets the realised sentences
+     */
+    public void clear() {
+        this.units = new IdentityHashMap<NLGElement, Unit>();
+    }
+
+    /**
+     * builds the output of the orthography stage for a document from its
+     * realised parts
+     */
+    private NLGElement assemble(NLGElement element, Map<NLGElement, Unit> current) {
+        List<NLGElement> children = new ArrayList<NLGElement>();
+        for(NLGElement child : element.getChildren()) {
+            if(!DocumentAssembly.isElided(child)) {
+                children.add(DocumentAssembly.isSplit(child) ? assemble(child, current) : realiseUnit(child,
+                        current));
+            }
+        }
+        return DocumentAssembly.assemble(element, children);
+    }
+
+    /**
+     * returns the realisation of a part of the document, realising it only
+     * if it has changed
+     */
+    private NLGElement realiseUnit(NLGElement element, Map<NLGElement, Unit> current) {
+        if(element == null) {
+            this.realised++;
+            return this.realiser.realiseOrthography(null);
+        }
+        Unit unit = this.units.get(element);
+        if(unit == null || !unit.matches(element)) {
+            unit = new Unit(element);
+            unit.result = this.realiser.realiseOrthography(element.deepCopy());
+            this.realised++;
+        } else {
+            this.reused++;
+        }
+        current.put(element, unit);
+        return unit.result;
+    }
+
+    /**
+     * A realised sentence together with the elements it was realised from and
+     * their modification counts at that time.
+     */
+    private static class Unit {
+        private final List<Object> parts = new ArrayList<Object>();
+        private final List<Integer> counts = new ArrayList<Integer>();
+        private NLGElement result;
+
+        Unit(NLGElement element) {
+            record(element);
+        }
+
+        private void record(NLGElement element) {
+            this.parts.add(element);
+            this.counts.add(element.getModificationCount());
+            for(Object value : element.getAllFeatures().values()) {
+                if(value instanceof NLGElement) {
+                    record((NLGElement) value);
+                } else if(value instanceof List<?>) {
+                    List<?> list = (List<?>) value;
+                    this.parts.add(list);
+                    this.counts.add(list.size());
+                    for(Object item : list) {
+                        if(item instanceof NLGElement) {
+                            record((NLGElement) item);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return whether the element, its children and their modification
+         *         counts are the same as when the unit was created
+         */
+        boolean matches(NLGElement element) {
+            return matches(element, 0) == this.parts.size();
+        }
+
+        /**
+         * compares the element with the recorded parts from a position on
+         *
+         * @return the position after the element, or -1 if it differs
+         */
+        private int matches(NLGElement element, int position) {
+            if(position >= this.parts.size() || this.parts.get(position) != element
+                    || this.counts.get(position) != element.getModificationCount()) {
+                return -1;
+            }
+            position++;
+            for(Object value : element.getAllFeatures().values()) {
+                if(value instanceof NLGElement) {
+                    position = matches((NLGElement) value, position);
+                } else if(value instanceof List<?>) {
+                    List<?> list = (List<?>) value;
+                    if(position >= this.parts.size() || this.parts.get(position) != list
+                            || this.counts.get(position) != list.size()) {
+                        return -1;
+                    }
+                    position++;
+                    for(Object item : list) {
+                        if(item instanceof NLGElement && position >= 0) {
+                            position = matches((NLGElement) item, position);
+                        }
+                    }
+                }
+                if(position < 0) {
+                    return -1;
+                }
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import simplenlgde.framework.RealisationMetrics;
+
+/**
+ * <p>
+ * Keeps the measurements of realisations in memory: latencies and other
+ * distributions in {@link Histogram}s, and counters. Histograms and counters
+ * are created when their name is first recorded. The registry is
+ * thread-safe and can be shared by several realisers.
+ * </p>
+ *
+ * <p>
+ * The registry and its histograms can be registered as MXBeans, see
+ * {@link #registerMBeans(MBeanServer, String)}, so that they can be read,
+ * and alerted on, with any JMX client:
+ * </p>
+ *
+ * <pre>
+ * MetricsRegistry metrics = new MetricsRegistry();
+ * metrics.registerMBeans(ManagementFactory.getPlatformMBeanServer(), &quot;simplenlgde&quot;);
+ * realiser.setMetrics(metrics);
+ * </pre>
+ */
+public class MetricsRegistry implements RealisationMetrics, MetricsRegistryMXBean {
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+    // where new histograms are registered, null if the registry is not registered
+    private volatile MBeanServer server;
+    private volatile String domain;
+
+    @Override
+    public void recordLatency(String name, long nanos) {
+        getHistogram(name).record(nanos);
+    }
+
+    @Override
+    public void recordValue(String name, long value) {
+        getHistogram(name).record(value);
+    }
+
+    @Override
+    public void increment(String name) {
+        AtomicLong counter = this.counters.get(name);
+        if(counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = this.counters.putIfAbsent(name, created);
+            if(counter == null) {
+                counter = created;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    /**
+     * @param name
+     *            - the name of the histogram
+     * @return the histogram, which is created if it does not exist
+     */
+    public Histogram getHistogram(String name) {
+        Histogram histogram = this.histograms.get(name);
+        if(histogram == null) {
+            Histogram created = new Histogram(name);
+            histogram = this.histograms.putIfAbsent(name, created);
+            if(histogram == null) {
+                histogram = created;
+                MBeanServer server = this.server;
+                if(server != null) {
+                    register(server, this.domain, histogram);
+                }
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * @param name
+     *            - the name of the counter
+     * @return the value of the counter, 0 if it does not exist
+     */
+    public long getCounter(String name) {
+        AtomicLong counter = this.counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for(Map.Entry<String, AtomicLong> entry : this.counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+    @Override
+    public SortedSet<String> getHistogramNames() {
+        return new TreeSet<String>(this.histograms.keySet());
+    }
+
+    @Override
+    public long getP99(String name) {
+        Histogram histogram = this.histograms.get(name);
+        return histogram == null ? 0 : histogram.getP99();
+    }
+
+    @Override
+    public void reset() {
+        for(Histogram histogram : this.histograms.values()) {
+            histogram.reset();
+        }
+        for(AtomicLong counter : this.counters.values()) {
+            counter.set(0);
+        }
+    }
+
+    /**
+     * Registers the registry as <code>domain:type=Metrics</code> and every
+     * histogram, including those created later, as
+     * <code>domain:type=Histogram,name=...</code>.
+     *
+     * @param server
+     *            - the MBean server, e.g. the platform MBean server
+     * @param domain
+     *            - the domain of the names
+     * @throws IllegalStateException
+     *             if a name is already registered
+     */
+    public synchronized void registerMBeans(MBeanServer server, String domain) {
+        try {
+            server.registerMBean(this, new ObjectName(domain + ":type=Metrics"));
+        } catch(JMException e) {
+            throw new IllegalStateException("cannot register the metrics in domain " + domain, e);
+        }
+        this.domain = domain;
+        this.server = server;
+        for(Histogram histogram : this.histograms.values()) {
+            register(server, domain, histogram);
+        }
+    }
+
+    /**
+     * Unregisters the MBeans registered by
+     * {@link #registerMBeans(MBeanServer, String)}.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = this.server;
+        if(server == null) {
+            return;
+        }
+        this.server = null;
+        try {
+            server.unregisterMBean(new ObjectName(this.domain + ":type=Metrics"));
+            for(Histogram histogram : this.histograms.values()) {
+                ObjectName name = nameOf(this.domain, histogram);
+                if(server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            }
+        } catch(JMException e) {
+            throw new IllegalStateException("cannot unregister the metrics in domain " + this.domain, e);
+        }
+    }
+
+    private static void register(MBeanServer server, String domain, Histogram histogram) {
+        try {
+            ObjectName name = nameOf(domain, histogram);
+            if(!server.isRegistered(name)) {
+                server.registerMBean(histogram, name);
+            }
+        } catch(InstanceAlreadyExistsException e) {
+            // registered by registerMBeans at the same time
+        } catch(JMException e) {
+            throw new IllegalStateException("cannot register the histogram " + histogram.getName(), e);
+        }
+    }
+
+    private static ObjectName nameOf(String domain, Histogram histogram) throws JMException {
+        return new ObjectName(domain + ":type=Histogram,name=" + ObjectName.quote(histogram.getName()));
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsRegistry[histograms=" + getHistogramNames() + ", counters=" + getCounters() + "]";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * The management interface of a {@link MetricsRegistry}. The histograms are
+ * registered as MBeans of their own.
+ */
+public interface MetricsRegistryMXBean {
+
+    /**
+     * @return the counters by name
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return the names of the histograms
+     */
+    SortedSet<String> getHistogramNames();
+
+    /**
+     * @param name
+     *            the name of the histogram
+     * @return the 99th percentile of the histogram, 0 if there is none
+     */
+    long getP99(String name);
+
+    /**
+     * forgets all recorded values and counters
+     */
+    void reset();
+}
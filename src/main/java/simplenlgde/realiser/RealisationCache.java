@@ -0,0 +1,347 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlgde.framework.MemoryAccountable;
+import simplenlgde.framework.MemoryEstimator;
+import simplenlgde.framework.MemoryReport;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * A bounded, thread-safe cache of realisations. A realiser with a cache (see
+ * {@link Realiser#setCache(RealisationCache)}) looks up every element before
+ * realising it and returns the stored text if a structurally equal element
+ * has been realised before. Elements are compared with
+ * {@link NLGElement#equals(Object)} and {@link NLGElement#hashCode()}, that
+ * is by category and features, including all child elements and the lexicon
+ * entries of the words.
+ * </p>
+ *
+ * <p>
+ * The cache keeps a copy of every element it stores, so the elements may be
+ * changed or realised afterwards. The entries belong to the lexicon the
+ * elements were realised with and to its version (see
+ * {@link Lexicon#getVersion()}); when the lexicon changes, all entries are
+ * dropped, and a realisation during which the lexicon changed is not
+ * stored. When the cache is full, the oldest entries are dropped first.
+ * </p>
+ *
+ * <p>
+ * The options of the realiser are not part of the key, so a cache should only
+ * be shared by realisers with the same configuration, e.g. by all realisers
+ * created from one {@link RealiserConfig}.
+ * </p>
+ */
+public class RealisationCache implements MemoryAccountable {
+
+    /** default number of realisations kept */
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final int capacity;
+    private final ConcurrentHashMap<Key, String> entries = new ConcurrentHashMap<Key, String>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<Key>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // lexicon and version of the stored entries
+    private volatile Lexicon lexicon;
+    private volatile long lexiconVersion;
+
+    /**
+     * create a cache with the default capacity
+     */
+    public RealisationCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * create a cache
+     *
+     * @param capacity
+     *            - maximum number of realisations kept
+     */
+    public RealisationCache(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * drops the entries if the lexicon has changed, see
+     * {@link #lookup(NLGElement, Lexicon, long, boolean)}
+     *
+     * @param lexicon
+     *            - lexicon of the realiser
+     * @return the version of the lexicon the lookup and the storing of the
+     *         realisation belong to
+     */
+    long validate(Lexicon lexicon) {
+        long version = lexicon == null ? 0 : lexicon.getVersion();
+        if(lexicon != this.lexicon || version != this.lexiconVersion) {
+            synchronized(this) {
+                if(lexicon != this.lexicon || version != this.lexiconVersion) {
+                    this.lexicon = lexicon;
+                    this.lexiconVersion = version;
+                    if(clearEntries() > 0) {
+                        this.invalidations.incrementAndGet();
+                    }
+                }
+            }
+        }
+        return version;
+    }
+
+    /**
+     * returns the stored realisation of an element
+     *
+     * @param element
+     *            - the element, is not modified
+     * @param lexicon
+     *            - lexicon of the realiser
+     * @param version
+     *            - version of the lexicon returned by
+     *            {@link #validate(Lexicon)}
+     * @param sentence
+     *            - whether the element is realised as a sentence
+     * @return the realisation, or <code>null</code> if none is stored
+     */
+    String lookup(NLGElement element, Lexicon lexicon, long version, boolean sentence) {
+        String realisation = this.entries.get(new Key(element, lexicon, version, sentence));
+        if(realisation == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return realisation;
+    }
+
+    /**
+     * stores the realisation of an element, unless the lexicon has changed
+     * since the lookup, so that a text realised with the old entries of the
+     * lexicon is not stored for the new version
+     *
+     * @param element
+     *            - a copy of the element as it was before the realisation,
+     *            which is not changed afterwards
+     * @param lexicon
+     *            - lexicon of the realiser
+     * @param version
+     *            - version of the lexicon the lookup was made for
+     * @param sentence
+     *            - whether the element was realised as a sentence
+     * @param realisation
+     *            - the realisation
+     */
+    void store(NLGElement element, Lexicon lexicon, long version, boolean sentence, String realisation) {
+        if(!isCurrent(lexicon, version)) {
+            return;
+        }
+        Key key = new Key(element, lexicon, version, sentence);
+        if(this.entries.putIfAbsent(key, realisation) == null) {
+            this.insertionOrder.add(key);
+            this.size.incrementAndGet();
+            if(!isCurrent(lexicon, version)) {
+                // the entries were dropped meanwhile
+                if(this.entries.remove(key) != null) {
+                    this.size.decrementAndGet();
+                }
+            } else if(this.size.get() > this.capacity) {
+                evict();
+            }
+        }
+    }
+
+    private boolean isCurrent(Lexicon lexicon, long version) {
+        return lexicon == this.lexicon && version == this.lexiconVersion
+                && version == (lexicon == null ? 0 : lexicon.getVersion());
+    }
+
+    private void evict() {
+        while(this.size.get() > this.capacity) {
+            Key oldest = this.insertionOrder.poll();
+            if(oldest == null) {
+                return;
+            }
+            if(this.entries.remove(oldest) != null) {
+                this.size.decrementAndGet();
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private int clearEntries() {
+        int removed = 0;
+        Key key;
+        while((key = this.insertionOrder.poll()) != null) {
+            if(this.entries.remove(key) != null) {
+                this.size.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * drops all realisations, the statistics are kept
+     */
+    public void clear() {
+        clearEntries();
+    }
+
+    /**
+     * @return number of realisations kept
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return maximum number of realisations kept
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return number of lookups which found a realisation
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return number of lookups which found no realisation
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return number of realisations dropped because the cache was full
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * @return number of times the entries were dropped because the lexicon
+     *         changed
+     */
+    public long getInvalidations() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * @return share of the lookups which found a realisation, between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long lookups = hits + this.misses.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * resets the statistics, the realisations are kept
+     */
+    public void resetStatistics() {
+        this.hits.set(0);
+        this.misses.set(0);
+        this.evictions.set(0);
+        this.invalidations.set(0);
+    }
+
+    /**
+     * Estimates the heap retained by the cache, see {@link MemoryReport}: by
+     * part of the cache (<code>index</code>) and by feature of the stored
+     * elements (<code>feature</code>). At most
+     * {@link MemoryEstimator#DEFAULT_SAMPLES} entries are estimated.
+     *
+     * @return the estimate
+     */
+    @Override
+    public MemoryReport estimateMemory() {
+        MemoryEstimator estimator = new MemoryEstimator();
+        Map<String, Long> indexes = new HashMap<String, Long>();
+        Map<String, Long> features = new HashMap<String, Long>();
+        MemoryEstimator.add(indexes, "keys", estimator.sizeOfSample(this.entries.keySet(),
+                MemoryEstimator.DEFAULT_SAMPLES, features));
+        MemoryEstimator.add(indexes, "realisations", estimator.sizeOfSample(this.entries.values(),
+                MemoryEstimator.DEFAULT_SAMPLES, null));
+        int entryCount = this.entries.size();
+        // the map and the queue of the insertion order
+        MemoryEstimator.add(indexes, "entries", MemoryEstimator.hashMapSize(entryCount)
+                + MemoryEstimator.objectSize(2) * (long) (entryCount + 1));
+        long bytes = 0;
+        for(long index : indexes.values()) {
+            bytes += index;
+        }
+        return new MemoryReport("RealisationCache", bytes)
+                .withBreakdown(MemoryReport.INDEX, indexes)
+                .withBreakdown(MemoryReport.FEATURE, features);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d, invalidations=%d", size(),
+                getHits(), getMisses(), getHitRate(), getEvictions(), getInvalidations());
+    }
+
+    /**
+     * An element together with the lexicon it was realised with.
+     */
+    private static final class Key {
+        private final NLGElement element;
+        private final Lexicon lexicon;
+        private final long version;
+        private final boolean sentence;
+        private final int hash;
+
+        Key(NLGElement element, Lexicon lexicon, long version, boolean sentence) {
+            this.element = element;
+            this.lexicon = lexicon;
+            this.version = version;
+            this.sentence = sentence;
+            this.hash = 31 * (31 * element.hashCode() + (int) (version ^ (version >>> 32))) + (sentence ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.hash == key.hash && this.lexicon == key.lexicon && this.version == key.version
+                    && this.sentence == key.sentence && this.element.equals(key.element);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
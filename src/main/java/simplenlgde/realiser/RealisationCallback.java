@@ -0,0 +1,30 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+/**
+ * Receives the results of a batch which is realised from an iterator, see
+ * {@link Realiser#realiseBatch(java.util.Iterator, java.util.concurrent.Executor, int, RealisationCallback)}.
+ * The results are passed one at a time in the order of the input, always
+ * from the thread which started the batch.
+ */
+public interface RealisationCallback {
+
+    /**
+     * Called once for every element of the batch.
+     *
+     * @param result
+     *            the result of realising the element
+     */
+    void realised(RealisationResult result);
+}
@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+/**
+ * The ways a {@link Realiser} can process the output of the syntax stage. The
+ * default engine of new realisers can be set with the system property
+ * <code>simplenlgde.realiser.engine</code> (<code>staged</code> or
+ * <code>fused</code>).
+ */
+public enum RealisationEngine {
+
+    /**
+     * Morphology, orthography and formatter each build a new tree from the
+     * tree of the previous stage.
+     */
+    STAGED,
+
+    /**
+     * Inflection, punctuation and formatting are done in a single traversal of
+     * the syntax tree which writes the text into one buffer, without building
+     * the intermediate trees. Elements the fused engine does not handle, e.g.
+     * sentences with separable verbs, are realised by the staged engine. Both
+     * engines produce the same text.
+     */
+    FUSED;
+
+    /** the system property which selects the default engine */
+    public static final String PROPERTY = "simplenlgde.realiser.engine";
+
+    /**
+     * @return the engine selected by the system property, {@link #STAGED} if
+     *         it is not set
+     */
+    public static RealisationEngine getDefault() {
+        String engine = System.getProperty(PROPERTY);
+        return engine != null && "fused".equalsIgnoreCase(engine.trim()) ? FUSED : STAGED;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * <p>
+ * Receives structured events about the stages of a realisation, see
+ * {@link Realiser#setListener(RealisationListener)}. Unlike the debug mode of
+ * the realiser, a listener prints nothing and builds no trees; the events
+ * refer to the elements of the stages, and anything derived from them is
+ * computed only when the listener asks for it.
+ * </p>
+ *
+ * <p>
+ * The realiser asks the listener once per realisation whether to trace it.
+ * If it does, the realiser passes an event to the listener after every stage,
+ * in the order of the stages. A realiser may be used by several threads, so
+ * a listener must be thread-safe.
+ * </p>
+ */
+public interface RealisationListener {
+
+    /**
+     * @param element
+     *            the element about to be realised
+     * @return <code>true</code> if the stages of the realisation are passed to
+     *         the listener
+     */
+    boolean isTraced(NLGElement element);
+
+    /**
+     * Receives the event of a stage of a traced realisation.
+     *
+     * @param event
+     *            the stage, its input, output and duration
+     */
+    void stageRealised(StageEvent event);
+}
@@ -0,0 +1,462 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.NLGModule;
+
+/**
+ * <p>
+ * Realises a stream of elements with every stage of the realiser (syntax,
+ * morphology, orthography and formatter) running on its own worker threads.
+ * The stages are connected by bounded queues, so that the syntax of one
+ * sentence is processed while the morphology of the previous sentence and the
+ * orthography of the one before are processed. A stage which is faster than
+ * its successor blocks when the queue between them is full.
+ * </p>
+ *
+ * <p>
+ * The results are passed to a {@link RealisationCallback} in the order of the
+ * input. Exceptions are reported per element as in
+ * {@link Realiser#realiseBatch(List, java.util.concurrent.Executor)}, the
+ * remaining stages are skipped for a failed element. An error, such as a
+ * <code>StackOverflowError</code>, stops the pipeline and is thrown by
+ * {@link #run(Iterator, RealisationCallback)}. The statistics of every
+ * stage show how busy its workers were and how full its input queue got,
+ * which tells the stage that limits the throughput.
+ * </p>
+ *
+ * <p>
+ * A pipeline is created with {@link Realiser#createPipeline(int, int)}. It
+ * can be run any number of times, but only by one thread at a time.
+ * </p>
+ */
+public class RealisationPipeline {
+
+    /** marks the end of the input in a queue */
+    private static final Item END = new Item(-1, null);
+
+    private final boolean preserveInput;
+    private final int queueCapacity;
+    private final List<Stage> stages = new ArrayList<Stage>();
+
+    /**
+     * create a pipeline
+     *
+     * @param names
+     *            - names of the stages
+     * @param modules
+     *            - modules of the stages, in processing order
+     * @param queueCapacity
+     *            - capacity of the queue in front of every stage
+     * @param workersPerStage
+     *            - number of threads of every stage
+     * @param preserveInput
+     *            - whether deep copies of the input are realised
+     */
+    RealisationPipeline(List<String> names, List<NLGModule> modules, int queueCapacity, int workersPerStage,
+                        boolean preserveInput) {
+        if(queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        if(workersPerStage < 1) {
+            throw new IllegalArgumentException("workersPerStage must be positive: " + workersPerStage);
+        }
+        this.queueCapacity = queueCapacity;
+        this.preserveInput = preserveInput;
+        for(int i = 0; i < modules.size(); i++) {
+            this.stages.add(new Stage(names.get(i), modules.get(i), workersPerStage));
+        }
+    }
+
+    /**
+     * Realises all elements of an iterator and passes the results to a
+     * callback in the order of the input. The iterator is read by a separate
+     * thread, the callback is called by the calling thread. Returns when all
+     * elements have been realised.
+     *
+     * @param elements
+     *            the elements to realise
+     * @param callback
+     *            receives the result of every element
+     * @return the number of elements realised
+     * @throws InterruptedException
+     *             if the calling thread is interrupted, the workers are
+     *             stopped
+     */
+    public int run(final Iterator<? extends NLGElement> elements, RealisationCallback callback)
+            throws InterruptedException {
+        // bounds the elements between the input and the callback, including
+        // those waiting for their predecessors when a stage has several workers
+        final Semaphore inFlight = new Semaphore(this.queueCapacity * (this.stages.size() + 1));
+        final List<BlockingQueue<Item>> queues = new ArrayList<BlockingQueue<Item>>();
+        for(int i = 0; i <= this.stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<Item>(this.queueCapacity));
+        }
+        final RuntimeException[] inputError = new RuntimeException[1];
+        // an error which stops the pipeline, thrown by run
+        final AtomicReference<Error> failure = new AtomicReference<Error>();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        threads.add(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                BlockingQueue<Item> first = queues.get(0);
+                int index = 0;
+                boolean stopped = false;
+                try {
+                    while(elements.hasNext() && failure.get() == null) {
+                        NLGElement element = elements.next();
+                        inFlight.acquire();
+                        Item item = new Item(index++, element);
+                        if(preserveInput && element != null) {
+                            item.current = element.deepCopy();
+                        }
+                        stages.get(0).put(first, item);
+                    }
+                } catch(RuntimeException e) {
+                    inputError[0] = e;
+                } catch(Error e) {
+                    failure.compareAndSet(null, e);
+                } catch(InterruptedException e) {
+                    // the pipeline has been stopped
+                    stopped = true;
+                } finally {
+                    if(!stopped) {
+                        putEnd(first);
+                    }
+                }
+            }
+        }, "realisation-pipeline-input"));
+
+        for(int i = 0; i < this.stages.size(); i++) {
+            Stage stage = this.stages.get(i);
+            Stage next = i + 1 < this.stages.size() ? this.stages.get(i + 1) : null;
+            stage.reset();
+            AtomicInteger running = new AtomicInteger(stage.workers);
+            for(int worker = 0; worker < stage.workers; worker++) {
+                threads.add(new Thread(new Worker(stage, next, queues.get(i), queues.get(i + 1), running, failure),
+                        "realisation-pipeline-" + stage.name + "-" + worker));
+            }
+        }
+
+        for(Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int delivered = 0;
+        boolean completed = false;
+        try {
+            BlockingQueue<Item> last = queues.get(this.stages.size());
+            Map<Integer, Item> waiting = new HashMap<Integer, Item>();
+            Item item;
+            while((item = last.take()) != END) {
+                waiting.put(item.index, item);
+                while((item = waiting.remove(delivered)) != null) {
+                    delivered++;
+                    inFlight.release();
+                    callback.realised(item.toResult());
+                }
+            }
+            // after an error, the threads still blocked are stopped
+            completed = failure.get() == null;
+        } finally {
+            if(!completed) {
+                for(Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+            for(Stage stage : this.stages) {
+                stage.stop();
+            }
+        }
+        if(failure.get() != null) {
+            throw failure.get();
+        }
+        if(inputError[0] != null) {
+            throw inputError[0];
+        }
+        return delivered;
+    }
+
+    /**
+     * puts the end of the input into a queue unless the pipeline is stopped
+     * meanwhile
+     */
+    private static void putEnd(BlockingQueue<Item> queue) {
+        try {
+            queue.put(END);
+        } catch(InterruptedException e) {
+            // the pipeline has been stopped
+        }
+    }
+
+    /**
+     * @return the statistics of all stages, in processing order. They
+     *         describe the current or the last run.
+     */
+    public List<StageStatistics> getStatistics() {
+        List<StageStatistics> statistics = new ArrayList<StageStatistics>();
+        for(Stage stage : this.stages) {
+            statistics.add(stage.statistics());
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * An element on its way through the pipeline.
+     */
+    private static class Item {
+        private final int index;
+        private final NLGElement input;
+        private NLGElement current;
+        private RuntimeException error;
+
+        Item(int index, NLGElement input) {
+            this.index = index;
+            this.input = input;
+            this.current = input;
+        }
+
+        RealisationResult toResult() {
+            return new RealisationResult(this.index, this.input, this.error == null ? this.current : null,
+                    this.error);
+        }
+    }
+
+    /**
+     * A thread of a stage, takes elements from the queue in front of the
+     * stage and puts them into the queue behind it.
+     */
+    private static class Worker implements Runnable {
+        private final Stage stage;
+        private final Stage next;
+        private final BlockingQueue<Item> input;
+        private final BlockingQueue<Item> output;
+        private final AtomicInteger running;
+        private final AtomicReference<Error> failure;
+
+        Worker(Stage stage, Stage next, BlockingQueue<Item> input, BlockingQueue<Item> output,
+               AtomicInteger running, AtomicReference<Error> failure) {
+            this.stage = stage;
+            this.next = next;
+            this.input = input;
+            this.output = output;
+            this.running = running;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            boolean stopped = false;
+            try {
+                Item item = null;
+                while(this.failure.get() == null && (item = this.input.take()) != END) {
+                    if(item.error == null) {
+                        long start = System.nanoTime();
+                        try {
+                            item.current = this.stage.module.realise(item.current);
+                        } catch(RuntimeException e) {
+                            item.error = e;
+                        }
+                        this.stage.busyNanos.addAndGet(System.nanoTime() - start);
+                    }
+                    this.stage.processed.incrementAndGet();
+                    if(this.next == null) {
+                        this.output.put(item);
+                    } else {
+                        this.next.put(this.output, item);
+                    }
+                }
+                if(item == END) {
+                    // let the other workers of this stage see the end as well
+                    this.input.put(END);
+                }
+            } catch(InterruptedException e) {
+                // the pipeline has been stopped
+                stopped = true;
+            } catch(Error e) {
+                // stops the pipeline, the remaining workers stop after their
+                // current element
+                this.failure.compareAndSet(null, e);
+            } finally {
+                if(this.running.decrementAndGet() == 0 && !stopped) {
+                    putEnd(this.output);
+                }
+            }
+        }
+    }
+
+    /**
+     * A stage of the pipeline and its statistics.
+     */
+    private static class Stage {
+        private final String name;
+        private final NLGModule module;
+        private final int workers;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private volatile BlockingQueue<Item> queue;
+        private volatile long startNanos;
+        private volatile long stopNanos;
+
+        Stage(String name, NLGModule module, int workers) {
+            this.name = name;
+            this.module = module;
+            this.workers = workers;
+        }
+
+        void reset() {
+            this.processed.set(0);
+            this.busyNanos.set(0);
+            this.maxQueueDepth.set(0);
+            this.queue = null;
+            this.startNanos = System.nanoTime();
+            this.stopNanos = 0;
+        }
+
+        void stop() {
+            this.stopNanos = System.nanoTime();
+        }
+
+        /**
+         * puts an element into the queue in front of this stage
+         */
+        void put(BlockingQueue<Item> queue, Item item) throws InterruptedException {
+            this.queue = queue;
+            queue.put(item);
+            int depth = queue.size();
+            int max;
+            while(depth > (max = this.maxQueueDepth.get()) && !this.maxQueueDepth.compareAndSet(max, depth)) {
+                // retry
+            }
+        }
+
+        StageStatistics statistics() {
+            BlockingQueue<Item> current = this.queue;
+            long end = this.stopNanos == 0 ? System.nanoTime() : this.stopNanos;
+            return new StageStatistics(this.name, this.workers, this.processed.get(), this.busyNanos.get(),
+                    end - this.startNanos, this.stopNanos == 0 && current != null ? current.size() : 0,
+                    this.maxQueueDepth.get());
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of one stage.
+     */
+    public static class StageStatistics {
+        private final String name;
+        private final int workers;
+        private final long processed;
+        private final long busyNanos;
+        private final long elapsedNanos;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+
+        StageStatistics(String name, int workers, long processed, long busyNanos, long elapsedNanos,
+                        int queueDepth, int maxQueueDepth) {
+            this.name = name;
+            this.workers = workers;
+            this.processed = processed;
+            this.busyNanos = busyNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+        }
+
+        /**
+         * @return the name of the stage, e.g. "morphology"
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * @return the number of threads of the stage
+         */
+        public int getWorkers() {
+            return this.workers;
+        }
+
+        /**
+         * @return the number of elements which passed the stage
+         */
+        public long getProcessed() {
+            return this.processed;
+        }
+
+        /**
+         * @return the time the workers spent realising elements, summed over
+         *         all workers
+         */
+        public long getBusyNanos() {
+            return this.busyNanos;
+        }
+
+        /**
+         * @return the time since the start of the run, or the duration of
+         *         the run if it has finished
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * @return the number of elements waiting in front of the stage
+         */
+        public int getQueueDepth() {
+            return this.queueDepth;
+        }
+
+        /**
+         * @return the largest number of elements which waited in front of
+         *         the stage
+         */
+        public int getMaxQueueDepth() {
+            return this.maxQueueDepth;
+        }
+
+        /**
+         * @return the share of the elapsed time the workers were busy,
+         *         between 0 and 1. The stage with the highest utilisation
+         *         limits the throughput of the pipeline.
+         */
+        public double getUtilisation() {
+            if(this.elapsedNanos <= 0) {
+                return 0;
+            }
+            return Math.min(1.0, (double) this.busyNanos / ((double) this.elapsedNanos * this.workers));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: processed=%d, utilisation=%.2f, queue=%d, maxQueue=%d", this.name,
+                    this.processed, getUtilisation(), this.queueDepth, this.maxQueueDepth);
+        }
+    }
+}
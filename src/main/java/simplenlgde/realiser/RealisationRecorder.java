@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * Records the inputs and results of realisations so that they can be
+ * replayed later, see {@link Realiser#setRecorder(RealisationRecorder)} and
+ * <code>simplenlgde.replay.LogRecorder</code>.
+ * </p>
+ *
+ * <p>
+ * The realiser passes the input to the recorder before realising it, since
+ * the realisation changes it, and the result afterwards, together with the
+ * record the recorder returned for the input. A realiser may be used by
+ * several threads, so a recorder must be thread-safe.
+ * </p>
+ */
+public interface RealisationRecorder {
+
+    /**
+     * Receives an element about to be realised. The recorder has to copy or
+     * encode whatever it keeps of the element now.
+     *
+     * @param element
+     *            the element
+     * @param sentence
+     *            <code>true</code> if the element is realised by
+     *            {@link Realiser#realiseSentence(NLGElement)}
+     * @param lexicon
+     *            the lexicon of the realiser
+     * @return the record of the realisation, passed to
+     *         {@link #realised(Object, String, RuntimeException, long)}, or
+     *         <code>null</code> if it is not recorded
+     */
+    Object realising(NLGElement element, boolean sentence, Lexicon lexicon);
+
+    /**
+     * Receives the result of a recorded realisation.
+     *
+     * @param record
+     *            the record returned for the input
+     * @param realisation
+     *            the realised text, or <code>null</code>
+     * @param error
+     *            the exception thrown by the realisation, or
+     *            <code>null</code>
+     * @param nanos
+     *            the duration of the realisation
+     */
+    void realised(Object record, String realisation, RuntimeException error, long nanos);
+}
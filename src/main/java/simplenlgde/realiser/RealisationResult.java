@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * The outcome of realising one element of a batch, see
+ * {@link Realiser#realiseBatch(java.util.List, java.util.concurrent.Executor)}.
+ * A result either holds the realised element or the exception which was
+ * thrown while realising the input, so that a failing element does not abort
+ * the rest of the batch.
+ */
+public class RealisationResult {
+
+    private final int index;
+    private final NLGElement input;
+    private final NLGElement realised;
+    private final RuntimeException error;
+
+    /**
+     * Creates a result.
+     *
+     * @param index
+     *            the position of the input in the batch
+     * @param input
+     *            the element which was realised
+     * @param realised
+     *            the realised element, <code>null</code> if realisation failed
+     * @param error
+     *            the exception thrown while realising, <code>null</code> if
+     *            realisation succeeded
+     */
+    public RealisationResult(int index, NLGElement input, NLGElement realised, RuntimeException error) {
+        this.index = index;
+        this.input = input;
+        this.realised = realised;
+        this.error = error;
+    }
+
+    /**
+     * @return the position of the input in the batch, starting with 0
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return the element which was realised
+     */
+    public NLGElement getInput() {
+        return this.input;
+    }
+
+    /**
+     * @return the realised element, or <code>null</code> if realisation failed
+     */
+    public NLGElement getRealised() {
+        return this.realised;
+    }
+
+    /**
+     * @return the text of the realised element, or <code>null</code> if
+     *         realisation failed
+     */
+    public String getRealisation() {
+        return this.realised == null ? null : this.realised.getRealisation();
+    }
+
+    /**
+     * @return the exception thrown while realising the input, or
+     *         <code>null</code> if realisation succeeded
+     */
+    public RuntimeException getError() {
+        return this.error;
+    }
+
+    /**
+     * @return <code>true</code> if the input was realised without an exception
+     */
+    public boolean isSuccess() {
+        return this.error == null;
+    }
+
+    @Override
+    public String toString() {
+        return this.index + ": " + (isSuccess() ? getRealisation() : this.error.toString());
+    }
+}
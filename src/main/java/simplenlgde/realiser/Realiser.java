@@ -18,17 +18,42 @@
  */
 package simplenlgde.realiser;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import simplenlgde.framework.DocumentCategory;
 import simplenlgde.framework.DocumentElement;
 import simplenlgde.framework.NLGElement;
 import simplenlgde.framework.NLGModule;
+import simplenlgde.framework.RealisationMetrics;
+import simplenlgde.framework.StringElement;
 import simplenlgde.morphology.MorphologyProcessor;
 import simplenlgde.syntax.SyntaxProcessor;
 import simplenlgde.orthograpgy.OrthographyProcessor;
+import simplenlgde.features.Feature;
+import simplenlgde.format.german.StreamingFormatter;
 import simplenlgde.format.german.TextFormatter;
+import simplenlgde.jfr.FlightRecording;
 import simplenlgde.lexicon.Lexicon;
 
 
@@ -38,11 +63,24 @@ import simplenlgde.lexicon.Lexicon;
  */
 public class Realiser extends NLGModule {
 
+    /** numbers the traced realisations */
+    private static final AtomicLong TRACE_IDS = new AtomicLong();
+    /** elements in flight per thread of the executor of a batch */
+    private static final int BATCH_IN_FLIGHT_PER_THREAD = 4;
+
     private MorphologyProcessor  morphology;
     private OrthographyProcessor orthography;
     private SyntaxProcessor      syntax;
     private NLGModule            formatter = null;
     private boolean              debug     = false;
+    private boolean              preserveInput = false;
+    private RealisationEngine    engine    = RealisationEngine.getDefault();
+    private RealisationCache     cache     = null;
+    private RealisationListener  listener  = null;
+    private RealisationMetrics   metrics   = null;
+    private RealisationRecorder  recorder  = null;
+    // whether the stages belong to a RealiserConfig and must not be changed
+    private boolean              sharedStages  = false;
 
     /**
      * create a realiser (no lexicon)
@@ -63,6 +101,27 @@ public class Realiser extends NLGModule {
         setLexicon(lexicon);
     }
 
+    /**
+     * Create a realiser from a configuration. The realiser shares the
+     * processing stages of the configuration, so this is cheaper than creating
+     * and initialising a new realiser. Changing the lexicon or the metrics of
+     * the realiser later gives it stages of its own.
+     *
+     * @param config
+     */
+    public Realiser(RealiserConfig config) {
+        super();
+        this.syntax = config.getSyntaxProcessor();
+        this.morphology = config.getMorphologyProcessor();
+        this.orthography = config.getOrthographyProcessor();
+        this.formatter = config.getFormatter();
+        this.debug = config.isDebugMode();
+        this.preserveInput = config.isPreserveInput();
+        this.engine = config.getEngine();
+        this.cache = config.getCache();
+        this.listener = config.getListener();
+        this.sharedStages = true;
+    }
 
     @Override
     public void initialise() {
@@ -75,52 +134,129 @@ public class Realiser extends NLGModule {
         this.formatter = new TextFormatter();
         // AG: added call to initialise for formatter
         this.formatter.initialise();
+        this.sharedStages = false;
     }
 
     @Override
     public NLGElement realise(NLGElement element) {
+        RealisationRecorder recorder = this.recorder;
+        Object record = recorder == null || element == null ? null
+                : recorder.realising(element, false, this.syntax.getLexicon());
+        if(record == null) {
+            return realiseInput(element);
+        }
+        long start = System.nanoTime();
+        NLGElement realised;
+        try {
+            realised = realiseInput(element);
+        } catch(RuntimeException e) {
+            recorder.realised(record, null, e, System.nanoTime() - start);
+            throw e;
+        }
+        recorder.realised(record, realised == null ? null : realised.getRealisation(), null,
+                System.nanoTime() - start);
+        return realised;
+    }
 
-        StringBuilder debug = new StringBuilder();
+    private NLGElement realiseInput(NLGElement element) {
+        if(isCached(element)) {
+            Lexicon lexicon = this.syntax.getLexicon();
+            long version = this.cache.validate(lexicon);
+            String text = this.cache.lookup(element, lexicon, version, false);
+            if(text != null) {
+                return new StringElement(text);
+            }
+            NLGElement key = element.deepCopy();
+            NLGElement realised = realiseElement(this.preserveInput ? element.deepCopy() : element);
+            if(realised != null && realised.getRealisation() != null) {
+                this.cache.store(key, lexicon, version, false, realised.getRealisation());
+            }
+            return realised;
+        }
+        if(this.preserveInput && element != null) {
+            element = element.deepCopy();
+        }
+        return realiseElement(element);
+    }
+
+    /**
+     * @return whether the realisation of the element is looked up in the
+     *         cache. Debug mode bypasses the cache.
+     */
+    private boolean isCached(NLGElement element) {
+        return this.cache != null && element != null && !this.debug;
+    }
+
+    private NLGElement realiseElement(NLGElement element) {
+
+        StringBuilder debug = this.debug ? new StringBuilder() : null;
+        Trace trace = startTrace(element);
+        long start = trace == null ? 0 : System.nanoTime();
 
         if(this.debug) {
             System.out.println("INITIAL TREE\n"); //$NON-NLS-1$
             System.out.println(element.printTree(null));
             debug.append("INITIAL TREE<br/>");
-            debug.append(element.printTree("&nbsp;&nbsp;").replaceAll("\n", "<br/>"));
+            debug.append(element.printTree("&nbsp;&nbsp;").replace("\n", "<br/>"));
         }
 
         NLGElement postSyntax = this.syntax.realise(element);
+        if(trace != null) {
+            start = trace.stageRealised("syntax", element, postSyntax, start);
+        }
         if(this.debug) {
             System.out.println("<br/>POST-SYNTAX TREE<br/>"); //$NON-NLS-1$
             System.out.println(postSyntax.printTree(null));
             debug.append("<br/>POST-SYNTAX TREE<br/>");
-            debug.append(postSyntax.printTree("&nbsp;&nbsp;").replaceAll("\n", "<br/>"));
+            debug.append(postSyntax.printTree("&nbsp;&nbsp;").replace("\n", "<br/>"));
+        }
+
+        if(this.engine == RealisationEngine.FUSED && !this.debug && this.formatter != null
+                && this.formatter.getClass() == TextFormatter.class) {
+            String text = new FusedEngine(this.morphology, this.orthography).realise(postSyntax);
+            if(text != null) {
+                NLGElement realised = new StringElement(text);
+                if(trace != null) {
+                    trace.stageRealised("fused", postSyntax, realised, start);
+                    trace.realised(realised);
+                }
+                return realised;
+            }
         }
 
         NLGElement postMorphology = this.morphology.realise(postSyntax);
+        if(trace != null) {
+            start = trace.stageRealised("morphology", postSyntax, postMorphology, start);
+        }
         if(this.debug) {
             System.out.println("\nPOST-MORPHOLOGY TREE\n"); //$NON-NLS-1$
             System.out.println(postMorphology.printTree(null));
             debug.append("<br/>POST-MORPHOLOGY TREE<br/>");
-            debug.append(postMorphology.printTree("&nbsp;&nbsp;").replaceAll("\n", "<br/>"));
+            debug.append(postMorphology.printTree("&nbsp;&nbsp;").replace("\n", "<br/>"));
         }
 
         NLGElement postOrthography = this.orthography.realise(postMorphology);
+        if(trace != null) {
+            start = trace.stageRealised("orthography", postMorphology, postOrthography, start);
+        }
         if(this.debug) {
             System.out.println("\nPOST-ORTHOGRAPHY TREE\n"); //$NON-NLS-1$
             System.out.println(postOrthography.printTree(null));
             debug.append("<br/>POST-ORTHOGRAPHY TREE<br/>");
-            debug.append(postOrthography.printTree("&nbsp;&nbsp;").replaceAll("\n", "<br/>"));
+            debug.append(postOrthography.printTree("&nbsp;&nbsp;").replace("\n", "<br/>"));
         }
 
         NLGElement postFormatter = null;
         if(this.formatter != null) {
             postFormatter = this.formatter.realise(postOrthography);
+            if(trace != null) {
+                trace.stageRealised("formatter", postOrthography, postFormatter, start);
+            }
             if(this.debug) {
                 System.out.println("\nPOST-FORMATTER TREE\n"); //$NON-NLS-1$
                 System.out.println(postFormatter.printTree(null));
                 debug.append("<br/>POST-FORMATTER TREE<br/>");
-                debug.append(postFormatter.printTree("&nbsp;&nbsp;").replaceAll("\n", "<br/>"));
+                debug.append(postFormatter.printTree("&nbsp;&nbsp;").replace("\n", "<br/>"));
             }
 
         } else {
@@ -130,10 +266,169 @@ public class Realiser extends NLGModule {
         if(this.debug) {
             postFormatter.setFeature("debug", debug.toString());
         }
+        if(trace != null) {
+            trace.realised(postFormatter);
+        }
 
         return postFormatter;
     }
 
+    /**
+     * @return the trace of a realisation, or <code>null</code> if there are
+     *         no metrics and no listener which traces the element
+     */
+    private Trace startTrace(NLGElement element) {
+        Object recording = FlightRecording.beginRealisation();
+        RealisationListener listener = this.listener;
+        RealisationMetrics metrics = this.metrics;
+        if(listener != null && !listener.isTraced(element)) {
+            listener = null;
+        }
+        if(listener == null && metrics == null && recording == null) {
+            return null;
+        }
+        return new Trace(element, listener, listener == null ? 0 : TRACE_IDS.incrementAndGet(), metrics,
+                recording);
+    }
+
+    /**
+     * Realises a document with a fork-join pool. The sections, paragraphs,
+     * lists and list items of the document are split into tasks, the
+     * sentences are realised in parallel and the results are passed to the
+     * formatter in document order. The result is the same as that of
+     * {@link #realise(NLGElement)}. The sections and paragraphs are not
+     * changed, the sentences are, unless {@link #setPreserveInput(boolean)}
+     * is set, which then only copies the sentences.
+     * Elements other than documents, the debug mode and the cache are
+     * handled by <code>realise(NLGElement)</code> on the calling thread.
+     * <p>
+     * The sentences of a split document bypass the instrumentation of
+     * <code>realise(NLGElement)</code>: the stage and total metrics, the
+     * listener, the flight recording events and the recorder see nothing of
+     * them. Only the helper metrics of the syntax stage are recorded.
+     *
+     * @param element
+     *            the element to realise
+     * @param pool
+     *            the pool which realises the sentences
+     * @return the realised element
+     */
+    public NLGElement realise(NLGElement element, ForkJoinPool pool) {
+        if(this.debug || this.cache != null || !DocumentAssembly.isSplit(element)) {
+            return realise(element);
+        }
+        return format(pool.invoke(new DocumentTask(element)));
+    }
+
+    /**
+     * Realises an element and writes the formatted text to an output. If the
+     * formatter is a {@link StreamingFormatter}, the sections, lists and
+     * paragraphs of a document are realised and written one at a time, so
+     * that only one paragraph is held in memory at any time; with
+     * {@link #setPreserveInput(boolean)} only that paragraph is copied. The
+     * text is the same as the realisation of {@link #realise(NLGElement)}.
+     * Other formatters and the debug mode realise the whole element first.
+     *
+     * @param element
+     *            the element to realise
+     * @param output
+     *            where the text is written
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    public void realise(NLGElement element, Appendable output) throws IOException {
+        if(this.formatter instanceof StreamingFormatter && !this.debug) {
+            stream(element, (StreamingFormatter) this.formatter, output);
+        } else {
+            write(realise(element), output);
+        }
+    }
+
+    /**
+     * Realises an element and writes the formatted text to a stream in UTF-8,
+     * see {@link #realise(NLGElement, Appendable)}. The stream is flushed but
+     * not closed.
+     *
+     * @param element
+     *            the element to realise
+     * @param output
+     *            where the text is written
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    public void realise(NLGElement element, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        realise(element, writer);
+        writer.flush();
+    }
+
+    private void stream(NLGElement element, StreamingFormatter format, Appendable output) throws IOException {
+        if(element instanceof DocumentElement && element.getFeatureAsBoolean(Feature.ELIDED).booleanValue()) {
+            // the syntax stage drops elided elements
+            return;
+        }
+        if(element instanceof DocumentElement && format.isStreamed(element) && hasDocumentChildren(element)) {
+            format.writeStart(element, output);
+            for(NLGElement child : element.getChildren()) {
+                if(child != null) {
+                    stream(child, format, output);
+                }
+            }
+            format.writeEnd(element, output);
+        } else {
+            write(realise(element), output);
+        }
+    }
+
+    /**
+     * @return whether all children are document elements; the orthography
+     *         stage leaves other children of a document unchanged, so these
+     *         can only be realised together with their parent
+     */
+    private static boolean hasDocumentChildren(NLGElement element) {
+        for(NLGElement child : element.getChildren()) {
+            if(child != null && !(child instanceof DocumentElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void write(NLGElement realised, Appendable output) throws IOException {
+        if(realised != null && realised.getRealisation() != null) {
+            output.append(realised.getRealisation());
+        }
+    }
+
+    /**
+     * realises an element with the syntax, morphology and orthography stages,
+     * the formatter is not applied. The element is changed. The realisation
+     * is not traced: apart from the helper metrics of the syntax stage, it
+     * is not seen by the metrics, the listener, flight recording or the
+     * recorder.
+     *
+     * @return the realised element, or <code>null</code> if the element is
+     *         elided
+     */
+    NLGElement realiseOrthography(NLGElement element) {
+        NLGElement postSyntax = this.syntax.realise(element);
+        if(postSyntax == null) {
+            return null;
+        }
+        return this.orthography.realise(this.morphology.realise(postSyntax));
+    }
+
+    /**
+     * applies the formatter to the output of the orthography stage
+     */
+    NLGElement format(NLGElement element) {
+        return this.formatter == null ? element : this.formatter.realise(element);
+    }
+
+    boolean isDebugMode() {
+        return this.debug;
+    }
+
     /**
      * Convenience class to realise any NLGElement as a sentence
      *
@@ -141,13 +436,52 @@ public class Realiser extends NLGModule {
      * @return String realisation of the NLGElement
      */
     public String realiseSentence(NLGElement element) {
+        RealisationRecorder recorder = this.recorder;
+        Object record = recorder == null || element == null ? null
+                : recorder.realising(element, true, this.syntax.getLexicon());
+        if(record == null) {
+            return realiseSentenceInput(element);
+        }
+        long start = System.nanoTime();
+        String text;
+        try {
+            text = realiseSentenceInput(element);
+        } catch(RuntimeException e) {
+            recorder.realised(record, null, e, System.nanoTime() - start);
+            throw e;
+        }
+        recorder.realised(record, text, null, System.nanoTime() - start);
+        return text;
+    }
+
+    private String realiseSentenceInput(NLGElement element) {
+        if(isCached(element)) {
+            Lexicon lexicon = this.syntax.getLexicon();
+            long version = this.cache.validate(lexicon);
+            String text = this.cache.lookup(element, lexicon, version, true);
+            if(text == null) {
+                NLGElement key = element.deepCopy();
+                text = realiseAsSentence(this.preserveInput ? element.deepCopy() : element);
+                if(text != null) {
+                    this.cache.store(key, lexicon, version, true, text);
+                }
+            }
+            return text;
+        }
+        if(this.preserveInput && element != null) {
+            element = element.deepCopy();
+        }
+        return realiseAsSentence(element);
+    }
+
+    private String realiseAsSentence(NLGElement element) {
         NLGElement realised = null;
         if(element instanceof DocumentElement)
-            realised = realise(element);
+            realised = realiseElement(element);
         else {
             DocumentElement sentence = new DocumentElement(DocumentCategory.SENTENCE, null);
             sentence.addComponent(element);
-            realised = realise(sentence);
+            realised = realiseElement(sentence);
         }
 
         if(realised == null)
@@ -168,18 +502,517 @@ public class Realiser extends NLGModule {
         return realisedElements;
     }
 
+    /**
+     * Realises a batch of independent elements concurrently. Every element is
+     * realised as by {@link #realise(NLGElement)}, the results are returned
+     * in the order of the input. An exception thrown while realising one
+     * element is reported in its result and does not abort the batch.
+     * <p>
+     * The processors of the realiser keep no state between calls, so all
+     * workers share this realiser. A formatter set with
+     * {@link #setFormatter(NLGModule)} must be thread-safe as well.
+     * </p>
+     * <p>
+     * The elements are passed to the executor a few at a time, at most four
+     * per thread of a <code>ThreadPoolExecutor</code> or
+     * <code>ForkJoinPool</code>, or per processor for other executors.
+     * </p>
+     *
+     * @param elements
+     *            the elements to realise
+     * @param executor
+     *            the executor which realises the elements
+     * @return one result for each element, in the order of the input
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting for
+     *             the results
+     */
+    public List<RealisationResult> realiseBatch(List<? extends NLGElement> elements, Executor executor)
+            throws InterruptedException {
+        final List<RealisationResult> results = new ArrayList<RealisationResult>(elements.size());
+        int maxInFlight = BATCH_IN_FLIGHT_PER_THREAD * parallelismOf(executor);
+        realiseBatch(elements.iterator(), executor, maxInFlight, new RealisationCallback() {
+            @Override
+            public void realised(RealisationResult result) {
+                results.add(result);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * @return the number of threads of an executor, or the number of
+     *         processors if it is unknown
+     */
+    private static int parallelismOf(Executor executor) {
+        int threads = 0;
+        if(executor instanceof ThreadPoolExecutor) {
+            threads = ((ThreadPoolExecutor) executor).getCorePoolSize();
+        } else if(executor instanceof ForkJoinPool) {
+            threads = ((ForkJoinPool) executor).getParallelism();
+        }
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Realises a batch of independent elements on a pool of
+     * <code>parallelism</code> threads, which is shut down afterwards. See
+     * {@link #realiseBatch(List, Executor)}.
+     *
+     * @param elements
+     *            the elements to realise
+     * @param parallelism
+     *            the number of threads
+     * @return one result for each element, in the order of the input
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting for
+     *             the results
+     */
+    public List<RealisationResult> realiseBatch(List<? extends NLGElement> elements, int parallelism)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            return realiseBatch(elements, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Realises the elements of an iterator concurrently and passes the
+     * results to a callback in the order of the input. At most
+     * <code>maxInFlight</code> elements are taken from the iterator before
+     * their results have been passed on, so arbitrarily long streams can be
+     * realised in bounded memory. The iterator and the callback are only
+     * used by the calling thread.
+     *
+     * @param elements
+     *            the elements to realise
+     * @param executor
+     *            the executor which realises the elements
+     * @param maxInFlight
+     *            the maximum number of elements which are being realised or
+     *            waiting for their predecessors at the same time
+     * @param callback
+     *            receives the result of every element
+     * @return the number of elements realised
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting for
+     *             the results, the elements in flight are cancelled
+     */
+    public int realiseBatch(Iterator<? extends NLGElement> elements, Executor executor, int maxInFlight,
+                            RealisationCallback callback) throws InterruptedException {
+        if(maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        Deque<Future<RealisationResult>> inFlight = new ArrayDeque<Future<RealisationResult>>();
+        int index = 0;
+        boolean completed = false;
+        try {
+            while(elements.hasNext() || !inFlight.isEmpty()) {
+                while(elements.hasNext() && inFlight.size() < maxInFlight) {
+                    FutureTask<RealisationResult> task = new FutureTask<RealisationResult>(
+                            new BatchTask(index++, elements.next()));
+                    executor.execute(task);
+                    inFlight.add(task);
+                }
+                callback.realised(getResult(inFlight.poll()));
+            }
+            completed = true;
+        } finally {
+            if(!completed) {
+                for(Future<RealisationResult> task : inFlight) {
+                    task.cancel(false);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Creates a pipeline which realises streams of elements with every stage
+     * of this realiser running on its own threads, see
+     * {@link RealisationPipeline}. The pipeline shares the stages and the
+     * lexicon with this realiser, debug mode is not supported.
+     *
+     * @param queueCapacity
+     *            the capacity of the queue in front of every stage
+     * @param workersPerStage
+     *            the number of threads of every stage
+     * @return the pipeline
+     */
+    public RealisationPipeline createPipeline(int queueCapacity, int workersPerStage) {
+        List<String> names = new ArrayList<String>();
+        List<NLGModule> modules = new ArrayList<NLGModule>();
+        names.add("syntax");
+        modules.add(this.syntax);
+        names.add("morphology");
+        modules.add(this.morphology);
+        names.add("orthography");
+        modules.add(this.orthography);
+        if(this.formatter != null) {
+            names.add("formatter");
+            modules.add(this.formatter);
+        }
+        return new RealisationPipeline(names, modules, queueCapacity, workersPerStage, this.preserveInput);
+    }
+
+    private static RealisationResult getResult(Future<RealisationResult> task) throws InterruptedException {
+        try {
+            return task.get();
+        } catch(ExecutionException e) {
+            // exceptions are caught by the task, only errors get here
+            if(e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * The events and measurements of one traced realisation, also recorded by
+     * the Flight Recorder.
+     */
+    private static class Trace {
+        private final NLGElement element;
+        private final RealisationListener listener;
+        private final long id;
+        private final RealisationMetrics metrics;
+        private final Object recording;
+        private final long begin = System.nanoTime();
+        // the Flight Recorder event of the current stage, null if not recorded
+        private Object stageRecording;
+        private int sentences;
+        private int elements;
+
+        Trace(NLGElement element, RealisationListener listener, long id, RealisationMetrics metrics,
+              Object recording) {
+            this.element = element;
+            this.listener = listener;
+            this.id = id;
+            this.metrics = metrics;
+            this.recording = recording;
+            this.stageRecording = recording == null ? null : FlightRecording.beginStage();
+        }
+
+        /**
+         * passes the event of a stage to the listener and records its latency
+         *
+         * @return the start time of the next stage
+         */
+        long stageRealised(String stage, NLGElement input, NLGElement output, long start) {
+            long end = System.nanoTime();
+            if(this.stageRecording != null) {
+                FlightRecording.endStage(this.stageRecording, stage, input);
+            }
+            if(this.listener != null) {
+                this.listener.stageRealised(new StageEvent(this.id, stage, input, output, end - start));
+            }
+            if(this.metrics != null) {
+                this.metrics.recordLatency("realiser." + stage, end - start);
+            }
+            if("syntax".equals(stage) && (this.metrics != null || this.recording != null)) {
+                countSentences(output);
+            }
+            if(this.recording != null) {
+                this.stageRecording = FlightRecording.beginStage();
+            }
+            return System.nanoTime();
+        }
+
+        /**
+         * records the whole realisation
+         */
+        void realised(NLGElement output) {
+            if(this.metrics != null) {
+                this.metrics.recordLatency("realiser.total", System.nanoTime() - this.begin);
+                this.metrics.increment("realiser.realisations");
+            }
+            if(this.recording != null) {
+                FlightRecording.endRealisation(this.recording, this.element, this.sentences, this.elements,
+                        output);
+            }
+        }
+
+        /**
+         * counts the sentences in the output of the syntax stage and their
+         * elements, and records the number of elements of every sentence
+         */
+        private void countSentences(NLGElement element) {
+            if(element == null) {
+                return;
+            }
+            if(element.getCategory() == DocumentCategory.SENTENCE) {
+                int count = countElements(element);
+                this.sentences++;
+                this.elements += count;
+                if(this.metrics != null) {
+                    this.metrics.recordValue("sentence.elements", count);
+                }
+            } else if(element instanceof DocumentElement) {
+                for(NLGElement child : element.getChildren()) {
+                    countSentences(child);
+                }
+            }
+        }
+
+        private static int countElements(NLGElement element) {
+            int count = 1;
+            List<NLGElement> children = element.getChildren();
+            if(children != null) {
+                for(NLGElement child : children) {
+                    if(child != null) {
+                        count += countElements(child);
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Realises a part of a document, split parts fork a task for every child.
+     */
+    private class DocumentTask extends RecursiveTask<NLGElement> {
+        private static final long serialVersionUID = 1L;
+
+        private final NLGElement element;
+
+        DocumentTask(NLGElement element) {
+            this.element = element;
+        }
+
+        @Override
+        protected NLGElement compute() {
+            if(!DocumentAssembly.isSplit(this.element)) {
+                return realiseOrthography(preserveInput ? this.element.deepCopy() : this.element);
+            }
+            List<DocumentTask> tasks = new ArrayList<DocumentTask>();
+            for(NLGElement child : this.element.getChildren()) {
+                if(!DocumentAssembly.isElided(child)) {
+                    DocumentTask task = new DocumentTask(child);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            List<NLGElement> children = new ArrayList<NLGElement>();
+            for(DocumentTask task : tasks) {
+                children.add(task.join());
+            }
+            return DocumentAssembly.assemble(this.element, children);
+        }
+    }
+
+    /**
+     * Realises one element of a batch.
+     */
+    private class BatchTask implements Callable<RealisationResult> {
+        private final int index;
+        private final NLGElement element;
+
+        BatchTask(int index, NLGElement element) {
+            this.index = index;
+            this.element = element;
+        }
+
+        @Override
+        public RealisationResult call() {
+            try {
+                return new RealisationResult(this.index, this.element, realise(this.element), null);
+            } catch(RuntimeException e) {
+                return new RealisationResult(this.index, this.element, null, e);
+            }
+        }
+    }
+
     @Override
     public void setLexicon(Lexicon newLexicon) {
+        ownStages();
         this.syntax.setLexicon(newLexicon);
         this.morphology.setLexicon(newLexicon);
         this.orthography.setLexicon(newLexicon);
     }
 
+    /**
+     * replaces the stages shared with a configuration by stages of this
+     * realiser with the same lexicon and settings, before they are changed
+     */
+    private void ownStages() {
+        if(!this.sharedStages) {
+            return;
+        }
+        Lexicon lexicon = this.syntax.getLexicon();
+        OrthographyProcessor shared = this.orthography;
+        this.morphology = new MorphologyProcessor();
+        this.morphology.initialise();
+        this.morphology.setLexicon(lexicon);
+        this.orthography = new OrthographyProcessor();
+        this.orthography.initialise();
+        this.orthography.setLexicon(lexicon);
+        this.orthography.setCommaSepPremodifiers(shared.isCommaSepPremodifiers());
+        this.orthography.setCommaSepCuephrase(shared.isCommaSepCuephrase());
+        this.syntax = new SyntaxProcessor();
+        this.syntax.initialise();
+        this.syntax.setLexicon(lexicon);
+        this.syntax.setMetrics(this.metrics);
+        this.sharedStages = false;
+    }
+
     public void setFormatter(NLGModule formatter) {
         this.formatter = formatter;
     }
 
+    /**
+     * Sets the debug mode, which prints the tree after every stage and adds
+     * the trees to the feature <code>debug</code> of the result. This is
+     * meant for development; to diagnose realisations in production, use a
+     * listener, see {@link #setListener(RealisationListener)}.
+     *
+     * @param debugOn
+     *            <code>true</code> to print the trees
+     */
     public void setDebugMode(boolean debugOn) {
         this.debug = debugOn;
     }
+
+    /**
+     * Sets whether the realiser leaves its input unchanged. The processors
+     * rearrange the components of the elements they realise, so by default an
+     * element can only be realised once. If <code>true</code>, every call
+     * realises a deep copy of its input (see {@link NLGElement#deepCopy()}),
+     * so the same element can be realised any number of times, also by
+     * several threads sharing this realiser at the same time.
+     *
+     * @param preserveInput
+     *            <code>true</code> if the input is to be treated as read-only
+     */
+    public void setPreserveInput(boolean preserveInput) {
+        this.preserveInput = preserveInput;
+    }
+
+    /**
+     * @return <code>true</code> if the realiser leaves its input unchanged
+     */
+    public boolean isPreserveInput() {
+        return this.preserveInput;
+    }
+
+    /**
+     * Sets the engine which realises the output of the syntax stage. The
+     * fused engine is only used with the default formatter and without debug
+     * mode, otherwise the staged engine is used.
+     *
+     * @param engine
+     *            the engine, see {@link RealisationEngine}
+     */
+    public void setEngine(RealisationEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * @return the engine which realises the output of the syntax stage
+     */
+    public RealisationEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Sets the cache of realisations. With a cache, {@link #realise(NLGElement)}
+     * and {@link #realiseSentence(NLGElement)} return the stored text for an
+     * element which is structurally equal to one realised before, without
+     * realising it again; <code>realise</code> then returns a
+     * {@link StringElement}. A cache may be shared by several realisers with
+     * the same configuration.
+     *
+     * @param cache
+     *            the cache, <code>null</code> for none
+     */
+    public void setCache(RealisationCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @return the cache of realisations, or <code>null</code>
+     */
+    public RealisationCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Sets the listener which receives an event for every stage of the
+     * realisations it traces, see {@link RealisationListener}. Without a
+     * listener, tracing costs nothing but a field read per realisation. Wrap
+     * the listener in a {@link SamplingListener} to trace only some
+     * realisations. The listener traces the realisations of
+     * {@link #realise(NLGElement)} and {@link #realiseSentence(NLGElement)}
+     * which are not answered by the cache.
+     *
+     * @param listener
+     *            the listener, <code>null</code> for none
+     */
+    public void setListener(RealisationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the listener, or <code>null</code>
+     */
+    public RealisationListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Sets the metrics which receive the measurements of the realisations of
+     * {@link #realise(NLGElement)} and {@link #realiseSentence(NLGElement)}
+     * which are not answered by the cache: the latency of every stage, named
+     * <code>realiser.syntax</code>, <code>realiser.morphology</code>,
+     * <code>realiser.orthography</code>, <code>realiser.formatter</code> or
+     * <code>realiser.fused</code>, of the whole realisation,
+     * <code>realiser.total</code>, the number of realisations,
+     * <code>realiser.realisations</code>, and the number of elements of every
+     * sentence after the syntax stage, <code>sentence.elements</code>. The
+     * syntax stage also records the latencies of its helpers in every
+     * realisation, see {@link SyntaxProcessor#setMetrics(RealisationMetrics)}.
+     * A realiser which shares the stages of a {@link RealiserConfig} gets
+     * stages of its own, so that the other realisers of the configuration
+     * do not record into these metrics.
+     *
+     * @param metrics
+     *            the metrics, e.g. a {@link MetricsRegistry},
+     *            <code>null</code> to measure nothing
+     */
+    public void setMetrics(RealisationMetrics metrics) {
+        ownStages();
+        this.syntax.setMetrics(metrics);
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the metrics, or <code>null</code>
+     */
+    public RealisationMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Sets the recorder which receives the input and the result of every
+     * call of {@link #realise(NLGElement)} and
+     * {@link #realiseSentence(NLGElement)}, including those answered by the
+     * cache and those of the batch methods, so that production traffic can
+     * be replayed later, see {@link RealisationRecorder}. Without a recorder,
+     * recording costs nothing but a field read per realisation.
+     *
+     * @param recorder
+     *            the recorder, <code>null</code> to record nothing
+     */
+    public void setRecorder(RealisationRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return the recorder, or <code>null</code>
+     */
+    public RealisationRecorder getRecorder() {
+        return this.recorder;
+    }
 }
@@ -0,0 +1,279 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import simplenlgde.format.german.TextFormatter;
+import simplenlgde.framework.NLGModule;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.morphology.MorphologyProcessor;
+import simplenlgde.orthograpgy.OrthographyProcessor;
+import simplenlgde.syntax.SyntaxProcessor;
+
+/**
+ * <p>
+ * An immutable configuration of a {@link Realiser}. A configuration creates
+ * the processing stages for its lexicon and comma options once, every
+ * realiser created with {@link Realiser#Realiser(RealiserConfig)} shares
+ * them. The stages keep no state between calls, so creating a realiser from
+ * a configuration allocates nothing but the realiser itself.
+ * </p>
+ *
+ * <p>
+ * The <code>with</code> methods return a changed copy. Copies which only
+ * differ in the formatter, the debug mode, the input mode, the engine, the
+ * cache or the listener share the stages with the original:
+ * </p>
+ *
+ * <pre>
+ * RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+ * Realiser plain = new Realiser(config);
+ * Realiser html = new Realiser(config.withFormatter(htmlFormatter));
+ * </pre>
+ */
+public final class RealiserConfig {
+
+    /** configuration without a lexicon, using the plain text formatter */
+    public static final RealiserConfig DEFAULT = new RealiserConfig(null, new TextFormatter(), false, false,
+            false, false, RealisationEngine.getDefault(), null, null);
+
+    private final Lexicon lexicon;
+    private final NLGModule formatter;
+    private final boolean commaSepPremodifiers;
+    private final boolean commaSepCuephrase;
+    private final boolean debug;
+    private final boolean preserveInput;
+    private final RealisationEngine engine;
+    private final RealisationCache cache;
+    private final RealisationListener listener;
+
+    private final SyntaxProcessor syntax;
+    private final MorphologyProcessor morphology;
+    private final OrthographyProcessor orthography;
+
+    private RealiserConfig(Lexicon lexicon, NLGModule formatter, boolean commaSepPremodifiers,
+                           boolean commaSepCuephrase, boolean debug, boolean preserveInput,
+                           RealisationEngine engine, RealisationCache cache,
+                           RealisationListener listener) {
+        this.lexicon = lexicon;
+        this.formatter = formatter;
+        this.commaSepPremodifiers = commaSepPremodifiers;
+        this.commaSepCuephrase = commaSepCuephrase;
+        this.debug = debug;
+        this.preserveInput = preserveInput;
+        this.engine = engine;
+        this.cache = cache;
+        this.listener = listener;
+
+        this.syntax = new SyntaxProcessor();
+        this.syntax.initialise();
+        this.syntax.setLexicon(lexicon);
+        this.morphology = new MorphologyProcessor();
+        this.morphology.initialise();
+        this.morphology.setLexicon(lexicon);
+        this.orthography = new OrthographyProcessor();
+        this.orthography.initialise();
+        this.orthography.setLexicon(lexicon);
+        this.orthography.setCommaSepPremodifiers(commaSepPremodifiers);
+        this.orthography.setCommaSepCuephrase(commaSepCuephrase);
+    }
+
+    /**
+     * copy constructor which shares the stages of the original
+     */
+    private RealiserConfig(RealiserConfig original, NLGModule formatter, boolean debug, boolean preserveInput,
+                           RealisationEngine engine, RealisationCache cache,
+                           RealisationListener listener) {
+        this.lexicon = original.lexicon;
+        this.formatter = formatter;
+        this.commaSepPremodifiers = original.commaSepPremodifiers;
+        this.commaSepCuephrase = original.commaSepCuephrase;
+        this.debug = debug;
+        this.preserveInput = preserveInput;
+        this.engine = engine;
+        this.cache = cache;
+        this.listener = listener;
+
+        this.syntax = original.syntax;
+        this.morphology = original.morphology;
+        this.orthography = original.orthography;
+    }
+
+    /**
+     * @param lexicon
+     *            - the lexicon, should match the lexicon of the NLGFactory
+     * @return a copy of this configuration with the given lexicon
+     */
+    public RealiserConfig withLexicon(Lexicon lexicon) {
+        return new RealiserConfig(lexicon, this.formatter, this.commaSepPremodifiers, this.commaSepCuephrase,
+                this.debug, this.preserveInput, this.engine, this.cache, this.listener);
+    }
+
+    /**
+     * @param formatter
+     *            - the formatter, <code>null</code> for none. It is shared
+     *            by all realisers created from the configuration.
+     * @return a copy of this configuration with the given formatter
+     */
+    public RealiserConfig withFormatter(NLGModule formatter) {
+        return new RealiserConfig(this, formatter, this.debug, this.preserveInput, this.engine, this.cache,
+                this.listener);
+    }
+
+    /**
+     * @param commaSepPremodifiers
+     *            - whether premodifiers are separated by commas
+     * @return a copy of this configuration with the given option
+     */
+    public RealiserConfig withCommaSepPremodifiers(boolean commaSepPremodifiers) {
+        return new RealiserConfig(this.lexicon, this.formatter, commaSepPremodifiers, this.commaSepCuephrase,
+                this.debug, this.preserveInput, this.engine, this.cache, this.listener);
+    }
+
+    /**
+     * @param commaSepCuephrase
+     *            - whether cue phrases are followed by a comma
+     * @return a copy of this configuration with the given option
+     */
+    public RealiserConfig withCommaSepCuephrase(boolean commaSepCuephrase) {
+        return new RealiserConfig(this.lexicon, this.formatter, this.commaSepPremodifiers, commaSepCuephrase,
+                this.debug, this.preserveInput, this.engine, this.cache, this.listener);
+    }
+
+    /**
+     * @param debug
+     *            - whether the realiser prints the intermediate trees
+     * @return a copy of this configuration with the given option
+     */
+    public RealiserConfig withDebugMode(boolean debug) {
+        return new RealiserConfig(this, this.formatter, debug, this.preserveInput, this.engine, this.cache,
+                this.listener);
+    }
+
+    /**
+     * @param preserveInput
+     *            - whether the realiser leaves its input unchanged, see
+     *            {@link Realiser#setPreserveInput(boolean)}
+     * @return a copy of this configuration with the given option
+     */
+    public RealiserConfig withPreserveInput(boolean preserveInput) {
+        return new RealiserConfig(this, this.formatter, this.debug, preserveInput, this.engine, this.cache,
+                this.listener);
+    }
+
+    /**
+     * @param engine
+     *            - the engine which realises the output of the syntax stage
+     * @return a copy of this configuration with the given engine
+     */
+    public RealiserConfig withEngine(RealisationEngine engine) {
+        return new RealiserConfig(this, this.formatter, this.debug, this.preserveInput, engine, this.cache,
+                this.listener);
+    }
+
+    /**
+     * @param cache
+     *            - the cache of realisations, <code>null</code> for none. It
+     *            is shared by all realisers created from the configuration.
+     * @return a copy of this configuration with the given cache
+     */
+    public RealiserConfig withCache(RealisationCache cache) {
+        return new RealiserConfig(this, this.formatter, this.debug, this.preserveInput, this.engine, cache,
+                this.listener);
+    }
+
+    /**
+     * @param listener
+     *            - the listener which traces realisations, <code>null</code>
+     *            for none
+     * @return a copy of this configuration with the given listener
+     */
+    public RealiserConfig withListener(RealisationListener listener) {
+        return new RealiserConfig(this, this.formatter, this.debug, this.preserveInput, this.engine, this.cache,
+                listener);
+    }
+
+    /**
+     * @return the lexicon, or <code>null</code>
+     */
+    public Lexicon getLexicon() {
+        return this.lexicon;
+    }
+
+    /**
+     * @return the formatter, or <code>null</code>
+     */
+    public NLGModule getFormatter() {
+        return this.formatter;
+    }
+
+    /**
+     * @return whether premodifiers are separated by commas
+     */
+    public boolean isCommaSepPremodifiers() {
+        return this.commaSepPremodifiers;
+    }
+
+    /**
+     * @return whether cue phrases are followed by a comma
+     */
+    public boolean isCommaSepCuephrase() {
+        return this.commaSepCuephrase;
+    }
+
+    /**
+     * @return whether the realiser prints the intermediate trees
+     */
+    public boolean isDebugMode() {
+        return this.debug;
+    }
+
+    /**
+     * @return whether the realiser leaves its input unchanged
+     */
+    public boolean isPreserveInput() {
+        return this.preserveInput;
+    }
+
+    /**
+     * @return the engine which realises the output of the syntax stage
+     */
+    public RealisationEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * @return the cache of realisations, or <code>null</code>
+     */
+    public RealisationCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * @return the listener which traces realisations, or <code>null</code>
+     */
+    public RealisationListener getListener() {
+        return this.listener;
+    }
+
+    SyntaxProcessor getSyntaxProcessor() {
+        return this.syntax;
+    }
+
+    MorphologyProcessor getMorphologyProcessor() {
+        return this.morphology;
+    }
+
+    OrthographyProcessor getOrthographyProcessor() {
+        return this.orthography;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlgde.framework.NLGElement;
+
+/**
+ * Traces one in every <i>n</i> realisations which another listener traces,
+ * so that a listener can stay installed under load. The first realisation is
+ * always traced.
+ */
+public class SamplingListener implements RealisationListener {
+
+    private final RealisationListener delegate;
+    private final int interval;
+    private final AtomicLong realisations = new AtomicLong();
+
+    /**
+     * create a sampling listener
+     *
+     * @param delegate
+     *            - the listener which receives the events of the sampled
+     *            realisations
+     * @param interval
+     *            - one in how many realisations is traced, 1 for all
+     */
+    public SamplingListener(RealisationListener delegate, int interval) {
+        if(delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if(interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1: " + interval);
+        }
+        this.delegate = delegate;
+        this.interval = interval;
+    }
+
+    /**
+     * @return the interval of the samples
+     */
+    public int getInterval() {
+        return this.interval;
+    }
+
+    @Override
+    public boolean isTraced(NLGElement element) {
+        return this.realisations.getAndIncrement() % this.interval == 0 && this.delegate.isTraced(element);
+    }
+
+    @Override
+    public void stageRealised(StageEvent event) {
+        this.delegate.stageRealised(event);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.realiser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.NLGElement;
+
+/**
+ * One stage of a traced realisation, see {@link RealisationListener}. The
+ * stages are named <code>syntax</code>, <code>morphology</code>,
+ * <code>orthography</code> and <code>formatter</code>, or <code>fused</code>
+ * if the morphology and orthography are realised in one pass. The input and
+ * output are the elements of the realisation, which later stages may change;
+ * a listener which keeps them must copy them.
+ */
+public class StageEvent {
+
+    private final long realisationId;
+    private final String stage;
+    private final NLGElement input;
+    private final NLGElement output;
+    private final long durationNanos;
+    private List<String> featureNames;
+
+    /**
+     * create an event
+     *
+     * @param realisationId
+     *            - the number of the traced realisation
+     * @param stage
+     *            - the name of the stage
+     * @param input
+     *            - the element the stage realised
+     * @param output
+     *            - the element the stage returned
+     * @param durationNanos
+     *            - the time the stage took, in nanoseconds
+     */
+    public StageEvent(long realisationId, String stage, NLGElement input, NLGElement output, long durationNanos) {
+        this.realisationId = realisationId;
+        this.stage = stage;
+        this.input = input;
+        this.output = output;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the number of the traced realisation, the same for all its
+     *         stages
+     */
+    public long getRealisationId() {
+        return this.realisationId;
+    }
+
+    /**
+     * @return the name of the stage
+     */
+    public String getStage() {
+        return this.stage;
+    }
+
+    /**
+     * @return the element the stage realised
+     */
+    public NLGElement getInput() {
+        return this.input;
+    }
+
+    /**
+     * @return the element the stage returned, may be <code>null</code>
+     */
+    public NLGElement getOutput() {
+        return this.output;
+    }
+
+    /**
+     * @return the time the stage took, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * @return the identity of the input element, which is the same for the
+     *         stages of a realisation as long as no stage replaces the element
+     */
+    public int getElementId() {
+        return System.identityHashCode(this.input);
+    }
+
+    /**
+     * @return the category of the input element, or <code>null</code>
+     */
+    public ElementCategory getCategory() {
+        return this.input == null ? null : this.input.getCategory();
+    }
+
+    /**
+     * @return the sorted names of the features of the output element, an
+     *         empty list if there is no output
+     */
+    public List<String> getFeatureNames() {
+        if(this.featureNames == null) {
+            List<String> names = new ArrayList<String>();
+            if(this.output != null) {
+                names.addAll(this.output.getAllFeatureNames());
+                Collections.sort(names);
+            }
+            this.featureNames = Collections.unmodifiableList(names);
+        }
+        return this.featureNames;
+    }
+
+    @Override
+    public String toString() {
+        return "StageEvent[realisation=" + this.realisationId + ", stage=" + this.stage + ", element="
+                + getElementId() + ", category=" + getCategory() + ", durationNanos=" + this.durationNanos + "]";
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.replay;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import simplenlgde.serialisation.Json;
+
+/**
+ * Reads the realisations of a log written by a {@link LogRecorder}, one at a
+ * time. Header lines are checked and skipped, so logs may be concatenated.
+ */
+public class LogReader implements Iterator<RecordedRealisation>, Closeable {
+
+    private final BufferedReader in;
+    private RecordedRealisation next;
+    private long index;
+    private long line;
+
+    /**
+     * create a reader of a log file
+     *
+     * @param file
+     *            - the log
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public LogReader(File file) throws IOException {
+        this(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * create a reader of a log
+     *
+     * @param in
+     *            - the log, closed by {@link #close()}
+     */
+    public LogReader(Reader in) {
+        this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+    }
+
+    /**
+     * @throws IllegalStateException
+     *             if the log cannot be read, caused by the
+     *             <code>IOException</code>
+     * @throws IllegalArgumentException
+     *             if a line of the log is not a valid record
+     */
+    @Override
+    public boolean hasNext() {
+        while(this.next == null) {
+            String text;
+            try {
+                text = this.in.readLine();
+            } catch(IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if(text == null) {
+                return false;
+            }
+            this.line++;
+            if(!text.trim().isEmpty()) {
+                this.next = parse(text);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RecordedRealisation next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RecordedRealisation realisation = this.next;
+        this.next = null;
+        return realisation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the realisation of a line, or <code>null</code> for a header
+     */
+    private RecordedRealisation parse(String text) {
+        try {
+            Object json = Json.parse(text);
+            if(!(json instanceof Map<?, ?>)) {
+                throw new IllegalArgumentException("not an object");
+            }
+            Map<?, ?> record = (Map<?, ?>) json;
+            if(record.containsKey("format")) {
+                if(!LogRecorder.FORMAT.equals(record.get("format"))
+                        || !Long.valueOf(LogRecorder.VERSION).equals(record.get("version"))) {
+                    throw new IllegalArgumentException("unsupported format " + record.get("format") + " version "
+                            + record.get("version"));
+                }
+                return null;
+            }
+            if(!record.containsKey("spec")) {
+                throw new IllegalArgumentException("no spec");
+            }
+            return new RecordedRealisation(this.index++, number(record, "time"), number(record, "lexiconVersion"),
+                    Boolean.TRUE.equals(record.get("sentence")), number(record, "nanos"),
+                    (String) record.get("realisation"), (String) record.get("error"), record.get("spec"));
+        } catch(IllegalArgumentException | ClassCastException e) {
+            throw new IllegalArgumentException("invalid record in line " + this.line + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long number(Map<?, ?> record, String name) {
+        Object value = record.get(name);
+        return value instanceof Long ? (Long) value : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.replay;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.RealisationRecorder;
+import simplenlgde.serialisation.Json;
+import simplenlgde.serialisation.JsonSpecWriter;
+
+/**
+ * <p>
+ * Records realisations in an append-only log, one JSON object per line,
+ * which can be replayed with a {@link Replayer}:
+ * </p>
+ *
+ * <pre>
+ * LogRecorder recorder = new LogRecorder(new File(&quot;realisations.log&quot;), 100);
+ * realiser.setRecorder(recorder);
+ * ...
+ * recorder.close();
+ * </pre>
+ *
+ * <p>
+ * A record holds the time, the version of the lexicon, whether the element
+ * was realised as a sentence, the duration, the realised text or the class
+ * of the exception thrown, and the element as encoded by
+ * {@link JsonSpecWriter}, which writes the words of the lexicon as their
+ * IDs. A new log starts with a header line naming the format.
+ * </p>
+ *
+ * <p>
+ * Recording never fails a realisation: elements which cannot be encoded are
+ * skipped and counted, and after a failure to write the log nothing more is
+ * recorded and {@link #close()} throws the failure. The records are
+ * buffered; call {@link #flush()} to write them out.
+ * </p>
+ */
+public class LogRecorder implements RealisationRecorder, Closeable, Flushable {
+
+    /** the name of the format in the header line */
+    public static final String FORMAT = "simplenlgde-realisations";
+
+    /** the version of the format, changed when it changes incompatibly */
+    public static final int VERSION = 1;
+
+    private final Writer out;
+    private final int interval;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile JsonSpecWriter writer;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    /**
+     * create a recorder which records every realisation in a file. A new or
+     * empty file gets a header line, other files are appended to.
+     *
+     * @param file
+     *            - the log
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public LogRecorder(File file) throws IOException {
+        this(file, 1);
+    }
+
+    /**
+     * create a recorder which records every <code>interval</code>-th
+     * realisation in a file, see {@link #LogRecorder(File)}
+     *
+     * @param file
+     *            - the log
+     * @param interval
+     *            - 1 to record every realisation, n to record one in n
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public LogRecorder(File file, int interval) throws IOException {
+        this(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), interval,
+                file.length() == 0);
+    }
+
+    /**
+     * create a recorder which writes a header line and then records every
+     * <code>interval</code>-th realisation to an output
+     *
+     * @param out
+     *            - the output, closed by {@link #close()}
+     * @param interval
+     *            - 1 to record every realisation, n to record one in n
+     * @throws IOException
+     *             if the header cannot be written
+     */
+    public LogRecorder(Writer out, int interval) throws IOException {
+        this(out, interval, true);
+    }
+
+    private LogRecorder(Writer out, int interval, boolean header) throws IOException {
+        if(interval < 1) {
+            out.close();
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.out = new BufferedWriter(out);
+        this.interval = interval;
+        if(header) {
+            this.out.write("{\"format\":\"" + FORMAT + "\",\"version\":" + VERSION + "}\n");
+        }
+    }
+
+    @Override
+    public Object realising(NLGElement element, boolean sentence, Lexicon lexicon) {
+        if(this.closed || this.failure != null
+                || (this.interval > 1 && this.calls.getAndIncrement() % this.interval != 0)) {
+            return null;
+        }
+        JsonSpecWriter writer = this.writer;
+        if(writer == null || writer.getLexicon() != lexicon) {
+            writer = new JsonSpecWriter(lexicon);
+            this.writer = writer;
+        }
+        StringBuilder record = new StringBuilder(512);
+        record.append("{\"time\":").append(System.currentTimeMillis());
+        record.append(",\"lexiconVersion\":").append(lexicon == null ? 0 : lexicon.getVersion());
+        record.append(",\"sentence\":").append(sentence);
+        record.append(",\"spec\":");
+        try {
+            writer.write(element, record);
+        } catch(IllegalArgumentException e) {
+            this.skipped.incrementAndGet();
+            return null;
+        }
+        return record;
+    }
+
+    @Override
+    public void realised(Object record, String realisation, RuntimeException error, long nanos) {
+        StringBuilder line = (StringBuilder) record;
+        line.append(",\"nanos\":").append(nanos);
+        if(error != null) {
+            line.append(",\"error\":");
+            Json.quote(error.getClass().getName(), line);
+        } else if(realisation != null) {
+            line.append(",\"realisation\":");
+            Json.quote(realisation, line);
+        }
+        line.append("}\n");
+        synchronized(this) {
+            if(this.closed || this.failure != null) {
+                return;
+            }
+            try {
+                this.out.append(line);
+                this.recorded.incrementAndGet();
+            } catch(IOException e) {
+                this.failure = e;
+            }
+        }
+    }
+
+    /**
+     * @return the number of realisations recorded
+     */
+    public long getRecorded() {
+        return this.recorded.get();
+    }
+
+    /**
+     * @return the number of realisations which were not recorded because
+     *         their element cannot be encoded
+     */
+    public long getSkipped() {
+        return this.skipped.get();
+    }
+
+    /**
+     * @return the failure to write the log, or <code>null</code>
+     */
+    public IOException getFailure() {
+        return this.failure;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if(this.failure != null) {
+            throw this.failure;
+        }
+        if(!this.closed) {
+            this.out.flush();
+        }
+    }
+
+    /**
+     * writes the buffered records and closes the log; later realisations are
+     * not recorded
+     *
+     * @throws IOException
+     *             if the log cannot be written, or could not be written
+     *             before
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.out.close();
+        if(this.failure != null) {
+            throw this.failure;
+        }
+    }
+}
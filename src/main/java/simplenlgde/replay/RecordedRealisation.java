@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.replay;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.serialisation.JsonSpecReader;
+
+/**
+ * A realisation read from a log written by a {@link LogRecorder}.
+ */
+public final class RecordedRealisation {
+
+    private final long index;
+    private final long time;
+    private final long lexiconVersion;
+    private final boolean sentence;
+    private final long nanos;
+    private final String realisation;
+    private final String error;
+    // the element as parsed JSON, restored for every replay
+    private final Object spec;
+
+    RecordedRealisation(long index, long time, long lexiconVersion, boolean sentence, long nanos,
+                        String realisation, String error, Object spec) {
+        this.index = index;
+        this.time = time;
+        this.lexiconVersion = lexiconVersion;
+        this.sentence = sentence;
+        this.nanos = nanos;
+        this.realisation = realisation;
+        this.error = error;
+        this.spec = spec;
+    }
+
+    /**
+     * restores the recorded element. Every call restores a new element, as
+     * the realisation changes its input.
+     *
+     * @param reader
+     *            - the reader, with the lexicon the realisation is replayed
+     *            with
+     * @return the element
+     * @throws IllegalArgumentException
+     *             if the element is not a valid encoding
+     */
+    public NLGElement createSpec(JsonSpecReader reader) {
+        return reader.decode(this.spec);
+    }
+
+    /**
+     * @return the number of the realisation in the log, from 0
+     */
+    public long getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return the time of the realisation in milliseconds since the epoch
+     */
+    public long getTime() {
+        return this.time;
+    }
+
+    /**
+     * @return the version of the lexicon of the realisation, see
+     *         {@link simplenlgde.lexicon.Lexicon#getVersion()}
+     */
+    public long getLexiconVersion() {
+        return this.lexiconVersion;
+    }
+
+    /**
+     * @return <code>true</code> if the element was realised as a sentence
+     */
+    public boolean isSentence() {
+        return this.sentence;
+    }
+
+    /**
+     * @return the duration of the realisation in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return the realised text, or <code>null</code>
+     */
+    public String getRealisation() {
+        return this.realisation;
+    }
+
+    /**
+     * @return the class of the exception thrown by the realisation, or
+     *         <code>null</code>
+     */
+    public String getError() {
+        return this.error;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.replay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import simplenlgde.realiser.Histogram;
+
+/**
+ * The result of replaying a log with a {@link Replayer}: the throughput, the
+ * latencies of the replayed and of the recorded realisations, and the
+ * realisations whose text differs from the recorded one.
+ */
+public class ReplayReport {
+
+    private final int threads;
+    private final int maxDifferences;
+    private final AtomicLong realisations = new AtomicLong();
+    private final AtomicLong differences = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong lexiconChanges = new AtomicLong();
+    private final Histogram latency = new Histogram("replay.latency");
+    private final Histogram recordedLatency = new Histogram("replay.recordedLatency");
+    private final List<Difference> examples = new ArrayList<Difference>();
+    private long nanos;
+
+    ReplayReport(int threads, int maxDifferences) {
+        this.threads = threads;
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * counts a replayed realisation
+     */
+    void add(RecordedRealisation recorded, long lexiconVersion, String realisation, String error, long nanos) {
+        this.realisations.incrementAndGet();
+        this.latency.record(nanos);
+        this.recordedLatency.record(recorded.getNanos());
+        if(recorded.getLexiconVersion() != lexiconVersion) {
+            this.lexiconChanges.incrementAndGet();
+        }
+        if(error != null) {
+            this.errors.incrementAndGet();
+        }
+        String expected = outcome(recorded.getRealisation(), recorded.getError());
+        String actual = outcome(realisation, error);
+        if(!expected.equals(actual)) {
+            this.differences.incrementAndGet();
+            synchronized(this.examples) {
+                if(this.examples.size() < this.maxDifferences) {
+                    this.examples.add(new Difference(recorded.getIndex(), expected, actual));
+                }
+            }
+        }
+    }
+
+    private static String outcome(String realisation, String error) {
+        if(error != null) {
+            return "<" + error + ">";
+        }
+        return realisation == null ? "" : realisation;
+    }
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of threads of the replay
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * @return the number of realisations replayed
+     */
+    public long getRealisations() {
+        return this.realisations.get();
+    }
+
+    /**
+     * @return the number of realisations whose text, or exception, differs
+     *         from the recorded one
+     */
+    public long getDifferences() {
+        return this.differences.get();
+    }
+
+    /**
+     * @return the number of replayed realisations which threw an exception
+     */
+    public long getErrors() {
+        return this.errors.get();
+    }
+
+    /**
+     * @return the number of realisations recorded with another version of
+     *         the lexicon than the one of the replay. Versions are only
+     *         comparable if the lexicon was loaded the same way and then
+     *         changed the same way.
+     */
+    public long getLexiconChanges() {
+        return this.lexiconChanges.get();
+    }
+
+    /**
+     * @return the duration of the replay in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return the number of realisations per second
+     */
+    public double getThroughput() {
+        return this.nanos == 0 ? 0 : getRealisations() * 1e9 / this.nanos;
+    }
+
+    /**
+     * @return the latencies of the replayed realisations in nanoseconds
+     */
+    public Histogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * @return the latencies of the recorded realisations in nanoseconds
+     */
+    public Histogram getRecordedLatency() {
+        return this.recordedLatency;
+    }
+
+    /**
+     * @return the first differences, in the order in which they were found
+     */
+    public List<Difference> getExamples() {
+        synchronized(this.examples) {
+            return Collections.unmodifiableList(new ArrayList<Difference>(this.examples));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d realisations on %d threads in %.1f ms, %.0f realisations/s%n",
+                getRealisations(), this.threads, this.nanos / 1e6, getThroughput()));
+        report.append(String.format("latency us   p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                this.latency.getP50() / 1e3, this.latency.getP90() / 1e3, this.latency.getP99() / 1e3,
+                this.latency.getP999() / 1e3, this.latency.getMax() / 1e3));
+        report.append(String.format("recorded us  p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                this.recordedLatency.getP50() / 1e3, this.recordedLatency.getP90() / 1e3,
+                this.recordedLatency.getP99() / 1e3, this.recordedLatency.getP999() / 1e3,
+                this.recordedLatency.getMax() / 1e3));
+        report.append(String.format("%d differences, %d errors, %d recorded with another lexicon version%n",
+                getDifferences(), getErrors(), getLexiconChanges()));
+        for(Difference difference : getExamples()) {
+            report.append(difference).append(String.format("%n"));
+        }
+        return report.toString();
+    }
+
+    /**
+     * A realisation whose text differs from the recorded one.
+     */
+    public static final class Difference {
+        private final long index;
+        private final String expected;
+        private final String actual;
+
+        Difference(long index, String expected, String actual) {
+            this.index = index;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /**
+         * @return the number of the realisation in the log
+         */
+        public long getIndex() {
+            return this.index;
+        }
+
+        /**
+         * @return the recorded text, or the class of the recorded exception
+         *         in angle brackets
+         */
+        public String getExpected() {
+            return this.expected;
+        }
+
+        /**
+         * @return the replayed text, or the class of the exception in angle
+         *         brackets
+         */
+        public String getActual() {
+            return this.actual;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + this.index + ": recorded \"" + this.expected + "\", replayed \"" + this.actual + "\"";
+        }
+    }
+}
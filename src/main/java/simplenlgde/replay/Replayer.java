@@ -0,0 +1,243 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.lexicon.XMLLexicon;
+import simplenlgde.realiser.RealisationEngine;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+import simplenlgde.serialisation.JsonSpecReader;
+
+/**
+ * <p>
+ * Replays the realisations of a log written by a {@link LogRecorder} with a
+ * realiser configuration, on one or more threads, and reports the
+ * throughput, the latencies and the realisations whose text differs from
+ * the recorded one, see {@link ReplayReport}. The elements are restored
+ * with the lexicon of the configuration before they are realised; only the
+ * realisation itself is measured.
+ * </p>
+ *
+ * <p>
+ * The replayer can be run from the command line:
+ * </p>
+ *
+ * <pre>
+ * java simplenlgde.replay.Replayer [-threads n] [-engine staged|fused] [-lexicon file] [-diffs n] log...
+ * </pre>
+ */
+public class Replayer {
+
+    /** default number of differences kept as examples */
+    public static final int DEFAULT_MAX_DIFFERENCES = 20;
+
+    private final RealiserConfig config;
+    private final JsonSpecReader reader;
+    private final int maxDifferences;
+
+    /**
+     * create a replayer
+     *
+     * @param config
+     *            - the configuration of the realisers, which must have a
+     *            lexicon
+     */
+    public Replayer(RealiserConfig config) {
+        this(config, DEFAULT_MAX_DIFFERENCES);
+    }
+
+    /**
+     * create a replayer
+     *
+     * @param config
+     *            - the configuration of the realisers, which must have a
+     *            lexicon
+     * @param maxDifferences
+     *            - the number of differences kept as examples
+     */
+    public Replayer(RealiserConfig config, int maxDifferences) {
+        if(config.getLexicon() == null) {
+            throw new IllegalArgumentException("the configuration has no lexicon");
+        }
+        this.config = config;
+        this.reader = new JsonSpecReader(config.getLexicon());
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * replays a log file
+     *
+     * @param log
+     *            - the log
+     * @param threads
+     *            - the number of threads which realise
+     * @return the report
+     * @throws IOException
+     *             if the log cannot be read
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    public ReplayReport replay(File log, int threads) throws IOException, InterruptedException {
+        LogReader records = new LogReader(log);
+        try {
+            return replay(records, threads);
+        } catch(IllegalStateException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            records.close();
+        }
+    }
+
+    /**
+     * replays realisations. With one thread, the realisations are replayed
+     * on the calling thread, otherwise on a pool of threads sharing one
+     * realiser, with a bounded number of realisations in flight.
+     *
+     * @param records
+     *            - the realisations, e.g. a {@link LogReader}
+     * @param threads
+     *            - the number of threads which realise
+     * @return the report
+     * @throws InterruptedException
+     *             if the calling thread is interrupted
+     */
+    public ReplayReport replay(Iterator<RecordedRealisation> records, int threads) throws InterruptedException {
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        Realiser realiser = new Realiser(this.config);
+        ReplayReport report = new ReplayReport(threads, this.maxDifferences);
+        long start = System.nanoTime();
+        if(threads == 1) {
+            while(records.hasNext()) {
+                replay(realiser, records.next(), report);
+            }
+        } else {
+            replay(realiser, records, threads, report);
+        }
+        report.setNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private void replay(final Realiser realiser, Iterator<RecordedRealisation> records, int threads,
+                        final ReplayReport report) throws InterruptedException {
+        int inFlight = threads * 4;
+        final Semaphore permits = new Semaphore(inFlight);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            while(records.hasNext()) {
+                final RecordedRealisation record = records.next();
+                permits.acquire();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            replay(realiser, record, report);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                });
+            }
+            permits.acquire(inFlight);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void replay(Realiser realiser, RecordedRealisation record, ReplayReport report) {
+        String realisation = null;
+        String error = null;
+        long nanos = 0;
+        try {
+            NLGElement spec = record.createSpec(this.reader);
+            long start = System.nanoTime();
+            try {
+                if(record.isSentence()) {
+                    realisation = realiser.realiseSentence(spec);
+                } else {
+                    NLGElement realised = realiser.realise(spec);
+                    realisation = realised == null ? null : realised.getRealisation();
+                }
+            } finally {
+                nanos = System.nanoTime() - start;
+            }
+        } catch(RuntimeException e) {
+            error = e.getClass().getName();
+        }
+        report.add(record, this.config.getLexicon().getVersion(), realisation, error, nanos);
+    }
+
+    /**
+     * replays logs from the command line and prints the reports
+     *
+     * @param args
+     *            - the options and the log files, see above
+     * @throws Exception
+     *             if a log cannot be replayed
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = 1;
+        int maxDifferences = DEFAULT_MAX_DIFFERENCES;
+        RealisationEngine engine = RealisationEngine.getDefault();
+        Lexicon lexicon = null;
+        int i = 0;
+        for(; i < args.length && args[i].startsWith("-"); i += 2) {
+            if(i + 1 >= args.length) {
+                usage();
+                return;
+            }
+            if(args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            } else if(args[i].equals("-engine")) {
+                engine = RealisationEngine.valueOf(args[i + 1].toUpperCase());
+            } else if(args[i].equals("-lexicon")) {
+                lexicon = new XMLLexicon(args[i + 1]);
+            } else if(args[i].equals("-diffs")) {
+                maxDifferences = Integer.parseInt(args[i + 1]);
+            } else {
+                usage();
+                return;
+            }
+        }
+        if(i == args.length) {
+            usage();
+            return;
+        }
+        if(lexicon == null) {
+            lexicon = Lexicon.getDefaultLexicon();
+        }
+        Replayer replayer = new Replayer(RealiserConfig.DEFAULT.withLexicon(lexicon).withEngine(engine),
+                maxDifferences);
+        for(; i < args.length; i++) {
+            System.out.println(args[i]);
+            System.out.print(replayer.replay(new File(args[i]), threads));
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: Replayer [-threads n] [-engine staged|fused] [-lexicon file] [-diffs n] log...");
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.ElementTypes;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.NLGFactory;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+
+import static simplenlgde.serialisation.BinarySpecWriter.*;
+
+/**
+ * <p>
+ * Reads the spec trees written by {@link BinarySpecWriter}, one at a time.
+ * The trees are restored like those of {@link JsonSpecReader}, without an
+ * intermediate representation: the words written as lexicon IDs are copies
+ * of the entries of the lexicon of the reader, the other elements are new
+ * and have a factory for the lexicon, and the trees are ready to be
+ * realised. The enum constants and words of the dictionary of the stream
+ * are looked up once; a word is then copied for every occurrence.
+ * </p>
+ *
+ * <p>
+ * A stream which is not a valid encoding cannot be read any further once an
+ * exception has been thrown. Lengths and sizes beyond those the writer
+ * writes are rejected before anything is allocated for them. A reader is
+ * not thread-safe.
+ * </p>
+ */
+public class BinarySpecReader implements Closeable {
+
+    private final InputStream in;
+    private final Lexicon lexicon;
+    private final NLGFactory factory;
+    // the dictionary of the stream, and the enum constant or word of a symbol
+    private final List<String> symbols = new ArrayList<String>();
+    private final List<Object> resolved = new ArrayList<Object>();
+    private long lexiconVersion;
+    private long records;
+
+    /**
+     * create a reader and read the header of the stream
+     *
+     * @param in
+     *            - the stream, closed by {@link #close()}
+     * @param lexicon
+     *            - the lexicon, should be the one the trees were written with
+     * @throws IOException
+     *             if the stream cannot be read, or is not of this format and
+     *             version
+     */
+    public BinarySpecReader(InputStream in, Lexicon lexicon) throws IOException {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+        this.lexicon = lexicon;
+        this.factory = new NLGFactory(lexicon);
+        this.lexiconVersion = lexicon == null ? 0 : lexicon.getVersion();
+        byte[] magic = new byte[MAGIC.length];
+        readFully(magic);
+        if(!Arrays.equals(magic, MAGIC)) {
+            throw new StreamCorruptedException("not a stream of spec trees");
+        }
+        int version = readByte();
+        if(version != VERSION) {
+            throw new StreamCorruptedException("unsupported version " + version);
+        }
+    }
+
+    /**
+     * checks whether a stream starts with the header of the binary encoding,
+     * without consuming it
+     *
+     * @param in
+     *            - the stream, which must support <code>mark</code>
+     * @return whether the stream is binary
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public static boolean isBinary(InputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.mark(magic.length);
+        int read = 0;
+        try {
+            while(read < magic.length) {
+                int n = in.read(magic, read, magic.length - read);
+                if(n < 0) {
+                    break;
+                }
+                read += n;
+            }
+        } finally {
+            in.reset();
+        }
+        return read == magic.length && Arrays.equals(magic, MAGIC);
+    }
+
+    /**
+     * @return the lexicon of the reader
+     */
+    public Lexicon getLexicon() {
+        return this.lexicon;
+    }
+
+    /**
+     * @return the number of trees read
+     */
+    public long getRecords() {
+        return this.records;
+    }
+
+    /**
+     * restores the next element tree
+     *
+     * @return the root of the tree, or <code>null</code> at the end of the
+     *         stream
+     * @throws IOException
+     *             if the stream cannot be read or is not a valid encoding
+     */
+    public NLGElement read() throws IOException {
+        int tag = this.in.read();
+        if(tag < 0) {
+            return null;
+        }
+        if(tag != ELEMENT && tag != WORD) {
+            throw new StreamCorruptedException("invalid record: tag " + tag);
+        }
+        if(this.lexicon != null && this.lexicon.getVersion() != this.lexiconVersion) {
+            // the words looked up may have been replaced
+            this.lexiconVersion = this.lexicon.getVersion();
+            for(int i = 0; i < this.resolved.size(); i++) {
+                if(this.resolved.get(i) instanceof WordElement) {
+                    this.resolved.set(i, null);
+                }
+            }
+        }
+        Decoding decoding = new Decoding();
+        NLGElement element;
+        try {
+            element = (NLGElement) decoding.decodeValue(tag);
+            decoding.setParents();
+        } catch(IllegalArgumentException e) {
+            throw (IOException) new StreamCorruptedException(e.getMessage()).initCause(e);
+        }
+        this.records++;
+        return element;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    private int readByte() throws IOException {
+        int b = this.in.read();
+        if(b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private void readFully(byte[] bytes) throws IOException {
+        int read = 0;
+        while(read < bytes.length) {
+            int n = this.in.read(bytes, read, bytes.length - read);
+            if(n < 0) {
+                throw new EOFException();
+            }
+            read += n;
+        }
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("invalid number");
+    }
+
+    private long readSigned() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return a number which is a count or an index
+     */
+    private int readCount() throws IOException {
+        long value = readVarint();
+        if(value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("invalid count: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return a count which is at most <code>max</code>, so that a corrupt
+     *         stream cannot make the reader allocate more than the writer
+     *         does
+     */
+    private int readCount(int max, String what) throws IOException {
+        int count = readCount();
+        if(count > max) {
+            throw new StreamCorruptedException("invalid " + what + ": " + count + ", at most " + max);
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of a symbol in the dictionary, or -1 for a string
+     *         which is not in it and has been put in <code>inline</code>
+     */
+    private int readSymbol(String[] inline) throws IOException {
+        int code = readCount();
+        if(code >= 2) {
+            int index = code - 2;
+            if(index >= this.symbols.size()) {
+                throw new StreamCorruptedException("invalid symbol: " + index);
+            }
+            return index;
+        }
+        // a character of a symbol in the dictionary takes at most 3 bytes
+        byte[] bytes = new byte[readCount(code == NEW_SYMBOL ? 3 * MAX_SYMBOL_LENGTH : MAX_STRING_BYTES,
+                "string length")];
+        readFully(bytes);
+        String symbol = new String(bytes, StandardCharsets.UTF_8);
+        if(code == NEW_SYMBOL) {
+            if(this.symbols.size() >= MAX_SYMBOLS) {
+                throw new StreamCorruptedException("too many symbols");
+            }
+            this.symbols.add(symbol);
+            this.resolved.add(null);
+            return this.symbols.size() - 1;
+        }
+        inline[0] = symbol;
+        return -1;
+    }
+
+    private String readSymbol() throws IOException {
+        String[] inline = new String[1];
+        int index = readSymbol(inline);
+        return index < 0 ? inline[0] : this.symbols.get(index);
+    }
+
+    private Enum<?> readEnum() throws IOException {
+        String[] inline = new String[1];
+        int index = readSymbol(inline);
+        if(index < 0) {
+            return SpecTrees.enumValue(inline[0]);
+        }
+        Object value = this.resolved.get(index);
+        if(!(value instanceof Enum<?>)) {
+            value = SpecTrees.enumValue(this.symbols.get(index));
+            this.resolved.set(index, value);
+        }
+        return (Enum<?>) value;
+    }
+
+    private WordElement readWord() throws IOException {
+        if(this.lexicon == null) {
+            throw new StreamCorruptedException("a word of a lexicon, but the reader has none");
+        }
+        String[] inline = new String[1];
+        int index = readSymbol(inline);
+        if(index < 0) {
+            return this.lexicon.getWordByID(inline[0]);
+        }
+        Object value = this.resolved.get(index);
+        if(!(value instanceof WordElement)) {
+            String id = this.symbols.get(index);
+            if(!this.lexicon.hasWordByID(id)) {
+                return this.lexicon.getWordByID(id);
+            }
+            value = this.lexicon.getWordByID(id);
+            this.resolved.set(index, value);
+        }
+        // a copy, as from the lexicon, since the realiser changes the words
+        return new WordElement((WordElement) value);
+    }
+
+    private String readString() throws IOException {
+        int tag = readByte();
+        if(tag == NULL) {
+            return null;
+        } else if(tag == STRING) {
+            return readSymbol();
+        }
+        throw new StreamCorruptedException("not a string: tag " + tag);
+    }
+
+    /**
+     * The restoring of one tree.
+     */
+    private class Decoding {
+        // the elements by their number
+        private final List<NLGElement> elements = new ArrayList<NLGElement>();
+        // the elements which have a parent, and the number of the parent
+        private final List<NLGElement> children = new ArrayList<NLGElement>();
+        private final List<Integer> parents = new ArrayList<Integer>();
+
+        Object decodeValue(int tag) throws IOException {
+            switch(tag) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INT:
+                long number = readSigned();
+                if(number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+                    throw new StreamCorruptedException("not an integer: " + number);
+                }
+                return (int) number;
+            case LONG:
+                return readSigned();
+            case DOUBLE:
+                long bits = 0;
+                for(int i = 0; i < 8; i++) {
+                    bits = (bits << 8) | readByte();
+                }
+                return Double.longBitsToDouble(bits);
+            case STRING:
+                return readSymbol();
+            case ENUM:
+                return readEnum();
+            case LIST:
+                int size = readCount(MAX_LIST_SIZE, "list size");
+                List<Object> list = new ArrayList<Object>(Math.min(size, 16));
+                for(int i = 0; i < size; i++) {
+                    list.add(decodeValue(readByte()));
+                }
+                return list;
+            case ELEMENT:
+                return decodeElement();
+            case REF:
+                int reference = readCount();
+                if(reference >= this.elements.size()) {
+                    throw new StreamCorruptedException("invalid reference: " + reference);
+                }
+                return this.elements.get(reference);
+            case WORD:
+                return readWord();
+            default:
+                throw new StreamCorruptedException("invalid value: tag " + tag);
+            }
+        }
+
+        private NLGElement decodeElement() throws IOException {
+            NLGElement element = ElementTypes.create(readSymbol());
+            this.elements.add(element);
+            int tag = readByte();
+            if(tag == NULL) {
+                element.setCategory(null);
+            } else if(tag == ENUM) {
+                Enum<?> category = readEnum();
+                if(!(category instanceof ElementCategory)) {
+                    throw new StreamCorruptedException("not a category: " + category);
+                }
+                element.setCategory((ElementCategory) category);
+            } else {
+                throw new StreamCorruptedException("invalid category: tag " + tag);
+            }
+            int parent = readCount();
+            if(parent > 0) {
+                this.children.add(element);
+                this.parents.add(parent - 1);
+            }
+            if(element instanceof WordElement) {
+                WordElement word = (WordElement) element;
+                word.setBaseForm(readString());
+                word.setId(readString());
+            }
+            String realisation = readString();
+            if(realisation != null) {
+                element.setRealisation(realisation);
+            }
+            element.setFactory(factory);
+
+            // written directly, setFeature would derive other features
+            Map<String, Object> features = element.getAllFeatures();
+            for(int count = readCount(); count > 0; count--) {
+                String name = readSymbol();
+                features.put(name, decodeValue(readByte()));
+            }
+            return element;
+        }
+
+        /**
+         * sets the parents once all elements have been restored, a parent
+         * may follow its child
+         */
+        void setParents() throws IOException {
+            for(int i = 0; i < this.children.size(); i++) {
+                int parent = this.parents.get(i);
+                if(parent >= this.elements.size()) {
+                    throw new StreamCorruptedException("invalid parent: " + parent);
+                }
+                this.children.get(i).setParent(this.elements.get(parent));
+            }
+        }
+    }
+}
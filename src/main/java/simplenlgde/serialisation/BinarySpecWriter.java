@@ -0,0 +1,306 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.ElementTypes;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * Writes spec trees to a stream in a compact binary encoding, read by
+ * {@link BinarySpecReader}. It holds the same trees as the JSON encoding of
+ * {@link JsonSpecWriter}: elements with their class, category, parent and
+ * features, elements which occur again as their number in the tree, and
+ * the words of the lexicon as their IDs.
+ * </p>
+ *
+ * <p>
+ * The stream starts with the bytes <code>SNLG</code> and the version,
+ * followed by one record per tree. Numbers are written as variable-length
+ * integers, and strings, such as feature names, classes, enum constants and
+ * word IDs, are written once per stream: their first occurrence adds them
+ * to a dictionary, later ones are written as their index in it. A stream is
+ * therefore only readable from its start. A writer is not thread-safe.
+ * </p>
+ */
+public class BinarySpecWriter implements Closeable, Flushable {
+
+    /** the format of the encoding, changed when it changes incompatibly */
+    public static final int VERSION = 1;
+
+    static final byte[] MAGIC = {'S', 'N', 'L', 'G'};
+
+    // the tags of the values
+    static final int NULL = 0;
+    static final int FALSE = 1;
+    static final int TRUE = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 5;
+    static final int STRING = 6;
+    static final int ENUM = 7;
+    static final int LIST = 8;
+    static final int ELEMENT = 9;
+    static final int REF = 10;
+    static final int WORD = 11;
+
+    // a symbol is one of these or its index in the dictionary plus 2
+    static final int NEW_SYMBOL = 0;
+    static final int INLINE_SYMBOL = 1;
+
+    /** strings which are longer are not added to the dictionary */
+    static final int MAX_SYMBOL_LENGTH = 64;
+    static final int MAX_SYMBOLS = 1 << 16;
+    /** the longest string in UTF-8 and the largest list which are written */
+    static final int MAX_STRING_BYTES = 1 << 20;
+    static final int MAX_LIST_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final Lexicon lexicon;
+    private final Map<String, Integer> symbols = new HashMap<String, Integer>();
+    // the symbols added by the record being written
+    private final List<String> added = new ArrayList<String>();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private long records;
+
+    /**
+     * create a writer and write the header of the stream
+     *
+     * @param out
+     *            - the stream, closed by {@link #close()}
+     * @param lexicon
+     *            - the lexicon whose words are written as their IDs,
+     *            <code>null</code> to write every word in full
+     * @throws IOException
+     *             if the header cannot be written
+     */
+    public BinarySpecWriter(OutputStream out, Lexicon lexicon) throws IOException {
+        this.out = out;
+        this.lexicon = lexicon;
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * @return the lexicon whose words are written as their IDs, or
+     *         <code>null</code>
+     */
+    public Lexicon getLexicon() {
+        return this.lexicon;
+    }
+
+    /**
+     * @return the number of trees written
+     */
+    public long getRecords() {
+        return this.records;
+    }
+
+    /**
+     * writes an element tree. A tree which cannot be encoded is not
+     * written, and the stream stays valid.
+     *
+     * @param element
+     *            - the root of the tree
+     * @throws IllegalArgumentException
+     *             if the tree has an element of a class which cannot be
+     *             restored or a feature value of another type than those of
+     *             {@link JsonSpecWriter}
+     * @throws IOException
+     *             if the stream cannot be written
+     */
+    public void write(NLGElement element) throws IOException {
+        if(element == null) {
+            throw new IllegalArgumentException("no element");
+        }
+        this.record.reset();
+        this.added.clear();
+        try {
+            new Encoding(SpecTrees.number(element, this.lexicon)).writeValue(element);
+        } catch(IllegalArgumentException e) {
+            for(String symbol : this.added) {
+                this.symbols.remove(symbol);
+            }
+            throw e;
+        }
+        this.record.writeTo(this.out);
+        this.records++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    private void writeVarint(long value) {
+        while((value & ~0x7FL) != 0) {
+            this.record.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.record.write((int) value);
+    }
+
+    private void writeSigned(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeSymbol(String symbol) {
+        Integer index = this.symbols.get(symbol);
+        if(index != null) {
+            writeVarint(index + 2);
+            return;
+        }
+        if(symbol.length() <= MAX_SYMBOL_LENGTH && this.symbols.size() < MAX_SYMBOLS) {
+            this.symbols.put(symbol, this.symbols.size());
+            this.added.add(symbol);
+            writeVarint(NEW_SYMBOL);
+        } else {
+            writeVarint(INLINE_SYMBOL);
+        }
+        byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+        if(bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("string of " + bytes.length + " bytes, at most "
+                    + MAX_STRING_BYTES + " are written");
+        }
+        writeVarint(bytes.length);
+        this.record.write(bytes, 0, bytes.length);
+    }
+
+    private void writeString(String value) {
+        if(value == null) {
+            this.record.write(NULL);
+        } else {
+            this.record.write(STRING);
+            writeSymbol(value);
+        }
+    }
+
+    /**
+     * The writing of one tree.
+     */
+    private class Encoding {
+        private final Map<NLGElement, Integer> numbers;
+        private final Map<NLGElement, Boolean> written = new IdentityHashMap<NLGElement, Boolean>();
+
+        Encoding(Map<NLGElement, Integer> numbers) {
+            this.numbers = numbers;
+        }
+
+        void writeValue(Object value) {
+            if(value == null) {
+                record.write(NULL);
+            } else if(value instanceof String) {
+                writeString((String) value);
+            } else if(value instanceof Boolean) {
+                record.write((Boolean) value ? TRUE : FALSE);
+            } else if(value instanceof Integer) {
+                record.write(INT);
+                writeSigned((Integer) value);
+            } else if(value instanceof Long) {
+                record.write(LONG);
+                writeSigned((Long) value);
+            } else if(value instanceof Double) {
+                record.write(DOUBLE);
+                long bits = Double.doubleToLongBits((Double) value);
+                for(int shift = 56; shift >= 0; shift -= 8) {
+                    record.write((int) (bits >>> shift));
+                }
+            } else if(value instanceof Enum<?>) {
+                record.write(ENUM);
+                writeSymbol(SpecTrees.enumName((Enum<?>) value));
+            } else if(value instanceof NLGElement) {
+                writeElement((NLGElement) value);
+            } else if(value instanceof List<?>) {
+                List<?> list = (List<?>) value;
+                if(list.size() > MAX_LIST_SIZE) {
+                    throw new IllegalArgumentException("list of " + list.size() + " values, at most "
+                            + MAX_LIST_SIZE + " are written");
+                }
+                record.write(LIST);
+                writeVarint(list.size());
+                for(Object item : list) {
+                    writeValue(item);
+                }
+            } else {
+                throw new IllegalArgumentException("cannot encode a value of " + value.getClass().getName());
+            }
+        }
+
+        private void writeElement(NLGElement element) {
+            Integer number = this.numbers.get(element);
+            if(number == null) {
+                record.write(WORD);
+                writeSymbol(((WordElement) element).getId());
+                return;
+            }
+            if(this.written.put(element, Boolean.TRUE) != null) {
+                record.write(REF);
+                writeVarint(number);
+                return;
+            }
+            String type = ElementTypes.getName(element);
+            if(type == null) {
+                throw new IllegalArgumentException("cannot encode an element of " + element.getClass().getName());
+            }
+            record.write(ELEMENT);
+            writeSymbol(type);
+            ElementCategory category = element.getCategory();
+            if(category instanceof Enum<?>) {
+                record.write(ENUM);
+                writeSymbol(SpecTrees.enumName((Enum<?>) category));
+            } else {
+                record.write(NULL);
+            }
+            Integer parent = element.getParent() == null ? null : this.numbers.get(element.getParent());
+            writeVarint(parent == null ? 0 : parent + 1);
+            if(element instanceof WordElement) {
+                WordElement word = (WordElement) element;
+                writeString(word.getBaseForm());
+                writeString(word.getId());
+            }
+            String realisation = element.getRealisation();
+            writeString(realisation == null || realisation.isEmpty() ? null : realisation);
+            Map<String, Object> features = element.getAllFeatures();
+            writeVarint(features.size());
+            for(Map.Entry<String, Object> feature : features.entrySet()) {
+                writeSymbol(feature.getKey());
+                try {
+                    writeValue(feature.getValue());
+                } catch(IllegalArgumentException e) {
+                    // names the path to the value
+                    throw new IllegalArgumentException("feature " + feature.getKey() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
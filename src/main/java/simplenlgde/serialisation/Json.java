@@ -0,0 +1,279 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A minimal JSON reader and writer for the spec encodings and logs of this
+ * library, which has no JSON dependency. Objects are read as
+ * {@link LinkedHashMap}s in the order of their members, arrays as
+ * {@link ArrayList}s, numbers without a fraction or exponent as
+ * {@link Long}s and other numbers as {@link Double}s.
+ * </p>
+ */
+public final class Json {
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * parses a JSON value
+     *
+     * @param text
+     *            - the JSON text
+     * @return the value, see above
+     * @throws IllegalArgumentException
+     *             if the text is not a single JSON value
+     */
+    public static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if(parser.position < text.length()) {
+            throw parser.error("unexpected trailing characters");
+        }
+        return value;
+    }
+
+    /**
+     * appends a string as a JSON string
+     *
+     * @param string
+     *            - the string
+     * @param out
+     *            - the output
+     */
+    public static void quote(String string, StringBuilder out) {
+        out.append('"');
+        for(int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch(c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                // line separators are escaped so that a value fits on a line of a log
+                if(c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if(this.position >= this.text.length()) {
+            throw error("unexpected end");
+        }
+        char c = this.text.charAt(this.position);
+        switch(c) {
+        case '{':
+            return readObject();
+        case '[':
+            return readArray();
+        case '"':
+            return readString();
+        case 't':
+            expect("true");
+            return Boolean.TRUE;
+        case 'f':
+            expect("false");
+            return Boolean.FALSE;
+        case 'n':
+            expect("null");
+            return null;
+        default:
+            return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<String, Object>();
+        this.position++;
+        skipWhitespace();
+        if(peek() == '}') {
+            this.position++;
+            return object;
+        }
+        while(true) {
+            skipWhitespace();
+            if(peek() != '"') {
+                throw error("expected a member name");
+            }
+            String name = readString();
+            skipWhitespace();
+            if(peek() != ':') {
+                throw error("expected ':'");
+            }
+            this.position++;
+            object.put(name, readValue());
+            skipWhitespace();
+            char c = next();
+            if(c == '}') {
+                return object;
+            } else if(c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<Object>();
+        this.position++;
+        skipWhitespace();
+        if(peek() == ']') {
+            this.position++;
+            return array;
+        }
+        while(true) {
+            array.add(readValue());
+            skipWhitespace();
+            char c = next();
+            if(c == ']') {
+                return array;
+            } else if(c != ',') {
+                throw error("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() {
+        this.position++;
+        StringBuilder string = null;
+        int start = this.position;
+        while(true) {
+            char c = next();
+            if(c == '"') {
+                if(string == null) {
+                    return this.text.substring(start, this.position - 1);
+                }
+                return string.append(this.text, start, this.position - 1).toString();
+            } else if(c == '\\') {
+                if(string == null) {
+                    string = new StringBuilder();
+                }
+                string.append(this.text, start, this.position - 1);
+                string.append(readEscape());
+                start = this.position;
+            }
+        }
+    }
+
+    private char readEscape() {
+        char c = next();
+        switch(c) {
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'u':
+            if(this.position + 4 > this.text.length()) {
+                throw error("unexpected end");
+            }
+            try {
+                char unicode = (char) Integer.parseInt(this.text.substring(this.position, this.position + 4), 16);
+                this.position += 4;
+                return unicode;
+            } catch(NumberFormatException e) {
+                throw error("invalid unicode escape");
+            }
+        case '"':
+        case '\\':
+        case '/':
+            return c;
+        default:
+            throw error("invalid escape");
+        }
+    }
+
+    private Object readNumber() {
+        int start = this.position;
+        boolean integral = true;
+        while(this.position < this.text.length()) {
+            char c = this.text.charAt(this.position);
+            if(c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if(!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            this.position++;
+        }
+        String number = this.text.substring(start, this.position);
+        try {
+            return integral ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+        } catch(NumberFormatException e) {
+            this.position = start;
+            throw error("invalid value");
+        }
+    }
+
+    private void expect(String literal) {
+        if(!this.text.startsWith(literal, this.position)) {
+            throw error("invalid value");
+        }
+        this.position += literal.length();
+    }
+
+    private void skipWhitespace() {
+        while(this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private char peek() {
+        if(this.position >= this.text.length()) {
+            throw error("unexpected end");
+        }
+        return this.text.charAt(this.position);
+    }
+
+    private char next() {
+        char c = peek();
+        this.position++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("invalid JSON at position " + this.position + ": " + message);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.ElementTypes;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.NLGFactory;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * Restores the spec trees encoded by {@link JsonSpecWriter}. The words
+ * written as lexicon IDs are the entries of the lexicon of the reader, the
+ * other elements are new and have a factory for the lexicon. The restored
+ * tree is equal to the encoded one, so it is realised the same way as long
+ * as the lexicon has not changed. A reader may be used by several threads.
+ * </p>
+ */
+public class JsonSpecReader {
+
+    private final Lexicon lexicon;
+    private final NLGFactory factory;
+
+    /**
+     * create a reader which looks up words in a lexicon
+     *
+     * @param lexicon
+     *            - the lexicon, should be the one the trees were written with
+     */
+    public JsonSpecReader(Lexicon lexicon) {
+        this.lexicon = lexicon;
+        this.factory = new NLGFactory(lexicon);
+    }
+
+    /**
+     * @return the lexicon of the reader
+     */
+    public Lexicon getLexicon() {
+        return this.lexicon;
+    }
+
+    /**
+     * restores an element tree
+     *
+     * @param json
+     *            - the JSON text written by a {@link JsonSpecWriter}
+     * @return the root of the tree, may be <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the text is not a valid encoding
+     */
+    public NLGElement read(String json) {
+        return decode(Json.parse(json));
+    }
+
+    /**
+     * restores an element tree which has already been parsed, e.g. as part
+     * of a larger JSON document
+     *
+     * @param json
+     *            - the value returned by {@link Json#parse(String)}
+     * @return the root of the tree, may be <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the value is not a valid encoding
+     */
+    public NLGElement decode(Object json) {
+        Decoding decoding = new Decoding();
+        Object value = decoding.decodeValue(json);
+        if(value != null && !(value instanceof NLGElement)) {
+            throw new IllegalArgumentException("not an element: " + json);
+        }
+        decoding.setParents();
+        return (NLGElement) value;
+    }
+
+    private static int intValue(Object json) {
+        if(!(json instanceof Long) || (Long) json < Integer.MIN_VALUE || (Long) json > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("not an integer: " + json);
+        }
+        return ((Long) json).intValue();
+    }
+
+    private static String stringValue(Object json) {
+        if(!(json instanceof String)) {
+            throw new IllegalArgumentException("not a string: " + json);
+        }
+        return (String) json;
+    }
+
+    /**
+     * The restoring of one tree.
+     */
+    private class Decoding {
+        // the elements by their number
+        private final List<NLGElement> elements = new ArrayList<NLGElement>();
+        // the elements which have a parent, and the number of the parent
+        private final List<NLGElement> children = new ArrayList<NLGElement>();
+        private final List<Integer> parents = new ArrayList<Integer>();
+
+        Object decodeValue(Object json) {
+            if(json == null || json instanceof String || json instanceof Boolean) {
+                return json;
+            } else if(json instanceof Long) {
+                return intValue(json);
+            } else if(json instanceof List<?>) {
+                List<?> array = (List<?>) json;
+                List<Object> list = new ArrayList<Object>(array.size());
+                for(Object item : array) {
+                    list.add(decodeValue(item));
+                }
+                return list;
+            } else if(json instanceof Map<?, ?>) {
+                Map<?, ?> object = (Map<?, ?>) json;
+                if(object.containsKey("type")) {
+                    return decodeElement(object);
+                } else if(object.containsKey("ref")) {
+                    int number = intValue(object.get("ref"));
+                    if(number < 0 || number >= this.elements.size()) {
+                        throw new IllegalArgumentException("invalid reference: " + number);
+                    }
+                    return this.elements.get(number);
+                } else if(object.containsKey("word")) {
+                    return lexicon.getWordByID(stringValue(object.get("word")));
+                } else if(object.containsKey("enum")) {
+                    return SpecTrees.enumValue(stringValue(object.get("enum")));
+                } else if(object.get("long") instanceof Long) {
+                    return object.get("long");
+                } else if(object.get("double") instanceof Number) {
+                    return ((Number) object.get("double")).doubleValue();
+                }
+            }
+            throw new IllegalArgumentException("invalid value: " + json);
+        }
+
+        private NLGElement decodeElement(Map<?, ?> object) {
+            NLGElement element = ElementTypes.create(stringValue(object.get("type")));
+            this.elements.add(element);
+            Object category = object.get("category");
+            if(category == null) {
+                element.setCategory(null);
+            } else {
+                Enum<?> value = SpecTrees.enumValue(stringValue(category));
+                if(!(value instanceof ElementCategory)) {
+                    throw new IllegalArgumentException("not a category: " + category);
+                }
+                element.setCategory((ElementCategory) value);
+            }
+            if(object.containsKey("parent")) {
+                this.children.add(element);
+                this.parents.add(intValue(object.get("parent")));
+            }
+            if(element instanceof WordElement) {
+                WordElement word = (WordElement) element;
+                if(object.containsKey("base")) {
+                    word.setBaseForm(stringValue(object.get("base")));
+                }
+                if(object.containsKey("id")) {
+                    word.setId(stringValue(object.get("id")));
+                }
+            }
+            if(object.containsKey("realisation")) {
+                element.setRealisation(stringValue(object.get("realisation")));
+            }
+            element.setFactory(factory);
+
+            Object features = object.get("features");
+            if(features != null) {
+                if(!(features instanceof Map<?, ?>)) {
+                    throw new IllegalArgumentException("invalid features: " + features);
+                }
+                // written directly, setFeature would derive other features
+                Map<String, Object> map = element.getAllFeatures();
+                for(Map.Entry<?, ?> feature : ((Map<?, ?>) features).entrySet()) {
+                    map.put((String) feature.getKey(), decodeValue(feature.getValue()));
+                }
+            }
+            return element;
+        }
+
+        /**
+         * sets the parents once all elements have been restored, a parent
+         * may follow its child
+         */
+        void setParents() {
+            for(int i = 0; i < this.children.size(); i++) {
+                int parent = this.parents.get(i);
+                if(parent < 0 || parent >= this.elements.size()) {
+                    throw new IllegalArgumentException("invalid parent: " + parent);
+                }
+                this.children.get(i).setParent(this.elements.get(parent));
+            }
+        }
+    }
+}
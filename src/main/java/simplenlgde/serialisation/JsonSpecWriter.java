@@ -0,0 +1,222 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import simplenlgde.framework.ElementCategory;
+import simplenlgde.framework.ElementTypes;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * <p>
+ * Encodes spec trees, the element trees passed to the realiser, as JSON, so
+ * that they can be stored and realised again later, see
+ * {@link JsonSpecReader}. An element is encoded as an object with its
+ * class, category and features, and its realisation and parent if it has
+ * them:
+ * </p>
+ *
+ * <pre>
+ * {"type":"NPPhraseSpec","category":"PhraseCategory.NOUN_PHRASE","parent":0,
+ *  "features":{"number":{"enum":"NumberAgreement.PLURAL"},"head":{"word":"E0038"}}}
+ * </pre>
+ *
+ * <p>
+ * The elements are numbered in the order in which they are written,
+ * starting with 0 for the root. An element which occurs again, and the
+ * parent of an element, are written as its number, <code>{"ref":n}</code>
+ * and <code>"parent":n</code>; a parent which is not part of the tree is
+ * left out. A word which is the entry of the lexicon with its ID is written
+ * as that ID, <code>{"word":"E0038"}</code>, and read as the entry of the
+ * lexicon of the reader.
+ * </p>
+ *
+ * <p>
+ * Feature values may be strings, booleans, integers, longs
+ * (<code>{"long":n}</code>), doubles (<code>{"double":n}</code>), enums
+ * (<code>{"enum":"Tense.PAST"}</code>, with the package left out for the
+ * enums of this library), elements and lists of these. A writer may be
+ * used by several threads.
+ * </p>
+ */
+public class JsonSpecWriter {
+
+    /** the format of the encoding, changed when it changes incompatibly */
+    public static final int VERSION = 1;
+
+    private final Lexicon lexicon;
+
+    /**
+     * create a writer which writes the words of the lexicon as their IDs
+     *
+     * @param lexicon
+     *            - the lexicon, <code>null</code> to write every word in
+     *            full
+     */
+    public JsonSpecWriter(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    /**
+     * @return the lexicon whose words are written as their IDs, or
+     *         <code>null</code>
+     */
+    public Lexicon getLexicon() {
+        return this.lexicon;
+    }
+
+    /**
+     * encodes an element tree
+     *
+     * @param element
+     *            - the root of the tree, may be <code>null</code>
+     * @return the JSON text
+     * @throws IllegalArgumentException
+     *             if the tree has an element of a class which cannot be
+     *             restored or a feature value of another type than those
+     *             above
+     */
+    public String toJson(NLGElement element) {
+        StringBuilder out = new StringBuilder(256);
+        write(element, out);
+        return out.toString();
+    }
+
+    /**
+     * encodes an element tree like {@link #toJson(NLGElement)}
+     *
+     * @param element
+     *            - the root of the tree, may be <code>null</code>
+     * @param out
+     *            - where the JSON text is appended
+     */
+    public void write(NLGElement element, StringBuilder out) {
+        new Encoding(SpecTrees.number(element, this.lexicon)).writeValue(element, out);
+    }
+
+    /**
+     * The writing of one tree.
+     */
+    private class Encoding {
+        private final Map<NLGElement, Integer> numbers;
+        private final Map<NLGElement, Boolean> written = new IdentityHashMap<NLGElement, Boolean>();
+
+        Encoding(Map<NLGElement, Integer> numbers) {
+            this.numbers = numbers;
+        }
+
+        void writeValue(Object value, StringBuilder out) {
+            if(value == null) {
+                out.append("null");
+            } else if(value instanceof String) {
+                Json.quote((String) value, out);
+            } else if(value instanceof Boolean || value instanceof Integer) {
+                out.append(value);
+            } else if(value instanceof Long) {
+                out.append("{\"long\":").append(value).append('}');
+            } else if(value instanceof Double) {
+                double number = (Double) value;
+                if(Double.isNaN(number) || Double.isInfinite(number)) {
+                    throw new IllegalArgumentException("cannot encode " + value);
+                }
+                out.append("{\"double\":").append(value).append('}');
+            } else if(value instanceof Enum<?>) {
+                out.append("{\"enum\":");
+                Json.quote(SpecTrees.enumName((Enum<?>) value), out);
+                out.append('}');
+            } else if(value instanceof NLGElement) {
+                writeElement((NLGElement) value, out);
+            } else if(value instanceof List<?>) {
+                out.append('[');
+                boolean first = true;
+                for(Object item : (List<?>) value) {
+                    if(!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    writeValue(item, out);
+                }
+                out.append(']');
+            } else {
+                throw new IllegalArgumentException("cannot encode a value of " + value.getClass().getName());
+            }
+        }
+
+        private void writeElement(NLGElement element, StringBuilder out) {
+            Integer number = this.numbers.get(element);
+            if(number == null) {
+                out.append("{\"word\":");
+                Json.quote(((WordElement) element).getId(), out);
+                out.append('}');
+                return;
+            }
+            if(this.written.put(element, Boolean.TRUE) != null) {
+                out.append("{\"ref\":").append(number).append('}');
+                return;
+            }
+            String type = ElementTypes.getName(element);
+            if(type == null) {
+                throw new IllegalArgumentException("cannot encode an element of " + element.getClass().getName());
+            }
+            out.append("{\"type\":\"").append(type).append('"');
+            ElementCategory category = element.getCategory();
+            if(category instanceof Enum<?>) {
+                out.append(",\"category\":");
+                Json.quote(SpecTrees.enumName((Enum<?>) category), out);
+            }
+            Integer parent = element.getParent() == null ? null : this.numbers.get(element.getParent());
+            if(parent != null) {
+                out.append(",\"parent\":").append(parent);
+            }
+            if(element instanceof WordElement) {
+                WordElement word = (WordElement) element;
+                if(word.getBaseForm() != null) {
+                    out.append(",\"base\":");
+                    Json.quote(word.getBaseForm(), out);
+                }
+                if(word.getId() != null) {
+                    out.append(",\"id\":");
+                    Json.quote(word.getId(), out);
+                }
+            }
+            String realisation = element.getRealisation();
+            if(realisation != null && !realisation.isEmpty()) {
+                out.append(",\"realisation\":");
+                Json.quote(realisation, out);
+            }
+            out.append(",\"features\":{");
+            boolean first = true;
+            for(Map.Entry<String, Object> feature : element.getAllFeatures().entrySet()) {
+                if(!first) {
+                    out.append(',');
+                }
+                first = false;
+                Json.quote(feature.getKey(), out);
+                out.append(':');
+                try {
+                    writeValue(feature.getValue(), out);
+                } catch(IllegalArgumentException e) {
+                    // names the path to the value
+                    throw new IllegalArgumentException("feature " + feature.getKey() + ": " + e.getMessage(), e);
+                }
+            }
+            out.append("}}");
+        }
+
+    }
+}
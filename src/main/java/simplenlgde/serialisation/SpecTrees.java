@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.serialisation;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.WordElement;
+import simplenlgde.lexicon.Lexicon;
+
+/**
+ * The parts of the spec encodings which do not depend on the format: the
+ * numbering of the elements of a tree, the words written as lexicon IDs and
+ * the names of enums.
+ */
+final class SpecTrees {
+
+    /** the packages of the enums which are written without their package */
+    private static final String[] ENUM_PACKAGES = {"simplenlgde.features.", "simplenlgde.framework."};
+
+    private static final Map<String, Enum<?>> ENUMS = new ConcurrentHashMap<String, Enum<?>>();
+
+    private SpecTrees() {
+    }
+
+    /**
+     * numbers the elements of a tree in the order in which they are written:
+     * an element comes before the elements of its features, which follow in
+     * the order of the feature map. The words of the lexicon are not
+     * numbered, they are written as their IDs.
+     *
+     * @return the number of every element
+     */
+    static Map<NLGElement, Integer> number(NLGElement root, Lexicon lexicon) {
+        Map<NLGElement, Integer> numbers = new IdentityHashMap<NLGElement, Integer>();
+        number(root, lexicon, numbers);
+        return numbers;
+    }
+
+    private static void number(Object value, Lexicon lexicon, Map<NLGElement, Integer> numbers) {
+        if(value instanceof NLGElement) {
+            NLGElement element = (NLGElement) value;
+            if(numbers.containsKey(element) || isLexiconWord(element, lexicon)) {
+                return;
+            }
+            numbers.put(element, numbers.size());
+            for(Object feature : element.getAllFeatures().values()) {
+                number(feature, lexicon, numbers);
+            }
+        } else if(value instanceof List<?>) {
+            for(Object item : (List<?>) value) {
+                number(item, lexicon, numbers);
+            }
+        }
+    }
+
+    /**
+     * @return whether the element is the word of the lexicon with its ID
+     */
+    private static boolean isLexiconWord(NLGElement element, Lexicon lexicon) {
+        if(lexicon == null || element.getClass() != WordElement.class) {
+            return false;
+        }
+        String id = ((WordElement) element).getId();
+        if(id == null || !lexicon.hasWordByID(id)) {
+            return false;
+        }
+        WordElement entry = lexicon.getWordByID(id);
+        return entry == element || entry.equals(element);
+    }
+
+    /**
+     * @return the name of an enum constant, e.g. <code>Tense.PAST</code>,
+     *         without the package for the enums of this library
+     */
+    static String enumName(Enum<?> value) {
+        String name = value.getDeclaringClass().getName();
+        for(String prefix : ENUM_PACKAGES) {
+            if(name.startsWith(prefix) && name.indexOf('.', prefix.length()) < 0) {
+                name = name.substring(prefix.length());
+                break;
+            }
+        }
+        return name + "." + value.name();
+    }
+
+    /**
+     * @return the enum constant of a name returned by
+     *         {@link #enumName(Enum)}
+     * @throws IllegalArgumentException
+     *             if there is no such constant
+     */
+    static Enum<?> enumValue(String name) {
+        Enum<?> value = ENUMS.get(name);
+        if(value == null) {
+            int dot = name.lastIndexOf('.');
+            if(dot < 0) {
+                throw new IllegalArgumentException("invalid enum: " + name);
+            }
+            value = valueOf(enumClass(name.substring(0, dot)), name.substring(dot + 1));
+            ENUMS.put(name, value);
+        }
+        return value;
+    }
+
+    private static Class<?> enumClass(String name) {
+        ClassLoader loader = SpecTrees.class.getClassLoader();
+        if(name.indexOf('.') < 0) {
+            for(String prefix : ENUM_PACKAGES) {
+                try {
+                    return Class.forName(prefix + name, false, loader);
+                } catch(ClassNotFoundException e) {
+                    // try the next package
+                }
+            }
+        }
+        try {
+            return Class.forName(name, false, loader);
+        } catch(ClassNotFoundException e) {
+            throw new IllegalArgumentException("unknown enum: " + name, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Enum<?> valueOf(Class<?> type, String constant) {
+        if(!type.isEnum()) {
+            throw new IllegalArgumentException("not an enum: " + type.getName());
+        }
+        return Enum.valueOf((Class<? extends Enum>) type, constant);
+    }
+}
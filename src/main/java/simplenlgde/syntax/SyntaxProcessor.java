@@ -53,12 +53,43 @@ import simplenlgde.features.*;
 
 public class SyntaxProcessor extends NLGModule {
 
-    OrthographyProcessor orthographyHelper = new OrthographyProcessor();
+    // realises the parts moved into separable verbs, keeps no state between calls
+    private static final OrthographyProcessor SEPARABLE_VERB_ORTHOGRAPHY = new OrthographyProcessor();
+
+    // receives the latencies of the helpers, null if they are not measured
+    private RealisationMetrics metrics;
 
     @Override
     public void initialise() {
     }
 
+    /**
+     * Sets the metrics which receive the latency of every helper call, named
+     * <code>syntax.ClauseHelper</code>, <code>syntax.NounPhraseHelper</code>,
+     * <code>syntax.VerbPhraseHelper</code>,
+     * <code>syntax.CoordinatedPhraseHelper</code> and
+     * <code>syntax.PhraseHelper</code>. The latency of a clause or verb phrase
+     * is also recorded per construction, with the suffix <code>.passive</code>,
+     * <code>.separable</code> or <code>.subordinate</code>, and the
+     * construction is counted, e.g. <code>construction.passive</code>. A
+     * helper realises the phrases within its phrase, so its latency includes
+     * theirs.
+     *
+     * @param metrics
+     *            the metrics, <code>null</code> to measure nothing
+     */
+    public void setMetrics(RealisationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the metrics which receive the latencies of the helpers, or
+     *         <code>null</code>
+     */
+    public RealisationMetrics getMetrics() {
+        return this.metrics;
+    }
+
     @Override
     public NLGElement realise(NLGElement element) {
         NLGElement realisedElement = null;
@@ -118,8 +149,13 @@ public class SyntaxProcessor extends NLGModule {
                 realisedElement = realise(infl);
 
             } else if (element instanceof CoordinatedPhraseElement) {
+                RealisationMetrics metrics = this.metrics;
+                long start = metrics == null ? 0 : System.nanoTime();
                 realisedElement = CoordinatedPhraseHelper.realise(this,
                         (CoordinatedPhraseElement) element);
+                if (metrics != null) {
+                    metrics.recordLatency("syntax.CoordinatedPhraseHelper", System.nanoTime() - start);
+                }
 
             } else {
                 realisedElement = element;
@@ -172,26 +208,33 @@ public class SyntaxProcessor extends NLGModule {
 
         if (phrase != null) {
             ElementCategory category = phrase.getCategory();
+            RealisationMetrics metrics = this.metrics;
+            long start = metrics == null ? 0 : System.nanoTime();
+            String helper = null;
 
             if (category instanceof PhraseCategory) {
                 switch ((PhraseCategory) category) {
 
                     case CLAUSE:
                         realisedElement = ClauseHelper.realise(this, phrase);
+                        helper = "syntax.ClauseHelper";
                         break;
 
                     case NOUN_PHRASE:
                         realisedElement = NounPhraseHelper.realise(this, phrase);
+                        helper = "syntax.NounPhraseHelper";
                         break;
 
                     case VERB_PHRASE:
                         realisedElement = VerbPhraseHelper.realise(this, phrase);
+                        helper = "syntax.VerbPhraseHelper";
                         break;
 
                     case PREPOSITIONAL_PHRASE:
                     case ADJECTIVE_PHRASE:
                     case ADVERB_PHRASE:
                         realisedElement = PhraseHelper.realise(this, phrase);
+                        helper = "syntax.PhraseHelper";
                         break;
 
                     default:
@@ -199,6 +242,10 @@ public class SyntaxProcessor extends NLGModule {
                         break;
                 }
             }
+
+            if (metrics != null && helper != null) {
+                recordHelper(metrics, helper, phrase, System.nanoTime() - start);
+            }
         }
 
         if (realisedElement != null &&  realisedElement.hasFeature(Feature.CONTAINS_MODAL)) {
@@ -208,6 +255,61 @@ public class SyntaxProcessor extends NLGModule {
         return realisedElement;
     }
 
+    /**
+     * Records the latency of a helper call, and for clauses and verb phrases
+     * also the latency and count of their constructions. The verb phrase of
+     * a clause shares the constructions of the clause, so they are counted
+     * with the clause only.
+     */
+    private static void recordHelper(RealisationMetrics metrics, String helper, PhraseElement phrase, long nanos) {
+        metrics.recordLatency(helper, nanos);
+        ElementCategory category = phrase.getCategory();
+        if (category != PhraseCategory.CLAUSE && category != PhraseCategory.VERB_PHRASE) {
+            return;
+        }
+        boolean counted = category == PhraseCategory.CLAUSE || !isClauseVerbPhrase(phrase);
+        if (phrase.getFeatureAsBoolean(Feature.PASSIVE).booleanValue()) {
+            recordConstruction(metrics, helper, "passive", counted, nanos);
+        }
+        if (isSeparable(phrase)) {
+            recordConstruction(metrics, helper, "separable", counted, nanos);
+        }
+        if (ClauseStatus.SUBORDINATE.equals(phrase.getFeature(InternalFeature.CLAUSE_STATUS))) {
+            recordConstruction(metrics, helper, "subordinate", counted, nanos);
+        }
+    }
+
+    private static void recordConstruction(RealisationMetrics metrics, String helper, String construction,
+                                           boolean counted, long nanos) {
+        metrics.recordLatency(helper + "." + construction, nanos);
+        if (counted) {
+            metrics.increment("construction." + construction);
+        }
+    }
+
+    /**
+     * @return whether the phrase is the verb phrase of its parent clause
+     */
+    private static boolean isClauseVerbPhrase(PhraseElement phrase) {
+        NLGElement parent = phrase.getParent();
+        return parent != null && parent.getCategory() == PhraseCategory.CLAUSE
+                && parent.getFeatureAsElement(InternalFeature.VERB_PHRASE) == phrase;
+    }
+
+    /**
+     * @return whether the verb of a clause or verb phrase is separable
+     */
+    private static boolean isSeparable(PhraseElement phrase) {
+        NLGElement verbPhrase = phrase.getFeatureAsElement(InternalFeature.VERB_PHRASE);
+        if (verbPhrase instanceof PhraseElement) {
+            phrase = (PhraseElement) verbPhrase;
+        }
+        NLGElement verb = phrase.getHead();
+        return phrase.getFeatureAsBoolean(Feature.SEPARABLE_VERB).booleanValue()
+                || phrase.getFeatureAsBoolean(LexicalFeature.SEPARABLE).booleanValue()
+                || (verb != null && verb.getFeatureAsBoolean(LexicalFeature.SEPARABLE).booleanValue());
+    }
+
     /**
      * The method to copy the feature if the phrase has a modal verb
      * to the other verbs in this phrase. This is important for verb inflection.
@@ -234,7 +336,7 @@ public class SyntaxProcessor extends NLGModule {
      * @param verb the <code>List<NLGElement></code> containing the separable verb
      * @param verbModifiers the <code>List<NLGElement></code> containing the verb's modifiers
      */
-    public void getSeparableVerbComponents(NLGElement component, List<NLGElement> verb, List<NLGElement> verbModifiers) {
+    public static void getSeparableVerbComponents(NLGElement component, List<NLGElement> verb, List<NLGElement> verbModifiers) {
         if (component instanceof ListElement) {
             for (NLGElement childComponent : component.getChildren()) {
                 if (childComponent.hasFeature(LexicalFeature.SEPARABLE) &&
@@ -269,7 +371,7 @@ public class SyntaxProcessor extends NLGModule {
      * @param parent the parent <code>NLGElement</code> to take the features
      * @param child the child <code>NLGElement</code> to copy the features to
      */
-    protected void copyParentFeatures(NLGElement parent, NLGElement child) {
+    protected static void copyParentFeatures(NLGElement parent, NLGElement child) {
         if (parent.hasFeature(InternalFeature.DISCOURSE_FUNCTION)) {
             child.setFeature(InternalFeature.DISCOURSE_FUNCTION, parent.getFeature(InternalFeature.DISCOURSE_FUNCTION));
         }
@@ -301,7 +403,7 @@ public class SyntaxProcessor extends NLGModule {
      * @param verbModifiers the <code>List<NLGElement></code> containing the verb's modifiers
      * @param subordinates the <code>List<NLGElement></code> containing possible subordinate clause elements
      */
-    public void realiseSeparableVerbPhrase(NLGElement child, List<NLGElement> verb, List<NLGElement> verbModifiers,
+    public static void realiseSeparableVerbPhrase(NLGElement child, List<NLGElement> verb, List<NLGElement> verbModifiers,
                                            List<NLGElement> subordinates) {
         String realisedModifiers = "";
         String realisedComplements = "";
@@ -312,6 +414,7 @@ public class SyntaxProcessor extends NLGModule {
         StringElement realisedComplementsElement = new StringElement("");
         StringElement realisedObjectsElement = new StringElement("");
         List<NLGElement> verbComplements = new ArrayList<NLGElement>();
+        OrthographyProcessor orthography = SEPARABLE_VERB_ORTHOGRAPHY;
 
         if (!verb.isEmpty() && verbModifiers != null) {
             String[] verbParts = verb.get(0).getRealisation().split(" ");
@@ -326,17 +429,17 @@ public class SyntaxProcessor extends NLGModule {
                         || !verb.get(0).hasFeature(InternalFeature.CLAUSE_STATUS))) {
                     subordinates.add(verbModifier);
                 } else if (verbModifier.getFeature(InternalFeature.DISCOURSE_FUNCTION) == null) {
-                    realisedModifiers = addToSeparableVerb(realisedModifiers, verbModifier);
+                    realisedModifiers = addToSeparableVerb(realisedModifiers, verbModifier, orthography);
                 } else if (verbModifier.getFeature(InternalFeature.DISCOURSE_FUNCTION) != null) {
                     if (verbModifier.hasFeature(InternalFeature.CASE)
                             && verbModifier.getFeature(InternalFeature.CASE).equals(DiscourseFunction.SUBJECT)) {
-                        realisedSubjects = addToSeparableVerb(realisedSubjects, verbModifier);
+                        realisedSubjects = addToSeparableVerb(realisedSubjects, verbModifier, orthography);
                     } else if (verbModifier.hasFeature(InternalFeature.CASE)
                             && verbModifier.getFeature(InternalFeature.CASE).equals(DiscourseFunction.OBJECT)) {
-                        realisedObjects = addToSeparableVerb(realisedObjects, verbModifier);
+                        realisedObjects = addToSeparableVerb(realisedObjects, verbModifier, orthography);
                     } else if (!verbModifier.getFeature(InternalFeature.DISCOURSE_FUNCTION)
                             .equals(DiscourseFunction.COMPLEMENT)) {
-                        realisedModifiers = addToSeparableVerb(realisedModifiers, verbModifier);
+                        realisedModifiers = addToSeparableVerb(realisedModifiers, verbModifier, orthography);
                     } else {
                         verbComplements.add(verbModifier);
                     }
@@ -348,7 +451,7 @@ public class SyntaxProcessor extends NLGModule {
             // second, add complements of verb between separable verb parts
             for (NLGElement verbComplement : verbComplements) {
                 if (verbComplement.getFeature(InternalFeature.INBETWEEN_VERB) != null) {
-                    realisedObjects = addToSeparableVerb(realisedObjects, verbComplement);
+                    realisedObjects = addToSeparableVerb(realisedObjects, verbComplement, orthography);
                 }
             }
             realisedSubjectsElement.setRealisation(realisedSubjects);
@@ -364,7 +467,7 @@ public class SyntaxProcessor extends NLGModule {
             if (!verbComplements.isEmpty()) {
                 for (NLGElement verbComplement : verbComplements) {
                     if (verbComplement.getFeature(InternalFeature.INBETWEEN_VERB) == null) {
-                        realisedComplements = addToSeparableVerb(realisedComplements, verbComplement);
+                        realisedComplements = addToSeparableVerb(realisedComplements, verbComplement, orthography);
                     }
                 }
             }
@@ -396,12 +499,14 @@ public class SyntaxProcessor extends NLGModule {
      *
      * @param newVerbRealisation the <code>String</code> current verb realisation
      * @param verbModifier the <code>NLGElement</code> component to be added
+     * @param orthography the <code>OrthographyProcessor</code> realising the component
      * @return a <code>String</code> reflecting the modified verb realisation
      *
      */
-    protected String addToSeparableVerb(String newVerbRealisation, NLGElement verbModifier) {
+    protected static String addToSeparableVerb(String newVerbRealisation, NLGElement verbModifier,
+                                               OrthographyProcessor orthography) {
         String realised;
-        NLGElement currentElementRealised = orthographyHelper.realise(verbModifier);
+        NLGElement currentElementRealised = orthography.realise(verbModifier);
         realised = newVerbRealisation + " " + currentElementRealised + " ";
         return realised;
     }
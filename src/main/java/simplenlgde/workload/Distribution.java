@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.workload;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An immutable discrete distribution over values, each with a weight. The
+ * weights need not add up to one. A value may be <code>null</code>, e.g. for
+ * "no modal verb".
+ *
+ * <pre>
+ * Distribution&lt;Tense&gt; tenses = Distribution.of(Tense.PRESENT, 3).with(Tense.PAST, 1);
+ * </pre>
+ *
+ * @param <T>
+ *            - the type of the values
+ */
+public final class Distribution<T> {
+
+    private final List<T> values;
+    private final double[] cumulative;
+
+    private Distribution(List<T> values, double[] cumulative) {
+        this.values = values;
+        this.cumulative = cumulative;
+    }
+
+    /**
+     * @param value
+     *            - the only value
+     * @return a distribution which always yields the value
+     */
+    public static <T> Distribution<T> of(T value) {
+        return of(value, 1);
+    }
+
+    /**
+     * @param value
+     *            - a value
+     * @param weight
+     *            - its weight, positive
+     * @return a distribution with one value
+     */
+    public static <T> Distribution<T> of(T value, double weight) {
+        return new Distribution<T>(Collections.<T>emptyList(), new double[0]).with(value, weight);
+    }
+
+    /**
+     * @param value
+     *            - a value
+     * @param weight
+     *            - its weight, positive
+     * @return a copy of this distribution with the value added
+     */
+    public Distribution<T> with(T value, double weight) {
+        if(!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("weight must be positive: " + weight);
+        }
+        List<T> values = new ArrayList<T>(this.values);
+        values.add(value);
+        double[] cumulative = new double[values.size()];
+        System.arraycopy(this.cumulative, 0, cumulative, 0, this.cumulative.length);
+        cumulative[cumulative.length - 1] = getTotalWeight() + weight;
+        return new Distribution<T>(Collections.unmodifiableList(values), cumulative);
+    }
+
+    /**
+     * @return the values, in the order they were added
+     */
+    public List<T> getValues() {
+        return this.values;
+    }
+
+    /**
+     * @return the sum of the weights
+     */
+    public double getTotalWeight() {
+        return this.cumulative.length == 0 ? 0 : this.cumulative[this.cumulative.length - 1];
+    }
+
+    /**
+     * @param value
+     *            - a value
+     * @return the probability of the value
+     */
+    public double getProbability(T value) {
+        double weight = 0;
+        for(int i = 0; i < this.cumulative.length; i++) {
+            T current = this.values.get(i);
+            if(current == null ? value == null : current.equals(value)) {
+                weight += this.cumulative[i] - (i == 0 ? 0 : this.cumulative[i - 1]);
+            }
+        }
+        return weight / getTotalWeight();
+    }
+
+    /**
+     * @param random
+     *            - the source of randomness
+     * @return a value drawn from this distribution
+     */
+    public T sample(Random random) {
+        double point = random.nextDouble() * getTotalWeight();
+        for(int i = 0; i < this.cumulative.length - 1; i++) {
+            if(point < this.cumulative[i]) {
+                return this.values.get(i);
+            }
+        }
+        return this.values.get(this.values.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder("{");
+        for(int i = 0; i < this.cumulative.length; i++) {
+            if(i > 0) {
+                string.append(", ");
+            }
+            string.append(this.values.get(i)).append('=')
+                    .append(this.cumulative[i] - (i == 0 ? 0 : this.cumulative[i - 1]));
+        }
+        return string.append('}').toString();
+    }
+}
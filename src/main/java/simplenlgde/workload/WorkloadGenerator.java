@@ -0,0 +1,278 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.workload;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import simplenlgde.features.Feature;
+import simplenlgde.features.InterrogativeType;
+import simplenlgde.features.Tense;
+import simplenlgde.framework.CoordinatedPhraseElement;
+import simplenlgde.framework.LexicalCategory;
+import simplenlgde.framework.NLGElement;
+import simplenlgde.framework.NLGFactory;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.NPPhraseSpec;
+import simplenlgde.phrasespec.SPhraseSpec;
+
+/**
+ * <p>
+ * Generates random sentences for benchmarks and load tests. A sentence is a
+ * new {@link SPhraseSpec} created with an {@link NLGFactory} from the words of
+ * a {@link WorkloadProfile} which are in the lexicon, following the
+ * distributions of the profile. The clauses are well-formed: transitive
+ * verbs get an object and intransitive verbs none, only clauses with an
+ * object are passive or ask for the object, and the articles agree with the
+ * nouns.
+ * </p>
+ *
+ * <p>
+ * The sentences are deterministic: the sentence with a given index depends
+ * only on the lexicon, the profile, the seed and the index, so
+ * {@link #generate(long)} may be called in any order and by several threads,
+ * and {@link #sentences(long)} yields the same sentences every time. They are
+ * created lazily, so any number of sentences can be generated in constant
+ * memory:
+ * </p>
+ *
+ * <pre>
+ * WorkloadGenerator generator = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 42);
+ * for (SPhraseSpec sentence : generator.sentences(1000000)) {
+ *     realiser.realiseSentence(sentence);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Realisation changes a sentence, so every sentence should only be realised
+ * once; generate it again to realise it again.
+ * </p>
+ */
+public class WorkloadGenerator {
+
+    private final NLGFactory nlgFactory;
+    private final WorkloadProfile profile;
+    private final long seed;
+
+    private final List<String> nouns;
+    private final List<String> transitiveVerbs;
+    private final List<String> intransitiveVerbs;
+    private final List<String> adjectives;
+    private final List<String> prepositions;
+
+    /**
+     * create a generator
+     *
+     * @param lexicon
+     *            - the lexicon, which must contain at least one word of every
+     *            kind of the profile
+     * @param profile
+     *            - the distributions of the sentences
+     * @param seed
+     *            - the seed of the random sentences
+     */
+    public WorkloadGenerator(Lexicon lexicon, WorkloadProfile profile, long seed) {
+        this.nlgFactory = new NLGFactory(lexicon);
+        this.profile = profile;
+        this.seed = seed;
+        this.nouns = inLexicon(lexicon, profile.getNouns(), LexicalCategory.NOUN, "nouns");
+        this.transitiveVerbs = inLexicon(lexicon, profile.getTransitiveVerbs(), LexicalCategory.VERB,
+                "transitive verbs");
+        this.intransitiveVerbs = inLexicon(lexicon, profile.getIntransitiveVerbs(), LexicalCategory.VERB,
+                "intransitive verbs");
+        this.adjectives = inLexicon(lexicon, profile.getAdjectives(), LexicalCategory.ADJECTIVE, "adjectives");
+        this.prepositions = inLexicon(lexicon, profile.getPrepositions(), LexicalCategory.PREPOSITION,
+                "prepositions");
+    }
+
+    /**
+     * @return the words of the category which are in the lexicon
+     */
+    private static List<String> inLexicon(Lexicon lexicon, List<String> words, LexicalCategory category,
+                                          String name) {
+        List<String> found = new ArrayList<String>();
+        for(String word : words) {
+            if(lexicon.hasWord(word, category)) {
+                found.add(word);
+            }
+        }
+        if(found.isEmpty()) {
+            throw new IllegalArgumentException("none of the " + name + " is in the lexicon: " + words);
+        }
+        return found;
+    }
+
+    /**
+     * @return the profile of the sentences
+     */
+    public WorkloadProfile getProfile() {
+        return this.profile;
+    }
+
+    /**
+     * @return the seed of the sentences
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * generates the sentence with an index
+     *
+     * @param index
+     *            - the index of the sentence
+     * @return a new sentence
+     */
+    public SPhraseSpec generate(long index) {
+        Random random = new Random(mix(this.seed + index * 0x9E3779B97F4A7C15L));
+        InterrogativeType interrogative = this.profile.getInterrogatives().sample(random);
+        boolean transitive = isObjectQuestion(interrogative) || random.nextDouble() < this.profile.getTransitive();
+        SPhraseSpec clause = createClause(random, transitive);
+        if(interrogative != null) {
+            clause.setFeature(Feature.INTERROGATIVE_TYPE, interrogative);
+        }
+        int subordinates = this.profile.getSubordinateClauses().sample(random);
+        for(int i = 0; i < subordinates; i++) {
+            SPhraseSpec subordinate = createClause(random, random.nextDouble() < this.profile.getTransitive());
+            subordinate.setFeature(Feature.COMPLEMENTISER, this.profile.getComplementisers().sample(random));
+            clause.addComplement(subordinate);
+        }
+        return clause;
+    }
+
+    /**
+     * @param count
+     *            - the number of sentences
+     * @return the sentences with the indexes from 0 to <code>count - 1</code>,
+     *         which are generated while they are iterated
+     */
+    public Iterable<SPhraseSpec> sentences(final long count) {
+        return new Iterable<SPhraseSpec>() {
+            @Override
+            public Iterator<SPhraseSpec> iterator() {
+                return new Iterator<SPhraseSpec>() {
+                    private long next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < count;
+                    }
+
+                    @Override
+                    public SPhraseSpec next() {
+                        if(!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return generate(this.next++);
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    private static boolean isObjectQuestion(InterrogativeType interrogative) {
+        return interrogative == InterrogativeType.WHAT_OBJECT || interrogative == InterrogativeType.WHO_OBJECT;
+    }
+
+    /**
+     * the finaliser of SplitMix64, so that neighbouring indexes give
+     * unrelated random numbers
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String pick(Random random, List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+
+    private SPhraseSpec createClause(Random random, boolean transitive) {
+        SPhraseSpec clause = this.nlgFactory.createClause();
+        clause.setSubject(createNounPhrases(random));
+        clause.setVerb(this.nlgFactory.createVerbPhrase(pick(random,
+                transitive ? this.transitiveVerbs : this.intransitiveVerbs)));
+        if(transitive) {
+            clause.setObject(createNounPhrases(random));
+            if(random.nextDouble() < this.profile.getPassive()) {
+                clause.setFeature(Feature.PASSIVE, true);
+            }
+        }
+        Tense tense = this.profile.getTenses().sample(random);
+        if(tense != Tense.PRESENT) {
+            clause.setFeature(Feature.TENSE, tense);
+        }
+        String modal = this.profile.getModals().sample(random);
+        if(modal != null) {
+            clause.setFeature(Feature.MODAL, modal);
+        }
+        if(random.nextDouble() < this.profile.getNegated()) {
+            clause.setFeature(Feature.NEGATED, true);
+        }
+        return clause;
+    }
+
+    /**
+     * @return a noun phrase, or coordinated noun phrases
+     */
+    private NLGElement createNounPhrases(Random random) {
+        int width = this.profile.getCoordinationWidths().sample(random);
+        if(width == 1) {
+            return createNounPhrase(random, this.profile.getModifierDepths().sample(random));
+        }
+        CoordinatedPhraseElement coordinated = this.nlgFactory.createCoordinatedPhrase();
+        for(int i = 0; i < width; i++) {
+            coordinated.addCoordinate(createNounPhrase(random, this.profile.getModifierDepths().sample(random)));
+        }
+        return coordinated;
+    }
+
+    private NPPhraseSpec createNounPhrase(Random random, int depth) {
+        String noun = pick(random, this.nouns);
+        NPPhraseSpec phrase;
+        // a definite or indefinite singular, or a plural with or without article
+        switch(random.nextInt(4)) {
+            case 0:
+                phrase = this.nlgFactory.createNounPhrase("der", noun);
+                break;
+            case 1:
+                phrase = this.nlgFactory.createNounPhrase("ein", noun);
+                break;
+            case 2:
+                phrase = this.nlgFactory.createNounPhrase("der", noun);
+                phrase.setPlural(true);
+                break;
+            default:
+                phrase = this.nlgFactory.createNounPhrase(noun);
+                phrase.setPlural(true);
+                break;
+        }
+        if(depth > 0) {
+            phrase.addModifier(this.nlgFactory.createAdjectivePhrase(pick(random, this.adjectives)));
+        }
+        if(depth > 1) {
+            phrase.addPostModifier(this.nlgFactory.createPrepositionPhrase(pick(random, this.prepositions),
+                    createNounPhrase(random, depth - 1)));
+        }
+        return phrase;
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.workload;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import simplenlgde.features.InterrogativeType;
+import simplenlgde.features.Tense;
+
+/**
+ * <p>
+ * An immutable description of the sentences a {@link WorkloadGenerator}
+ * creates: the distributions of tense, modal verb, interrogative type,
+ * number of subordinate clauses, width of coordinated noun phrases and depth
+ * of noun phrase modifiers, the probabilities of passive, negated and
+ * transitive clauses, and the words which are used.
+ * </p>
+ *
+ * <p>
+ * The <code>with</code> methods return a changed copy, e.g.
+ * </p>
+ *
+ * <pre>
+ * WorkloadProfile questions = WorkloadProfile.DEFAULT.withInterrogatives(
+ *         Distribution.of(InterrogativeType.YES_NO).with(InterrogativeType.WHO_SUBJECT, 1));
+ * </pre>
+ *
+ * <p>
+ * The {@link #DEFAULT} profile mixes mostly simple declarative clauses with
+ * some questions, passives, negations, subordinate clauses, coordinations
+ * and modified noun phrases. It leaves out the perfect tense and the
+ * interrogative types which need an adverbial or a predicative, e.g.
+ * <code>WHERE</code>, since the generated clauses have none.
+ * </p>
+ */
+public final class WorkloadProfile {
+
+    /** the default profile */
+    public static final WorkloadProfile DEFAULT = new WorkloadProfile();
+
+    private Distribution<Tense> tenses = Distribution.of(Tense.PRESENT, 0.6).with(Tense.PAST, 0.25)
+            .with(Tense.FUTURE, 0.15);
+    private Distribution<String> modals = Distribution.of((String) null, 0.85).with("können", 0.05)
+            .with("müssen", 0.04).with("wollen", 0.03).with("sollen", 0.03);
+    private Distribution<InterrogativeType> interrogatives = Distribution.of((InterrogativeType) null, 0.85)
+            .with(InterrogativeType.YES_NO, 0.07).with(InterrogativeType.HOW, 0.02)
+            .with(InterrogativeType.WHO_SUBJECT, 0.02).with(InterrogativeType.WHAT_OBJECT, 0.02)
+            .with(InterrogativeType.WHO_OBJECT, 0.02);
+    private Distribution<Integer> subordinateClauses = Distribution.of(0, 0.8).with(1, 0.17).with(2, 0.03);
+    private Distribution<String> complementisers = Distribution.of("weil").with("dass", 1).with("obwohl", 1)
+            .with("wenn", 1).with("während", 1);
+    private Distribution<Integer> coordinationWidths = Distribution.of(1, 0.9).with(2, 0.07).with(3, 0.03);
+    private Distribution<Integer> modifierDepths = Distribution.of(0, 0.6).with(1, 0.3).with(2, 0.08)
+            .with(3, 0.02);
+    private double passive = 0.1;
+    private double negated = 0.1;
+    private double transitive = 0.6;
+
+    private List<String> nouns = words("Hund", "Katze", "Mann", "Frau", "Kind", "Haus", "Auto", "Fisch", "Spiel",
+            "Fahrrad", "Lampe", "Schüler", "Brief", "Zug", "Vater", "Tier");
+    private List<String> transitiveVerbs = words("sehen", "machen", "verlieren", "abschließen", "aufräumen",
+            "spielen");
+    private List<String> intransitiveVerbs = words("laufen", "bellen", "arbeiten", "kommen", "aufwachen",
+            "abfahren");
+    private List<String> adjectives = words("gut", "groß", "schön", "rot", "klein", "neu", "schnell", "teuer");
+    private List<String> prepositions = words("mit", "aus", "nach", "in");
+
+    private WorkloadProfile() {
+    }
+
+    private static List<String> words(String... words) {
+        return Collections.unmodifiableList(Arrays.asList(words.clone()));
+    }
+
+    private WorkloadProfile copy() {
+        WorkloadProfile copy = new WorkloadProfile();
+        copy.tenses = this.tenses;
+        copy.modals = this.modals;
+        copy.interrogatives = this.interrogatives;
+        copy.subordinateClauses = this.subordinateClauses;
+        copy.complementisers = this.complementisers;
+        copy.coordinationWidths = this.coordinationWidths;
+        copy.modifierDepths = this.modifierDepths;
+        copy.passive = this.passive;
+        copy.negated = this.negated;
+        copy.transitive = this.transitive;
+        copy.nouns = this.nouns;
+        copy.transitiveVerbs = this.transitiveVerbs;
+        copy.intransitiveVerbs = this.intransitiveVerbs;
+        copy.adjectives = this.adjectives;
+        copy.prepositions = this.prepositions;
+        return copy;
+    }
+
+    private static <T> T checkNotNull(T value, String name) {
+        if(value == null) {
+            throw new IllegalArgumentException(name + " must not be null");
+        }
+        return value;
+    }
+
+    private static double checkProbability(double probability, String name) {
+        if(!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + probability);
+        }
+        return probability;
+    }
+
+    private static Distribution<Integer> checkCounts(Distribution<Integer> counts, int min, String name) {
+        for(Integer count : checkNotNull(counts, name).getValues()) {
+            if(count == null || count < min) {
+                throw new IllegalArgumentException(name + " must be at least " + min + ": " + count);
+            }
+        }
+        return counts;
+    }
+
+    private static List<String> checkWords(String[] words, String name) {
+        if(words == null || words.length == 0) {
+            throw new IllegalArgumentException(name + " must not be empty");
+        }
+        return words(words);
+    }
+
+    /**
+     * @param tenses
+     *            - the distribution of the tense of a clause
+     * @return a copy of this profile with the tenses
+     */
+    public WorkloadProfile withTenses(Distribution<Tense> tenses) {
+        WorkloadProfile copy = copy();
+        copy.tenses = checkNotNull(tenses, "tenses");
+        return copy;
+    }
+
+    /**
+     * @param modals
+     *            - the distribution of the modal verb of a clause, e.g.
+     *            <code>können</code>; <code>null</code> for none
+     * @return a copy of this profile with the modals
+     */
+    public WorkloadProfile withModals(Distribution<String> modals) {
+        WorkloadProfile copy = copy();
+        copy.modals = checkNotNull(modals, "modals");
+        return copy;
+    }
+
+    /**
+     * @param interrogatives
+     *            - the distribution of the interrogative type of a main
+     *            clause; <code>null</code> for a declarative clause. Types
+     *            which ask for the object only occur with transitive verbs.
+     * @return a copy of this profile with the interrogative types
+     */
+    public WorkloadProfile withInterrogatives(Distribution<InterrogativeType> interrogatives) {
+        WorkloadProfile copy = copy();
+        copy.interrogatives = checkNotNull(interrogatives, "interrogatives");
+        return copy;
+    }
+
+    /**
+     * @param subordinateClauses
+     *            - the distribution of the number of subordinate clauses of a
+     *            main clause
+     * @param complementisers
+     *            - the distribution of the complementiser of a subordinate
+     *            clause, e.g. <code>weil</code>
+     * @return a copy of this profile with the subordinate clauses
+     */
+    public WorkloadProfile withSubordinateClauses(Distribution<Integer> subordinateClauses,
+                                                  Distribution<String> complementisers) {
+        WorkloadProfile copy = copy();
+        copy.subordinateClauses = checkCounts(subordinateClauses, 0, "subordinateClauses");
+        copy.complementisers = checkNotNull(complementisers, "complementisers");
+        return copy;
+    }
+
+    /**
+     * @param coordinationWidths
+     *            - the distribution of the number of coordinated noun phrases
+     *            of a subject or object, 1 for a single noun phrase
+     * @return a copy of this profile with the coordination widths
+     */
+    public WorkloadProfile withCoordinationWidths(Distribution<Integer> coordinationWidths) {
+        WorkloadProfile copy = copy();
+        copy.coordinationWidths = checkCounts(coordinationWidths, 1, "coordinationWidths");
+        return copy;
+    }
+
+    /**
+     * @param modifierDepths
+     *            - the distribution of the modifier depth of a noun phrase: 0
+     *            for article and noun, 1 adds an adjective, every further
+     *            level adds a prepositional phrase whose noun phrase has one
+     *            level less
+     * @return a copy of this profile with the modifier depths
+     */
+    public WorkloadProfile withModifierDepths(Distribution<Integer> modifierDepths) {
+        WorkloadProfile copy = copy();
+        copy.modifierDepths = checkCounts(modifierDepths, 0, "modifierDepths");
+        return copy;
+    }
+
+    /**
+     * @param passive
+     *            - the probability that a clause with a transitive verb is
+     *            passive
+     * @return a copy of this profile with the probability
+     */
+    public WorkloadProfile withPassive(double passive) {
+        WorkloadProfile copy = copy();
+        copy.passive = checkProbability(passive, "passive");
+        return copy;
+    }
+
+    /**
+     * @param negated
+     *            - the probability that a clause is negated
+     * @return a copy of this profile with the probability
+     */
+    public WorkloadProfile withNegated(double negated) {
+        WorkloadProfile copy = copy();
+        copy.negated = checkProbability(negated, "negated");
+        return copy;
+    }
+
+    /**
+     * @param transitive
+     *            - the probability that a clause has a transitive verb and
+     *            an object
+     * @return a copy of this profile with the probability
+     */
+    public WorkloadProfile withTransitive(double transitive) {
+        WorkloadProfile copy = copy();
+        copy.transitive = checkProbability(transitive, "transitive");
+        return copy;
+    }
+
+    /**
+     * @param nouns
+     *            - the base forms of the nouns which are used
+     * @return a copy of this profile with the nouns
+     */
+    public WorkloadProfile withNouns(String... nouns) {
+        WorkloadProfile copy = copy();
+        copy.nouns = checkWords(nouns, "nouns");
+        return copy;
+    }
+
+    /**
+     * @param transitiveVerbs
+     *            - the base forms of the verbs which take an object
+     * @param intransitiveVerbs
+     *            - the base forms of the verbs which take none
+     * @return a copy of this profile with the verbs
+     */
+    public WorkloadProfile withVerbs(String[] transitiveVerbs, String[] intransitiveVerbs) {
+        WorkloadProfile copy = copy();
+        copy.transitiveVerbs = checkWords(transitiveVerbs, "transitiveVerbs");
+        copy.intransitiveVerbs = checkWords(intransitiveVerbs, "intransitiveVerbs");
+        return copy;
+    }
+
+    /**
+     * @param adjectives
+     *            - the base forms of the adjectives which are used
+     * @return a copy of this profile with the adjectives
+     */
+    public WorkloadProfile withAdjectives(String... adjectives) {
+        WorkloadProfile copy = copy();
+        copy.adjectives = checkWords(adjectives, "adjectives");
+        return copy;
+    }
+
+    /**
+     * @param prepositions
+     *            - the prepositions which are used
+     * @return a copy of this profile with the prepositions
+     */
+    public WorkloadProfile withPrepositions(String... prepositions) {
+        WorkloadProfile copy = copy();
+        copy.prepositions = checkWords(prepositions, "prepositions");
+        return copy;
+    }
+
+    /**
+     * @return the distribution of the tense of a clause
+     */
+    public Distribution<Tense> getTenses() {
+        return this.tenses;
+    }
+
+    /**
+     * @return the distribution of the modal verb of a clause
+     */
+    public Distribution<String> getModals() {
+        return this.modals;
+    }
+
+    /**
+     * @return the distribution of the interrogative type of a main clause
+     */
+    public Distribution<InterrogativeType> getInterrogatives() {
+        return this.interrogatives;
+    }
+
+    /**
+     * @return the distribution of the number of subordinate clauses
+     */
+    public Distribution<Integer> getSubordinateClauses() {
+        return this.subordinateClauses;
+    }
+
+    /**
+     * @return the distribution of the complementiser of a subordinate clause
+     */
+    public Distribution<String> getComplementisers() {
+        return this.complementisers;
+    }
+
+    /**
+     * @return the distribution of the number of coordinated noun phrases
+     */
+    public Distribution<Integer> getCoordinationWidths() {
+        return this.coordinationWidths;
+    }
+
+    /**
+     * @return the distribution of the modifier depth of a noun phrase
+     */
+    public Distribution<Integer> getModifierDepths() {
+        return this.modifierDepths;
+    }
+
+    /**
+     * @return the probability that a clause with a transitive verb is passive
+     */
+    public double getPassive() {
+        return this.passive;
+    }
+
+    /**
+     * @return the probability that a clause is negated
+     */
+    public double getNegated() {
+        return this.negated;
+    }
+
+    /**
+     * @return the probability that a clause has a transitive verb
+     */
+    public double getTransitive() {
+        return this.transitive;
+    }
+
+    /**
+     * @return the base forms of the nouns
+     */
+    public List<String> getNouns() {
+        return this.nouns;
+    }
+
+    /**
+     * @return the base forms of the transitive verbs
+     */
+    public List<String> getTransitiveVerbs() {
+        return this.transitiveVerbs;
+    }
+
+    /**
+     * @return the base forms of the intransitive verbs
+     */
+    public List<String> getIntransitiveVerbs() {
+        return this.intransitiveVerbs;
+    }
+
+    /**
+     * @return the base forms of the adjectives
+     */
+    public List<String> getAdjectives() {
+        return this.adjectives;
+    }
+
+    /**
+     * @return the prepositions
+     */
+    public List<String> getPrepositions() {
+        return this.prepositions;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.*;
+import simplenlgde.realiser.Realiser;
+
+/**
+ * Measures the bytes allocated per realised sentence for a fixed corpus of
+ * constructions and compares them with the baselines in
+ * <code>allocation-budget.properties</code>, which are kept per realisation
+ * engine and Java version (<code>java.specification.version</code>), as the
+ * allocations of the JDK classes differ between versions. The measurements
+ * are published to the test report. The test is aborted, with the Java
+ * version and those which have baselines as the reason, on a Java version
+ * without baselines, and fails when a construction allocates more than its
+ * baseline plus a margin, 25% by default, which can be changed with the
+ * system property <code>simplenlgde.allocation.margin</code> (e.g.
+ * <code>0.1</code>).
+ * <p>
+ * After a change which reduces the allocations, record new baselines with
+ * <code>-Dsimplenlgde.allocation.record=src/test/resources/allocation-budget.properties</code>
+ * for both engines (the default and the <code>fused-engine</code> run of the
+ * build) and commit them; this also adds the baselines of another Java
+ * version.
+ */
+public class AllocationBudgetTest {
+    private static final String BASELINES = "allocation-budget.properties";
+    private static final double DEFAULT_MARGIN = 0.25;
+    private static final int WARMUP = 500;
+    private static final int ROUNDS = 5;
+    private static final int SENTENCES = 50;
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    /**
+     * creates a new sentence of one construction for every realisation
+     */
+    private interface Construction {
+        NLGElement create();
+    }
+
+    private static SPhraseSpec clause(String subject, String verb, String object) {
+        SPhraseSpec clause = nlgFactory.createClause();
+        clause.setSubject(nlgFactory.createNounPhrase(subject));
+        clause.setVerb(nlgFactory.createVerbPhrase(verb));
+        if (object != null) {
+            clause.setObject(nlgFactory.createNounPhrase(object));
+        }
+        return clause;
+    }
+
+    private static Map<String, Construction> corpus() {
+        Map<String, Construction> corpus = new LinkedHashMap<String, Construction>();
+        corpus.put("mainClause", new Construction() {
+            @Override
+            public NLGElement create() {
+                return clause("Klaus", "verlieren", "das Spiel");
+            }
+        });
+        corpus.put("pastClause", new Construction() {
+            @Override
+            public NLGElement create() {
+                SPhraseSpec sentence = clause("der Hund", "laufen", null);
+                sentence.setFeature(Feature.TENSE, Tense.PAST);
+                return sentence;
+            }
+        });
+        corpus.put("subordinateClause", new Construction() {
+            @Override
+            public NLGElement create() {
+                SPhraseSpec sentence = clause("die sonne", "scheinen", null);
+                SPhraseSpec subordinate = clause("es", "regnen", null);
+                subordinate.setFeature(Feature.COMPLEMENTISER, "während");
+                sentence.addComplement(subordinate);
+                return sentence;
+            }
+        });
+        corpus.put("passive", new Construction() {
+            @Override
+            public NLGElement create() {
+                SPhraseSpec sentence = clause("sie", "kaufen", null);
+                sentence.getVerbPhrase().setFeature(Feature.PASSIVE, true);
+                return sentence;
+            }
+        });
+        corpus.put("question", new Construction() {
+            @Override
+            public NLGElement create() {
+                SPhraseSpec sentence = clause("Klaus", "verlieren", "das Spiel");
+                sentence.setFeature(Feature.INTERROGATIVE_TYPE, InterrogativeType.WHAT_OBJECT);
+                return sentence;
+            }
+        });
+        corpus.put("coordination", new Construction() {
+            @Override
+            public NLGElement create() {
+                CoordinatedPhraseElement subject = nlgFactory.createCoordinatedPhrase();
+                for (String noun : new String[]{"aktie", "rentenpapier", "genussschein"}) {
+                    NPPhraseSpec coordinate = nlgFactory.createNounPhrase(noun);
+                    coordinate.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+                    subject.addCoordinate(coordinate);
+                }
+                SPhraseSpec sentence = nlgFactory.createClause();
+                sentence.setSubject(subject);
+                sentence.setVerb(nlgFactory.createVerbPhrase("sein"));
+                sentence.addComplement("verfügbar");
+                return sentence;
+            }
+        });
+        corpus.put("adjectiveNounPhrase", new Construction() {
+            @Override
+            public NLGElement create() {
+                NPPhraseSpec noun = nlgFactory.createNounPhrase("der Hund");
+                noun.setFeature(InternalFeature.CASE, DiscourseFunction.GENITIVE);
+                noun.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+                noun.addModifier(nlgFactory.createAdjectivePhrase("alt"));
+                return noun;
+            }
+        });
+        return corpus;
+    }
+
+    /**
+     * @return the smallest number of bytes allocated per sentence in a number
+     *         of rounds, the sentences being created before each round
+     */
+    private static long measure(com.sun.management.ThreadMXBean threads, Realiser realiser,
+                                Construction construction) {
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            realiser.realiseSentence(construction.create());
+        }
+        long best = Long.MAX_VALUE;
+        List<NLGElement> sentences = new ArrayList<NLGElement>(SENTENCES);
+        for (int round = 0; round < ROUNDS; round++) {
+            sentences.clear();
+            for (int i = 0; i < SENTENCES; i++) {
+                sentences.add(construction.create());
+            }
+            long start = threads.getThreadAllocatedBytes(thread);
+            for (NLGElement sentence : sentences) {
+                realiser.realiseSentence(sentence);
+            }
+            long bytes = (threads.getThreadAllocatedBytes(thread) - start) / SENTENCES;
+            best = Math.min(best, bytes);
+        }
+        return best;
+    }
+
+    private static Properties loadBaselines() throws IOException {
+        Properties baselines = new Properties();
+        InputStream in = AllocationBudgetTest.class.getClassLoader().getResourceAsStream(BASELINES);
+        if (in != null) {
+            try {
+                baselines.load(in);
+            } finally {
+                in.close();
+            }
+        }
+        return baselines;
+    }
+
+    /**
+     * @return the Java versions with baselines of an engine, e.g.
+     *         <code>java17</code>
+     */
+    private static TreeSet<String> baselineVersions(Properties baselines, String engine) {
+        TreeSet<String> versions = new TreeSet<String>();
+        for (String key : baselines.stringPropertyNames()) {
+            if (key.startsWith(engine + ".")) {
+                versions.add(key.substring(engine.length() + 1, key.lastIndexOf('.')));
+            }
+        }
+        return versions;
+    }
+
+    @Test
+    public void allocationBudgetTest(TestReporter reporter) throws IOException {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "allocated bytes cannot be measured on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "allocated bytes cannot be measured on this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Realiser realiser = new Realiser(lexicon);
+        String engine = realiser.getEngine().name().toLowerCase();
+        String version = "java" + System.getProperty("java.specification.version");
+        String prefix = engine + "." + version + ".";
+        double margin = Double.parseDouble(System.getProperty("simplenlgde.allocation.margin",
+                String.valueOf(DEFAULT_MARGIN)));
+        Properties baselines = loadBaselines();
+        String record = System.getProperty("simplenlgde.allocation.record");
+        if (record == null) {
+            TreeSet<String> versions = baselineVersions(baselines, engine);
+            Assumptions.assumeTrue(versions.contains(version), "no allocation baselines of the " + engine
+                    + " engine for " + version + " (" + System.getProperty("java.vm.name") + " "
+                    + System.getProperty("java.vm.version") + "), only for " + versions
+                    + "; record them with -Dsimplenlgde.allocation.record=src/test/resources/" + BASELINES);
+        }
+
+        StringBuilder regressions = new StringBuilder();
+        for (Map.Entry<String, Construction> entry : corpus().entrySet()) {
+            String key = prefix + entry.getKey();
+            long bytes = measure(threads, realiser, entry.getValue());
+            reporter.publishEntry(key, bytes + " bytes per sentence");
+            if (record != null) {
+                baselines.setProperty(key, String.valueOf(bytes));
+                continue;
+            }
+            String baseline = baselines.getProperty(key);
+            Assertions.assertNotNull(baseline, "no allocation baseline for " + key + ", record one with "
+                    + "-Dsimplenlgde.allocation.record=src/test/resources/" + BASELINES);
+            long budget = (long) (Long.parseLong(baseline) * (1 + margin));
+            if (bytes > budget) {
+                regressions.append(String.format("%n%s: %d bytes per sentence, baseline %s, budget %d", key,
+                        bytes, baseline, budget));
+            } else if (bytes < Long.parseLong(baseline) * (1 - margin)) {
+                reporter.publishEntry(key, "allocates less than its baseline " + baseline
+                        + ", consider recording new baselines");
+            }
+        }
+
+        if (record != null) {
+            // sorted and without a date, so that the file only changes with the baselines
+            Writer out = new OutputStreamWriter(new FileOutputStream(record), "ISO-8859-1");
+            try {
+                out.write("# bytes allocated per realised sentence, see AllocationBudgetTest\n");
+                for (Map.Entry<Object, Object> baseline : new TreeMap<Object, Object>(baselines).entrySet()) {
+                    out.write(baseline.getKey() + "=" + baseline.getValue() + "\n");
+                }
+            } finally {
+                out.close();
+            }
+        }
+        Assertions.assertTrue(regressions.length() == 0, "allocations regressed by more than "
+                + Math.round(margin * 100) + "%:" + regressions);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.RealisationCallback;
+import simplenlgde.realiser.RealisationResult;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.phrasespec.*;
+
+public class BatchRealisationTest {
+    private static final String[] SUBJECTS = {"der Hund", "die Katze", "das Pferd", "Bob"};
+    private static final String[] VERBS = {"laufen", "schlafen", "essen", "abschließen"};
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static List<NLGElement> createSentences() {
+        List<NLGElement> sentences = new ArrayList<NLGElement>();
+        for (String subject : SUBJECTS) {
+            for (String verb : VERBS) {
+                sentences.add(nlgFactory.createSentence(nlgFactory.createClause(subject, verb)));
+            }
+        }
+        return sentences;
+    }
+
+    private static List<String> realiseSequentially() {
+        List<String> expected = new ArrayList<String>();
+        Realiser realiser = new Realiser(lexicon);
+        for (NLGElement sentence : createSentences()) {
+            expected.add(realiser.realise(sentence).getRealisation());
+        }
+        return expected;
+    }
+
+    @Test
+    public void batchKeepsOrderTest() throws InterruptedException {
+        List<String> expected = realiseSequentially();
+        List<RealisationResult> results = new Realiser(lexicon).realiseBatch(createSentences(), 4);
+
+        Assertions.assertEquals(expected.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals(i, results.get(i).getIndex());
+            Assertions.assertTrue(results.get(i).isSuccess());
+            Assertions.assertEquals(expected.get(i), results.get(i).getRealisation());
+        }
+    }
+
+    @Test
+    public void failureDoesNotAbortBatchTest() throws InterruptedException {
+        List<NLGElement> sentences = createSentences();
+        sentences.add(1, new SPhraseSpec(nlgFactory) {
+            @Override
+            public List<NLGElement> getChildren() {
+                throw new IllegalStateException("broken");
+            }
+
+            @Override
+            public Object getFeature(String featureName) {
+                throw new IllegalStateException("broken");
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<RealisationResult> results = new Realiser(lexicon).realiseBatch(sentences, executor);
+            Assertions.assertEquals(sentences.size(), results.size());
+            Assertions.assertFalse(results.get(1).isSuccess());
+            Assertions.assertNull(results.get(1).getRealisation());
+            Assertions.assertEquals("broken", results.get(1).getError().getMessage());
+            Assertions.assertTrue(results.get(0).isSuccess());
+            Assertions.assertTrue(results.get(2).isSuccess());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void iteratorBatchTest() throws InterruptedException {
+        final List<String> expected = realiseSequentially();
+        final List<String> realised = new ArrayList<String>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            int count = new Realiser(lexicon).realiseBatch(createSentences().iterator(), executor, 3,
+                    new RealisationCallback() {
+                        @Override
+                        public void realised(RealisationResult result) {
+                            Assertions.assertEquals(realised.size(), result.getIndex());
+                            realised.add(result.getRealisation());
+                        }
+                    });
+            Assertions.assertEquals(expected.size(), count);
+            Assertions.assertEquals(expected, realised);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void batchIsBoundedTest() throws InterruptedException {
+        List<NLGElement> sentences = new ArrayList<NLGElement>();
+        for (int i = 0; i < 10; i++) {
+            sentences.addAll(createSentences());
+        }
+        final AtomicInteger maxQueued = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(command);
+                int queued = getQueue().size();
+                int max;
+                while (queued > (max = maxQueued.get()) && !maxQueued.compareAndSet(max, queued)) {
+                    // retry
+                }
+            }
+        };
+        try {
+            List<RealisationResult> results = new Realiser(lexicon).realiseBatch(sentences, executor);
+            Assertions.assertEquals(sentences.size(), results.size());
+            // a few elements per thread, not the whole list
+            Assertions.assertTrue(maxQueued.get() <= 4 * 2, String.valueOf(maxQueued.get()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
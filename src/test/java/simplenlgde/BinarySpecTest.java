@@ -0,0 +1,170 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.*;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.serialisation.BinarySpecReader;
+import simplenlgde.serialisation.BinarySpecWriter;
+import simplenlgde.serialisation.JsonSpecWriter;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+public class BinarySpecTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 5);
+        JsonSpecWriter jsonWriter = new JsonSpecWriter(lexicon);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySpecWriter writer = new BinarySpecWriter(out, lexicon);
+        long json = 0;
+        for (int i = 0; i < 200; i++) {
+            SPhraseSpec sentence = generator.generate(i);
+            writer.write(sentence);
+            json += jsonWriter.toJson(sentence).getBytes("UTF-8").length;
+        }
+        writer.close();
+        Assertions.assertEquals(200, writer.getRecords());
+        Assertions.assertTrue(out.size() * 4 < json, out.size() + " bytes, JSON " + json);
+
+        Realiser realiser = new Realiser(lexicon);
+        BinarySpecReader reader = new BinarySpecReader(new ByteArrayInputStream(out.toByteArray()), lexicon);
+        for (int i = 0; i < 200; i++) {
+            NLGElement restored = reader.read();
+            Assertions.assertEquals(generator.generate(i), restored);
+            Assertions.assertSame(restored, restored.getFeatureAsElement(InternalFeature.VERB_PHRASE).getParent());
+            Assertions.assertEquals(realiser.realiseSentence(generator.generate(i)),
+                    realiser.realiseSentence(restored));
+        }
+        Assertions.assertNull(reader.read());
+        Assertions.assertEquals(200, reader.getRecords());
+    }
+
+    @Test
+    public void valuesTest() throws IOException {
+        NPPhraseSpec noun = nlgFactory.createNounPhrase("der", "Hund");
+        noun.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        ListElement list = new ListElement();
+        list.addComponent(noun);
+        list.addComponent(new StringElement("und \"so\"\nweiter"));
+        list.setFeature("shared", noun);
+        list.setFeature("long", -1L << 40);
+        list.setFeature("int", -7);
+        list.setFeature("double", 0.5);
+        list.setFeature("nothing", null);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("lang ");
+        }
+        list.setFeature("text", text.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySpecWriter writer = new BinarySpecWriter(out, lexicon);
+        writer.write(list);
+        list.setFeature("unsupported", new Object());
+        try {
+            writer.write(list);
+            Assertions.fail("unsupported value");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        list.removeFeature("unsupported");
+        writer.write(list);
+        writer.close();
+
+        BinarySpecReader reader = new BinarySpecReader(new ByteArrayInputStream(out.toByteArray()), lexicon);
+        for (int i = 0; i < 2; i++) {
+            NLGElement restored = reader.read();
+            Assertions.assertEquals(list, restored);
+            List<NLGElement> components = restored.getFeatureAsElementList(InternalFeature.COMPONENTS);
+            Assertions.assertSame(components.get(0), restored.getFeature("shared"));
+            Assertions.assertEquals("und \"so\"\nweiter", components.get(1).getRealisation());
+        }
+        Assertions.assertNull(reader.read());
+    }
+
+    @Test
+    public void invalidStreamTest() throws IOException {
+        try {
+            new BinarySpecReader(new ByteArrayInputStream("{\"type\":".getBytes("UTF-8")), lexicon);
+            Assertions.fail("not a stream of spec trees");
+        } catch (IOException e) {
+            // expected
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinarySpecWriter writer = new BinarySpecWriter(out, lexicon);
+        writer.write(nlgFactory.createClause("Klaus", "verlieren", "das Spiel"));
+        byte[] bytes = out.toByteArray();
+
+        bytes[4] = BinarySpecWriter.VERSION + 1;
+        try {
+            new BinarySpecReader(new ByteArrayInputStream(bytes), lexicon);
+            Assertions.fail("unsupported version");
+        } catch (IOException e) {
+            // expected
+        }
+        bytes[4] = BinarySpecWriter.VERSION;
+        BinarySpecReader reader = new BinarySpecReader(new ByteArrayInputStream(bytes, 0, bytes.length - 3), lexicon);
+        try {
+            reader.read();
+            Assertions.fail("truncated stream");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void assertCorrupt(int... record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinarySpecWriter(out, lexicon).close();
+        for (int b : record) {
+            out.write(b);
+        }
+        BinarySpecReader reader = new BinarySpecReader(new ByteArrayInputStream(out.toByteArray()), lexicon);
+        try {
+            reader.read();
+            Assertions.fail("corrupt stream");
+        } catch (StreamCorruptedException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void hostileLengthTest() throws IOException {
+        // an element whose class is a new symbol of 2^31 - 1 bytes
+        assertCorrupt(9, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07);
+        // a ListElement with a feature "x" holding a list of 2^28 - 1 values
+        assertCorrupt(9, 1, 11, 'L', 'i', 's', 't', 'E', 'l', 'e', 'm', 'e', 'n', 't', 0, 0, 0, 1, 1, 1, 'x',
+                8, 0xFF, 0xFF, 0xFF, 0x7F);
+    }
+}
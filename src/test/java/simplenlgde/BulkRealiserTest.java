@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.bulk.BulkRealiser;
+import simplenlgde.bulk.BulkReport;
+import simplenlgde.bulk.SpecStream;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.SPhraseSpec;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+import simplenlgde.serialisation.BinarySpecWriter;
+import simplenlgde.serialisation.JsonSpecWriter;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+public class BulkRealiserTest {
+    private static final int SENTENCES = 100;
+
+    private static Lexicon lexicon;
+    private static String expected;
+    private static byte[] json;
+    private static byte[] binary;
+
+    @BeforeAll
+    public static void setup() throws IOException {
+        lexicon = Lexicon.getDefaultLexicon();
+        WorkloadGenerator generator = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 3);
+        Realiser realiser = new Realiser(lexicon);
+        JsonSpecWriter jsonWriter = new JsonSpecWriter(lexicon);
+        ByteArrayOutputStream binaryOut = new ByteArrayOutputStream();
+        BinarySpecWriter binaryWriter = new BinarySpecWriter(binaryOut, lexicon);
+        StringBuilder jsonLines = new StringBuilder();
+        StringBuilder texts = new StringBuilder();
+        for (int i = 0; i < SENTENCES; i++) {
+            SPhraseSpec sentence = generator.generate(i);
+            jsonLines.append(jsonWriter.toJson(sentence)).append('\n');
+            binaryWriter.write(sentence);
+            texts.append(realiser.realiseSentence(generator.generate(i)).trim()).append('\n');
+        }
+        binaryWriter.close();
+        expected = texts.toString();
+        json = jsonLines.toString().getBytes("UTF-8");
+        binary = binaryOut.toByteArray();
+    }
+
+    private static String realise(byte[] input, int threads, int maxInFlight, boolean sentences) throws Exception {
+        BulkRealiser bulk = new BulkRealiser(RealiserConfig.DEFAULT.withLexicon(lexicon));
+        bulk.setThreads(threads);
+        bulk.setMaxInFlight(maxInFlight);
+        bulk.setSentences(sentences);
+        SpecStream specs = new SpecStream(new ByteArrayInputStream(input), lexicon);
+        StringWriter out = new StringWriter();
+        BulkReport report = bulk.realise(specs, out);
+        specs.close();
+        Assertions.assertEquals(SENTENCES, report.getRealisations(), report.toString());
+        Assertions.assertEquals(0, report.getErrors(), report.toString());
+        Assertions.assertEquals(SENTENCES, report.getLatency().getCount());
+        return out.toString();
+    }
+
+    @Test
+    public void orderTest() throws Exception {
+        Assertions.assertEquals(expected, realise(json, 1, 0, true));
+        Assertions.assertEquals(expected, realise(json, 4, 0, true));
+        Assertions.assertEquals(expected, realise(binary, 4, 1, true));
+        Assertions.assertEquals(expected, realise(binary, 3, 50, true));
+    }
+
+    @Test
+    public void formatTest() throws Exception {
+        Assertions.assertFalse(new SpecStream(new ByteArrayInputStream(json), lexicon).isBinary());
+        Assertions.assertTrue(new SpecStream(new ByteArrayInputStream(binary), lexicon).isBinary());
+
+        // the records of a realisation log
+        StringBuilder log = new StringBuilder("{\"format\":\"simplenlgde-realisations\",\"version\":1}\n");
+        for (String line : new String(json, "UTF-8").split("\n")) {
+            log.append("{\"sentence\":true,\"spec\":").append(line).append("}\n\n");
+        }
+        Assertions.assertEquals(expected, realise(log.toString().getBytes("UTF-8"), 2, 0, true));
+
+        // without -sentences the clauses are neither capitalised nor punctuated
+        String clauses = realise(json, 2, 0, false);
+        Assertions.assertEquals(expected.split("\n").length, clauses.split("\n").length);
+        Assertions.assertNotEquals(expected, clauses);
+    }
+
+    @Test
+    public void jsonOutputTest() throws Exception {
+        BulkRealiser bulk = new BulkRealiser(RealiserConfig.DEFAULT.withLexicon(lexicon));
+        bulk.setJsonOutput(true);
+        StringWriter out = new StringWriter();
+        bulk.realise(new SpecStream(new ByteArrayInputStream(binary), lexicon), out);
+        String[] lines = out.toString().split("\n");
+        Assertions.assertEquals(SENTENCES, lines.length);
+        Assertions.assertTrue(lines[7].startsWith("{\"index\":7,\"realisation\":"), lines[7]);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.phrasespec.*;
+
+/**
+ * The sentences and the threads of the tests which share a processor or a
+ * realiser between threads.
+ */
+public final class ConcurrencyFixture {
+    public static final int THREADS = 8;
+
+    /**
+     * a check run by every thread in every round
+     */
+    public interface Check {
+        /**
+         * @return whether the result of the round was the expected one
+         */
+        boolean run(int thread, int round);
+    }
+
+    private ConcurrencyFixture() {
+    }
+
+    /**
+     * @return new clauses with the constructions whose realisation keeps state:
+     *         a separable verb, a subordinate clause, which needs a comma,
+     *         agreement in the past tense and a coordination
+     */
+    public static List<NLGElement> createSentences(NLGFactory nlgFactory) {
+        List<NLGElement> sentences = new ArrayList<NLGElement>();
+
+        SPhraseSpec separable = nlgFactory.createClause("Bob", "abschließen", "das Fahrrad");
+        separable.addModifier("schnell");
+        sentences.add(separable);
+
+        SPhraseSpec main = nlgFactory.createClause("die sonne", "scheinen");
+        SPhraseSpec subordinate = nlgFactory.createClause("es", "regnen");
+        subordinate.setFeature(Feature.COMPLEMENTISER, "während");
+        main.addComplement(subordinate);
+        sentences.add(main);
+
+        SPhraseSpec past = nlgFactory.createClause("der hund", "laufen");
+        past.setFeature(Feature.TENSE, Tense.PAST);
+        past.getSubject().setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        sentences.add(past);
+
+        CoordinatedPhraseElement coordinated = nlgFactory.createCoordinatedPhrase(
+                nlgFactory.createNounPhrase("die Aktie"), nlgFactory.createNounPhrase("die Anleihe"));
+        sentences.add(nlgFactory.createClause(coordinated, "steigen"));
+        return sentences;
+    }
+
+    /**
+     * runs a check on {@link #THREADS} threads at once
+     *
+     * @return the number of checks which failed
+     */
+    public static int countFailures(final int rounds, final Check check) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int current = thread;
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int failures = 0;
+                        for (int round = 0; round < rounds; round++) {
+                            if (!check.run(current, round)) {
+                                failures++;
+                            }
+                        }
+                        return failures;
+                    }
+                }));
+            }
+            int failures = 0;
+            for (Future<Integer> result : results) {
+                failures += result.get();
+            }
+            return failures;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.jfr.FlightRecording;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.Realiser;
+
+public class FlightRecordingTest {
+
+    private static List<RecordedEvent> record(Runnable work) throws Exception {
+        Path file = Files.createTempFile("simplenlgde", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("simplenlgde.Realisation");
+                recording.enable("simplenlgde.Stage");
+                recording.enable("simplenlgde.LexiconLookup");
+                recording.enable("simplenlgde.LexiconLoad");
+                recording.start();
+                work.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> byName(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> selected = new ArrayList<RecordedEvent>();
+        for(RecordedEvent event : events) {
+            if(event.getEventType().getName().equals(name)) {
+                selected.add(event);
+            }
+        }
+        return selected;
+    }
+
+    @Test
+    public void realisationTest() throws Exception {
+        Assertions.assertTrue(FlightRecording.isAvailable());
+        final Lexicon lexicon = Lexicon.getDefaultLexicon();
+        final NLGFactory nlgFactory = new NLGFactory(lexicon);
+        List<RecordedEvent> events = record(new Runnable() {
+            @Override
+            public void run() {
+                new Realiser(lexicon).realiseSentence(nlgFactory.createClause("der Hund", "bellen"));
+            }
+        });
+
+        List<RecordedEvent> realisations = byName(events, "simplenlgde.Realisation");
+        Assertions.assertEquals(1, realisations.size());
+        Assertions.assertEquals("SENTENCE", realisations.get(0).getString("category"));
+        Assertions.assertEquals(1, realisations.get(0).getInt("sentences"));
+        Assertions.assertTrue(realisations.get(0).getInt("elements") > 1);
+        Assertions.assertEquals("realised", realisations.get(0).getString("outcome"));
+        Assertions.assertEquals("Der Hund bellt.".length(), realisations.get(0).getInt("length"));
+
+        List<String> stages = new ArrayList<String>();
+        for(RecordedEvent stage : byName(events, "simplenlgde.Stage")) {
+            stages.add(stage.getString("stage"));
+        }
+        Assertions.assertTrue(stages.contains("syntax"));
+        Assertions.assertTrue(stages.size() == 2 || stages.size() == 4);
+    }
+
+    @Test
+    public void lexiconTest() throws Exception {
+        List<RecordedEvent> events = record(new Runnable() {
+            @Override
+            public void run() {
+                Lexicon lexicon = Lexicon.getDefaultLexicon();
+                lexicon.lookupWord("Quastenflosser", LexicalCategory.NOUN);
+                lexicon.lookupWord("Quastenflosser", LexicalCategory.NOUN);
+            }
+        });
+
+        Assertions.assertEquals(1, byName(events, "simplenlgde.LexiconLoad").size());
+        List<RecordedEvent> lookups = byName(events, "simplenlgde.LexiconLookup");
+        Assertions.assertEquals(2, lookups.size());
+        Assertions.assertEquals("Quastenflosser", lookups.get(0).getString("baseForm"));
+        Assertions.assertEquals("created", lookups.get(0).getString("path"));
+        Assertions.assertEquals("learned", lookups.get(1).getString("path"));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.format.german.HTMLFormatter;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.IncrementalRealiser;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.phrasespec.*;
+
+public class IncrementalRealiserTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static Realiser createRealiser() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setFormatter(new HTMLFormatter());
+        return realiser;
+    }
+
+    private static String realiseInFull(NLGElement element) {
+        return createRealiser().realise(element.deepCopy()).getRealisation();
+    }
+
+    @Test
+    public void changedSentenceTest() {
+        SPhraseSpec dog = nlgFactory.createClause("der Hund", "bellen");
+        DocumentElement paragraph = nlgFactory.createParagraph();
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("Bob", "laufen")));
+        paragraph.addComponent(nlgFactory.createSentence(dog));
+        DocumentElement document = nlgFactory.createDocument("Bericht", paragraph);
+
+        IncrementalRealiser incremental = new IncrementalRealiser(createRealiser());
+        String expected = realiseInFull(document);
+        Assertions.assertEquals(expected, incremental.realise(document).getRealisation());
+        Assertions.assertEquals(2, incremental.getRealisedCount());
+
+        Assertions.assertEquals(expected, incremental.realise(document).getRealisation());
+        Assertions.assertEquals(0, incremental.getRealisedCount());
+        Assertions.assertEquals(2, incremental.getReusedCount());
+
+        // the number of the subject changes the verb of the same sentence
+        dog.getSubject().setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        String changed = incremental.realise(document).getRealisation();
+        Assertions.assertEquals(realiseInFull(document), changed);
+        Assertions.assertNotEquals(expected, changed);
+        Assertions.assertEquals(1, incremental.getRealisedCount());
+        Assertions.assertEquals(1, incremental.getReusedCount());
+    }
+
+    @Test
+    public void addedSentenceTest() {
+        DocumentElement paragraph = nlgFactory.createParagraph();
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("Bob", "laufen")));
+        DocumentElement document = nlgFactory.createDocument("Bericht", paragraph);
+
+        IncrementalRealiser incremental = new IncrementalRealiser(createRealiser());
+        incremental.realise(document);
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("die Sonne", "scheinen")));
+        Assertions.assertEquals(realiseInFull(document), incremental.realise(document).getRealisation());
+        Assertions.assertEquals(1, incremental.getRealisedCount());
+        Assertions.assertEquals(1, incremental.getReusedCount());
+    }
+
+    @Test
+    public void singleClauseTest() {
+        SPhraseSpec clause = nlgFactory.createClause("Bob", "abschließen", "das Fahrrad");
+        IncrementalRealiser incremental = new IncrementalRealiser(createRealiser());
+        String expected = realiseInFull(clause);
+        Assertions.assertEquals(expected, incremental.realise(clause).getRealisation());
+        Assertions.assertEquals(expected, incremental.realise(clause).getRealisation());
+        Assertions.assertEquals(1, incremental.getReusedCount());
+
+        clause.setFeature(Feature.TENSE, Tense.PAST);
+        Assertions.assertEquals(realiseInFull(clause), incremental.realise(clause).getRealisation());
+        Assertions.assertEquals(1, incremental.getRealisedCount());
+    }
+}
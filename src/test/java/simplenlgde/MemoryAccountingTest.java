@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.lexicon.MultipleLexicon;
+import simplenlgde.morphology.MorphologyRules;
+import simplenlgde.realiser.RealisationCache;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.phrasespec.*;
+
+public class MemoryAccountingTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    @Test
+    public void estimatorTest() {
+        MemoryEstimator estimator = new MemoryEstimator();
+        long string = estimator.sizeOf("Fahrrad");
+        Assertions.assertTrue(string >= 24 && string <= 80, "size of a string: " + string);
+        Assertions.assertEquals(0, estimator.sizeOf("Fahrrad".intern()));
+        Assertions.assertEquals(0, estimator.sizeOf(Tense.PAST));
+        Assertions.assertTrue(new MemoryEstimator().sizeOf(new long[100]) >= 800);
+        Assertions.assertTrue(new MemoryEstimator().sizeOf(Arrays.asList("a", "b", "c")) > 3 * 24);
+    }
+
+    @Test
+    public void mapSampleTest() {
+        Map<String, String> plurals = new LinkedHashMap<String, String>();
+        for(int i = 0; i < 20000; i++) {
+            plurals.put("Rechnung" + i, "Rechnungen" + i);
+        }
+        long full = new MemoryEstimator().sizeOf(plurals);
+        long sampled = new MemoryEstimator().sizeOfMapSample(plurals, MemoryEstimator.DEFAULT_SAMPLES);
+        Assertions.assertTrue(Math.abs(sampled - full) < full / 20, "sampled " + sampled + ", full " + full);
+        Assertions.assertEquals(MemoryEstimator.hashMapSize(0),
+                new MemoryEstimator().sizeOfMapSample(new LinkedHashMap<String, String>(), 10));
+    }
+
+    @Test
+    public void lexiconTest() {
+        MemoryReport report = lexicon.estimateMemory();
+        Assertions.assertTrue(report.getBytes() > 0);
+        Map<String, Long> indexes = report.getBreakdown(MemoryReport.INDEX);
+        Assertions.assertTrue(indexes.get("words") > 0);
+        Assertions.assertTrue(indexes.get("indexByBase") > 0);
+        Assertions.assertTrue(indexes.get("indexByVariant") > 0);
+        Assertions.assertTrue(report.getBreakdown(MemoryReport.CATEGORY).get("NOUN") > 0);
+        Assertions.assertFalse(report.getBreakdown(MemoryReport.FEATURE).isEmpty());
+
+        long total = 0;
+        for(long bytes : indexes.values()) {
+            total += bytes;
+        }
+        Assertions.assertEquals(report.getBytes(), total);
+
+        // a lexicon which occurs twice is counted once
+        MemoryReport multiple = new MultipleLexicon(lexicon, lexicon).estimateMemory();
+        Assertions.assertTrue(multiple.getBreakdown(MemoryReport.INDEX).containsKey("0:XMLLexicon/words"));
+        Assertions.assertFalse(multiple.getBreakdown(MemoryReport.INDEX).containsKey("1:XMLLexicon/words"));
+    }
+
+    @Test
+    public void cacheTest() {
+        RealisationCache cache = new RealisationCache();
+        long empty = cache.estimateMemory().getBytes();
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setCache(cache);
+        for(String subject : new String[]{"Bob", "Alice", "Eve"}) {
+            SPhraseSpec clause = nlgFactory.createClause(subject, "abschließen", "das Fahrrad");
+            realiser.realiseSentence(clause);
+        }
+        MemoryReport report = cache.estimateMemory();
+        Assertions.assertTrue(report.getBytes() > empty);
+        Assertions.assertTrue(report.getBreakdown(MemoryReport.INDEX).get("keys") > 0);
+        Assertions.assertFalse(report.getBreakdown(MemoryReport.FEATURE).isEmpty());
+        Assertions.assertTrue(MorphologyRules.estimatePluralCacheMemory().getBytes() > 0);
+    }
+
+    @Test
+    public void mxBeanTest() throws Exception {
+        MemoryAccounting accounting = new MemoryAccounting();
+        accounting.register("lexicon", lexicon);
+        accounting.register("cache", new RealisationCache());
+        Assertions.assertTrue(accounting.getTotalEstimatedBytes() > accounting.getEstimatedBytes().get("cache"));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("simplenlgde.test:type=Memory");
+        server.registerMBean(accounting, name);
+        try {
+            Assertions.assertTrue((Long) server.getAttribute(name, "TotalEstimatedBytes") > 0);
+            Object breakdown = server.invoke(name, "getBreakdown", new Object[]{"lexicon", MemoryReport.INDEX},
+                    new String[]{String.class.getName(), String.class.getName()});
+            Assertions.assertNotNull(breakdown);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
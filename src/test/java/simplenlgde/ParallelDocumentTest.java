@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.format.german.HTMLFormatter;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.phrasespec.*;
+
+public class ParallelDocumentTest {
+    private static final String[] SUBJECTS = {"der Hund", "die Katze", "Bob", "die Sonne"};
+    private static final String[] VERBS = {"laufen", "schlafen", "bellen", "scheinen"};
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static DocumentElement createDocument() {
+        DocumentElement document = nlgFactory.createDocument("Bericht");
+        for(int section = 0; section < 4; section++) {
+            DocumentElement sectionElement = nlgFactory.createSection("Teil " + section);
+            for(int paragraph = 0; paragraph < 3; paragraph++) {
+                DocumentElement paragraphElement = nlgFactory.createParagraph();
+                for(int sentence = 0; sentence < 4; sentence++) {
+                    SPhraseSpec clause = nlgFactory.createClause(SUBJECTS[sentence], VERBS[(sentence + paragraph) % 4]);
+                    if(section % 2 == 1) {
+                        clause.setFeature(Feature.TENSE, Tense.PAST);
+                    }
+                    paragraphElement.addComponent(nlgFactory.createSentence(clause));
+                }
+                sectionElement.addComponent(paragraphElement);
+            }
+            DocumentElement list = nlgFactory.createList();
+            list.addComponent(nlgFactory.createListItem(nlgFactory.createClause("Bob", "laufen")));
+            list.addComponent(nlgFactory.createListItem(nlgFactory.createClause("der Hund", "bellen")));
+            sectionElement.addComponent(list);
+            document.addComponent(sectionElement);
+        }
+        return document;
+    }
+
+    private static Realiser createRealiser() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setFormatter(new HTMLFormatter());
+        return realiser;
+    }
+
+    @Test
+    public void sameAsSequentialTest() {
+        String expected = createRealiser().realise(createDocument()).getRealisation();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assertions.assertEquals(expected, createRealiser().realise(createDocument(), pool).getRealisation());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void preserveInputTest() {
+        DocumentElement document = createDocument();
+        String before = document.printTree(null);
+        Realiser realiser = createRealiser();
+        realiser.setPreserveInput(true);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            String first = realiser.realise(document, pool).getRealisation();
+            Assertions.assertEquals(first, realiser.realise(document, pool).getRealisation());
+            Assertions.assertEquals(before, document.printTree(null));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.lexicon.MultipleLexicon;
+import simplenlgde.realiser.RealisationCache;
+import simplenlgde.realiser.RealisationListener;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.StageEvent;
+import simplenlgde.phrasespec.*;
+
+public class RealisationCacheTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static SPhraseSpec createSentence(String subject) {
+        SPhraseSpec clause = nlgFactory.createClause(subject, "abschließen", "das Fahrrad");
+        clause.addModifier("schnell");
+        return clause;
+    }
+
+    @Test
+    public void structuralHashTest() {
+        NLGElement first = createSentence("Bob");
+        NLGElement second = createSentence("Bob");
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertEquals(first.hashCode(), first.deepCopy().hashCode());
+
+        second.setFeature(Feature.TENSE, Tense.PAST);
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertNotEquals(first, createSentence("Alice"));
+
+        // elements of different classes are not equal, even without features
+        WordElement word = new WordElement("Hund", LexicalCategory.NOUN);
+        ListElement list = new ListElement();
+        list.setCategory(LexicalCategory.NOUN);
+        Assertions.assertNotEquals(list, word);
+        Assertions.assertNotEquals(word, list);
+    }
+
+    @Test
+    public void cachedRealisationTest() {
+        String expected = new Realiser(lexicon).realiseSentence(createSentence("Bob"));
+        RealisationCache cache = new RealisationCache();
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setCache(cache);
+
+        Assertions.assertEquals(expected, realiser.realiseSentence(createSentence("Bob")));
+        Assertions.assertEquals(expected, realiser.realiseSentence(createSentence("Bob")));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertEquals(0.5, cache.getHitRate(), 0.001);
+
+        // a different sentence is not taken from the cache
+        String other = realiser.realiseSentence(createSentence("Alice"));
+        Assertions.assertNotEquals(expected, other);
+        Assertions.assertEquals(2, cache.size());
+
+        // realise and realiseSentence are kept apart
+        NLGElement phrase = realiser.realise(createSentence("Bob"));
+        Assertions.assertEquals(phrase.getRealisation(), realiser.realise(createSentence("Bob")).getRealisation());
+        Assertions.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void capacityTest() {
+        RealisationCache cache = new RealisationCache(1);
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setCache(cache);
+        realiser.realiseSentence(createSentence("Bob"));
+        realiser.realiseSentence(createSentence("Alice"));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void lexiconChangeTest() {
+        MultipleLexicon multiple = new MultipleLexicon(lexicon);
+        RealisationCache cache = new RealisationCache();
+        Realiser realiser = new Realiser(multiple);
+        realiser.setCache(cache);
+        realiser.realiseSentence(createSentence("Bob"));
+        Assertions.assertEquals(1, cache.size());
+
+        long version = multiple.getVersion();
+        multiple.setAlwaysSearchAll(true);
+        Assertions.assertNotEquals(version, multiple.getVersion());
+        realiser.realiseSentence(createSentence("Bob"));
+        Assertions.assertEquals(0, cache.getHits());
+        Assertions.assertEquals(1, cache.getInvalidations());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void lexiconChangedDuringRealisationTest() {
+        final MultipleLexicon multiple = new MultipleLexicon(lexicon);
+        RealisationCache cache = new RealisationCache();
+        Realiser realiser = new Realiser(multiple);
+        realiser.setCache(cache);
+        realiser.setListener(new RealisationListener() {
+            @Override
+            public boolean isTraced(NLGElement element) {
+                return true;
+            }
+
+            @Override
+            public void stageRealised(StageEvent event) {
+                multiple.setAlwaysSearchAll(!multiple.isAlwaysSearchAll());
+            }
+        });
+        realiser.realiseSentence(createSentence("Bob"));
+        Assertions.assertEquals(0, cache.size());
+
+        realiser.setListener(null);
+        realiser.realiseSentence(createSentence("Bob"));
+        Assertions.assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.RealisationEngine;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.features.*;
+import simplenlgde.phrasespec.*;
+
+public class RealisationEngineTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static List<NLGElement> createSentences() {
+        List<NLGElement> sentences = new ArrayList<NLGElement>();
+
+        SPhraseSpec object = nlgFactory.createClause("die Katze", "sehen", "der Hund");
+        object.addModifier("schnell");
+        sentences.add(object);
+
+        SPhraseSpec past = nlgFactory.createClause("wir", "kaufen", "ein Auto");
+        past.setFeature(Feature.TENSE, Tense.PAST);
+        sentences.add(past);
+
+        SPhraseSpec question = nlgFactory.createClause("der Hund", "laufen");
+        question.setFeature(Feature.INTERROGATIVE_TYPE, InterrogativeType.YES_NO);
+        sentences.add(question);
+
+        SPhraseSpec main = nlgFactory.createClause("die sonne", "scheinen");
+        SPhraseSpec subordinate = nlgFactory.createClause("es", "regnen");
+        subordinate.setFeature(Feature.COMPLEMENTISER, "während");
+        main.addComplement(subordinate);
+        sentences.add(main);
+
+        NPPhraseSpec dog = nlgFactory.createNounPhrase("der", "Hund");
+        dog.addPreModifier("groß");
+        dog.addPreModifier("schwarz");
+        sentences.add(nlgFactory.createClause(dog, "bellen"));
+
+        CoordinatedPhraseElement coordinated = nlgFactory.createCoordinatedPhrase(
+                nlgFactory.createNounPhrase("die Aktie"), nlgFactory.createNounPhrase("die Anleihe"));
+        coordinated.addCoordinate(nlgFactory.createNounPhrase("der Fonds"));
+        sentences.add(nlgFactory.createClause(coordinated, "steigen"));
+
+        // separable verbs are realised by the staged engine
+        sentences.add(nlgFactory.createClause("Bob", "abschließen", "das Fahrrad"));
+        return sentences;
+    }
+
+    private static List<String> realise(RealisationEngine engine, boolean asSentence) {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setEngine(engine);
+        List<String> realised = new ArrayList<String>();
+        for (NLGElement sentence : createSentences()) {
+            realised.add(asSentence ? realiser.realiseSentence(sentence) : realiser.realise(sentence).getRealisation());
+        }
+        return realised;
+    }
+
+    @Test
+    public void sentenceEquivalenceTest() {
+        Assertions.assertEquals(realise(RealisationEngine.STAGED, true), realise(RealisationEngine.FUSED, true));
+    }
+
+    @Test
+    public void phraseEquivalenceTest() {
+        Assertions.assertEquals(realise(RealisationEngine.STAGED, false), realise(RealisationEngine.FUSED, false));
+    }
+
+    @Test
+    public void defaultEngineTest() {
+        String property = System.getProperty(RealisationEngine.PROPERTY);
+        RealisationEngine expected = "fused".equals(property) ? RealisationEngine.FUSED : RealisationEngine.STAGED;
+        Assertions.assertEquals(expected, new Realiser(lexicon).getEngine());
+    }
+}
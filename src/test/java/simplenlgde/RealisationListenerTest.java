@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.RealisationEngine;
+import simplenlgde.realiser.RealisationListener;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.SamplingListener;
+import simplenlgde.realiser.StageEvent;
+
+public class RealisationListenerTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static class RecordingListener implements RealisationListener {
+        private final List<StageEvent> events = new ArrayList<StageEvent>();
+        private int traced;
+
+        @Override
+        public boolean isTraced(NLGElement element) {
+            this.traced++;
+            return true;
+        }
+
+        @Override
+        public synchronized void stageRealised(StageEvent event) {
+            this.events.add(event);
+        }
+    }
+
+    private static Realiser createRealiser() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setEngine(RealisationEngine.STAGED);
+        return realiser;
+    }
+
+    @Test
+    public void stagesTest() {
+        Realiser realiser = createRealiser();
+        String expected = realiser.realiseSentence(nlgFactory.createClause("der Hund", "bellen"));
+
+        RecordingListener listener = new RecordingListener();
+        realiser.setListener(listener);
+        Assertions.assertEquals(expected, realiser.realiseSentence(nlgFactory.createClause("der Hund", "bellen")));
+
+        Assertions.assertEquals(4, listener.events.size());
+        String[] stages = {"syntax", "morphology", "orthography", "formatter"};
+        for(int i = 0; i < stages.length; i++) {
+            StageEvent event = listener.events.get(i);
+            Assertions.assertEquals(stages[i], event.getStage());
+            Assertions.assertEquals(listener.events.get(0).getRealisationId(), event.getRealisationId());
+            Assertions.assertTrue(event.getDurationNanos() >= 0);
+        }
+        Assertions.assertEquals(DocumentCategory.SENTENCE, listener.events.get(0).getCategory());
+        Assertions.assertEquals(expected, listener.events.get(3).getOutput().getRealisation());
+    }
+
+    @Test
+    public void samplingTest() {
+        Realiser realiser = createRealiser();
+        RecordingListener listener = new RecordingListener();
+        realiser.setListener(new SamplingListener(listener, 3));
+        for(int i = 0; i < 7; i++) {
+            realiser.realiseSentence(nlgFactory.createClause("Bob", "laufen"));
+        }
+        Assertions.assertEquals(3, listener.traced);
+        Assertions.assertEquals(12, listener.events.size());
+    }
+
+    @Test
+    public void fusedTest() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setEngine(RealisationEngine.FUSED);
+        RecordingListener listener = new RecordingListener();
+        realiser.setListener(listener);
+        String realisation = realiser.realiseSentence(nlgFactory.createClause("Bob", "laufen"));
+        Assertions.assertEquals(2, listener.events.size());
+        Assertions.assertEquals("fused", listener.events.get(1).getStage());
+        Assertions.assertEquals(realisation, listener.events.get(1).getOutput().getRealisation());
+    }
+
+    @Test
+    public void printTreeTest() {
+        DocumentElement paragraph = nlgFactory.createParagraph();
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("die Katze", "schlafen")));
+        String tree = paragraph.printTree(null);
+        Assertions.assertTrue(tree.startsWith("DocumentElement: category=PARAGRAPH"));
+        Assertions.assertTrue(tree.contains("\n \\-DocumentElement: category=SENTENCE"));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.*;
+import simplenlgde.realiser.Histogram;
+import simplenlgde.realiser.MetricsRegistry;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+
+public class RealisationMetricsTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    @Test
+    public void stagesAndHelpersTest() {
+        Realiser realiser = new Realiser(lexicon);
+        String expected = realiser.realiseSentence(createPassive());
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        realiser.setMetrics(metrics);
+        Assertions.assertEquals(expected, realiser.realiseSentence(createPassive()));
+
+        Assertions.assertEquals(1, metrics.getHistogram("realiser.syntax").getCount());
+        Assertions.assertEquals(1, metrics.getHistogram("realiser.total").getCount());
+        Assertions.assertEquals(1, metrics.getCounter("realiser.realisations"));
+        Assertions.assertEquals(1, metrics.getHistogram("syntax.ClauseHelper").getCount());
+        Assertions.assertEquals(1, metrics.getHistogram("syntax.ClauseHelper.passive").getCount());
+        Assertions.assertTrue(metrics.getHistogram("syntax.NounPhraseHelper").getCount() >= 2);
+        Assertions.assertEquals(1, metrics.getCounter("construction.passive"));
+        Assertions.assertEquals(1, metrics.getHistogram("sentence.elements").getCount());
+        Assertions.assertTrue(metrics.getHistogram("sentence.elements").getMin() > 1);
+    }
+
+    @Test
+    public void constructionsCountedOnceTest() {
+        Realiser realiser = new Realiser(lexicon);
+        MetricsRegistry metrics = new MetricsRegistry();
+        realiser.setMetrics(metrics);
+        SPhraseSpec sentence = nlgFactory.createClause("die Sonne", "scheinen");
+        SPhraseSpec subordinate = nlgFactory.createClause("der Zug", "abfahren");
+        subordinate.setFeature(Feature.COMPLEMENTISER, "während");
+        sentence.addComplement(subordinate);
+        realiser.realiseSentence(sentence);
+
+        // the verb phrases of the clauses are not counted again
+        Assertions.assertEquals(1, metrics.getCounter("construction.subordinate"));
+        Assertions.assertEquals(1, metrics.getCounter("construction.separable"));
+        Assertions.assertEquals(0, metrics.getCounter("construction.passive"));
+
+        // a verb phrase of its own is
+        VPPhraseSpec verb = nlgFactory.createVerbPhrase("jagen");
+        verb.setFeature(Feature.PASSIVE, true);
+        realiser.realise(verb);
+        Assertions.assertEquals(1, metrics.getCounter("construction.passive"));
+    }
+
+    private static SPhraseSpec createPassive() {
+        SPhraseSpec clause = nlgFactory.createClause("der Hund", "jagen", "die Katze");
+        clause.setFeature(Feature.PASSIVE, true);
+        return clause;
+    }
+
+    @Test
+    public void sharedStagesTest() {
+        RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+        Realiser measured = new Realiser(config);
+        MetricsRegistry metrics = new MetricsRegistry();
+        measured.setMetrics(metrics);
+        new Realiser(config).realiseSentence(nlgFactory.createClause("Bob", "laufen"));
+        Assertions.assertTrue(metrics.getHistogramNames().isEmpty());
+
+        measured.realiseSentence(nlgFactory.createClause("Bob", "laufen"));
+        Assertions.assertEquals(1, metrics.getHistogram("syntax.ClauseHelper").getCount());
+    }
+
+    @Test
+    public void metricsReplacedTest() {
+        RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+        Realiser measured = new Realiser(config);
+        MetricsRegistry first = new MetricsRegistry();
+        MetricsRegistry second = new MetricsRegistry();
+        measured.setMetrics(first);
+        measured.setMetrics(second);
+        String expected = new Realiser(config).realiseSentence(createPassive());
+        Assertions.assertEquals(expected, measured.realiseSentence(createPassive()));
+        Assertions.assertTrue(first.getHistogramNames().isEmpty());
+        Assertions.assertEquals(1, second.getHistogram("syntax.ClauseHelper").getCount());
+
+        // the metrics are kept with a new lexicon
+        measured.setLexicon(lexicon);
+        measured.realiseSentence(createPassive());
+        Assertions.assertEquals(2, second.getHistogram("syntax.ClauseHelper").getCount());
+
+        measured.setMetrics(null);
+        measured.realiseSentence(createPassive());
+        new Realiser(config).realiseSentence(createPassive());
+        Assertions.assertTrue(first.getHistogramNames().isEmpty());
+        Assertions.assertEquals(2, second.getHistogram("syntax.ClauseHelper").getCount());
+    }
+
+    @Test
+    public void histogramTest() {
+        Histogram histogram = new Histogram("test");
+        Assertions.assertEquals(0, histogram.getP99());
+        for(int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Assertions.assertEquals(1000, histogram.getCount());
+        Assertions.assertEquals(1000, histogram.getMin());
+        Assertions.assertEquals(1000000, histogram.getMax());
+        Assertions.assertEquals(500500.0, histogram.getMean(), 0.001);
+        long p99 = histogram.getP99();
+        Assertions.assertTrue(p99 >= 990000 && p99 <= 990000 * 1.125, String.valueOf(p99));
+        long p50 = histogram.getP50();
+        Assertions.assertTrue(p50 >= 500000 && p50 <= 500000 * 1.125, String.valueOf(p50));
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void mbeanTest() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.recordLatency("realiser.syntax", 100);
+        metrics.registerMBeans(server, "simplenlgde.test");
+        try {
+            metrics.recordLatency("realiser.morphology", 200);
+            ObjectName syntax = new ObjectName("simplenlgde.test:type=Histogram,name="
+                    + ObjectName.quote("realiser.syntax"));
+            ObjectName morphology = new ObjectName("simplenlgde.test:type=Histogram,name="
+                    + ObjectName.quote("realiser.morphology"));
+            Assertions.assertEquals(1L, server.getAttribute(syntax, "Count"));
+            Assertions.assertEquals(200L, server.getAttribute(morphology, "Max"));
+            Assertions.assertTrue(server.isRegistered(new ObjectName("simplenlgde.test:type=Metrics")));
+        } finally {
+            metrics.unregisterMBeans();
+        }
+        Assertions.assertTrue(server.queryNames(new ObjectName("simplenlgde.test:*"), null).isEmpty());
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.format.german.TextFormatter;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.RealisationCallback;
+import simplenlgde.realiser.RealisationPipeline;
+import simplenlgde.realiser.RealisationResult;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.phrasespec.SPhraseSpec;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+public class RealisationPipelineTest {
+    private static final int SENTENCES = 40;
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static List<NLGElement> createSentences() {
+        WorkloadGenerator generator = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 11);
+        List<NLGElement> sentences = new ArrayList<NLGElement>();
+        for (int i = 0; i < SENTENCES; i++) {
+            sentences.add(nlgFactory.createSentence(generator.generate(i)));
+        }
+        return sentences;
+    }
+
+    private static List<String> realiseSequentially() {
+        Realiser realiser = new Realiser(lexicon);
+        List<String> expected = new ArrayList<String>();
+        for (NLGElement sentence : createSentences()) {
+            expected.add(realiser.realise(sentence).getRealisation());
+        }
+        return expected;
+    }
+
+    private static List<String> run(RealisationPipeline pipeline, List<NLGElement> sentences)
+            throws InterruptedException {
+        final List<String> realised = new ArrayList<String>();
+        int count = pipeline.run(sentences.iterator(), new RealisationCallback() {
+            @Override
+            public void realised(RealisationResult result) {
+                Assertions.assertEquals(realised.size(), result.getIndex());
+                realised.add(result.getRealisation());
+            }
+        });
+        Assertions.assertEquals(sentences.size(), count);
+        return realised;
+    }
+
+    /**
+     * a formatter which takes longer for some elements than for others, and
+     * throws an error for one of them
+     */
+    private static class UnevenFormatter extends TextFormatter {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final int failing;
+
+        UnevenFormatter(int failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public NLGElement realise(NLGElement element) {
+            int call = this.calls.getAndIncrement();
+            if (call == this.failing) {
+                throw new StageError();
+            }
+            try {
+                Thread.sleep(call % 3 == 0 ? 5 : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.realise(element);
+        }
+    }
+
+    private static class StageError extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Test
+    public void orderedOutputTest() throws InterruptedException {
+        Realiser realiser = new Realiser(lexicon);
+        List<String> expected = realiseSequentially();
+
+        // a single worker per stage, and several workers which need reordering
+        Assertions.assertEquals(expected, run(realiser.createPipeline(2, 1), createSentences()));
+        Assertions.assertEquals(expected, run(realiser.createPipeline(2, 3), createSentences()));
+    }
+
+    @Test
+    public void unevenStagesTest() throws InterruptedException {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setFormatter(new UnevenFormatter(-1));
+        // the workers of the formatter finish out of order
+        Assertions.assertEquals(realiseSequentially(), run(realiser.createPipeline(3, 4), createSentences()));
+    }
+
+    @Test
+    public void statisticsTest() throws InterruptedException {
+        RealisationPipeline pipeline = new Realiser(lexicon).createPipeline(4, 1);
+        List<NLGElement> sentences = createSentences();
+        run(pipeline, sentences);
+
+        List<RealisationPipeline.StageStatistics> statistics = pipeline.getStatistics();
+        Assertions.assertEquals(4, statistics.size());
+        Assertions.assertEquals("syntax", statistics.get(0).getName());
+        Assertions.assertEquals("formatter", statistics.get(3).getName());
+        for (RealisationPipeline.StageStatistics stage : statistics) {
+            Assertions.assertEquals(sentences.size(), stage.getProcessed());
+            Assertions.assertTrue(stage.getMaxQueueDepth() <= 4);
+            Assertions.assertTrue(stage.getUtilisation() >= 0 && stage.getUtilisation() <= 1);
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    public void backpressureTest() throws InterruptedException {
+        final List<NLGElement> sentences = createSentences();
+        final AtomicInteger read = new AtomicInteger();
+        Iterator<NLGElement> input = new Iterator<NLGElement>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < sentences.size();
+            }
+
+            @Override
+            public NLGElement next() {
+                read.incrementAndGet();
+                return sentences.get(this.next++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        final int[] delivered = new int[1];
+        final int[] maxAhead = new int[1];
+        RealisationPipeline pipeline = new Realiser(lexicon).createPipeline(1, 1);
+        pipeline.run(input, new RealisationCallback() {
+            @Override
+            public void realised(RealisationResult result) {
+                try {
+                    // a slow consumer, the queues fill up
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered[0]++;
+                maxAhead[0] = Math.max(maxAhead[0], read.get() - delivered[0]);
+            }
+        });
+        Assertions.assertEquals(sentences.size(), delivered[0]);
+        // one element per queue, the one waiting for the callback and the
+        // one read before the input blocks
+        Assertions.assertTrue(maxAhead[0] <= 4 + 1 + 1, String.valueOf(maxAhead[0]));
+        for (RealisationPipeline.StageStatistics stage : pipeline.getStatistics()) {
+            Assertions.assertTrue(stage.getMaxQueueDepth() <= 1);
+        }
+    }
+
+    @Test
+    public void failureDoesNotStopPipelineTest() throws InterruptedException {
+        List<NLGElement> sentences = createSentences();
+        sentences.add(2, new SPhraseSpec(nlgFactory) {
+            @Override
+            public Object getFeature(String featureName) {
+                throw new IllegalStateException("broken");
+            }
+        });
+        final List<RealisationResult> results = new ArrayList<RealisationResult>();
+        new Realiser(lexicon).createPipeline(2, 2).run(sentences.iterator(), new RealisationCallback() {
+            @Override
+            public void realised(RealisationResult result) {
+                results.add(result);
+            }
+        });
+        Assertions.assertEquals(sentences.size(), results.size());
+        Assertions.assertFalse(results.get(2).isSuccess());
+        Assertions.assertTrue(results.get(3).isSuccess());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    public void errorStopsPipelineTest() throws InterruptedException {
+        for (int workers = 1; workers <= 3; workers += 2) {
+            Realiser realiser = new Realiser(lexicon);
+            realiser.setFormatter(new UnevenFormatter(1));
+            final List<RealisationResult> results = new ArrayList<RealisationResult>();
+            try {
+                realiser.createPipeline(1, workers).run(createSentences().iterator(), new RealisationCallback() {
+                    @Override
+                    public void realised(RealisationResult result) {
+                        results.add(result);
+                    }
+                });
+                Assertions.fail("the error of the formatter is thrown");
+            } catch (StageError e) {
+                // expected
+            }
+            Assertions.assertTrue(results.size() < SENTENCES);
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    public void inputErrorTest() throws InterruptedException {
+        final Iterator<NLGElement> sentences = createSentences().iterator();
+        Iterator<NLGElement> input = new Iterator<NLGElement>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return sentences.hasNext();
+            }
+
+            @Override
+            public NLGElement next() {
+                if (this.next++ == 3) {
+                    throw new StageError();
+                }
+                return sentences.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        try {
+            new Realiser(lexicon).createPipeline(2, 1).run(input, new RealisationCallback() {
+                @Override
+                public void realised(RealisationResult result) {
+                    // ignored
+                }
+            });
+            Assertions.fail("the error of the input is thrown");
+        } catch (StageError e) {
+            // expected
+        }
+    }
+}
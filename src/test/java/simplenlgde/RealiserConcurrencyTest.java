@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.features.*;
+import simplenlgde.phrasespec.*;
+
+public class RealiserConcurrencyTest {
+    private static final int ROUNDS = 100;
+
+    /** the ways a shared realiser is called */
+    private enum Call {
+        SENTENCE, PHRASE, PARAGRAPH, STREAMED_PARAGRAPH
+    }
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    /**
+     * @return the inputs of the calls: clauses, and paragraphs of two
+     *         sentences, which pass the state of the orthography processor on
+     *         from one sentence to the next and are formatted
+     */
+    private static List<NLGElement> createInputs(Call call) {
+        List<NLGElement> clauses = ConcurrencyFixture.createSentences(nlgFactory);
+        if (call == Call.SENTENCE || call == Call.PHRASE) {
+            return clauses;
+        }
+        List<NLGElement> following = ConcurrencyFixture.createSentences(nlgFactory);
+        List<NLGElement> paragraphs = new ArrayList<NLGElement>();
+        for (int i = 0; i < clauses.size(); i++) {
+            paragraphs.add(nlgFactory.createParagraph(Arrays.asList(nlgFactory.createSentence(clauses.get(i)),
+                    nlgFactory.createSentence(following.get((i + 1) % following.size())))));
+        }
+        return paragraphs;
+    }
+
+    private static String realise(Realiser realiser, Call call, NLGElement input) {
+        switch (call) {
+        case SENTENCE:
+            return realiser.realiseSentence(input);
+        case STREAMED_PARAGRAPH:
+            StringBuilder out = new StringBuilder();
+            try {
+                realiser.realise(input, out);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            return out.toString();
+        default:
+            return realiser.realise(input).getRealisation();
+        }
+    }
+
+    @Test
+    public void deepCopyTest() {
+        NPPhraseSpec dog = nlgFactory.createNounPhrase("der", "Hund");
+        SPhraseSpec clause = nlgFactory.createClause(dog, "sehen", dog);
+        SPhraseSpec copy = (SPhraseSpec) clause.deepCopy();
+
+        Assertions.assertNotSame(clause, copy);
+        Assertions.assertEquals(clause.printTree(null), copy.printTree(null));
+        Assertions.assertNotSame(clause.getVerbPhrase(), copy.getVerbPhrase());
+        Assertions.assertSame(copy, copy.getVerbPhrase().getParent());
+
+        // changing the copy does not change the original
+        copy.getSubject().setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        Assertions.assertFalse(dog.isPlural());
+    }
+
+    @Test
+    public void inputIsNotModifiedTest() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setPreserveInput(true);
+        for (Call call : Call.values()) {
+            for (NLGElement input : createInputs(call)) {
+                String before = input.printTree(null);
+                String first = realise(realiser, call, input);
+                Assertions.assertEquals(before, input.printTree(null), call.name());
+                Assertions.assertEquals(first, realise(realiser, call, input), call.name());
+            }
+        }
+    }
+
+    @Test
+    public void sharedRealiserTest() throws Exception {
+        // all stages of one realiser, including orthography and formatter,
+        // are shared by threads making different calls at the same time
+        final Realiser realiser = new Realiser(lexicon);
+        realiser.setPreserveInput(true);
+        final Call[] calls = Call.values();
+        final List<List<NLGElement>> inputs = new ArrayList<List<NLGElement>>();
+        final List<List<String>> expected = new ArrayList<List<String>>();
+        for (Call call : calls) {
+            inputs.add(createInputs(call));
+            List<String> texts = new ArrayList<String>();
+            for (NLGElement input : createInputs(call)) {
+                texts.add(realise(new Realiser(lexicon), call, input));
+            }
+            expected.add(texts);
+        }
+
+        int mismatches = ConcurrencyFixture.countFailures(ROUNDS, new ConcurrencyFixture.Check() {
+            @Override
+            public boolean run(int thread, int round) {
+                int call = (round + thread) % calls.length;
+                int index = (round / calls.length + thread) % inputs.get(call).size();
+                return expected.get(call).get(index).equals(
+                        realise(realiser, calls[call], inputs.get(call).get(index)));
+            }
+        });
+        Assertions.assertEquals(0, mismatches);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+import simplenlgde.phrasespec.*;
+
+public class RealiserConfigTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static NLGElement createSentence() {
+        SPhraseSpec clause = nlgFactory.createClause("Bob", "abschließen", "das Fahrrad");
+        clause.addModifier("schnell");
+        return clause;
+    }
+
+    @Test
+    public void configuredRealiserTest() {
+        String expected = new Realiser(lexicon).realiseSentence(createSentence());
+        RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+        Assertions.assertEquals(expected, new Realiser(config).realiseSentence(createSentence()));
+        Assertions.assertEquals(expected,
+                new Realiser(config.withPreserveInput(true)).realiseSentence(createSentence()));
+    }
+
+    @Test
+    public void immutableConfigTest() {
+        RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+        RealiserConfig changed = config.withDebugMode(true).withCommaSepPremodifiers(true).withFormatter(null);
+
+        Assertions.assertNotSame(config, changed);
+        Assertions.assertFalse(config.isDebugMode());
+        Assertions.assertFalse(config.isCommaSepPremodifiers());
+        Assertions.assertNotNull(config.getFormatter());
+        Assertions.assertTrue(changed.isDebugMode());
+        Assertions.assertTrue(changed.isCommaSepPremodifiers());
+        Assertions.assertNull(changed.getFormatter());
+        Assertions.assertSame(lexicon, changed.getLexicon());
+        Assertions.assertNull(RealiserConfig.DEFAULT.getLexicon());
+    }
+
+    @Test
+    public void sharedStagesAreNotChangedTest() {
+        RealiserConfig config = RealiserConfig.DEFAULT.withLexicon(lexicon);
+        Realiser first = new Realiser(config);
+        Realiser second = new Realiser(config);
+        String expected = second.realiseSentence(createSentence());
+
+        // the first realiser gets stages of its own
+        first.setLexicon(null);
+        Assertions.assertEquals(expected, second.realiseSentence(createSentence()));
+        Assertions.assertEquals(expected, new Realiser(config).realiseSentence(createSentence()));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.*;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.realiser.RealiserConfig;
+import simplenlgde.replay.LogReader;
+import simplenlgde.replay.LogRecorder;
+import simplenlgde.replay.RecordedRealisation;
+import simplenlgde.replay.ReplayReport;
+import simplenlgde.replay.Replayer;
+import simplenlgde.serialisation.JsonSpecReader;
+import simplenlgde.serialisation.JsonSpecWriter;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+public class RecordReplayTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    @Test
+    public void roundTripTest() {
+        JsonSpecWriter writer = new JsonSpecWriter(lexicon);
+        JsonSpecReader reader = new JsonSpecReader(lexicon);
+        WorkloadGenerator generator = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 5);
+        Realiser realiser = new Realiser(lexicon);
+        for (int i = 0; i < 200; i++) {
+            SPhraseSpec sentence = generator.generate(i);
+            String json = writer.toJson(sentence);
+            NLGElement restored = reader.read(json);
+            Assertions.assertEquals(sentence, restored);
+            Assertions.assertEquals(json, writer.toJson(restored));
+            Assertions.assertSame(restored, restored.getFeatureAsElement(InternalFeature.VERB_PHRASE).getParent());
+            Assertions.assertEquals(realiser.realiseSentence(generator.generate(i)),
+                    realiser.realiseSentence(restored));
+        }
+    }
+
+    @Test
+    public void valuesTest() {
+        JsonSpecWriter writer = new JsonSpecWriter(lexicon);
+        JsonSpecReader reader = new JsonSpecReader(lexicon);
+
+        NPPhraseSpec noun = nlgFactory.createNounPhrase("der", "Hund");
+        noun.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        ListElement list = new ListElement();
+        list.addComponent(noun);
+        list.addComponent(new StringElement("und \"so\"\nweiter"));
+        list.setFeature("shared", noun);
+        list.setFeature("long", 1L << 40);
+        list.setFeature("double", 0.5);
+        list.setFeature("nothing", null);
+
+        String json = writer.toJson(list);
+        Assertions.assertTrue(json.contains("\"head\":{\"word\":"), json);
+        NLGElement restored = reader.read(json);
+        Assertions.assertEquals(list, restored);
+        List<NLGElement> components = restored.getFeatureAsElementList(InternalFeature.COMPONENTS);
+        Assertions.assertSame(components.get(0), restored.getFeature("shared"));
+        Assertions.assertEquals("und \"so\"\nweiter", components.get(1).getRealisation());
+
+        list.setFeature("unsupported", new Object());
+        try {
+            writer.toJson(list);
+            Assertions.fail("unsupported value");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            reader.read("{\"type\":\"NoSuchElement\",\"features\":{}}");
+            Assertions.fail("unknown type");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static String record(int sentences, int interval) throws IOException {
+        StringWriter log = new StringWriter();
+        LogRecorder recorder = new LogRecorder(log, interval);
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setRecorder(recorder);
+        for (SPhraseSpec sentence : new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 9).sentences(sentences)) {
+            realiser.realiseSentence(sentence);
+        }
+        realiser.realise(nlgFactory.createClause("Klaus", "verlieren", "das Spiel"));
+        recorder.close();
+        Assertions.assertEquals((sentences + interval) / interval, recorder.getRecorded());
+        return log.toString();
+    }
+
+    @Test
+    public void recordReplayTest() throws Exception {
+        String log = record(100, 1);
+        List<RecordedRealisation> records = new ArrayList<RecordedRealisation>();
+        LogReader reader = new LogReader(new StringReader(log));
+        while (reader.hasNext()) {
+            records.add(reader.next());
+        }
+        Assertions.assertEquals(101, records.size());
+        Assertions.assertTrue(records.get(0).isSentence());
+        Assertions.assertFalse(records.get(100).isSentence());
+        Assertions.assertEquals("Klaus verliert das Spiel", records.get(100).getRealisation());
+
+        Replayer replayer = new Replayer(RealiserConfig.DEFAULT.withLexicon(lexicon));
+        for (int threads : new int[]{1, 4}) {
+            ReplayReport report = replayer.replay(new LogReader(new StringReader(log)), threads);
+            Assertions.assertEquals(101, report.getRealisations(), report.toString());
+            Assertions.assertEquals(0, report.getDifferences(), report.toString());
+            Assertions.assertEquals(101, report.getLatency().getCount());
+            Assertions.assertTrue(report.getThroughput() > 0);
+        }
+
+        // a changed result is reported as a difference
+        String changed = log.replace("\"realisation\":\"Klaus verliert das Spiel\"",
+                "\"realisation\":\"Klaus gewinnt das Spiel\"");
+        ReplayReport report = replayer.replay(new LogReader(new StringReader(changed)), 2);
+        Assertions.assertEquals(1, report.getDifferences());
+        Assertions.assertEquals(100, report.getExamples().get(0).getIndex());
+        Assertions.assertEquals("Klaus verliert das Spiel", report.getExamples().get(0).getActual());
+    }
+
+    @Test
+    public void intervalTest() throws IOException {
+        String log = record(99, 10);
+        int lines = log.split("\n").length;
+        // the header and every tenth realisation
+        Assertions.assertEquals(11, lines);
+    }
+}
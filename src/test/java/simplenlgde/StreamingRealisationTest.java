@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.format.german.HTMLFormatter;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.realiser.Realiser;
+
+public class StreamingRealisationTest {
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static DocumentElement createDocument() {
+        DocumentElement document = nlgFactory.createDocument("Wetterbericht");
+
+        DocumentElement section = nlgFactory.createSection("Heute");
+        DocumentElement paragraph = nlgFactory.createParagraph();
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("die Sonne", "scheinen")));
+        paragraph.addComponent(nlgFactory.createSentence(nlgFactory.createClause("der Wind", "wehen")));
+        section.addComponent(paragraph);
+        document.addComponent(section);
+
+        DocumentElement list = nlgFactory.createList();
+        list.addComponent(nlgFactory.createListItem(nlgFactory.createClause("Bob", "laufen")));
+        list.addComponent(nlgFactory.createListItem(nlgFactory.createClause("der Hund", "bellen")));
+        DocumentElement morning = nlgFactory.createSection("Morgen");
+        morning.addComponent(list);
+        document.addComponent(morning);
+        return document;
+    }
+
+    private static Realiser createRealiser() {
+        Realiser realiser = new Realiser(lexicon);
+        realiser.setFormatter(new HTMLFormatter());
+        return realiser;
+    }
+
+    @Test
+    public void writerTest() throws Exception {
+        String expected = createRealiser().realise(createDocument()).getRealisation();
+        StringWriter writer = new StringWriter();
+        createRealiser().realise(createDocument(), writer);
+        Assertions.assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void outputStreamTest() throws Exception {
+        String expected = createRealiser().realise(createDocument()).getRealisation();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        createRealiser().realise(createDocument(), output);
+        Assertions.assertEquals(expected, new String(output.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void preserveInputTest() throws Exception {
+        DocumentElement document = createDocument();
+        String before = document.printTree(null);
+        Realiser realiser = createRealiser();
+        realiser.setPreserveInput(true);
+        StringBuilder first = new StringBuilder();
+        realiser.realise(document, first);
+        StringBuilder second = new StringBuilder();
+        realiser.realise(document, second);
+        Assertions.assertEquals(before, document.printTree(null));
+        Assertions.assertEquals(first.toString(), second.toString());
+    }
+}
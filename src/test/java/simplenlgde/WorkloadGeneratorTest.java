@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.features.*;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.phrasespec.*;
+import simplenlgde.realiser.Realiser;
+import simplenlgde.workload.Distribution;
+import simplenlgde.workload.WorkloadGenerator;
+import simplenlgde.workload.WorkloadProfile;
+
+public class WorkloadGeneratorTest {
+    private static Lexicon lexicon;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    @Test
+    public void deterministicTest() {
+        WorkloadGenerator first = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 42);
+        WorkloadGenerator second = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 42);
+        WorkloadGenerator other = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 43);
+        Realiser realiser = new Realiser(lexicon);
+
+        int different = 0;
+        Iterator<SPhraseSpec> sentences = first.sentences(100).iterator();
+        for (int i = 0; i < 100; i++) {
+            SPhraseSpec sentence = sentences.next();
+            Assertions.assertEquals(sentence, second.generate(i));
+            if (!sentence.equals(other.generate(i))) {
+                different++;
+            }
+            Assertions.assertEquals(realiser.realiseSentence(first.generate(i)),
+                    realiser.realiseSentence(second.generate(i)));
+        }
+        Assertions.assertFalse(sentences.hasNext());
+        Assertions.assertTrue(different > 50);
+    }
+
+    @Test
+    public void profileTest() {
+        WorkloadProfile profile = WorkloadProfile.DEFAULT
+                .withTransitive(1)
+                .withPassive(1)
+                .withNegated(0)
+                .withTenses(Distribution.of(Tense.PAST))
+                .withModals(Distribution.of("können"))
+                .withInterrogatives(Distribution.of(InterrogativeType.YES_NO))
+                .withSubordinateClauses(Distribution.of(1), Distribution.of("weil"))
+                .withCoordinationWidths(Distribution.of(3))
+                .withModifierDepths(Distribution.of(2));
+        WorkloadGenerator generator = new WorkloadGenerator(lexicon, profile, 7);
+        for (SPhraseSpec sentence : generator.sentences(20)) {
+            Assertions.assertEquals(InterrogativeType.YES_NO, sentence.getFeature(Feature.INTERROGATIVE_TYPE));
+            Assertions.assertTrue(sentence.getFeatureAsBoolean(Feature.PASSIVE));
+            Assertions.assertFalse(sentence.getFeatureAsBoolean(Feature.NEGATED));
+            Assertions.assertEquals(Tense.PAST, sentence.getFeature(Feature.TENSE));
+            Assertions.assertEquals("können", sentence.getFeatureAsString(Feature.MODAL));
+
+            NLGElement subject = sentence.getSubject();
+            Assertions.assertTrue(subject instanceof CoordinatedPhraseElement);
+            Assertions.assertEquals(3, ((CoordinatedPhraseElement) subject).getChildren().size());
+            NPPhraseSpec noun = (NPPhraseSpec) ((CoordinatedPhraseElement) subject).getChildren().get(0);
+            Assertions.assertEquals(1, noun.getFeatureAsElementList(InternalFeature.MODIFIERS).size());
+            Assertions.assertEquals(1, noun.getPostModifiers().size());
+            Assertions.assertNotNull(sentence.getObject());
+        }
+    }
+
+    @Test
+    public void realiseTest() {
+        Realiser realiser = new Realiser(lexicon);
+        for (SPhraseSpec sentence : new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 1).sentences(200)) {
+            Assertions.assertFalse(realiser.realiseSentence(sentence).isEmpty());
+        }
+    }
+
+    @Test
+    public void lazyTest() {
+        Iterator<SPhraseSpec> sentences = new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT, 1)
+                .sentences(Long.MAX_VALUE).iterator();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(sentences.hasNext());
+            Assertions.assertNotNull(sentences.next());
+        }
+    }
+
+    @Test
+    public void distributionTest() {
+        Distribution<String> modals = Distribution.of((String) null, 3).with("können", 1);
+        Assertions.assertEquals(0.75, modals.getProbability(null), 0.0001);
+        Assertions.assertEquals(0.25, modals.getProbability("können"), 0.0001);
+
+        Random random = new Random(1);
+        int none = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (modals.sample(random) == null) {
+                none++;
+            }
+        }
+        Assertions.assertTrue(none > 7000 && none < 8000);
+
+        try {
+            modals.with("müssen", 0);
+            Assertions.fail("zero weight");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new WorkloadGenerator(lexicon, WorkloadProfile.DEFAULT.withNouns("Xyzzyplatz"), 1);
+            Assertions.fail("no noun in the lexicon");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
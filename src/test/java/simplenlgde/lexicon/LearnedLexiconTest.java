@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.features.*;
+
+public class LearnedLexiconTest {
+    private static Lexicon lexicon;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    @Test
+    public void unknownWordIsLearnedTest() {
+        int learned = lexicon.getLearnedWords().size();
+        WordElement first = lexicon.lookupWord("Datenstrukturierung", LexicalCategory.NOUN);
+        WordElement second = lexicon.lookupWord("Datenstrukturierung", LexicalCategory.NOUN);
+        Assertions.assertEquals(learned + 1, lexicon.getLearnedWords().size());
+        Assertions.assertEquals(Gender.FEMININE, second.getFeature(LexicalFeature.GENDER));
+
+        // every lookup returns its own copy
+        Assertions.assertNotSame(first, second);
+        first.setFeature(LexicalFeature.GENDER, Gender.NEUTER);
+        Assertions.assertEquals(Gender.FEMININE,
+                lexicon.lookupWord("Datenstrukturierung", LexicalCategory.NOUN).getFeature(LexicalFeature.GENDER));
+    }
+
+    @Test
+    public void knownWordIsNotLearnedTest() {
+        int learned = lexicon.getLearnedWords().size();
+        lexicon.lookupWord("Hund", LexicalCategory.NOUN);
+        Assertions.assertEquals(learned, lexicon.getLearnedWords().size());
+    }
+
+    @Test
+    public void capacityTest() {
+        LearnedLexicon learned = new LearnedLexicon(2);
+        learned.learn(new WordElement("Alpha", LexicalCategory.NOUN), LexicalCategory.NOUN);
+        learned.learn(new WordElement("Beta", LexicalCategory.NOUN), LexicalCategory.NOUN);
+        learned.learn(new WordElement("Gamma", LexicalCategory.NOUN), LexicalCategory.NOUN);
+        Assertions.assertEquals(2, learned.size());
+        Assertions.assertNull(learned.lookup("Alpha", LexicalCategory.NOUN));
+        Assertions.assertNotNull(learned.lookup("Gamma", LexicalCategory.NOUN));
+    }
+
+    @Test
+    public void inferGenderTest() {
+        Assertions.assertEquals(Gender.FEMININE, LearnedLexicon.inferGender("Freundschaft"));
+        Assertions.assertEquals(Gender.NEUTER, LearnedLexicon.inferGender("Häuschen"));
+        Assertions.assertEquals(Gender.MASCULINE, LearnedLexicon.inferGender("Lehrling"));
+        Assertions.assertNull(LearnedLexicon.inferGender("Tisch"));
+    }
+
+    @Test
+    public void inferGenderOfUngTest() {
+        Assertions.assertEquals(Gender.FEMININE, LearnedLexicon.inferGender("Zeitung"));
+        Assertions.assertEquals(Gender.FEMININE, LearnedLexicon.inferGender("Bildung"));
+        Assertions.assertEquals(Gender.MASCULINE, LearnedLexicon.inferGender("Sprung"));
+        Assertions.assertEquals(Gender.MASCULINE, LearnedLexicon.inferGender("Ursprung"));
+        Assertions.assertEquals(Gender.MASCULINE, LearnedLexicon.inferGender("Aufschwung"));
+        // a stem without a vowel is not a suffix
+        Assertions.assertNull(LearnedLexicon.inferGender("Dung"));
+    }
+
+    @Test
+    public void concurrentCapacityTest() throws InterruptedException {
+        final LearnedLexicon learned = new LearnedLexicon(50);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 2000; i++) {
+                        learned.learn(new WordElement("Wort" + thread + "x" + i, LexicalCategory.NOUN),
+                                LexicalCategory.NOUN);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(50, learned.size());
+        learned.clear();
+        Assertions.assertEquals(0, learned.size());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+
+public class LexiconStatisticsTest {
+    private static Lexicon lexicon;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    @Test
+    public void pathsTest() {
+        LexiconStatistics statistics = new LexiconStatistics();
+        lexicon.setStatistics(statistics);
+        try {
+            lexicon.lookupWord("Quastenflosser", LexicalCategory.NOUN);
+            lexicon.lookupWord("Quastenflosser", LexicalCategory.NOUN);
+        } finally {
+            lexicon.setStatistics(null);
+        }
+        Assertions.assertEquals(2, statistics.getLookups());
+        Assertions.assertEquals(1, statistics.getPathCount(LexiconStatistics.CREATED));
+        Assertions.assertEquals(1, statistics.getPathCount(LexiconStatistics.LEARNED));
+        Assertions.assertEquals(1.0, statistics.getMissRate(), 0.0001);
+        Assertions.assertEquals(Long.valueOf(2), statistics.getTopMissedWords().get("Quastenflosser"));
+        Assertions.assertTrue(statistics.getMaxLookupNanos() > 0);
+
+        statistics.reset();
+        Assertions.assertEquals(0, statistics.getLookups());
+        Assertions.assertTrue(statistics.getTopMissedWords().isEmpty());
+    }
+
+    @Test
+    public void spaceSavingTest() {
+        LexiconStatistics statistics = new LexiconStatistics(2);
+        for(int i = 0; i < 3; i++) {
+            statistics.recordLookup(LexiconStatistics.CREATED, "Alpha", 1);
+        }
+        statistics.recordLookup(LexiconStatistics.CREATED, "Beta", 1);
+        statistics.recordLookup(LexiconStatistics.CREATED, "Gamma", 1);
+        statistics.recordLookup(LexiconStatistics.BASE, "Delta", 1);
+
+        Map<String, Long> top = statistics.getTopMissedWords();
+        Assertions.assertEquals(2, top.size());
+        Iterator<Map.Entry<String, Long>> entries = top.entrySet().iterator();
+        Map.Entry<String, Long> first = entries.next();
+        Assertions.assertEquals("Alpha", first.getKey());
+        Assertions.assertEquals(Long.valueOf(3), first.getValue());
+        Map.Entry<String, Long> second = entries.next();
+        Assertions.assertEquals("Gamma", second.getKey());
+        Assertions.assertEquals(Long.valueOf(2), second.getValue());
+    }
+
+    @Test
+    public void multipleLexiconTest() {
+        MultipleLexicon multiple = new MultipleLexicon(lexicon, lexicon);
+        LexiconStatistics statistics = new LexiconStatistics();
+        multiple.setStatistics(statistics);
+        multiple.lookupWord("Schnabeltierbau", LexicalCategory.NOUN);
+
+        Map<String, Long> searches = statistics.getSearchCounts();
+        Assertions.assertEquals(2, searches.size());
+        Assertions.assertTrue(searches.get("0:XMLLexicon") > 0);
+        Assertions.assertEquals(searches.get("0:XMLLexicon"), searches.get("1:XMLLexicon"));
+        Assertions.assertEquals(Long.valueOf(0), statistics.getSearchHits().get("0:XMLLexicon"));
+        Assertions.assertEquals(1, statistics.getPathCount(LexiconStatistics.CREATED));
+    }
+}
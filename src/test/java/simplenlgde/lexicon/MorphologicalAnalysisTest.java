@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.features.*;
+
+public class MorphologicalAnalysisTest {
+    private static Lexicon lexicon;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    private static MorphologicalAnalysis find(List<MorphologicalAnalysis> analyses, Tense tense, Person person,
+                                              NumberAgreement number) {
+        for (MorphologicalAnalysis analysis : analyses) {
+            if (analysis.getTense() == tense && analysis.getPerson() == person && analysis.getNumber() == number) {
+                return analysis;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void verbAnalysisTest() {
+        List<MorphologicalAnalysis> analyses = lexicon.analyse("läuft", LexicalCategory.VERB);
+        MorphologicalAnalysis analysis = find(analyses, Tense.PRESENT, Person.THIRD, NumberAgreement.SINGULAR);
+
+        Assertions.assertEquals(true, analysis != null);
+        Assertions.assertEquals("laufen", analysis.getLemma());
+        Assertions.assertEquals(LexicalCategory.VERB, analysis.getCategory());
+        Assertions.assertEquals(Person.THIRD, analysis.getFeatures().get(Feature.PERSON));
+        Assertions.assertEquals(false, analysis.isBaseForm());
+    }
+
+    @Test
+    public void baseFormAnalysisTest() {
+        boolean found = false;
+        for (MorphologicalAnalysis analysis : lexicon.analyse("laufen")) {
+            if (analysis.isBaseForm()) {
+                found = true;
+                Assertions.assertEquals("laufen", analysis.getLemma());
+                Assertions.assertEquals(true, analysis.getFeatures().isEmpty());
+            }
+        }
+        Assertions.assertEquals(true, found);
+    }
+
+    @Test
+    public void analysisMatchesVariantLookupTest() {
+        String[] variants = {"läuft", "Hunde", "guten", "xyzabc"};
+
+        for (String variant : variants) {
+            List<WordElement> words = lexicon.getWordsFromVariant(variant);
+            List<MorphologicalAnalysis> analyses = lexicon.analyse(variant);
+
+            Assertions.assertEquals(words.isEmpty(), analyses.isEmpty());
+            for (MorphologicalAnalysis analysis : analyses) {
+                Assertions.assertEquals(true, words.contains(analysis.getWord()));
+            }
+        }
+    }
+}
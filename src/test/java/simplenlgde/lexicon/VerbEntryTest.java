@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.lexicon;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.features.*;
+
+public class VerbEntryTest {
+    private static Lexicon lexicon;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+    }
+
+    @Test
+    public void separableVerbTest() {
+        VerbEntry entry = lexicon.lookupWord("abschließen", LexicalCategory.VERB).getVerbEntry();
+        Assertions.assertEquals("abschließ", entry.getStem());
+        Assertions.assertTrue(entry.isSeparable());
+        Assertions.assertTrue(entry.hasFirstPersonParticle());
+        Assertions.assertTrue(entry.hasSDeletion());
+        Assertions.assertEquals("ab", entry.getParticle());
+        Assertions.assertEquals("schloss", entry.getPreteriteStem());
+        Assertions.assertEquals("ab", entry.getPreteriteParticle());
+    }
+
+    @Test
+    public void regularVerbTest() {
+        VerbEntry entry = VerbEntry.parse(new WordElement("atmen", LexicalCategory.VERB), "atmen");
+        Assertions.assertEquals("atm", entry.getStem());
+        Assertions.assertTrue(entry.hasEExtension());
+        Assertions.assertFalse(entry.isSeparable());
+        Assertions.assertFalse(entry.isModal());
+        Assertions.assertNull(entry.getParticle());
+        Assertions.assertNull(entry.getPreteriteStem());
+        Assertions.assertTrue(VerbEntry.parse(new WordElement("können"), "können").isModal());
+    }
+
+    @Test
+    public void cachedEntryTest() {
+        WordElement word = new WordElement(lexicon.lookupWord("abschließen", LexicalCategory.VERB));
+        VerbEntry entry = word.getVerbEntry();
+        Assertions.assertSame(entry, word.getVerbEntry());
+
+        word.setFeature("preterite", "schloß ab");
+        Assertions.assertNotSame(entry, word.getVerbEntry());
+        Assertions.assertEquals("schloß", word.getVerbEntry().getPreteriteStem());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.morphology;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.framework.*;
+import simplenlgde.features.*;
+import simplenlgde.lexicon.Lexicon;
+
+public class InflectTest {
+    private static Lexicon lexicon;
+    private static MorphologyProcessor morphology;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        morphology = new MorphologyProcessor();
+        morphology.setLexicon(lexicon);
+    }
+
+    private static InflectedWordElement word(String baseForm, LexicalCategory category) {
+        InflectedWordElement word = new InflectedWordElement(lexicon.lookupWord(baseForm, category));
+        word.setFeature(InternalFeature.CASE, DiscourseFunction.SUBJECT);
+        return word;
+    }
+
+    @Test
+    public void inflectMatchesRealiseTest() {
+        InflectedWordElement noun = word("Hund", LexicalCategory.NOUN);
+        noun.setFeature(Feature.NUMBER, NumberAgreement.PLURAL);
+        InflectedWordElement verb = word("laufen", LexicalCategory.VERB);
+        verb.setFeature(Feature.PERSON, Person.THIRD);
+        verb.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+        InflectedWordElement article = word("der", LexicalCategory.ARTICLE_DEFINITE);
+        article.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+
+        for (InflectedWordElement word : new InflectedWordElement[]{noun, verb, article}) {
+            StringBuilder buffer = new StringBuilder();
+            morphology.inflect(word, buffer);
+            Assertions.assertEquals(morphology.realise(word).getRealisation(), buffer.toString());
+        }
+    }
+
+    @Test
+    public void inflectIntoSharedBufferTest() throws IOException {
+        InflectedWordElement article = word("der", LexicalCategory.ARTICLE_DEFINITE);
+        article.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+        article.setFeature(LexicalFeature.GENDER, Gender.MASCULINE);
+        InflectedWordElement noun = word("Hund", LexicalCategory.NOUN);
+        InflectedWordElement verb = word("laufen", LexicalCategory.VERB);
+        verb.setFeature(Feature.PERSON, Person.THIRD);
+        verb.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+
+        StringWriter out = new StringWriter();
+        Assertions.assertEquals(InflectionStatus.INFLECTED, morphology.inflect(article, out));
+        out.append(' ');
+        Assertions.assertEquals(InflectionStatus.INFLECTED, morphology.inflect(noun, out));
+        out.append(' ');
+        Assertions.assertEquals(InflectionStatus.INFLECTED, morphology.inflect(verb, out));
+        Assertions.assertEquals("der Hund läuft", out.toString());
+    }
+
+    @Test
+    public void inflectStatusTest() {
+        InflectedWordElement nonMorph = new InflectedWordElement("BMW", LexicalCategory.NOUN);
+        nonMorph.setFeature(InternalFeature.NON_MORPH, true);
+        StringBuilder buffer = new StringBuilder();
+        Assertions.assertEquals(InflectionStatus.VERBATIM, morphology.inflect(nonMorph, buffer));
+        Assertions.assertEquals("BMW", buffer.toString());
+
+        InflectedWordElement separable = word("abarbeiten", LexicalCategory.VERB);
+        separable.setFeature(Feature.PERSON, Person.THIRD);
+        separable.setFeature(Feature.NUMBER, NumberAgreement.SINGULAR);
+        buffer.setLength(0);
+        Assertions.assertEquals(InflectionStatus.SEPARABLE, morphology.inflect(separable, buffer));
+        Assertions.assertEquals("arbeitet ab", buffer.toString());
+    }
+}
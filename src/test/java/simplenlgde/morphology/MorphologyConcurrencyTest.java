@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the Mozilla Public License
+ * Version 1.1 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://www.mozilla.org/MPL/
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ */
+
+package simplenlgde.morphology;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import simplenlgde.ConcurrencyFixture;
+import simplenlgde.framework.*;
+import simplenlgde.lexicon.Lexicon;
+import simplenlgde.orthograpgy.OrthographyProcessor;
+import simplenlgde.syntax.SyntaxProcessor;
+
+public class MorphologyConcurrencyTest {
+    private static final int ROUNDS = 200;
+
+    private static Lexicon lexicon;
+    private static NLGFactory nlgFactory;
+
+    @BeforeAll
+    public static void setup() {
+        lexicon = Lexicon.getDefaultLexicon();
+        nlgFactory = new NLGFactory(lexicon);
+    }
+
+    private static List<NLGElement> createSentences() {
+        // the syntax processor changes its input, so every sentence is realised once
+        SyntaxProcessor syntax = new SyntaxProcessor();
+        syntax.setLexicon(lexicon);
+        List<NLGElement> postSyntax = new ArrayList<NLGElement>();
+        for (NLGElement sentence : ConcurrencyFixture.createSentences(nlgFactory)) {
+            DocumentElement document = nlgFactory.createSentence(sentence);
+            postSyntax.add(syntax.realise(document));
+        }
+        return postSyntax;
+    }
+
+    private static String realise(MorphologyProcessor morphology, NLGElement postSyntax) {
+        OrthographyProcessor orthography = new OrthographyProcessor();
+        orthography.setLexicon(lexicon);
+        return orthography.realise(morphology.realise(postSyntax)).getRealisation();
+    }
+
+    @Test
+    public void inputIsNotModifiedTest() {
+        MorphologyProcessor morphology = new MorphologyProcessor();
+        morphology.setLexicon(lexicon);
+        for (NLGElement postSyntax : createSentences()) {
+            String before = postSyntax.printTree(null);
+            String first = realise(morphology, postSyntax);
+            Assertions.assertEquals(before, postSyntax.printTree(null));
+            Assertions.assertEquals(first, realise(morphology, postSyntax));
+        }
+    }
+
+    @Test
+    public void sharedProcessorTest() throws Exception {
+        final MorphologyProcessor morphology = new MorphologyProcessor();
+        morphology.setLexicon(lexicon);
+        final List<NLGElement> sentences = createSentences();
+        final List<String> expected = new ArrayList<String>();
+        for (NLGElement sentence : sentences) {
+            expected.add(realise(morphology, sentence));
+        }
+
+        int mismatches = ConcurrencyFixture.countFailures(ROUNDS, new ConcurrencyFixture.Check() {
+            @Override
+            public boolean run(int thread, int round) {
+                int index = (round + thread) % sentences.size();
+                return expected.get(index).equals(realise(morphology, sentences.get(index)));
+            }
+        });
+        Assertions.assertEquals(0, mismatches);
+    }
+}